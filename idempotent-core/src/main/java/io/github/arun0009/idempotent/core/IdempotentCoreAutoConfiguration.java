@@ -1,28 +1,78 @@
 package io.github.arun0009.idempotent.core;
 
 import io.github.arun0009.idempotent.core.aspect.IdempotentAspect;
+import io.github.arun0009.idempotent.core.key.KeyHasher;
 import io.github.arun0009.idempotent.core.metrics.IdempotentMetrics;
+import io.github.arun0009.idempotent.core.persistence.AsyncIdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.BatchingIdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.BatchingProperties;
+import io.github.arun0009.idempotent.core.persistence.CachingIdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.ExecutorAsyncIdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.IdempotentAsyncProperties;
+import io.github.arun0009.idempotent.core.persistence.IdempotentNearCacheProperties;
 import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.InMemoryIdempotentProperties;
 import io.github.arun0009.idempotent.core.persistence.InMemoryIdempotentStore;
-import io.github.arun0009.idempotent.core.retry.WaitStrategy;
+import io.github.arun0009.idempotent.core.persistence.OffHeapIdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.ProcessNameMappingStore;
+import io.github.arun0009.idempotent.core.persistence.ProcessNameProperties;
+import io.github.arun0009.idempotent.core.persistence.ProcessNameRegistry;
+import io.github.arun0009.idempotent.core.retry.CompletionNotifier;
+import io.github.arun0009.idempotent.core.retry.LocalCompletionNotifier;
+import io.github.arun0009.idempotent.core.retry.StatusPoller;
+import io.github.arun0009.idempotent.core.retry.StatusPollerProperties;
+import io.github.arun0009.idempotent.core.serialization.IdempotentPayloadCodec;
+import io.github.arun0009.idempotent.core.serialization.JdkIdempotentPayloadCodec;
+import io.github.arun0009.idempotent.core.service.CompletionWriteProperties;
+import io.github.arun0009.idempotent.core.service.CompletionWriter;
+import io.github.arun0009.idempotent.core.service.IdempotentLeaseProperties;
 import io.github.arun0009.idempotent.core.service.IdempotentService;
+import io.github.arun0009.idempotent.core.service.InProgressLease;
+import io.github.arun0009.idempotent.core.service.ReactiveIdempotentService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureOrder;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
+import org.springframework.web.filter.reactive.ServerWebExchangeContextFilter;
 
 @AutoConfiguration
 @AutoConfigureOrder(Ordered.LOWEST_PRECEDENCE)
-@EnableConfigurationProperties(IdempotentProperties.class)
+@EnableConfigurationProperties({
+    IdempotentProperties.class,
+    IdempotentNearCacheProperties.class,
+    InMemoryIdempotentProperties.class,
+    IdempotentAsyncProperties.class,
+    ProcessNameProperties.class,
+    IdempotentLeaseProperties.class,
+    StatusPollerProperties.class,
+    BatchingProperties.class,
+    CompletionWriteProperties.class
+})
 class IdempotentCoreAutoConfiguration {
 
+    /**
+     * Bounded and swept per {@code idempotent.inmemory.*}; Spring calls {@code close()} on shutdown.
+     * With {@code idempotent.inmemory.off-heap.enabled} entries are kept outside the heap, encoded
+     * with the payload codec (JDK serialization when none is registered).
+     */
     @Bean
     @ConditionalOnMissingBean(IdempotentStore.class)
-    IdempotentStore idempotentStore() {
-        return new InMemoryIdempotentStore();
+    IdempotentStore idempotentStore(
+            InMemoryIdempotentProperties properties, ObjectProvider<IdempotentPayloadCodec> payloadCodec) {
+        var offHeap = properties.offHeap();
+        if (offHeap.enabled()) {
+            return new OffHeapIdempotentStore(
+                    payloadCodec.getIfAvailable(JdkIdempotentPayloadCodec::new),
+                    offHeap.maxEntries(),
+                    offHeap.maxBytes().toBytes());
+        }
+        return new InMemoryIdempotentStore(properties.maxEntries(), properties.sweepInterval());
     }
 
     @Bean
@@ -31,14 +81,100 @@ class IdempotentCoreAutoConfiguration {
         return IdempotentMetrics.NOOP;
     }
 
+    /**
+     * Wakes duplicates waiting on this instance as soon as the owning call finishes. Waiters whose
+     * owner runs on another instance keep polling; register a different {@link CompletionNotifier}
+     * bean to push completions across instances.
+     */
+    @Bean
+    @ConditionalOnMissingBean(CompletionNotifier.class)
+    CompletionNotifier idempotentCompletionNotifier() {
+        return new LocalCompletionNotifier();
+    }
+
+    /**
+     * Async calls use the registered {@link AsyncIdempotentStore} bean if any; otherwise the
+     * (near-cached) store is adapted on {@code idempotent.async.executor-threads} threads. A
+     * {@link ProcessNameRegistry} bean, or {@code idempotent.process-names.compact}, rewrites process
+     * names for both. With {@code idempotent.lease.enabled} in-progress claims are leased and
+     * renewed instead of held for the full TTL, and with {@code idempotent.poller.enabled} waiters
+     * share one batched status read per tick. With {@code idempotent.read-batching.enabled}
+     * concurrent reads of the backend are combined into multi-gets. {@code
+     * idempotent.completion-write.mode} moves the completion write off the caller's thread. Spring
+     * calls {@link IdempotentService#close()} on shutdown, which stops those background threads.
+     */
     @Bean
     @ConditionalOnMissingBean(IdempotentService.class)
     IdempotentService idempotentService(
-            IdempotentStore idempotentStore, IdempotentProperties properties, IdempotentMetrics metrics) {
-        var inprogress = properties.inprogress();
-        var waitStrategy = new WaitStrategy(
-                inprogress.maxRetries(), inprogress.retryInitialInterval(), inprogress.retryMultiplier());
-        return new IdempotentService(idempotentStore, waitStrategy, metrics);
+            IdempotentStore idempotentStore,
+            IdempotentProperties properties,
+            IdempotentMetrics metrics,
+            CompletionNotifier completionNotifier,
+            IdempotentNearCacheProperties nearCache,
+            IdempotentAsyncProperties asyncProperties,
+            ObjectProvider<IdempotentPayloadCodec> payloadCodec,
+            ObjectProvider<AsyncIdempotentStore> asyncStore,
+            ProcessNameProperties processNames,
+            ObjectProvider<ProcessNameRegistry> processNameRegistry,
+            IdempotentLeaseProperties leaseProperties,
+            StatusPollerProperties pollerProperties,
+            BatchingProperties batching,
+            CompletionWriteProperties completionWrite) {
+        if (leaseProperties.enabled() && completionWrite.mode() != CompletionWriter.Mode.SYNC) {
+            throw new IllegalStateException(
+                    "idempotent.lease.enabled requires idempotent.completion-write.mode=sync: the lease stops "
+                            + "renewing before a background completion write lands");
+        }
+        var waitPolicy = properties.inprogress().waitPolicy();
+        ProcessNameRegistry registry = processNameRegistry.getIfAvailable();
+        if (registry == null && processNames.compact()) {
+            registry = ProcessNameRegistry.hashed();
+        }
+        // Batch directly over the backend, whose own loadValues decides whether batching pays off.
+        IdempotentStore backend = batching.enabled()
+                ? new BatchingIdempotentStore(idempotentStore, batching.window(), batching.maxKeys())
+                : idempotentStore;
+        backend = registry != null ? new ProcessNameMappingStore(backend, registry) : backend;
+        var store = withNearCache(backend, nearCache, payloadCodec);
+        AsyncIdempotentStore customAsyncStore = asyncStore.getIfAvailable();
+        AsyncIdempotentStore async = customAsyncStore == null
+                ? new ExecutorAsyncIdempotentStore(store, asyncProperties.executorThreads())
+                : registry != null ? ProcessNameMappingStore.async(customAsyncStore, registry) : customAsyncStore;
+        InProgressLease lease = leaseProperties.enabled()
+                ? new InProgressLease(store, leaseProperties.duration(), leaseProperties.renewInterval())
+                : null;
+        StatusPoller poller = pollerProperties.enabled() ? new StatusPoller(store, pollerProperties.tick()) : null;
+        var completionWriter = new CompletionWriter(
+                store,
+                completionNotifier,
+                metrics,
+                completionWrite.mode(),
+                completionWrite.queueCapacity(),
+                completionWrite.writerThreads(),
+                completionWrite.flushInterval(),
+                completionWrite.maxBatch());
+        return new IdempotentService(
+                store, waitPolicy, metrics, completionNotifier, async, lease, poller, completionWriter);
+    }
+
+    private static IdempotentStore withNearCache(
+            IdempotentStore idempotentStore,
+            IdempotentNearCacheProperties nearCache,
+            ObjectProvider<IdempotentPayloadCodec> payloadCodec) {
+        if (!nearCache.enabled()) {
+            return idempotentStore;
+        }
+        IdempotentPayloadCodec codec = payloadCodec.getIfAvailable();
+        if (codec == null) {
+            // Without a codec responses cannot be weighed, and max-bytes would be silently ignored
+            throw new IllegalStateException("idempotent.near-cache.enabled requires an IdempotentPayloadCodec bean "
+                    + "to enforce idempotent.near-cache.max-bytes");
+        }
+        return new CachingIdempotentStore(
+                idempotentStore,
+                nearCache.maxEntries(),
+                nearCache.maxBytes().toBytes(),
+                CachingIdempotentStore.codecWeigher(codec));
     }
 
     /**
@@ -50,7 +186,47 @@ class IdempotentCoreAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean(IdempotentAspect.class)
     @ConditionalOnClass(name = "org.springframework.aop.Advisor")
-    IdempotentAspect idempotentAspect(IdempotentService idempotentService, IdempotentProperties properties) {
-        return new IdempotentAspect(idempotentService, properties);
+    IdempotentAspect idempotentAspect(
+            IdempotentService idempotentService,
+            IdempotentProperties properties,
+            ObjectProvider<ReactiveIdempotentService> reactiveIdempotentService,
+            ObjectProvider<KeyHasher> keyHasher) {
+        return new IdempotentAspect(
+                idempotentService,
+                properties,
+                reactiveIdempotentService.getIfAvailable(),
+                keyHasher.getIfAvailable(properties::keyHasher));
+    }
+
+    /** Reactor entry point, also used by the aspect for {@code Mono} and {@code Flux} methods. */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "reactor.core.publisher.Mono")
+    static class ReactiveConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(ReactiveIdempotentService.class)
+        ReactiveIdempotentService reactiveIdempotentService(IdempotentService idempotentService) {
+            return new ReactiveIdempotentService(idempotentService);
+        }
+    }
+
+    /**
+     * Exposes the current exchange in the Reactor Context so the aspect can read the key header of
+     * WebFlux requests.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(
+            name = {
+                "reactor.core.publisher.Mono",
+                "org.springframework.web.filter.reactive.ServerWebExchangeContextFilter"
+            })
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class WebFluxConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(ServerWebExchangeContextFilter.class)
+        ServerWebExchangeContextFilter serverWebExchangeContextFilter() {
+            return new ServerWebExchangeContextFilter();
+        }
     }
 }
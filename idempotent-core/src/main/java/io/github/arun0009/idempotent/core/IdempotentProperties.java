@@ -1,10 +1,18 @@
 package io.github.arun0009.idempotent.core;
 
+import io.github.arun0009.idempotent.core.key.KeyHashAlgorithm;
+import io.github.arun0009.idempotent.core.key.KeyHasher;
+import io.github.arun0009.idempotent.core.retry.AdaptiveWaitStrategy;
+import io.github.arun0009.idempotent.core.retry.WaitPolicy;
+import io.github.arun0009.idempotent.core.retry.WaitStrategy;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
 import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.boot.context.properties.bind.Name;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Configuration properties for the idempotent library.
@@ -13,9 +21,13 @@ import java.time.Duration;
  * Example:
  * <pre>
  * idempotent.key.header=X-Idempotency-Key
+ * idempotent.key.hash.algorithm=sha256-hex
  * idempotent.inprogress.max.retries=5
  * idempotent.inprogress.retry.initial.interval=100ms
  * idempotent.inprogress.retry.multiplier=2
+ * idempotent.inprogress.strategy=adaptive
+ * idempotent.inprogress.max.wait=3s
+ * idempotent.inprogress.process.max.wait[orders]=10s
  * </pre>
  */
 @ConfigurationProperties(prefix = "idempotent")
@@ -23,11 +35,36 @@ public record IdempotentProperties(
         @Name("key.header") @DefaultValue("X-Idempotency-Key")
         String keyHeader,
 
-        @DefaultValue InProgress inprogress) {
+        @DefaultValue InProgress inprogress,
+
+        @Name("key.hash.algorithm") @DefaultValue("SHA256_HEX")
+        KeyHashAlgorithm keyHashAlgorithm) {
+
+    @ConstructorBinding
+    public IdempotentProperties {
+        if (keyHashAlgorithm == KeyHashAlgorithm.DEFAULT) {
+            throw new IllegalArgumentException("idempotent.key.hash.algorithm must name a concrete algorithm");
+        }
+    }
+
+    public IdempotentProperties(String keyHeader, InProgress inprogress) {
+        this(keyHeader, inprogress, KeyHashAlgorithm.SHA256_HEX);
+    }
+
+    /** Hasher for {@code @Idempotent(hashKey = true)} methods that do not choose their own. */
+    public KeyHasher keyHasher() {
+        return Objects.requireNonNull(keyHashAlgorithm.hasher());
+    }
 
     /**
      * Configuration for retry behavior when a duplicate request arrives
      * while the original request is still in progress.
+     * <p>
+     * The {@code FIXED} strategy polls {@code max.retries} times with exponential backoff. The
+     * {@code ADAPTIVE} strategy polls first around the {@code expected.percentile} of the
+     * process's observed durations, then with jittered delays between
+     * {@code retry.initial.interval} and {@code retry.max.interval}, until {@code max.wait} (or the
+     * process's entry in {@code process.max.wait}) has passed.
      */
     public record InProgress(
             @Name("max.retries") @DefaultValue("5") int maxRetries,
@@ -35,5 +72,70 @@ public record IdempotentProperties(
             @Name("retry.initial.interval") @DefaultValue("PT0.1S")
             Duration retryInitialInterval,
 
-            @Name("retry.multiplier") @DefaultValue("2") int retryMultiplier) {}
+            @Name("retry.multiplier") @DefaultValue("2") int retryMultiplier,
+
+            @DefaultValue("FIXED") Strategy strategy,
+
+            @Name("retry.max.interval") @DefaultValue("PT1S")
+            Duration retryMaxInterval,
+
+            @Name("max.wait") @DefaultValue("PT3S") Duration maxWait,
+
+            @Name("expected.percentile") @DefaultValue("0.5") double expectedPercentile,
+
+            @Name("process.max.wait") @DefaultValue Map<String, Duration> processMaxWait) {
+
+        @ConstructorBinding
+        public InProgress {
+            if (retryInitialInterval.isNegative() || retryInitialInterval.isZero()) {
+                throw new IllegalArgumentException("idempotent.inprogress.retry.initial.interval must be positive");
+            }
+            if (retryMaxInterval.compareTo(retryInitialInterval) < 0) {
+                throw new IllegalArgumentException(
+                        "idempotent.inprogress.retry.max.interval must not be shorter than retry.initial.interval");
+            }
+            if (maxWait.isNegative() || maxWait.isZero()) {
+                throw new IllegalArgumentException("idempotent.inprogress.max.wait must be positive");
+            }
+            if (!(expectedPercentile > 0 && expectedPercentile <= 1)) {
+                throw new IllegalArgumentException("idempotent.inprogress.expected.percentile must be in (0, 1]");
+            }
+            processMaxWait = Map.copyOf(processMaxWait);
+            processMaxWait.forEach((process, wait) -> {
+                if (wait.isNegative() || wait.isZero()) {
+                    throw new IllegalArgumentException(
+                            "idempotent.inprogress.process.max.wait[" + process + "] must be positive");
+                }
+            });
+        }
+
+        public InProgress(int maxRetries, Duration retryInitialInterval, int retryMultiplier) {
+            this(
+                    maxRetries,
+                    retryInitialInterval,
+                    retryMultiplier,
+                    Strategy.FIXED,
+                    Duration.ofSeconds(1),
+                    Duration.ofSeconds(3),
+                    0.5,
+                    Map.of());
+        }
+
+        /** The wait policy these settings describe. */
+        public WaitPolicy waitPolicy() {
+            return switch (strategy) {
+                case FIXED -> new WaitStrategy(maxRetries, retryInitialInterval, retryMultiplier);
+                case ADAPTIVE -> new AdaptiveWaitStrategy(
+                        retryInitialInterval, retryMaxInterval, maxWait, expectedPercentile, processMaxWait);
+            };
+        }
+
+        /** How a duplicate schedules its polls of an in-progress key. */
+        public enum Strategy {
+            /** {@code max.retries} polls with exponential backoff. */
+            FIXED,
+            /** Polls scheduled from observed durations, bounded by {@code max.wait}. */
+            ADAPTIVE
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package io.github.arun0009.idempotent.core.annotation;
 
+import io.github.arun0009.idempotent.core.key.KeyHashAlgorithm;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -33,4 +35,12 @@ public @interface Idempotent {
      * @return n/a
      */
     boolean hashKey() default false;
+
+    /**
+     * Hash applied when {@link #hashKey()} is set. {@code DEFAULT} uses the application-wide {@code
+     * KeyHasher} ({@code idempotent.key.hash.algorithm}, SHA-256 hex unless configured).
+     * Changing the algorithm changes the stored keys, so in-flight entries are not recognised.
+     * @return the hash algorithm
+     */
+    KeyHashAlgorithm hashAlgorithm() default KeyHashAlgorithm.DEFAULT;
 }
@@ -2,8 +2,12 @@ package io.github.arun0009.idempotent.core.aspect;
 
 import io.github.arun0009.idempotent.core.IdempotentProperties;
 import io.github.arun0009.idempotent.core.annotation.Idempotent;
+import io.github.arun0009.idempotent.core.key.KeyExtractor;
+import io.github.arun0009.idempotent.core.key.KeyExtractors;
+import io.github.arun0009.idempotent.core.key.KeyHasher;
 import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
 import io.github.arun0009.idempotent.core.service.IdempotentService;
+import io.github.arun0009.idempotent.core.service.ReactiveIdempotentService;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -12,18 +16,18 @@ import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.convert.DurationStyle;
+import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.lang.reflect.Method;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
-import java.util.HexFormat;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -31,50 +35,151 @@ import java.util.concurrent.ConcurrentHashMap;
  * AOP aspect that applies idempotency to methods annotated with {@link Idempotent}. Resolves the
  * key (header takes precedence over the SpEL-evaluated annotation key), the TTL, and the process
  * name from the join point, then delegates the state machine to {@link IdempotentService}.
+ *
+ * <p>Everything derived from the annotated method (the parsed key expression, TTL, process name
+ * and return type) is computed on its first invocation and cached per {@link Method}. Key
+ * expressions are evaluated against a read-only {@link SimpleEvaluationContext} with the method
+ * parameters bound as variables: property access, instance methods and operators work, type
+ * references ({@code T(...)}) do not. When {@code idempotent-processor} generated a {@link
+ * KeyExtractor} for the method, it is used instead of SpEL and {@code -parameters} is not needed.
+ * With {@code hashKey = true} the resolved key is replaced by its {@link KeyHasher} digest: the
+ * annotation's {@code hashAlgorithm}, or the default hasher when that is {@code DEFAULT}.
+ *
+ * <p>Methods returning a Reactor {@code Mono} or {@code Flux} go through {@link
+ * ReactiveIdempotentService} instead, so the emitted value rather than the publisher is cached and
+ * nothing blocks the subscribing thread. Their key is resolved on subscription; on WebFlux the
+ * header is read from the {@code ServerWebExchange} that {@code ServerWebExchangeContextFilter}
+ * puts into the Reactor Context (registered by the auto-configuration for reactive web apps).
  */
 @Aspect
 public class IdempotentAspect {
     private static final Logger log = LoggerFactory.getLogger(IdempotentAspect.class);
 
+    private static final boolean REACTOR_PRESENT =
+            ClassUtils.isPresent("reactor.core.publisher.Mono", IdempotentAspect.class.getClassLoader());
+
     private final IdempotentService idempotentService;
+    private final @Nullable ReactiveIdempotentService reactiveIdempotentService;
     private final ExpressionParser parser;
     private final String idempotentKeyHeader;
+    private final KeyHasher defaultKeyHasher;
     private final Set<Method> warnedEmptyKeyMethods;
+    private final ConcurrentHashMap<Method, MethodMetadata> metadataCache;
 
     public IdempotentAspect(IdempotentService idempotentService, IdempotentProperties properties) {
+        this(
+                idempotentService,
+                properties,
+                REACTOR_PRESENT ? new ReactiveIdempotentService(idempotentService) : null);
+    }
+
+    /**
+     * @param reactiveIdempotentService handles {@code Mono} and {@code Flux} return types; {@code
+     *                                  null} when Reactor is not on the classpath
+     */
+    public IdempotentAspect(
+            IdempotentService idempotentService,
+            IdempotentProperties properties,
+            @Nullable ReactiveIdempotentService reactiveIdempotentService) {
+        this(idempotentService, properties, reactiveIdempotentService, properties.keyHasher());
+    }
+
+    /**
+     * @param defaultKeyHasher hashes keys of {@code hashKey = true} methods that leave {@code
+     *                         hashAlgorithm} at {@code DEFAULT}
+     */
+    public IdempotentAspect(
+            IdempotentService idempotentService,
+            IdempotentProperties properties,
+            @Nullable ReactiveIdempotentService reactiveIdempotentService,
+            KeyHasher defaultKeyHasher) {
         this.idempotentService = idempotentService;
+        this.reactiveIdempotentService = reactiveIdempotentService;
         this.idempotentKeyHeader = properties.keyHeader();
-        this.parser = new SpelExpressionParser();
+        this.defaultKeyHasher = defaultKeyHasher;
+        // MIXED compiles an expression once it has run in interpreted mode, falling back to the
+        // interpreter whenever the argument types change.
+        this.parser = new SpelExpressionParser(
+                new SpelParserConfiguration(SpelCompilerMode.MIXED, IdempotentAspect.class.getClassLoader()));
+        this.metadataCache = new ConcurrentHashMap<>();
         this.warnedEmptyKeyMethods = ConcurrentHashMap.newKeySet();
     }
 
     @Around("@annotation(io.github.arun0009.idempotent.core.annotation.Idempotent)")
     public @Nullable Object around(ProceedingJoinPoint pjp) throws Throwable {
         var signature = (MethodSignature) pjp.getSignature();
-        var annotation = signature.getMethod().getAnnotation(Idempotent.class);
-
-        String key = resolveKey(pjp, signature, annotation);
-        if (key == null || key.isEmpty()) {
-            warnEmptyKeyOnce(signature.getMethod());
+        var metadata = metadataCache.computeIfAbsent(signature.getMethod(), method -> metadata(signature, method));
+
+        var reactive = reactiveIdempotentService;
+        if (reactive != null && metadata.reactive()) {
+            // The key is resolved on subscription: on WebFlux the header is only reachable through
+            // the exchange in the subscriber's Reactor Context.
+            String servletHeader = headerKey();
+            return ReactiveReturns.execute(
+                    reactive,
+                    pjp,
+                    metadata.returnType(),
+                    idempotentKeyHeader,
+                    exchangeHeader ->
+                            idempotentKey(pjp, metadata, exchangeHeader != null ? exchangeHeader : servletHeader),
+                    metadata.ttl());
+        }
+        var idempotentKey = idempotentKey(pjp, metadata, headerKey());
+        if (idempotentKey == null) {
             return pjp.proceed();
         }
+        return idempotentService.executeThrowable(idempotentKey, metadata.returnType(), pjp::proceed, metadata.ttl());
+    }
 
-        key = hashKeyIfRequired(key, annotation);
-        var ttl = parseDuration(annotation.duration());
-        var idempotentKey = new IdempotentStore.IdempotentKey(key, processName(signature));
-
-        @SuppressWarnings({"unchecked", "rawtypes"})
-        Class<Object> returnType = (Class) signature.getReturnType();
-
-        return idempotentService.executeThrowable(idempotentKey, returnType, pjp::proceed, ttl);
+    /**
+     * Key of this invocation: the header value when present, otherwise the annotation key, hashed
+     * when the method asks for it. {@code null} (after a one-time warning) when both are empty.
+     */
+    private IdempotentStore.@Nullable IdempotentKey idempotentKey(
+            ProceedingJoinPoint pjp, MethodMetadata metadata, @Nullable String headerKey) {
+        String key = headerKey != null && !headerKey.isEmpty() ? headerKey : annotationKey(pjp, metadata);
+        if (key == null || key.isEmpty()) {
+            warnEmptyKeyOnce(((MethodSignature) pjp.getSignature()).getMethod());
+            return null;
+        }
+        KeyHasher keyHasher = metadata.keyHasher();
+        if (keyHasher != null) {
+            key = keyHasher.hash(key);
+        }
+        return new IdempotentStore.IdempotentKey(key, metadata.processName());
     }
 
-    private @Nullable String resolveKey(ProceedingJoinPoint pjp, MethodSignature signature, Idempotent annotation) {
-        String key = headerKey();
-        if (key != null && !key.isEmpty()) {
-            return key;
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private MethodMetadata metadata(MethodSignature signature, Method method) {
+        var annotation = method.getAnnotation(Idempotent.class);
+        KeyExtractor keyExtractor = annotation.key().isEmpty() ? null : KeyExtractors.forMethod(method);
+        Expression keyExpression = null;
+        String[] parameterNames = new String[0];
+        if (!annotation.key().isEmpty() && keyExtractor == null) {
+            String[] names = signature.getParameterNames();
+            if (names == null) {
+                throw new IllegalStateException(
+                        "Parameter names are not available. Ensure the '-parameters' compiler option is enabled.");
+            }
+            parameterNames = names;
+            keyExpression = parser.parseExpression(annotation.key());
         }
-        return spelKey(pjp, signature, annotation.key());
+        KeyHasher keyHasher = null;
+        if (annotation.hashKey()) {
+            KeyHasher selected = annotation.hashAlgorithm().hasher();
+            keyHasher = selected != null ? selected : defaultKeyHasher;
+        }
+        Class<?> returnType = signature.getReturnType();
+        return new MethodMetadata(
+                annotation,
+                keyExtractor,
+                keyHasher,
+                keyExpression,
+                parameterNames,
+                parseDuration(annotation.duration()),
+                processName(signature),
+                (Class) returnType,
+                REACTOR_PRESENT && ReactiveReturns.supports(returnType));
     }
 
     private @Nullable String headerKey() {
@@ -82,33 +187,25 @@ public class IdempotentAspect {
         return attributes != null ? attributes.getRequest().getHeader(idempotentKeyHeader) : null;
     }
 
-    private @Nullable String spelKey(ProceedingJoinPoint pjp, MethodSignature signature, String keyExpression) {
-        if (keyExpression.isEmpty()) {
-            return null;
+    private static @Nullable String annotationKey(ProceedingJoinPoint pjp, MethodMetadata metadata) {
+        KeyExtractor keyExtractor = metadata.keyExtractor();
+        if (keyExtractor != null) {
+            return keyExtractor.extract(pjp.getArgs());
         }
-        String[] paramNames = signature.getParameterNames();
-        if (paramNames == null) {
-            throw new IllegalStateException(
-                    "Parameter names are not available. Ensure the '-parameters' compiler option is enabled.");
+        Expression keyExpression = metadata.keyExpression();
+        if (keyExpression == null) {
+            return null;
         }
-        var context = new StandardEvaluationContext();
+        var context = SimpleEvaluationContext.forReadOnlyDataBinding().withInstanceMethods().build();
+        String[] paramNames = metadata.parameterNames();
         Object[] args = pjp.getArgs();
         for (int i = 0; i < paramNames.length; i++) {
             context.setVariable(paramNames[i], args[i]);
         }
-        Object value = parser.parseExpression(keyExpression).getValue(context);
+        Object value = keyExpression.getValue(context);
         return value != null ? value.toString() : null;
     }
 
-    private static String hashKeyIfRequired(String key, Idempotent annotation) throws NoSuchAlgorithmException {
-        if (!annotation.hashKey()) {
-            return key;
-        }
-        var md = MessageDigest.getInstance("SHA-256");
-        byte[] hashBytes = md.digest(key.getBytes(StandardCharsets.UTF_8));
-        return HexFormat.of().formatHex(hashBytes);
-    }
-
     /**
      * Parses {@code value} accepting both ISO-8601 ({@code PT1M}) and Spring's short form
      * ({@code 100ms}, {@code 5s}, {@code 1m}).
@@ -131,4 +228,16 @@ public class IdempotentAspect {
                     idempotentKeyHeader);
         }
     }
+
+    /** Per-method data resolved once from the annotation and signature. */
+    private record MethodMetadata(
+            Idempotent annotation,
+            @Nullable KeyExtractor keyExtractor,
+            @Nullable KeyHasher keyHasher,
+            @Nullable Expression keyExpression,
+            String[] parameterNames,
+            Duration ttl,
+            String processName,
+            Class<Object> returnType,
+            boolean reactive) {}
 }
@@ -0,0 +1,73 @@
+package io.github.arun0009.idempotent.core.aspect;
+
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import io.github.arun0009.idempotent.core.service.ReactiveIdempotentService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.jspecify.annotations.Nullable;
+import org.springframework.web.filter.reactive.ServerWebExchangeContextFilter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Reactor-specific part of {@link IdempotentAspect}, kept in its own class so the aspect loads
+ * without Reactor on the classpath.
+ */
+final class ReactiveReturns {
+
+    private ReactiveReturns() {}
+
+    static boolean supports(Class<?> returnType) {
+        return returnType == Mono.class || returnType == Flux.class;
+    }
+
+    /**
+     * Wraps the advised method in a cold publisher; the method itself is only invoked when the
+     * key was claimed. The key is resolved on subscription from the header of the WebFlux request
+     * in the subscriber's context ({@code null} outside WebFlux); a {@code null} key runs the
+     * method without idempotency.
+     */
+    @SuppressWarnings("unchecked")
+    static Object execute(
+            ReactiveIdempotentService reactive,
+            ProceedingJoinPoint pjp,
+            Class<?> returnType,
+            String keyHeader,
+            Function<@Nullable String, IdempotentStore.@Nullable IdempotentKey> keyResolver,
+            Duration ttl) {
+        if (returnType == Flux.class) {
+            return Flux.deferContextual(context -> {
+                Flux<Object> call = Flux.defer(() -> (Flux<Object>) proceed(pjp, true));
+                var idempotentKey = keyResolver.apply(exchangeHeader(context, keyHeader));
+                return idempotentKey != null ? reactive.executeMany(idempotentKey, call, ttl) : call;
+            });
+        }
+        return Mono.deferContextual(context -> {
+            Mono<Object> call = Mono.defer(() -> (Mono<Object>) proceed(pjp, false));
+            var idempotentKey = keyResolver.apply(exchangeHeader(context, keyHeader));
+            return idempotentKey != null ? reactive.execute(idempotentKey, Object.class, call, ttl) : call;
+        });
+    }
+
+    private static @Nullable String exchangeHeader(ContextView context, String keyHeader) {
+        return ServerWebExchangeContextFilter.getExchange(context)
+                .map(exchange -> exchange.getRequest().getHeaders().getFirst(keyHeader))
+                .orElse(null);
+    }
+
+    /** Turns a thrown exception or a {@code null} return into an error signal of the publisher. */
+    private static Object proceed(ProceedingJoinPoint pjp, boolean many) {
+        try {
+            return Objects.requireNonNull(pjp.proceed(), "@Idempotent method returned a null publisher");
+        } catch (Throwable t) {
+            if (many) {
+                return Flux.error(t);
+            }
+            return Mono.error(t);
+        }
+    }
+}
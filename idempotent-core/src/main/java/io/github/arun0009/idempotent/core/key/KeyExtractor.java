@@ -0,0 +1,18 @@
+package io.github.arun0009.idempotent.core.key;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Derives the idempotency key of an {@code @Idempotent} method from its arguments. Implementations
+ * are generated at build time by {@code idempotent-processor} and replace SpEL evaluation of
+ * {@code @Idempotent(key = ...)} for that method.
+ */
+@FunctionalInterface
+public interface KeyExtractor {
+
+    /**
+     * @param args the method arguments, in declaration order
+     * @return the key, or {@code null} when the expression resolves to {@code null}
+     */
+    @Nullable String extract(@Nullable Object[] args);
+}
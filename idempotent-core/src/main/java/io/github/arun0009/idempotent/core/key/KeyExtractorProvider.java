@@ -0,0 +1,16 @@
+package io.github.arun0009.idempotent.core.key;
+
+import java.util.Map;
+
+/**
+ * Generated companion of a class declaring {@code @Idempotent} methods, named after the class's
+ * binary name plus {@value KeyExtractors#GENERATED_SUFFIX} and located by {@link KeyExtractors}.
+ * Must have a public no-arg constructor.
+ */
+public interface KeyExtractorProvider {
+
+    /**
+     * @return the extractors by method, keyed as {@link KeyExtractors#methodKey}
+     */
+    Map<String, KeyExtractor> extractors();
+}
@@ -0,0 +1,53 @@
+package io.github.arun0009.idempotent.core.key;
+
+import org.jspecify.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/** Locates the generated {@link KeyExtractor} of an {@code @Idempotent} method, if any. */
+public final class KeyExtractors {
+
+    /** Appended to the declaring class's binary name to form the generated provider's name. */
+    public static final String GENERATED_SUFFIX = "_IdempotentKeys";
+
+    private KeyExtractors() {}
+
+    /**
+     * Loads the provider generated for {@code method}'s declaring class. Looked up reflectively
+     * once; callers are expected to cache the result per method.
+     *
+     * @return the generated extractor, or {@code null} when the class was not processed or the
+     * method's key expression is not supported by the processor
+     */
+    public static @Nullable KeyExtractor forMethod(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        Class<?> providerClass;
+        try {
+            providerClass =
+                    Class.forName(declaringClass.getName() + GENERATED_SUFFIX, true, declaringClass.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+        if (!KeyExtractorProvider.class.isAssignableFrom(providerClass)) {
+            return null;
+        }
+        try {
+            var provider = (KeyExtractorProvider) providerClass.getConstructor().newInstance();
+            return provider.extractors().get(methodKey(method));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate generated key extractors " + providerClass, e);
+        }
+    }
+
+    /**
+     * Identifies a method within its class as {@code name(type,...)} using canonical parameter
+     * type names, e.g. {@code place(com.example.Order,java.lang.String[])}.
+     */
+    public static String methodKey(Method method) {
+        return Arrays.stream(method.getParameterTypes())
+                .map(type -> type.getCanonicalName() != null ? type.getCanonicalName() : type.getName())
+                .collect(Collectors.joining(",", method.getName() + "(", ")"));
+    }
+}
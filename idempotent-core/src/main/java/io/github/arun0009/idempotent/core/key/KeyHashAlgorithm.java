@@ -0,0 +1,27 @@
+package io.github.arun0009.idempotent.core.key;
+
+import org.jspecify.annotations.Nullable;
+
+/** Built-in {@link KeyHasher}s, selectable per method or globally by name. */
+public enum KeyHashAlgorithm {
+    /** Defers to the globally configured {@link KeyHasher}. */
+    DEFAULT,
+    /** @see KeyHasher#sha256Hex() */
+    SHA256_HEX,
+    /** @see KeyHasher#sha256Base64Url() */
+    SHA256_BASE64URL,
+    /** @see KeyHasher#murmur3() */
+    MURMUR3_128;
+
+    /**
+     * @return the hasher, or {@code null} for {@link #DEFAULT}
+     */
+    public @Nullable KeyHasher hasher() {
+        return switch (this) {
+            case DEFAULT -> null;
+            case SHA256_HEX -> KeyHasher.sha256Hex();
+            case SHA256_BASE64URL -> KeyHasher.sha256Base64Url();
+            case MURMUR3_128 -> KeyHasher.murmur3();
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.arun0009.idempotent.core.key;
+
+/**
+ * Maps an idempotency key to the value stored in place of it when {@code @Idempotent(hashKey =
+ * true)} is set. Implementations must be thread-safe and deterministic across JVMs, since every
+ * instance must derive the same stored key.
+ *
+ * <p>Register a bean to replace the global default; individual methods can pick one of the
+ * built-ins with {@code @Idempotent(hashAlgorithm = ...)}.
+ */
+@FunctionalInterface
+public interface KeyHasher {
+
+    String hash(String key);
+
+    /** SHA-256 as 64 hex characters; the historical format and the default. */
+    static KeyHasher sha256Hex() {
+        return Sha256KeyHasher.HEX;
+    }
+
+    /** SHA-256 as 43 unpadded base64url characters. */
+    static KeyHasher sha256Base64Url() {
+        return Sha256KeyHasher.BASE64_URL;
+    }
+
+    /**
+     * 128-bit MurmurHash3 (x64 variant) as 22 unpadded base64url characters. Much cheaper than
+     * SHA-256 but not collision resistant against crafted input: use it only for keys callers
+     * cannot choose freely.
+     */
+    static KeyHasher murmur3() {
+        return Murmur3KeyHasher.INSTANCE;
+    }
+}
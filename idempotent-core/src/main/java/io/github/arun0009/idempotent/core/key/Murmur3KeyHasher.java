@@ -0,0 +1,99 @@
+package io.github.arun0009.idempotent.core.key;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/** MurmurHash3 x64 128-bit with seed 0, encoded as unpadded base64url. */
+final class Murmur3KeyHasher implements KeyHasher {
+
+    static final Murmur3KeyHasher INSTANCE = new Murmur3KeyHasher();
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private Murmur3KeyHasher() {}
+
+    @Override
+    public String hash(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash128(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /** The 16 hash bytes: {@code h1} then {@code h2}, each little-endian. */
+    static byte[] hash128(byte[] data) {
+        long h1 = 0;
+        long h2 = 0;
+        int blocks = data.length / 16;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = getLong(data, i * 16);
+            long k2 = getLong(data, i * 16 + 8);
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52dce729;
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        int tail = blocks * 16;
+        long k1 = 0;
+        long k2 = 0;
+        int remaining = data.length & 15;
+        if (remaining > 8) {
+            for (int i = remaining - 1; i >= 8; i--) {
+                k2 ^= (long) (data[tail + i] & 0xff) << ((i - 8) * 8);
+            }
+            h2 ^= mixK2(k2);
+        }
+        if (remaining > 0) {
+            for (int i = Math.min(remaining, 8) - 1; i >= 0; i--) {
+                k1 ^= (long) (data[tail + i] & 0xff) << (i * 8);
+            }
+            h1 ^= mixK1(k1);
+        }
+
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+
+        byte[] out = new byte[16];
+        putLong(out, 0, h1);
+        putLong(out, 8, h2);
+        return out;
+    }
+
+    private static long mixK1(long k1) {
+        return Long.rotateLeft(k1 * C1, 31) * C2;
+    }
+
+    private static long mixK2(long k2) {
+        return Long.rotateLeft(k2 * C2, 33) * C1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private static long getLong(byte[] data, int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xff);
+        }
+        return value;
+    }
+
+    private static void putLong(byte[] out, int offset, long value) {
+        for (int i = 0; i < 8; i++) {
+            out[offset + i] = (byte) (value >>> (8 * i));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.arun0009.idempotent.core.key;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/** SHA-256 with one reusable {@link MessageDigest} per thread. */
+final class Sha256KeyHasher implements KeyHasher {
+
+    static final Sha256KeyHasher HEX = new Sha256KeyHasher(true);
+    static final Sha256KeyHasher BASE64_URL = new Sha256KeyHasher(false);
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(Sha256KeyHasher::newDigest);
+
+    private final boolean hex;
+
+    private Sha256KeyHasher(boolean hex) {
+        this.hex = hex;
+    }
+
+    @Override
+    public String hash(String key) {
+        MessageDigest digest = DIGEST.get();
+        byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+        return hex ? HexFormat.of().formatHex(hash) : Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+@NullMarked
+package io.github.arun0009.idempotent.core.key;
+
+import org.jspecify.annotations.NullMarked;
@@ -26,6 +26,12 @@ public interface IdempotentMetrics {
 
     default void recordConflict(String process) {}
 
+    /**
+     * A background completion write (see {@code CompletionWriter}) failed, leaving the entry
+     * {@code IN_PROGRESS} until it expires. Synchronous writes fail the call instead.
+     */
+    default void recordWriteFailure(String process) {}
+
     IdempotentMetrics NOOP = new Noop();
 
     final class Noop implements IdempotentMetrics {
@@ -0,0 +1,42 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore.EntryStatus;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore.IdempotentKey;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore.Value;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link IdempotentStore}, used by
+ * {@code IdempotentService#executeAsync}. Each method has the contract of the {@link IdempotentStore}
+ * method of the same name; failures complete the returned future exceptionally instead of being
+ * thrown.
+ *
+ * <p>Backends with a native async client can implement it directly. Any blocking store can be
+ * adapted with {@link ExecutorAsyncIdempotentStore}.
+ */
+public interface AsyncIdempotentStore {
+
+    /** @see IdempotentStore#getValue */
+    CompletableFuture<@Nullable Value> getValue(IdempotentKey key, Class<?> returnType);
+
+    /**
+     * The default derives the status from {@link #getValue}, so it still reads the whole entry.
+     *
+     * @see IdempotentStore#loadStatus
+     */
+    default CompletableFuture<@Nullable EntryStatus> loadStatus(IdempotentKey key) {
+        return getValue(key, Object.class)
+                .thenApply(value -> value == null ? null : new EntryStatus(value.status(), value.expiresAt()));
+    }
+
+    /** @see IdempotentStore#claimOrGet */
+    CompletableFuture<@Nullable Value> claimOrGet(IdempotentKey key, Value value, Class<?> returnType);
+
+    /** @see IdempotentStore#update */
+    CompletableFuture<Void> update(IdempotentKey key, Value value);
+
+    /** @see IdempotentStore#remove */
+    CompletableFuture<Void> remove(IdempotentKey key);
+}
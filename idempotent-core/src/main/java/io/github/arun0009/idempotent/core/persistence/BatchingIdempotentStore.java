@@ -0,0 +1,209 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import io.github.arun0009.idempotent.core.exception.IdempotentException;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Decorator that turns concurrent single-key reads for different keys into one batch read on the
+ * delegate: {@link #loadValue} calls into one {@link IdempotentStore#loadValues loadValues}, and
+ * {@link #loadStatus} calls (what duplicates waiting on an in-progress key poll) into one {@link
+ * IdempotentStore#loadStatuses loadStatuses}.
+ *
+ * <p>The first read to arrive opens a batch and waits up to {@code window} for others to join it;
+ * reads of the same kind (statuses, or values with the same return type) arriving meanwhile join
+ * instead of going to the backend. The batch is sent once the window ends or it holds {@code
+ * maxKeys} keys, and every caller takes its own entry from the shared result. A backend failure
+ * fails every read of the batch.
+ *
+ * <p>This trades up to one window of latency per read for fewer round trips, so it only pays off
+ * under concurrency. When the delegate does not override a batch read, it would loop over
+ * single-key reads anyway, and those reads go straight to the delegate. All other operations,
+ * including {@link #claimOrGet}, are forwarded; {@link #getValue} goes through the batched {@code
+ * loadValue}.
+ */
+public class BatchingIdempotentStore implements IdempotentStore {
+    private static final Object STATUSES = new Object();
+
+    private final IdempotentStore delegate;
+    private final long windowNanos;
+    private final int maxKeys;
+    private final boolean batchesValues;
+    private final boolean batchesStatuses;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Open batches by kind: a value return type, or STATUSES
+    private final Map<Object, Batch<?>> open = new HashMap<>();
+
+    /**
+     * @param delegate the backing store
+     * @param window   how long the first read of a batch waits for others to join
+     * @param maxKeys  batch size that sends the batch before the window ends
+     */
+    public BatchingIdempotentStore(IdempotentStore delegate, Duration window, int maxKeys) {
+        if (window.isNegative() || window.isZero() || maxKeys < 2) {
+            throw new IllegalArgumentException("window must be positive and maxKeys at least 2");
+        }
+        this.delegate = delegate;
+        this.windowNanos = window.toNanos();
+        this.maxKeys = maxKeys;
+        this.batchesValues = overrides(delegate, "loadValues", Collection.class, Class.class);
+        this.batchesStatuses = overrides(delegate, "loadStatuses", Collection.class);
+    }
+
+    private static boolean overrides(IdempotentStore store, String name, Class<?>... parameterTypes) {
+        try {
+            return store.getClass().getMethod(name, parameterTypes).getDeclaringClass() != IdempotentStore.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public @Nullable Value loadValue(IdempotentKey key, Class<?> returnType) {
+        if (!batchesValues) {
+            return delegate.loadValue(key, returnType);
+        }
+        return read(returnType, key, keys -> delegate.loadValues(keys, returnType));
+    }
+
+    @Override
+    public @Nullable EntryStatus loadStatus(IdempotentKey key) {
+        if (!batchesStatuses) {
+            return delegate.loadStatus(key);
+        }
+        return read(STATUSES, key, delegate::loadStatuses);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> @Nullable R read(
+            Object kind, IdempotentKey key, Function<Collection<IdempotentKey>, Map<IdempotentKey, R>> load) {
+        Batch<R> batch;
+        boolean leader = false;
+        lock.lock();
+        try {
+            batch = (Batch<R>) open.get(kind);
+            if (batch == null) {
+                batch = new Batch<>(kind, load);
+                open.put(kind, batch);
+                leader = true;
+            }
+            batch.keys.add(key);
+            if (batch.keys.size() >= maxKeys) {
+                open.remove(kind);
+                batch.full.countDown();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (leader) {
+            send(batch);
+        }
+        try {
+            return batch.result.join().get(key);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IdempotentException("Batched read failed", e);
+        }
+    }
+
+    private <R> void send(Batch<R> batch) {
+        boolean full;
+        try {
+            full = batch.full.await(windowNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            full = false;
+        }
+        if (!full) {
+            lock.lock();
+            try {
+                open.remove(batch.kind, batch);
+            } finally {
+                lock.unlock();
+            }
+        }
+        // The batch is closed: no key is added after this point.
+        try {
+            batch.result.complete(batch.load.apply(batch.keys));
+        } catch (Throwable e) {
+            // Even an Error must complete the result, or the followers would block on it forever.
+            batch.result.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void store(IdempotentKey key, Value value) {
+        delegate.store(key, value);
+    }
+
+    @Override
+    public @Nullable Value claimOrGet(IdempotentKey key, Value value, Class<?> returnType) {
+        return delegate.claimOrGet(key, value, returnType);
+    }
+
+    @Override
+    public void remove(IdempotentKey key) {
+        delegate.remove(key);
+    }
+
+    @Override
+    public void update(IdempotentKey key, Value value) {
+        delegate.update(key, value);
+    }
+
+    @Override
+    public Map<IdempotentKey, Value> loadValues(Collection<IdempotentKey> keys, Class<?> returnType) {
+        return delegate.loadValues(keys, returnType);
+    }
+
+    @Override
+    public Map<IdempotentKey, EntryStatus> loadStatuses(Collection<IdempotentKey> keys) {
+        return delegate.loadStatuses(keys);
+    }
+
+    @Override
+    public Set<IdempotentKey> storeAll(Map<IdempotentKey, Value> values) {
+        return delegate.storeAll(values);
+    }
+
+    @Override
+    public void updateAll(Map<IdempotentKey, Value> values) {
+        delegate.updateAll(values);
+    }
+
+    @Override
+    public void removeAll(Collection<IdempotentKey> keys) {
+        delegate.removeAll(keys);
+    }
+
+    /** Reads of one kind collected during one window. */
+    private static final class Batch<R> {
+        private final Object kind;
+        private final Function<Collection<IdempotentKey>, Map<IdempotentKey, R>> load;
+        private final Set<IdempotentKey> keys = new LinkedHashSet<>();
+        private final CountDownLatch full = new CountDownLatch(1);
+        private final CompletableFuture<Map<IdempotentKey, R>> result = new CompletableFuture<>();
+
+        private Batch(Object kind, Function<Collection<IdempotentKey>, Map<IdempotentKey, R>> load) {
+            this.kind = kind;
+            this.load = load;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the {@link BatchingIdempotentStore} placed in front of the configured store.
+ *
+ * @param enabled whether concurrent reads of different keys are combined into one multi-get (off
+ *                by default)
+ * @param window  how long the first read of a batch waits for others to join it
+ * @param maxKeys batch size that sends the batch before the window ends
+ */
+@ConfigurationProperties(prefix = "idempotent.read-batching")
+public record BatchingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1ms") Duration window,
+        @DefaultValue("64") int maxKeys) {
+
+    public BatchingProperties {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("idempotent.read-batching.window must be positive");
+        }
+        if (maxKeys < 2) {
+            throw new IllegalArgumentException("idempotent.read-batching.max-keys must be at least 2");
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import io.github.arun0009.idempotent.core.serialization.IdempotentPayloadCodec;
+import io.github.arun0009.idempotent.core.serialization.IdempotentPayloadCodecException;
+import io.github.arun0009.idempotent.core.serialization.PayloadBuffer;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToLongFunction;
+
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.COMPLETED;
+
+/**
+ * Near-cache decorator that serves {@code COMPLETED} entries from local memory so repeated hits
+ * skip the backend round trip and payload deserialization.
+ *
+ * <ul>
+ *   <li>Only {@code COMPLETED} values are cached; {@code IN_PROGRESS} entries always go to the
+ *       delegate.</li>
+ *   <li>Each entry expires at its own {@code expiresAt}.</li>
+ *   <li>Writes ({@link #store}, {@link #update}, {@link #remove} and their batch forms)
+ *       invalidate the local entry before and after touching the delegate, and a read that
+ *       overlapped a write of the same key is not cached, so it cannot bring back the value the
+ *       write replaced.</li>
+ *   <li>The cache is bounded by entry count and by total response weight; the oldest entries are
+ *       evicted first.</li>
+ * </ul>
+ *
+ * <p>Invalidation is local: an entry removed directly in the backend (or by another instance)
+ * stays visible here until it expires or is evicted. Cached responses are shared between callers
+ * and must not be mutated.
+ */
+public class CachingIdempotentStore implements IdempotentStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingIdempotentStore.class);
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final IdempotentStore delegate;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final ToLongFunction<Value> weigher;
+    private final ConcurrentHashMap<IdempotentKey, CachedEntry> entries = new ConcurrentHashMap<>();
+    // Insertion order for eviction; may hold entries already invalidated, which are skipped.
+    private final ConcurrentLinkedQueue<CachedEntry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong weight = new AtomicLong();
+    // Write generations, striped by key hash: a read caches its value only if no write of a key on
+    // the same stripe started or finished meanwhile.
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * @param delegate   the backing store
+     * @param maxEntries maximum number of cached entries
+     * @param maxBytes   maximum total weight of cached entries
+     * @param weigher    weight of a value in bytes; a weigher that throws
+     *                   {@link IdempotentPayloadCodecException} leaves the value uncached
+     */
+    public CachingIdempotentStore(
+            IdempotentStore delegate, int maxEntries, long maxBytes, ToLongFunction<Value> weigher) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("maxEntries and maxBytes must be positive");
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Weighs values by their response size. Responses loaded in their stored form
+     * ({@link LazyResponse}) are weighed by that form's length without decoding them; other
+     * responses are encoded by {@code payloadCodec} into a pooled buffer.
+     */
+    public static ToLongFunction<Value> codecWeigher(IdempotentPayloadCodec payloadCodec) {
+        return value -> {
+            Object stored = value.storedResponse();
+            if (stored == null) {
+                return 0;
+            }
+            if (stored instanceof LazyResponse lazy) {
+                return lazy.storedLength();
+            }
+            PayloadBuffer buffer = payloadCodec.serializeToBuffer(stored);
+            try {
+                return buffer.size();
+            } finally {
+                buffer.release();
+            }
+        };
+    }
+
+    @Override
+    public @Nullable Value loadValue(IdempotentKey key, Class<?> returnType) {
+        Value cached = cachedValue(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = generation(key);
+        return cache(key, delegate.loadValue(key, returnType), generation);
+    }
+
+    @Override
+    public @Nullable EntryStatus loadStatus(IdempotentKey key) {
+        Value cached = cachedValue(key);
+        if (cached != null) {
+            return new EntryStatus(cached.status(), cached.expiresAt());
+        }
+        return delegate.loadStatus(key);
+    }
+
+    @Override
+    public @Nullable Value claimOrGet(IdempotentKey key, Value value, Class<?> returnType) {
+        Value cached = cachedValue(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = generation(key);
+        return cache(key, delegate.claimOrGet(key, value, returnType), generation);
+    }
+
+    @Override
+    public void store(IdempotentKey key, Value value) {
+        changing(key);
+        try {
+            delegate.store(key, value);
+        } finally {
+            changing(key);
+        }
+    }
+
+    @Override
+    public void remove(IdempotentKey key) {
+        changing(key);
+        try {
+            delegate.remove(key);
+        } finally {
+            changing(key);
+        }
+    }
+
+    @Override
+    public void update(IdempotentKey key, Value value) {
+        changing(key);
+        try {
+            delegate.update(key, value);
+        } finally {
+            changing(key);
+        }
+    }
+
+    @Override
+    public Map<IdempotentKey, Value> loadValues(Collection<IdempotentKey> keys, Class<?> returnType) {
+        Map<IdempotentKey, Value> values = new HashMap<>();
+        List<IdempotentKey> misses = new ArrayList<>();
+        for (IdempotentKey key : keys) {
+            Value cached = cachedValue(key);
+            if (cached != null) {
+                values.put(key, cached);
+            } else {
+                misses.add(key);
+            }
+        }
+        if (!misses.isEmpty()) {
+            Map<IdempotentKey, Long> readGenerations = new HashMap<>();
+            misses.forEach(key -> readGenerations.put(key, generation(key)));
+            delegate.loadValues(misses, returnType).forEach((key, value) -> {
+                Long generation = readGenerations.get(key);
+                if (generation != null) {
+                    cache(key, value, generation);
+                }
+                values.put(key, value);
+            });
+        }
+        return values;
+    }
+
+    @Override
+    public Map<IdempotentKey, EntryStatus> loadStatuses(Collection<IdempotentKey> keys) {
+        Map<IdempotentKey, EntryStatus> statuses = new HashMap<>();
+        List<IdempotentKey> misses = new ArrayList<>();
+        for (IdempotentKey key : keys) {
+            Value cached = cachedValue(key);
+            if (cached != null) {
+                statuses.put(key, new EntryStatus(cached.status(), cached.expiresAt()));
+            } else {
+                misses.add(key);
+            }
+        }
+        if (!misses.isEmpty()) {
+            statuses.putAll(delegate.loadStatuses(misses));
+        }
+        return statuses;
+    }
+
+    @Override
+    public Set<IdempotentKey> storeAll(Map<IdempotentKey, Value> values) {
+        values.keySet().forEach(this::changing);
+        try {
+            return delegate.storeAll(values);
+        } finally {
+            values.keySet().forEach(this::changing);
+        }
+    }
+
+    @Override
+    public void updateAll(Map<IdempotentKey, Value> values) {
+        values.keySet().forEach(this::changing);
+        try {
+            delegate.updateAll(values);
+        } finally {
+            values.keySet().forEach(this::changing);
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<IdempotentKey> keys) {
+        keys.forEach(this::changing);
+        try {
+            delegate.removeAll(keys);
+        } finally {
+            keys.forEach(this::changing);
+        }
+    }
+
+    /** Number of locally cached entries. */
+    public int size() {
+        return entries.size();
+    }
+
+    private @Nullable Value cachedValue(IdempotentKey key) {
+        CachedEntry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (Instant.now().isBefore(entry.value.expiresAt())) {
+            return entry.value;
+        }
+        discard(entry);
+        return null;
+    }
+
+    /**
+     * Caches a value read from the delegate, unless a write of the key overlapped the read.
+     *
+     * @param generation the key's write generation taken before the read
+     */
+    private @Nullable Value cache(IdempotentKey key, @Nullable Value value, long generation) {
+        if (value == null || value.status() != COMPLETED || !Instant.now().isBefore(value.expiresAt())) {
+            return value;
+        }
+        long valueWeight;
+        try {
+            valueWeight = weigher.applyAsLong(value);
+        } catch (IdempotentPayloadCodecException e) {
+            log.debug("Not caching idempotent entry {} locally: {}", key, e.toString());
+            return value;
+        }
+        if (valueWeight > maxBytes) {
+            return value;
+        }
+        var entry = new CachedEntry(key, value, valueWeight);
+        CachedEntry previous = entries.put(key, entry);
+        if (previous != null) {
+            weight.addAndGet(-previous.weight);
+        }
+        weight.addAndGet(valueWeight);
+        insertionOrder.add(entry);
+        queued.incrementAndGet();
+        evictIfNeeded();
+        // Checked after the put: a write that bumps the generation later also invalidates later.
+        if (generation(key) != generation) {
+            discard(entry);
+        }
+        return value;
+    }
+
+    private void evictIfNeeded() {
+        // The queue bound also drains entries that were invalidated or replaced, so it cannot grow
+        // without limit while the cache itself stays small.
+        while (entries.size() > maxEntries || weight.get() > maxBytes || queued.get() > 2 * maxEntries) {
+            CachedEntry oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            discard(oldest);
+        }
+    }
+
+    private long generation(IdempotentKey key) {
+        return generations.get(stripe(key));
+    }
+
+    /** Runs before and after every delegate write of {@code key}. */
+    private void changing(IdempotentKey key) {
+        generations.incrementAndGet(stripe(key));
+        invalidate(key);
+    }
+
+    private static int stripe(IdempotentKey key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private void invalidate(IdempotentKey key) {
+        CachedEntry entry = entries.get(key);
+        if (entry != null) {
+            discard(entry);
+        }
+    }
+
+    private void discard(CachedEntry entry) {
+        if (entries.remove(entry.key, entry)) {
+            weight.addAndGet(-entry.weight);
+        }
+    }
+
+    // Identity matters: a stale queue node must never remove a newer entry for the same key.
+    private static final class CachedEntry {
+        private final IdempotentKey key;
+        private final Value value;
+        private final long weight;
+
+        private CachedEntry(IdempotentKey key, Value value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
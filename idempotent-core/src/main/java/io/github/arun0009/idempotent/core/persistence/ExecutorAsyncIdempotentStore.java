@@ -0,0 +1,99 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore.EntryStatus;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore.IdempotentKey;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore.Value;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adapts a blocking {@link IdempotentStore} to {@link AsyncIdempotentStore} by running each call
+ * on {@code executor}. Size the executor for the store's blocking I/O; callers only occupy it for
+ * the duration of a store call, never while waiting on an in-progress key.
+ *
+ * <p>{@link #close()} shuts down the pool the store created for itself; an executor passed in is
+ * left to its owner.
+ */
+public class ExecutorAsyncIdempotentStore implements AsyncIdempotentStore, AutoCloseable {
+
+    private final IdempotentStore delegate;
+    private final Executor executor;
+    private final @Nullable ExecutorService ownedPool;
+
+    public ExecutorAsyncIdempotentStore(IdempotentStore delegate, Executor executor) {
+        this(delegate, executor, null);
+    }
+
+    /**
+     * Runs store calls on a dedicated pool of up to {@code threads} daemon threads, shut down by
+     * {@link #close()}. Idle threads exit after a minute.
+     */
+    public ExecutorAsyncIdempotentStore(IdempotentStore delegate, int threads) {
+        this(delegate, newPool(threads));
+    }
+
+    private ExecutorAsyncIdempotentStore(IdempotentStore delegate, ExecutorService pool) {
+        this(delegate, pool, pool);
+    }
+
+    private ExecutorAsyncIdempotentStore(
+            IdempotentStore delegate, Executor executor, @Nullable ExecutorService ownedPool) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.ownedPool = ownedPool;
+    }
+
+    /** Shuts down the store's own pool, letting calls already submitted finish. */
+    @Override
+    public void close() {
+        if (ownedPool != null) {
+            ownedPool.shutdown();
+        }
+    }
+
+    private static ExecutorService newPool(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        var counter = new AtomicInteger();
+        var pool = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), r -> {
+            var thread = new Thread(r, "idempotent-async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    @Override
+    public CompletableFuture<@Nullable Value> getValue(IdempotentKey key, Class<?> returnType) {
+        return CompletableFuture.supplyAsync(() -> delegate.getValue(key, returnType), executor);
+    }
+
+    @Override
+    public CompletableFuture<@Nullable EntryStatus> loadStatus(IdempotentKey key) {
+        return CompletableFuture.supplyAsync(() -> delegate.loadStatus(key), executor);
+    }
+
+    @Override
+    public CompletableFuture<@Nullable Value> claimOrGet(IdempotentKey key, Value value, Class<?> returnType) {
+        return CompletableFuture.supplyAsync(() -> delegate.claimOrGet(key, value, returnType), executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> update(IdempotentKey key, Value value) {
+        return CompletableFuture.runAsync(() -> delegate.update(key, value), executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> remove(IdempotentKey key) {
+        return CompletableFuture.runAsync(() -> delegate.remove(key), executor);
+    }
+}
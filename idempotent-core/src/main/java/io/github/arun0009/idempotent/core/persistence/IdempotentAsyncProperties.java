@@ -0,0 +1,20 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for {@code IdempotentService#executeAsync} when no {@link AsyncIdempotentStore} bean is
+ * registered and the blocking store is adapted with {@link ExecutorAsyncIdempotentStore}.
+ *
+ * @param executorThreads number of threads running blocking store calls for async callers
+ */
+@ConfigurationProperties(prefix = "idempotent.async")
+public record IdempotentAsyncProperties(@DefaultValue("8") int executorThreads) {
+
+    public IdempotentAsyncProperties {
+        if (executorThreads <= 0) {
+            throw new IllegalArgumentException("idempotent.async.executor-threads must be positive");
+        }
+    }
+}
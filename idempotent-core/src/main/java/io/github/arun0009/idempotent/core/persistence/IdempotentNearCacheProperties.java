@@ -0,0 +1,28 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for the local {@link CachingIdempotentStore} placed in front of the configured store.
+ *
+ * @param enabled    whether {@code COMPLETED} entries are cached locally (off by default)
+ * @param maxEntries maximum number of cached entries
+ * @param maxBytes   maximum total size of cached responses, as measured by the payload codec
+ */
+@ConfigurationProperties(prefix = "idempotent.near-cache")
+public record IdempotentNearCacheProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10000") int maxEntries,
+        @DefaultValue("64MB") DataSize maxBytes) {
+
+    public IdempotentNearCacheProperties {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("idempotent.near-cache.max-entries must be positive");
+        }
+        if (maxBytes.toBytes() <= 0) {
+            throw new IllegalArgumentException("idempotent.near-cache.max-bytes must be positive");
+        }
+    }
+}
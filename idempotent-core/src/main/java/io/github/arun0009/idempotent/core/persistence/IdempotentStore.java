@@ -6,6 +6,12 @@ import org.jspecify.annotations.Nullable;
 
 import java.io.Serializable;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Persistence contract for idempotent entries.
@@ -18,10 +24,19 @@ import java.time.Instant;
  *       missing</strong>; it never resurrects a deleted or expired entry.</li>
  *   <li>{@link #loadValue loadValue} reads the persisted entry as-is. {@link #getValue getValue} is
  *       a default that wraps it with expiry enforcement, so implementations only provide the raw
- *       read.</li>
+ *       read. {@link #loadStatus loadStatus} reads only the status and expiry, for polling.</li>
  *   <li>{@link #remove remove} deletes the entry. It is idempotent and tolerates missing keys.</li>
+ *   <li>{@link #claimOrGet claimOrGet} combines the read and the strict insert: it either claims the
+ *       key or returns the live entry that already owns it. The default composes {@code getValue}
+ *       and {@code store}; backends override it to do both in a single round trip.</li>
  * </ol>
  *
+ * <h2>Batch operations</h2>
+ * {@link #loadValues}, {@link #loadStatuses}, {@link #getValues}, {@link #storeAll}, {@link
+ * #updateAll} and {@link #removeAll} apply the single-key contract above to many keys at once.
+ * The defaults loop over the single-key methods; backends override them to use one round trip (or
+ * a few) per batch. A batch is not atomic as a whole: each key succeeds or conflicts on its own.
+ *
  * <h2>Implementation notes</h2>
  * <ul>
  *   <li>Implementations provide {@link #loadValue} (raw persistence) and must <strong>not</strong>
@@ -63,6 +78,22 @@ public interface IdempotentStore {
         return IdempotentValues.withoutExpired(loadValue(key, returnType), () -> remove(key));
     }
 
+    /**
+     * Reads only the status and expiry of the persisted entry, without evaluating expiry. Used to
+     * poll an {@link Status#IN_PROGRESS} entry without transferring or deserializing a response.
+     *
+     * <p>The default reads the whole entry with {@link #loadValue}; backends that can fetch the two
+     * fields alone should override it.
+     *
+     * @param key the idempotent key
+     * @return the persisted status, or {@code null} when no entry exists
+     * @throws IdempotentException if the backend fails
+     */
+    default @Nullable EntryStatus loadStatus(IdempotentKey key) {
+        Value value = loadValue(key, Object.class);
+        return value == null ? null : new EntryStatus(value.status(), value.expiresAt());
+    }
+
     /**
      * Strict insert: creates a new entry. Implementations must throw {@link
      * IdempotentKeyConflictException} when the key already exists rather than overwriting.
@@ -74,6 +105,30 @@ public interface IdempotentStore {
      */
     void store(IdempotentKey key, Value value);
 
+    /**
+     * Claims {@code key} by inserting {@code value} when no live entry exists, otherwise returns the
+     * live entry that already owns the key. Expired entries are treated as absent and replaced.
+     *
+     * <p>The default reads with {@link #getValue} and falls back to {@link #store}, i.e. two round
+     * trips. Backends that can insert-or-read atomically should override it.
+     *
+     * @param key        the idempotent key
+     * @param value      the value to insert when claiming, typically {@link Status#IN_PROGRESS}
+     * @param returnType type hint used by stores that perform typed deserialization
+     * @return {@code null} when the key was claimed, otherwise the live existing value
+     * @throws IdempotentKeyConflictException if the key was claimed concurrently but the winning
+     *                                        entry could not be read back
+     * @throws IdempotentException            if the backend fails for any other reason
+     */
+    default @Nullable Value claimOrGet(IdempotentKey key, Value value, Class<?> returnType) {
+        Value existing = getValue(key, returnType);
+        if (existing != null) {
+            return existing;
+        }
+        store(key, value);
+        return null;
+    }
+
     /**
      * Deletes the entry for {@code key}. Idempotent: tolerates a missing key without throwing.
      */
@@ -89,6 +144,97 @@ public interface IdempotentStore {
      */
     void update(IdempotentKey key, Value value);
 
+    /**
+     * Batch form of {@link #loadValue}: reads the persisted entries for {@code keys} without
+     * evaluating expiry.
+     *
+     * @param keys       the idempotent keys
+     * @param returnType type hint used by stores that perform typed deserialization
+     * @return the persisted values by key; keys without an entry are absent from the map
+     * @throws IdempotentException if the backend fails
+     */
+    default Map<IdempotentKey, Value> loadValues(Collection<IdempotentKey> keys, Class<?> returnType) {
+        Map<IdempotentKey, Value> values = new HashMap<>();
+        for (IdempotentKey key : keys) {
+            Value value = loadValue(key, returnType);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Batch form of {@link #loadStatus}: reads the status and expiry of {@code keys} without
+     * evaluating expiry. Used to poll many in-progress entries with one read.
+     *
+     * <p>The default reads the whole entries with {@link #loadValues}, so backends with a batched
+     * {@code loadValues} already poll in one round trip; backends that can fetch the two fields
+     * alone should override it.
+     *
+     * @param keys the idempotent keys
+     * @return the persisted statuses by key; keys without an entry are absent from the map
+     * @throws IdempotentException if the backend fails
+     */
+    default Map<IdempotentKey, EntryStatus> loadStatuses(Collection<IdempotentKey> keys) {
+        Map<IdempotentKey, EntryStatus> statuses = new HashMap<>();
+        loadValues(keys, Object.class)
+                .forEach((key, value) -> statuses.put(key, new EntryStatus(value.status(), value.expiresAt())));
+        return statuses;
+    }
+
+    /**
+     * Batch form of {@link #getValue}: wraps {@link #loadValues} with expiry enforcement and removes
+     * expired entries with one {@link #removeAll} as a best-effort cleanup.
+     *
+     * @param keys       the idempotent keys
+     * @param returnType type hint used by stores that perform typed deserialization
+     * @return the live values by key; missing or expired keys are absent from the map
+     * @throws IdempotentException if the backend fails
+     */
+    default Map<IdempotentKey, Value> getValues(Collection<IdempotentKey> keys, Class<?> returnType) {
+        return IdempotentValues.withoutExpired(loadValues(keys, returnType), this::removeAll);
+    }
+
+    /**
+     * Batch form of {@link #store}: strictly inserts every entry. Unlike {@code store}, a key that
+     * already exists does not fail the call; it is reported in the returned set and left untouched.
+     *
+     * @param values the entries to insert
+     * @return the keys that were not inserted because they already exist
+     * @throws IdempotentException if the backend fails for any other reason
+     */
+    default Set<IdempotentKey> storeAll(Map<IdempotentKey, Value> values) {
+        Set<IdempotentKey> conflicts = new HashSet<>();
+        values.forEach((key, value) -> {
+            try {
+                store(key, value);
+            } catch (IdempotentKeyConflictException e) {
+                conflicts.add(key);
+            }
+        });
+        return conflicts;
+    }
+
+    /**
+     * Batch form of {@link #update}. Missing keys are skipped.
+     *
+     * @param values the new values by key
+     * @throws IdempotentException if the backend fails
+     */
+    default void updateAll(Map<IdempotentKey, Value> values) {
+        values.forEach(this::update);
+    }
+
+    /**
+     * Batch form of {@link #remove}. Missing keys are tolerated.
+     *
+     * @param keys the keys to delete
+     */
+    default void removeAll(Collection<IdempotentKey> keys) {
+        keys.forEach(this::remove);
+    }
+
     /**
      * Composite idempotent key.
      *
@@ -103,9 +249,53 @@ public interface IdempotentStore {
      * @param status    current status of the operation
      * @param expiresAt absolute expiry instant
      * @param response  cached response, or {@code null} when no response has been recorded yet
-     *                  (typically while {@link Status#IN_PROGRESS}) or when the response is null
+     *                  (typically while {@link Status#IN_PROGRESS}) or when the response is null. Stores may
+     *                  pass a {@link LazyResponse} to defer decoding until {@link #response()} is called
      */
-    record Value(Status status, Instant expiresAt, @Nullable Object response) implements Serializable {}
+    record Value(Status status, Instant expiresAt, @Nullable Object response) implements Serializable {
+
+        /** The response, decoding a {@link LazyResponse} on the first call. */
+        @Override
+        public @Nullable Object response() {
+            return response instanceof LazyResponse lazy ? lazy.get() : response;
+        }
+
+        /** The response as the store loaded it, possibly a not yet decoded {@link LazyResponse}. */
+        @Nullable Object storedResponse() {
+            return response;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            return o instanceof Value other
+                    && status == other.status
+                    && expiresAt.equals(other.expiresAt)
+                    && Objects.equals(response(), other.response());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(status, expiresAt, response());
+        }
+
+        private Object writeReplace() {
+            return response instanceof LazyResponse ? new Value(status, expiresAt, response()) : this;
+        }
+    }
+
+    /**
+     * Status and expiry of a stored entry, without its response.
+     *
+     * @param status    current status of the operation
+     * @param expiresAt absolute expiry instant
+     */
+    record EntryStatus(Status status, Instant expiresAt) {
+
+        /** Whether the entry is {@link Status#IN_PROGRESS} and not yet expired. */
+        public boolean isLiveInProgress() {
+            return status == Status.IN_PROGRESS && Instant.now().isBefore(expiresAt);
+        }
+    }
 
     /** Lifecycle status of an idempotent entry. */
     enum Status {
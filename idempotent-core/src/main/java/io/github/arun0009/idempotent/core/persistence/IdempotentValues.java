@@ -6,7 +6,14 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.IdempotentKey;
 import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Value;
 
 /**
@@ -39,6 +46,33 @@ public final class IdempotentValues {
         return null;
     }
 
+    /**
+     * Batch form of {@link #withoutExpired(Value, Runnable)}: returns the live values and passes the
+     * keys of expired ones to {@code removeExpired} in a single call, with the same best-effort
+     * cleanup.
+     */
+    public static Map<IdempotentKey, Value> withoutExpired(
+            Map<IdempotentKey, Value> values, Consumer<Collection<IdempotentKey>> removeExpired) {
+        var now = Instant.now();
+        Map<IdempotentKey, Value> live = new HashMap<>();
+        List<IdempotentKey> expired = new ArrayList<>();
+        values.forEach((key, value) -> {
+            if (now.isBefore(value.expiresAt())) {
+                live.put(key, value);
+            } else {
+                expired.add(key);
+            }
+        });
+        if (!expired.isEmpty()) {
+            try {
+                removeExpired.accept(expired);
+            } catch (RuntimeException e) {
+                log.warn("Failed to remove expired idempotent entries; will be cleaned up later: {}", e.toString());
+            }
+        }
+        return live;
+    }
+
     /**
      * Remaining time until {@code expiresAt} (never negative).
      */
@@ -0,0 +1,52 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for the auto-configured in-memory store.
+ *
+ * @param maxEntries    maximum number of entries of the {@link InMemoryIdempotentStore}, {@code 0}
+ *                      for no limit. Only {@code COMPLETED} or expired entries are evicted to make
+ *                      room
+ * @param sweepInterval how often expired entries are removed in the background
+ * @param offHeap       settings for the {@link OffHeapIdempotentStore} used instead when enabled
+ */
+@ConfigurationProperties(prefix = "idempotent.inmemory")
+public record InMemoryIdempotentProperties(
+        @DefaultValue("0") int maxEntries, @DefaultValue("1s") Duration sweepInterval, @DefaultValue OffHeap offHeap) {
+
+    public InMemoryIdempotentProperties {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("idempotent.inmemory.max-entries must not be negative");
+        }
+        if (sweepInterval.toMillis() <= 0) {
+            throw new IllegalArgumentException("idempotent.inmemory.sweep-interval must be positive");
+        }
+    }
+
+    /**
+     * Settings for keeping entries outside the Java heap.
+     *
+     * @param enabled    whether the off-heap store replaces the on-heap one (off by default)
+     * @param maxEntries maximum number of entries
+     * @param maxBytes   maximum off-heap memory for serialized keys and responses
+     */
+    public record OffHeap(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("1000000") int maxEntries,
+            @DefaultValue("256MB") DataSize maxBytes) {
+
+        public OffHeap {
+            if (maxEntries <= 0) {
+                throw new IllegalArgumentException("idempotent.inmemory.off-heap.max-entries must be positive");
+            }
+            if (maxBytes.toBytes() <= 0) {
+                throw new IllegalArgumentException("idempotent.inmemory.off-heap.max-bytes must be positive");
+            }
+        }
+    }
+}
@@ -1,22 +1,76 @@
 package io.github.arun0009.idempotent.core.persistence;
 
+import io.github.arun0009.idempotent.core.exception.IdempotentException;
 import io.github.arun0009.idempotent.core.exception.IdempotentKeyConflictException;
 import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.COMPLETED;
 
 /**
  * In memory idempotent store.
+ *
+ * <p>The no-argument constructor keeps an unbounded map whose expired entries are only removed
+ * when read again. {@link #InMemoryIdempotentStore(int, Duration)} adds:
+ * <ul>
+ *   <li>a background sweeper driven by a striped hierarchical {@link TimingWheel}, removing expired
+ *       entries in O(1) per entry;</li>
+ *   <li>an optional entry limit. When full, {@code COMPLETED} (or expired) entries closest to
+ *       expiry are evicted first; {@code IN_PROGRESS} entries are never evicted, and a store full
+ *       of them rejects new keys with {@link IdempotentException}. The limit is enforced on insert
+ *       and may be briefly exceeded under concurrent inserts.</li>
+ * </ul>
+ * Call {@link #close()} (Spring does so for the auto-configured bean) to stop the sweeper.
  */
-public class InMemoryIdempotentStore implements IdempotentStore {
+public class InMemoryIdempotentStore implements IdempotentStore, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryIdempotentStore.class);
 
     private final ConcurrentHashMap<IdempotentKey, Value> map;
+    private final int maxEntries;
+    private final @Nullable TimingWheel<IdempotentKey> expiryWheel;
+    private final @Nullable ScheduledExecutorService sweeper;
 
     /**
      * Instantiates a new In memory idempotent store.
      */
     public InMemoryIdempotentStore() {
         map = new ConcurrentHashMap<>();
+        maxEntries = 0;
+        expiryWheel = null;
+        sweeper = null;
+    }
+
+    /**
+     * Instantiates a bounded, self-expiring in memory idempotent store.
+     *
+     * @param maxEntries    maximum number of entries, or {@code 0} for no limit
+     * @param sweepInterval how often expired entries are swept; also the expiry resolution
+     */
+    public InMemoryIdempotentStore(int maxEntries, Duration sweepInterval) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("maxEntries must not be negative");
+        }
+        this.map = new ConcurrentHashMap<>();
+        this.maxEntries = maxEntries;
+        int stripes = Math.min(64, Runtime.getRuntime().availableProcessors());
+        this.expiryWheel = new TimingWheel<>(sweepInterval, stripes, Instant.now());
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "idempotent-inmemory-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = sweepInterval.toMillis();
+        @SuppressWarnings("FutureReturnValueIgnored")
+        var unused = sweeper.scheduleAtFixedRate(this::sweep, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -26,19 +80,51 @@ public class InMemoryIdempotentStore implements IdempotentStore {
 
     @Override
     public void store(IdempotentKey idempotentKey, Value value) {
-        if (map.putIfAbsent(idempotentKey, value) != null) {
+        ensureCapacity(idempotentKey);
+        var inserted = new boolean[1];
+        map.computeIfAbsent(idempotentKey, k -> {
+            inserted[0] = true;
+            schedule(k, value);
+            return value;
+        });
+        if (!inserted[0]) {
             throw new IdempotentKeyConflictException("Idempotent key already exists in Memory", idempotentKey);
         }
     }
 
+    @Override
+    public @Nullable Value claimOrGet(IdempotentKey idempotentKey, Value value, Class<?> returnType) {
+        var existing = new Value[1];
+        if (!map.containsKey(idempotentKey)) {
+            ensureCapacity(idempotentKey);
+        }
+        map.compute(idempotentKey, (k, current) -> {
+            if (current != null && Instant.now().isBefore(current.expiresAt())) {
+                existing[0] = current;
+                return current;
+            }
+            schedule(k, value);
+            return value;
+        });
+        return existing[0];
+    }
+
     @Override
     public void remove(IdempotentKey idempotentKey) {
-        map.remove(idempotentKey);
+        map.computeIfPresent(idempotentKey, (k, current) -> {
+            if (expiryWheel != null) {
+                expiryWheel.cancel(k);
+            }
+            return null;
+        });
     }
 
     @Override
     public void update(IdempotentKey idempotentKey, Value value) {
-        map.replace(idempotentKey, value);
+        map.computeIfPresent(idempotentKey, (k, current) -> {
+            schedule(k, value);
+            return value;
+        });
     }
 
     /**
@@ -46,5 +132,79 @@ public class InMemoryIdempotentStore implements IdempotentStore {
      */
     public void clear() {
         map.clear();
+        if (expiryWheel != null) {
+            expiryWheel.clear();
+        }
+    }
+
+    /** Number of stored entries, including expired ones not yet swept. */
+    public int size() {
+        return map.size();
+    }
+
+    /** Stops the background sweeper, if any. Stored entries remain readable. */
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /** Removes every entry whose expiry has passed. Runs on the sweeper thread. */
+    void sweep() {
+        if (expiryWheel == null) {
+            return;
+        }
+        try {
+            var now = Instant.now();
+            for (IdempotentKey key : expiryWheel.advance(now)) {
+                removeIfExpired(key, now);
+            }
+        } catch (RuntimeException e) {
+            // Never let one failure cancel the periodic task.
+            log.warn("Failed to sweep expired idempotent entries: {}", e.toString());
+        }
+    }
+
+    private void removeIfExpired(IdempotentKey key, Instant now) {
+        map.computeIfPresent(key, (k, current) -> {
+            if (!now.isBefore(current.expiresAt())) {
+                return null;
+            }
+            // Timer fired early for a value replaced concurrently; track the new deadline.
+            schedule(k, current);
+            return current;
+        });
+    }
+
+    private void schedule(IdempotentKey key, Value value) {
+        if (expiryWheel != null) {
+            expiryWheel.schedule(key, value.expiresAt());
+        }
+    }
+
+    private void ensureCapacity(IdempotentKey key) {
+        if (maxEntries == 0 || expiryWheel == null || map.size() < maxEntries) {
+            return;
+        }
+        var now = Instant.now();
+        while (map.size() >= maxEntries) {
+            IdempotentKey victim = expiryWheel.evict(key, candidate -> isEvictable(map.get(candidate), now));
+            if (victim == null) {
+                throw new IdempotentException(
+                        "In-memory idempotent store is full (" + maxEntries + " entries in progress)");
+            }
+            map.computeIfPresent(victim, (k, current) -> {
+                if (isEvictable(current, now)) {
+                    return null;
+                }
+                schedule(k, current);
+                return current;
+            });
+        }
+    }
+
+    private static boolean isEvictable(@Nullable Value value, Instant now) {
+        return value != null && (value.status() == COMPLETED || !now.isBefore(value.expiresAt()));
     }
 }
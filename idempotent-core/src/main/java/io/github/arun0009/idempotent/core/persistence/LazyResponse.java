@@ -0,0 +1,72 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import io.github.arun0009.idempotent.core.serialization.IdempotentPayloadCodec;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Response of an {@link IdempotentStore.Value} kept in its stored form until it is needed.
+ *
+ * <p>Stores that encode the response separately from the status pass one of these as the
+ * {@code response} of the values they load. {@link IdempotentStore.Value#response()} decodes it
+ * on first call, so callers that only look at the status, and entries dropped as expired, never
+ * deserialize the payload. Decoding happens once; the stored form is released afterwards.
+ * Decoding errors surface from that first call as
+ * {@link io.github.arun0009.idempotent.core.serialization.IdempotentPayloadCodecException}.
+ */
+public final class LazyResponse {
+    private final IdempotentPayloadCodec codec;
+    private final Class<?> type;
+    private final int storedLength;
+    private byte @Nullable [] bytes;
+    private @Nullable String text;
+    private @Nullable Object decoded;
+    private volatile boolean isDecoded;
+
+    private LazyResponse(IdempotentPayloadCodec codec, byte @Nullable [] bytes, @Nullable String text, Class<?> type) {
+        this.codec = codec;
+        this.bytes = bytes;
+        this.text = text;
+        this.type = type;
+        this.storedLength = bytes != null ? bytes.length : text != null ? text.length() : 0;
+    }
+
+    /** Response stored as {@link IdempotentPayloadCodec#serializeToBytes} output; the array must not change. */
+    public static LazyResponse ofBytes(IdempotentPayloadCodec codec, byte[] bytes, Class<?> type) {
+        return new LazyResponse(codec, bytes, null, type);
+    }
+
+    /** Response stored as {@link IdempotentPayloadCodec#serializeToString} output, or null when none was stored. */
+    public static @Nullable LazyResponse ofString(IdempotentPayloadCodec codec, @Nullable String text, Class<?> type) {
+        return text == null ? null : new LazyResponse(codec, null, text, type);
+    }
+
+    /**
+     * Length of the stored form: bytes for {@link #ofBytes}, characters for {@link #ofString}.
+     * Still available once the response has been decoded.
+     */
+    public int storedLength() {
+        return storedLength;
+    }
+
+    /** Decodes the response on the first call and returns the same instance afterwards. */
+    public @Nullable Object get() {
+        if (isDecoded) {
+            return decoded;
+        }
+        synchronized (this) {
+            if (!isDecoded) {
+                byte[] raw = bytes;
+                decoded = raw != null ? codec.deserializeFromBytes(raw, type) : codec.deserializeFromString(text, type);
+                bytes = null;
+                text = null;
+                isDecoded = true;
+            }
+            return decoded;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LazyResponse[" + type.getName() + (isDecoded ? ", decoded]" : "]");
+    }
+}
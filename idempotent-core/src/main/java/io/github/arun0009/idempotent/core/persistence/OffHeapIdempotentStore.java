@@ -0,0 +1,755 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import io.github.arun0009.idempotent.core.exception.IdempotentException;
+import io.github.arun0009.idempotent.core.exception.IdempotentKeyConflictException;
+import io.github.arun0009.idempotent.core.serialization.IdempotentPayloadCodec;
+import io.github.arun0009.idempotent.core.serialization.PayloadBuffer;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * In memory idempotent store that keeps entries outside the Java heap, so millions of cached
+ * responses add nothing to GC marking or pause times.
+ *
+ * <ul>
+ *   <li>Entries are serialized with the {@link IdempotentPayloadCodec}; responses are decoded on
+ *       every read using the caller's return type, as with the persistent stores.</li>
+ *   <li>Keys are spread over independently locked segments. Each segment indexes its entries in
+ *       an open-addressing (linear probing) table held in a direct {@link ByteBuffer}; every slot
+ *       carries the entry's status and expiry. Records live in a direct-buffer arena managed as a
+ *       buddy allocator: power-of-two blocks are split to fit a record and merged again when
+ *       freed, so space released by small records can hold a large one.</li>
+ *   <li>Both the entry count and the arena are bounded. When either is exhausted, a clock hand
+ *       evicts {@code COMPLETED} or expired entries; for the arena, only entries whose blocks free
+ *       room for the new record. {@code IN_PROGRESS} entries are never evicted, and a segment that
+ *       cannot make room without them rejects new keys with {@link IdempotentException}.</li>
+ *   <li>Expired entries are removed when read, like {@link InMemoryIdempotentStore}, or when
+ *       evicted.</li>
+ * </ul>
+ *
+ * <p>Limits are split evenly across segments, so a heavily skewed key distribution may evict or
+ * reject before the global limit is reached. Block rounding means the arena holds somewhat less
+ * than {@code maxBytes} of payload.
+ */
+public class OffHeapIdempotentStore implements IdempotentStore {
+
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    private final IdempotentPayloadCodec payloadCodec;
+    private final Segment[] segments;
+    private final int segmentShift;
+
+    /**
+     * @param payloadCodec codec for stored responses
+     * @param maxEntries   maximum number of entries
+     * @param maxBytes     maximum off-heap memory for keys and responses, excluding the index
+     */
+    public OffHeapIdempotentStore(IdempotentPayloadCodec payloadCodec, int maxEntries, long maxBytes) {
+        this(payloadCodec, maxEntries, maxBytes, DEFAULT_SEGMENTS);
+    }
+
+    OffHeapIdempotentStore(IdempotentPayloadCodec payloadCodec, int maxEntries, long maxBytes, int segmentCount) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("maxEntries and maxBytes must be positive");
+        }
+        this.payloadCodec = payloadCodec;
+        int count = Integer.highestOneBit(Math.max(1, Math.min(segmentCount, maxEntries)));
+        int entriesPerSegment = (maxEntries + count - 1) / count;
+        long bytesPerSegment = Math.max(maxBytes / count, Arena.MIN_BLOCK);
+        this.segments = new Segment[count];
+        this.segmentShift = Integer.SIZE - Integer.numberOfTrailingZeros(count);
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(entriesPerSegment, bytesPerSegment);
+        }
+    }
+
+    @Override
+    public @Nullable Value loadValue(IdempotentKey idempotentKey, Class<?> returnType) {
+        var probe = new Probe(idempotentKey);
+        var segment = segmentFor(probe);
+        Snapshot snapshot;
+        segment.lock.lock();
+        try {
+            int slot = segment.find(probe);
+            snapshot = slot < 0 ? null : segment.snapshot(slot);
+        } finally {
+            segment.lock.unlock();
+        }
+        return snapshot == null ? null : decode(snapshot, returnType);
+    }
+
+    @Override
+    public @Nullable EntryStatus loadStatus(IdempotentKey idempotentKey) {
+        var probe = new Probe(idempotentKey);
+        var segment = segmentFor(probe);
+        segment.lock.lock();
+        try {
+            int slot = segment.find(probe);
+            return slot < 0 ? null : segment.entryStatus(slot);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public Map<IdempotentKey, EntryStatus> loadStatuses(Collection<IdempotentKey> keys) {
+        Map<IdempotentKey, EntryStatus> statuses = new HashMap<>();
+        for (IdempotentKey key : keys) {
+            EntryStatus status = loadStatus(key);
+            if (status != null) {
+                statuses.put(key, status);
+            }
+        }
+        return statuses;
+    }
+
+    @Override
+    public void store(IdempotentKey idempotentKey, Value value) {
+        var probe = new Probe(idempotentKey);
+        PayloadBuffer response = encode(value);
+        var segment = segmentFor(probe);
+        segment.lock.lock();
+        try {
+            if (segment.find(probe) >= 0) {
+                throw new IdempotentKeyConflictException("Idempotent key already exists in Memory", idempotentKey);
+            }
+            segment.insert(probe, value, response);
+        } finally {
+            segment.lock.unlock();
+            release(response);
+        }
+    }
+
+    @Override
+    public @Nullable Value claimOrGet(IdempotentKey idempotentKey, Value value, Class<?> returnType) {
+        var probe = new Probe(idempotentKey);
+        PayloadBuffer response = encode(value);
+        var segment = segmentFor(probe);
+        Snapshot existing = null;
+        segment.lock.lock();
+        try {
+            int slot = segment.find(probe);
+            if (slot >= 0) {
+                existing = segment.snapshot(slot);
+                if (!existing.isLive(Instant.now())) {
+                    existing = null;
+                    segment.delete(slot);
+                }
+            }
+            if (existing == null) {
+                segment.insert(probe, value, response);
+            }
+        } finally {
+            segment.lock.unlock();
+            release(response);
+        }
+        return existing == null ? null : decode(existing, returnType);
+    }
+
+    @Override
+    public void remove(IdempotentKey idempotentKey) {
+        var probe = new Probe(idempotentKey);
+        var segment = segmentFor(probe);
+        segment.lock.lock();
+        try {
+            int slot = segment.find(probe);
+            if (slot >= 0) {
+                segment.delete(slot);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces an existing entry. If the new record cannot be placed even after evicting, the old
+     * entry is gone as well and {@link IdempotentException} is thrown.
+     */
+    @Override
+    public void update(IdempotentKey idempotentKey, Value value) {
+        var probe = new Probe(idempotentKey);
+        PayloadBuffer response = encode(value);
+        var segment = segmentFor(probe);
+        segment.lock.lock();
+        try {
+            int slot = segment.find(probe);
+            if (slot < 0) {
+                return;
+            }
+            segment.delete(slot);
+            segment.insert(probe, value, response);
+        } finally {
+            segment.lock.unlock();
+            release(response);
+        }
+    }
+
+    /** Number of stored entries, including expired ones not yet removed. */
+    public int size() {
+        int size = 0;
+        for (var segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.count;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Clear all stored values (for testing purposes).
+     */
+    public void clear() {
+        for (var segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.clear();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    private Segment segmentFor(Probe probe) {
+        // Table slots use the low hash bits; pick the segment from differently mixed high bits.
+        return segments.length == 1 ? segments[0] : segments[(probe.hash * 0x9E3779B9) >>> segmentShift];
+    }
+
+    /** Encodes the response into a pooled buffer, which the caller releases once it is copied into the arena. */
+    private @Nullable PayloadBuffer encode(Value value) {
+        Object response = value.response();
+        return response == null ? null : payloadCodec.serializeToBuffer(response);
+    }
+
+    private static void release(@Nullable PayloadBuffer response) {
+        if (response != null) {
+            response.release();
+        }
+    }
+
+    private Value decode(Snapshot snapshot, Class<?> returnType) {
+        Object response =
+                snapshot.response == null ? null : LazyResponse.ofBytes(payloadCodec, snapshot.response, returnType);
+        return new Value(snapshot.status, snapshot.expiresAt, response);
+    }
+
+    /** Encoded key and its hash, computed once per operation outside the segment lock. */
+    private static final class Probe {
+        private final byte[] bytes;
+        private final int hash;
+
+        private Probe(IdempotentKey key) {
+            this(encode(key));
+        }
+
+        /** Probe for a key read back from a record. */
+        private Probe(byte[] bytes) {
+            this.bytes = bytes;
+            int h = Arrays.hashCode(bytes);
+            this.hash = h ^ (h >>> 16);
+        }
+
+        private static byte[] encode(IdempotentKey key) {
+            byte[] k = key.key().getBytes(UTF_8);
+            byte[] p = key.processName().getBytes(UTF_8);
+            return ByteBuffer.allocate(Integer.BYTES + k.length + p.length)
+                    .putInt(k.length)
+                    .put(k)
+                    .put(p)
+                    .array();
+        }
+    }
+
+    /** Slot contents copied out under the lock; decoding happens after it is released. */
+    private static final class Snapshot {
+        private final Status status;
+        private final Instant expiresAt;
+        private final byte @Nullable [] response;
+
+        private Snapshot(Status status, Instant expiresAt, byte @Nullable [] response) {
+            this.status = status;
+            this.expiresAt = expiresAt;
+            this.response = response;
+        }
+
+        private boolean isLive(Instant now) {
+            return now.isBefore(expiresAt);
+        }
+    }
+
+    /**
+     * One lock, one index table and one arena. Slot layout (32 bytes): status (0 = empty,
+     * otherwise ordinal + 1), key hash, expiry seconds, expiry nanos, record length, record
+     * address. Record layout: key length, response length (-1 for null), key bytes, response
+     * bytes.
+     */
+    private static final class Segment {
+        private static final int SLOT_BYTES = 32;
+        private static final int STATUS = 0;
+        private static final int HASH = 4;
+        private static final int EXPIRES_SECONDS = 8;
+        private static final int EXPIRES_NANOS = 16;
+        private static final int LENGTH = 20;
+        private static final int ADDRESS = 24;
+        private static final int RECORD_HEADER = 2 * Integer.BYTES;
+        private static final int MAX_CAPACITY = 1 << 25;
+        private static final Status[] STATUSES = Status.values();
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int maxEntries;
+        private final int mask;
+        private final ByteBuffer table;
+        private final Arena arena;
+        private int count;
+        private int hand;
+
+        private Segment(int maxEntries, long maxBytes) {
+            if (maxEntries > MAX_CAPACITY / 4 * 3) {
+                throw new IllegalArgumentException("maxEntries is too large for the off-heap index");
+            }
+            // Keep the load factor below 3/4 so probe sequences stay short and always end at an
+            // empty slot.
+            int capacity = Integer.highestOneBit((maxEntries + maxEntries / 3 + 1) * 2 - 1);
+            this.maxEntries = maxEntries;
+            this.mask = capacity - 1;
+            this.table = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+            this.arena = new Arena(maxBytes);
+        }
+
+        private int find(Probe probe) {
+            for (int slot = probe.hash & mask; ; slot = (slot + 1) & mask) {
+                int offset = slot * SLOT_BYTES;
+                int status = table.getInt(offset + STATUS);
+                if (status == 0) {
+                    return -1;
+                }
+                if (table.getInt(offset + HASH) == probe.hash && keyEquals(offset, probe.bytes)) {
+                    return slot;
+                }
+            }
+        }
+
+        private boolean keyEquals(int offset, byte[] key) {
+            long address = table.getLong(offset + ADDRESS);
+            return arena.getInt(address) == key.length && arena.equals(address + RECORD_HEADER, key);
+        }
+
+        private Snapshot snapshot(int slot) {
+            int offset = slot * SLOT_BYTES;
+            long address = table.getLong(offset + ADDRESS);
+            int keyLength = arena.getInt(address);
+            int responseLength = arena.getInt(address + Integer.BYTES);
+            byte[] response = null;
+            if (responseLength >= 0) {
+                response = new byte[responseLength];
+                arena.get(address + RECORD_HEADER + keyLength, response);
+            }
+            return new Snapshot(
+                    STATUSES[table.getInt(offset + STATUS) - 1],
+                    Instant.ofEpochSecond(
+                            table.getLong(offset + EXPIRES_SECONDS), table.getInt(offset + EXPIRES_NANOS)),
+                    response);
+        }
+
+        /** Status and expiry of a slot, read from the table without touching the arena. */
+        private EntryStatus entryStatus(int slot) {
+            int offset = slot * SLOT_BYTES;
+            return new EntryStatus(
+                    STATUSES[table.getInt(offset + STATUS) - 1],
+                    Instant.ofEpochSecond(
+                            table.getLong(offset + EXPIRES_SECONDS), table.getInt(offset + EXPIRES_NANOS)));
+        }
+
+        /** Inserts a key known to be absent, evicting {@code COMPLETED} or expired entries as needed. */
+        private void insert(Probe probe, Value value, @Nullable PayloadBuffer response) {
+            int length = RECORD_HEADER + probe.bytes.length + (response == null ? 0 : response.size());
+            if (!arena.fits(length)) {
+                throw new IdempotentException(
+                        "Idempotent entry of " + length + " bytes exceeds the off-heap block size");
+            }
+            while (count >= maxEntries) {
+                evictOne();
+            }
+            long address = arena.allocate(length);
+            if (address < 0) {
+                address = evictFor(length);
+            }
+            arena.putInt(address, probe.bytes.length);
+            arena.putInt(address + Integer.BYTES, response == null ? -1 : response.size());
+            arena.put(address + RECORD_HEADER, probe.bytes);
+            if (response != null) {
+                arena.put(address + RECORD_HEADER + probe.bytes.length, response.asByteBuffer());
+            }
+            // Evictions shift entries, so look for the free slot only now.
+            int slot = probe.hash & mask;
+            while (table.getInt(slot * SLOT_BYTES + STATUS) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            int offset = slot * SLOT_BYTES;
+            table.putInt(offset + STATUS, value.status().ordinal() + 1);
+            table.putInt(offset + HASH, probe.hash);
+            table.putLong(offset + EXPIRES_SECONDS, value.expiresAt().getEpochSecond());
+            table.putInt(offset + EXPIRES_NANOS, value.expiresAt().getNano());
+            table.putInt(offset + LENGTH, length);
+            table.putLong(offset + ADDRESS, address);
+            count++;
+        }
+
+        /** Removes the slot and shifts back followers so lookups need no tombstones. */
+        private void delete(int slot) {
+            int offset = slot * SLOT_BYTES;
+            arena.free(table.getLong(offset + ADDRESS), table.getInt(offset + LENGTH));
+            count--;
+            int hole = slot;
+            for (int next = (slot + 1) & mask;
+                    table.getInt(next * SLOT_BYTES + STATUS) != 0;
+                    next = (next + 1) & mask) {
+                int home = table.getInt(next * SLOT_BYTES + HASH) & mask;
+                // Move when the entry's home is not between the hole and its current slot.
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    copySlot(next, hole);
+                    hole = next;
+                }
+            }
+            clearSlot(hole);
+        }
+
+        private void evictOne() {
+            long nowSeconds = Instant.now().getEpochSecond();
+            for (int scanned = 0; scanned <= mask; scanned++) {
+                int slot = hand;
+                hand = (hand + 1) & mask;
+                if (isEvictable(slot * SLOT_BYTES, nowSeconds)) {
+                    delete(slot);
+                    // The shift may have moved an unvisited entry into this slot.
+                    hand = slot;
+                    return;
+                }
+            }
+            throw new IdempotentException(
+                    "Off-heap idempotent store is full (" + count + " entries in progress in one segment)");
+        }
+
+        /**
+         * Makes room for a record of {@code length} bytes and allocates it. Prefers one entry whose
+         * block, merged with its free buddies, is large enough; otherwise empties a whole block of
+         * the needed size in which every entry may be evicted. Other entries are left alone.
+         */
+        private long evictFor(int length) {
+            long nowSeconds = Instant.now().getEpochSecond();
+            for (int scanned = 0; scanned <= mask; scanned++) {
+                int slot = hand;
+                hand = (hand + 1) & mask;
+                int offset = slot * SLOT_BYTES;
+                if (isEvictable(offset, nowSeconds)
+                        && arena.freesRoomFor(table.getLong(offset + ADDRESS), table.getInt(offset + LENGTH), length)) {
+                    delete(slot);
+                    hand = slot;
+                    return arena.allocate(length);
+                }
+            }
+            for (int scanned = 0; scanned <= mask; scanned++) {
+                int slot = hand;
+                hand = (hand + 1) & mask;
+                int offset = slot * SLOT_BYTES;
+                if (isEvictable(offset, nowSeconds)) {
+                    long region = arena.enclosingBlock(table.getLong(offset + ADDRESS), length);
+                    if (region >= 0 && evictBlock(region, length, nowSeconds)) {
+                        return arena.allocate(length);
+                    }
+                }
+            }
+            throw new IdempotentException("Off-heap idempotent store is full (no evictable entries free " + length
+                    + " bytes in one segment)");
+        }
+
+        /** Evicts every record in the block at {@code region}, or nothing if one of them may not be evicted. */
+        private boolean evictBlock(long region, int length, long nowSeconds) {
+            List<Probe> victims = new ArrayList<>();
+            long end = region + Arena.blockSize(length);
+            for (long address = region; address < end; ) {
+                int first = arena.getInt(address);
+                if (first < 0) {
+                    address += Arena.freeBlockSize(first);
+                    continue;
+                }
+                byte[] key = new byte[first];
+                arena.get(address + RECORD_HEADER, key);
+                var probe = new Probe(key);
+                int slot = find(probe);
+                if (slot < 0 || !isEvictable(slot * SLOT_BYTES, nowSeconds)) {
+                    return false;
+                }
+                victims.add(probe);
+                address += Arena.blockSize(table.getInt(slot * SLOT_BYTES + LENGTH));
+            }
+            // Deleting shifts slots, so look each victim up again.
+            for (Probe victim : victims) {
+                delete(find(victim));
+            }
+            return true;
+        }
+
+        private boolean isEvictable(int offset, long nowSeconds) {
+            int status = table.getInt(offset + STATUS);
+            return status != 0
+                    && (STATUSES[status - 1] == Status.COMPLETED
+                            || table.getLong(offset + EXPIRES_SECONDS) < nowSeconds);
+        }
+
+        private void copySlot(int from, int to) {
+            int source = from * SLOT_BYTES;
+            int target = to * SLOT_BYTES;
+            for (int i = 0; i < SLOT_BYTES; i += Long.BYTES) {
+                table.putLong(target + i, table.getLong(source + i));
+            }
+        }
+
+        private void clearSlot(int slot) {
+            int offset = slot * SLOT_BYTES;
+            for (int i = 0; i < SLOT_BYTES; i += Long.BYTES) {
+                table.putLong(offset + i, 0L);
+            }
+        }
+
+        private void clear() {
+            for (int slot = 0; slot <= mask; slot++) {
+                clearSlot(slot);
+            }
+            arena.clear();
+            count = 0;
+            hand = 0;
+        }
+    }
+
+    /**
+     * Direct-buffer memory managed as a buddy allocator. The budget is split into chunks of up to
+     * 64 MiB that are allocated on first use; a last, smaller chunk takes the remainder, so the whole
+     * budget is usable. Each chunk is a set of power-of-two blocks aligned to their size: an
+     * allocation splits the smallest free block that fits, and a freed block merges with its buddy
+     * while that one is free at the same size. Free blocks sit in per-size doubly linked lists
+     * threaded through the blocks themselves, and start with the negative tag {@code -(shift + 1)};
+     * allocated blocks start with a non-negative int (a record's key length). Addresses are {@code
+     * chunk << chunkShift | offset}.
+     */
+    private static final class Arena {
+        private static final int MIN_SHIFT = 5;
+        private static final int MIN_BLOCK = 1 << MIN_SHIFT;
+        private static final int MAX_CHUNK_SHIFT = 26;
+        private static final int NEXT = 8;
+        private static final int PREVIOUS = 16;
+
+        private final int chunkShift;
+        private final int chunkSize;
+        private final int lastChunkSize;
+        private final ByteBuffer[] chunks;
+        private final long[] freeLists;
+        private int allocatedChunks;
+
+        private Arena(long maxBytes) {
+            this.chunkShift = Math.min(MAX_CHUNK_SHIFT, 63 - Long.numberOfLeadingZeros(maxBytes));
+            this.chunkSize = 1 << chunkShift;
+            int fullChunks = (int) Math.min(Integer.MAX_VALUE - 1, maxBytes >>> chunkShift);
+            int remainder = (int) (maxBytes & (chunkSize - 1)) & -MIN_BLOCK;
+            this.chunks = new ByteBuffer[fullChunks + (remainder > 0 ? 1 : 0)];
+            this.lastChunkSize = remainder > 0 ? remainder : chunkSize;
+            this.freeLists = new long[chunkShift + 1];
+            clear();
+        }
+
+        private boolean fits(int length) {
+            return length <= chunkSize;
+        }
+
+        /** Returns the block address, or {@code -1} when no free block is large enough. */
+        private long allocate(int length) {
+            int shift = shiftFor(length);
+            int free = smallestFree(shift);
+            while (free < 0 && allocatedChunks < chunks.length) {
+                addChunk();
+                free = smallestFree(shift);
+            }
+            if (free < 0) {
+                return -1;
+            }
+            long address = freeLists[free];
+            unlink(address, free);
+            while (free > shift) {
+                free--;
+                push(address + (1L << free), free);
+            }
+            putInt(address, 0);
+            return address;
+        }
+
+        private void free(long address, int length) {
+            int shift = shiftFor(length);
+            int chunkLength = chunk(address).capacity();
+            int offset = offset(address);
+            long base = address - offset;
+            while (shift < chunkShift) {
+                int buddy = offset ^ (1 << shift);
+                if (buddy + (1 << shift) > chunkLength || getInt(base | buddy) != tag(shift)) {
+                    break;
+                }
+                unlink(base | buddy, shift);
+                offset &= buddy;
+                shift++;
+            }
+            push(base | offset, shift);
+        }
+
+        /**
+         * Whether freeing the block of a {@code blockLength}-byte record would, merged with its
+         * free buddies, leave a block that holds {@code length} bytes.
+         */
+        private boolean freesRoomFor(long address, int blockLength, int length) {
+            int shift = shiftFor(blockLength);
+            int target = shiftFor(length);
+            int chunkLength = chunk(address).capacity();
+            int offset = offset(address);
+            long base = address - offset;
+            while (shift < target) {
+                int buddy = offset ^ (1 << shift);
+                if (buddy + (1 << shift) > chunkLength || getInt(base | buddy) != tag(shift)) {
+                    return false;
+                }
+                offset &= buddy;
+                shift++;
+            }
+            return true;
+        }
+
+        /** Start of the block of {@code length}'s size that contains {@code address}, or -1 if none fits there. */
+        private long enclosingBlock(long address, int length) {
+            int size = blockSize(length);
+            int offset = offset(address) & -size;
+            return offset + size > chunk(address).capacity() ? -1 : (address - offset(address)) | offset;
+        }
+
+        private int smallestFree(int shift) {
+            for (int candidate = shift; candidate <= chunkShift; candidate++) {
+                if (freeLists[candidate] >= 0) {
+                    return candidate;
+                }
+            }
+            return -1;
+        }
+
+        private void addChunk() {
+            int index = allocatedChunks++;
+            int size = index == chunks.length - 1 ? lastChunkSize : chunkSize;
+            chunks[index] = ByteBuffer.allocateDirect(size);
+            // Largest blocks first keeps each block aligned to its own size.
+            long base = (long) index << chunkShift;
+            int offset = 0;
+            for (int shift = chunkShift; shift >= MIN_SHIFT; shift--) {
+                if ((size & (1 << shift)) != 0) {
+                    push(base | offset, shift);
+                    offset += 1 << shift;
+                }
+            }
+        }
+
+        private void push(long address, int shift) {
+            long head = freeLists[shift];
+            putInt(address, tag(shift));
+            putLong(address + NEXT, head);
+            putLong(address + PREVIOUS, -1L);
+            if (head >= 0) {
+                putLong(head + PREVIOUS, address);
+            }
+            freeLists[shift] = address;
+        }
+
+        private void unlink(long address, int shift) {
+            long next = getLong(address + NEXT);
+            long previous = getLong(address + PREVIOUS);
+            if (previous >= 0) {
+                putLong(previous + NEXT, next);
+            } else {
+                freeLists[shift] = next;
+            }
+            if (next >= 0) {
+                putLong(next + PREVIOUS, previous);
+            }
+        }
+
+        private void clear() {
+            Arrays.fill(chunks, null);
+            Arrays.fill(freeLists, -1L);
+            allocatedChunks = 0;
+        }
+
+        private static int tag(int shift) {
+            return -(shift + 1);
+        }
+
+        /** Size of the block holding {@code length} bytes. */
+        private static int blockSize(int length) {
+            return 1 << shiftFor(length);
+        }
+
+        /** Size of the free block whose first int is {@code tag}. */
+        private static int freeBlockSize(int tag) {
+            return 1 << (-tag - 1);
+        }
+
+        private static int shiftFor(int length) {
+            return Math.max(MIN_SHIFT, 32 - Integer.numberOfLeadingZeros(length - 1));
+        }
+
+        private ByteBuffer chunk(long address) {
+            return chunks[(int) (address >>> chunkShift)];
+        }
+
+        private int offset(long address) {
+            return (int) (address & (chunkSize - 1));
+        }
+
+        private int getInt(long address) {
+            return chunk(address).getInt(offset(address));
+        }
+
+        private void putInt(long address, int value) {
+            chunk(address).putInt(offset(address), value);
+        }
+
+        private long getLong(long address) {
+            return chunk(address).getLong(offset(address));
+        }
+
+        private void putLong(long address, long value) {
+            chunk(address).putLong(offset(address), value);
+        }
+
+        private void get(long address, byte[] target) {
+            chunk(address).get(offset(address), target);
+        }
+
+        private void put(long address, byte[] source) {
+            chunk(address).put(offset(address), source);
+        }
+
+        private void put(long address, ByteBuffer source) {
+            chunk(address).put(offset(address), source, source.position(), source.remaining());
+        }
+
+        private boolean equals(long address, byte[] expected) {
+            return chunk(address).slice(offset(address), expected.length).equals(ByteBuffer.wrap(expected));
+        }
+    }
+}
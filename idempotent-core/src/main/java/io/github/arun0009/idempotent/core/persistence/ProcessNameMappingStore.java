@@ -0,0 +1,163 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorator that rewrites the process name of every key through a {@link ProcessNameRegistry}
+ * before it reaches the delegate. Results are reported under the caller's original keys, so
+ * metrics, notifiers and near caches above it keep seeing readable process names.
+ */
+public class ProcessNameMappingStore implements IdempotentStore {
+
+    private final IdempotentStore delegate;
+    private final ProcessNameRegistry registry;
+
+    public ProcessNameMappingStore(IdempotentStore delegate, ProcessNameRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    /** Applies {@code registry} to the keys passed to an {@link AsyncIdempotentStore}. */
+    public static AsyncIdempotentStore async(AsyncIdempotentStore delegate, ProcessNameRegistry registry) {
+        return new AsyncIdempotentStore() {
+            @Override
+            public CompletableFuture<@Nullable Value> getValue(IdempotentKey key, Class<?> returnType) {
+                return delegate.getValue(map(registry, key), returnType);
+            }
+
+            @Override
+            public CompletableFuture<@Nullable EntryStatus> loadStatus(IdempotentKey key) {
+                return delegate.loadStatus(map(registry, key));
+            }
+
+            @Override
+            public CompletableFuture<@Nullable Value> claimOrGet(
+                    IdempotentKey key, Value value, Class<?> returnType) {
+                return delegate.claimOrGet(map(registry, key), value, returnType);
+            }
+
+            @Override
+            public CompletableFuture<Void> update(IdempotentKey key, Value value) {
+                return delegate.update(map(registry, key), value);
+            }
+
+            @Override
+            public CompletableFuture<Void> remove(IdempotentKey key) {
+                return delegate.remove(map(registry, key));
+            }
+        };
+    }
+
+    private static IdempotentKey map(ProcessNameRegistry registry, IdempotentKey key) {
+        return new IdempotentKey(key.key(), registry.idOf(key.processName()));
+    }
+
+    private IdempotentKey map(IdempotentKey key) {
+        return map(registry, key);
+    }
+
+    @Override
+    public @Nullable Value loadValue(IdempotentKey key, Class<?> returnType) {
+        return delegate.loadValue(map(key), returnType);
+    }
+
+    @Override
+    public @Nullable Value getValue(IdempotentKey key, Class<?> returnType) {
+        return delegate.getValue(map(key), returnType);
+    }
+
+    @Override
+    public @Nullable EntryStatus loadStatus(IdempotentKey key) {
+        return delegate.loadStatus(map(key));
+    }
+
+    @Override
+    public void store(IdempotentKey key, Value value) {
+        delegate.store(map(key), value);
+    }
+
+    @Override
+    public @Nullable Value claimOrGet(IdempotentKey key, Value value, Class<?> returnType) {
+        return delegate.claimOrGet(map(key), value, returnType);
+    }
+
+    @Override
+    public void remove(IdempotentKey key) {
+        delegate.remove(map(key));
+    }
+
+    @Override
+    public void update(IdempotentKey key, Value value) {
+        delegate.update(map(key), value);
+    }
+
+    @Override
+    public Map<IdempotentKey, Value> loadValues(Collection<IdempotentKey> keys, Class<?> returnType) {
+        Map<IdempotentKey, IdempotentKey> originals = originals(keys);
+        return unmap(delegate.loadValues(originals.keySet(), returnType), originals);
+    }
+
+    @Override
+    public Map<IdempotentKey, EntryStatus> loadStatuses(Collection<IdempotentKey> keys) {
+        Map<IdempotentKey, IdempotentKey> originals = originals(keys);
+        return unmap(delegate.loadStatuses(originals.keySet()), originals);
+    }
+
+    @Override
+    public Map<IdempotentKey, Value> getValues(Collection<IdempotentKey> keys, Class<?> returnType) {
+        Map<IdempotentKey, IdempotentKey> originals = originals(keys);
+        return unmap(delegate.getValues(originals.keySet(), returnType), originals);
+    }
+
+    @Override
+    public Set<IdempotentKey> storeAll(Map<IdempotentKey, Value> values) {
+        Map<IdempotentKey, IdempotentKey> originals = new HashMap<>();
+        Map<IdempotentKey, Value> mapped = new HashMap<>();
+        values.forEach((key, value) -> {
+            IdempotentKey stored = map(key);
+            originals.put(stored, key);
+            mapped.put(stored, value);
+        });
+        Set<IdempotentKey> conflicts = new HashSet<>();
+        for (IdempotentKey conflict : delegate.storeAll(mapped)) {
+            conflicts.add(originals.getOrDefault(conflict, conflict));
+        }
+        return conflicts;
+    }
+
+    @Override
+    public void updateAll(Map<IdempotentKey, Value> values) {
+        Map<IdempotentKey, Value> mapped = new HashMap<>();
+        values.forEach((key, value) -> mapped.put(map(key), value));
+        delegate.updateAll(mapped);
+    }
+
+    @Override
+    public void removeAll(Collection<IdempotentKey> keys) {
+        delegate.removeAll(List.copyOf(originals(keys).keySet()));
+    }
+
+    /** Mapped key to original key. */
+    private Map<IdempotentKey, IdempotentKey> originals(Collection<IdempotentKey> keys) {
+        Map<IdempotentKey, IdempotentKey> originals = new HashMap<>();
+        for (IdempotentKey key : keys) {
+            originals.put(map(key), key);
+        }
+        return originals;
+    }
+
+    private static <V> Map<IdempotentKey, V> unmap(
+            Map<IdempotentKey, V> values, Map<IdempotentKey, IdempotentKey> originals) {
+        Map<IdempotentKey, V> result = new HashMap<>();
+        values.forEach((key, value) -> result.put(originals.getOrDefault(key, key), value));
+        return result;
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for the {@link ProcessNameRegistry} applied to every store.
+ *
+ * @param compact whether process names are persisted as short hashed identifiers (off by default,
+ *                since enabling it hides entries written under full names)
+ */
+@ConfigurationProperties(prefix = "idempotent.process-names")
+public record ProcessNameProperties(@DefaultValue("false") boolean compact) {}
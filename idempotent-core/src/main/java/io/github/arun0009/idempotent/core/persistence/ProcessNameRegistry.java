@@ -0,0 +1,30 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import io.github.arun0009.idempotent.core.key.KeyHasher;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps a process name ({@code __OrderController.place()}) to the identifier stores persist in its
+ * place. Applied by {@link ProcessNameMappingStore} in front of the backend, so every store gets
+ * the shorter key layout without changes of its own.
+ *
+ * <p>The mapping must be stable across restarts and identical on every instance: entries written
+ * under one identifier are invisible under another.
+ */
+@FunctionalInterface
+public interface ProcessNameRegistry {
+
+    String idOf(String processName);
+
+    /**
+     * Derives an 11-character base64url identifier from a 128-bit MurmurHash3 of the name, so no
+     * coordination or storage is needed. Identifiers are memoized; process names are assumed to
+     * be a small, fixed set.
+     */
+    static ProcessNameRegistry hashed() {
+        var ids = new ConcurrentHashMap<String, String>();
+        return processName -> ids.computeIfAbsent(
+                processName, name -> KeyHasher.murmur3().hash(name).substring(0, 11));
+    }
+}
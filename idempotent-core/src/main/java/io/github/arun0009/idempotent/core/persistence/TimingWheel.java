@@ -0,0 +1,312 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Striped hierarchical timing wheel tracking one deadline per key.
+ *
+ * <p>Each stripe owns {@value #LEVELS} wheels of {@value #SLOTS} slots; level {@code n} slots span
+ * {@code 64^n} ticks. Scheduling, cancelling and firing a timer are O(1); timers in higher levels
+ * are cascaded down as the wheel turns. Keys are spread over independently locked stripes, so
+ * bookkeeping from different cores rarely contends.
+ *
+ * <p>The wheel only tracks deadlines. Callers re-check the stored value when a key fires, so a
+ * stale timer never removes a live entry.
+ */
+final class TimingWheel<K> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final Stripe<K>[] stripes;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TimingWheel(Duration tick, int stripeCount, Instant start) {
+        if (tick.toMillis() <= 0) {
+            throw new IllegalArgumentException("tick must be at least 1ms");
+        }
+        this.tickMillis = tick.toMillis();
+        int count = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        this.stripes = new Stripe[count];
+        long startTick = start.toEpochMilli() / tickMillis;
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>(startTick);
+        }
+    }
+
+    /** Schedules (or reschedules) {@code key} to fire at {@code deadline}. */
+    void schedule(K key, Instant deadline) {
+        // Round up so a key never fires before its deadline.
+        long deadlineTick = Math.floorDiv(deadline.toEpochMilli() + tickMillis - 1, tickMillis);
+        var stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            stripe.schedule(key, deadlineTick);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /** Removes the timer for {@code key}, if any. */
+    void cancel(K key) {
+        var stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            stripe.cancel(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Turns every stripe up to {@code now} and returns the keys whose deadline passed. Their timers
+     * are removed.
+     */
+    List<K> advance(Instant now) {
+        long nowTick = now.toEpochMilli() / tickMillis;
+        List<K> expired = new ArrayList<>();
+        for (var stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                while (stripe.currentTick < nowTick) {
+                    stripe.tick(expired);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Finds the key with (approximately) the soonest deadline that satisfies {@code evictable},
+     * removing its timer. Starts with the stripe of {@code hint} and falls back to the others.
+     *
+     * @return the evicted key, or {@code null} when no tracked key is evictable
+     */
+    @Nullable K evict(K hint, Predicate<K> evictable) {
+        int start = index(hint);
+        for (int i = 0; i < stripes.length; i++) {
+            var stripe = stripes[(start + i) & (stripes.length - 1)];
+            stripe.lock.lock();
+            try {
+                K key = stripe.evict(evictable);
+                if (key != null) {
+                    return key;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return null;
+    }
+
+    void clear() {
+        for (var stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.clear();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (var stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.timers.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Stripe<K> stripeFor(K key) {
+        return stripes[index(key)];
+    }
+
+    private int index(K key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    private static final class Stripe<K> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final HashMap<K, Timer<K>> timers = new HashMap<>();
+        private final Slot<K>[][] wheels;
+        private long currentTick;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Stripe(long startTick) {
+            this.currentTick = startTick;
+            this.wheels = new Slot[LEVELS][SLOTS];
+            for (int level = 0; level < LEVELS; level++) {
+                for (int slot = 0; slot < SLOTS; slot++) {
+                    wheels[level][slot] = new Slot<>();
+                }
+            }
+        }
+
+        private void schedule(K key, long deadlineTick) {
+            var timer = timers.get(key);
+            if (timer == null) {
+                timer = new Timer<>(key);
+                timers.put(key, timer);
+            } else {
+                timer.unlink();
+            }
+            timer.deadlineTick = deadlineTick;
+            place(timer, 1);
+        }
+
+        private void cancel(K key) {
+            var timer = timers.remove(key);
+            if (timer != null) {
+                timer.unlink();
+            }
+        }
+
+        /**
+         * @param minDelta 1 for new timers (the current slot has already fired), 0 while cascading
+         *                 (the current level-0 slot fires right after)
+         */
+        private void place(Timer<K> timer, int minDelta) {
+            long deadline = Math.max(timer.deadlineTick, currentTick + minDelta);
+            long delta = Math.min(deadline - currentTick, MAX_DELTA);
+            int level = 0;
+            while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+                level++;
+            }
+            long placement = currentTick + delta;
+            int index = (int) ((placement >>> (BITS * level)) & MASK);
+            wheels[level][index].add(timer);
+        }
+
+        private void tick(List<K> expired) {
+            currentTick++;
+            // Cascade every higher level whose window starts at this tick, highest first.
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    var slot = wheels[level][(int) ((currentTick >>> (BITS * level)) & MASK)];
+                    for (Timer<K> timer = slot.drain(); timer != null; ) {
+                        Timer<K> next = timer.next;
+                        timer.next = null;
+                        place(timer, 0);
+                        timer = next;
+                    }
+                }
+            }
+            var due = wheels[0][(int) (currentTick & MASK)];
+            for (Timer<K> timer = due.drain(); timer != null; ) {
+                Timer<K> next = timer.next;
+                timer.next = null;
+                if (timer.deadlineTick <= currentTick) {
+                    timers.remove(timer.key);
+                    expired.add(timer.key);
+                } else {
+                    // Deadline beyond the wheel's horizon when it was placed.
+                    place(timer, 1);
+                }
+                timer = next;
+            }
+        }
+
+        private @Nullable K evict(Predicate<K> evictable) {
+            for (int level = 0; level < LEVELS; level++) {
+                int current = (int) ((currentTick >>> (BITS * level)) & MASK);
+                for (int offset = 0; offset < SLOTS; offset++) {
+                    var slot = wheels[level][(current + offset) & MASK];
+                    for (Timer<K> timer = slot.head; timer != null; timer = timer.next) {
+                        if (evictable.test(timer.key)) {
+                            timer.unlink();
+                            timers.remove(timer.key);
+                            return timer.key;
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+        private void clear() {
+            timers.clear();
+            for (var wheel : wheels) {
+                for (var slot : wheel) {
+                    slot.drain();
+                }
+            }
+        }
+    }
+
+    /** Intrusive doubly-linked list of timers sharing a slot. */
+    private static final class Slot<K> {
+        private @Nullable Timer<K> head;
+
+        private void add(Timer<K> timer) {
+            timer.slot = this;
+            timer.prev = null;
+            timer.next = head;
+            if (head != null) {
+                head.prev = timer;
+            }
+            head = timer;
+        }
+
+        /** Detaches and returns the whole list; callers must follow {@code next} before re-placing. */
+        private @Nullable Timer<K> drain() {
+            Timer<K> first = head;
+            head = null;
+            for (Timer<K> timer = first; timer != null; timer = timer.next) {
+                timer.slot = null;
+                timer.prev = null;
+            }
+            return first;
+        }
+    }
+
+    private static final class Timer<K> {
+        private final K key;
+        private long deadlineTick;
+        private @Nullable Slot<K> slot;
+        private @Nullable Timer<K> prev;
+        private @Nullable Timer<K> next;
+
+        private Timer(K key) {
+            this.key = key;
+        }
+
+        private void unlink() {
+            var owner = slot;
+            if (owner == null) {
+                return;
+            }
+            if (prev != null) {
+                prev.next = next;
+            } else {
+                owner.head = next;
+            }
+            if (next != null) {
+                next.prev = prev;
+            }
+            slot = null;
+            prev = null;
+            next = null;
+        }
+    }
+}
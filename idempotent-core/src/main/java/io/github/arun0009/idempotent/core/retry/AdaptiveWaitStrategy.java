@@ -0,0 +1,136 @@
+package io.github.arun0009.idempotent.core.retry;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Wait policy that schedules polls from the operation durations observed for each process.
+ *
+ * <p>The first poll of a wait comes after the configured percentile of the process's recent
+ * durations (never sooner than {@code minDelay}), which is about when the original call is
+ * expected to finish. Later polls use decorrelated jitter: each delay is drawn uniformly between
+ * {@code minDelay} and three times the previous delay, capped at {@code maxDelay}, so waiters on a
+ * hot key spread their reads. A wait ends at its deadline ({@code maxWait}, or the per-process
+ * override) rather than after a number of attempts.
+ *
+ * <p>Each process keeps its last {@value #SAMPLES} durations; until it has any, the first poll
+ * comes after {@code minDelay}.
+ */
+public final class AdaptiveWaitStrategy implements WaitPolicy {
+
+    static final int SAMPLES = 128;
+
+    private final long minDelayMillis;
+    private final long maxDelayMillis;
+    private final Duration maxWait;
+    private final double percentile;
+    private final Map<String, Duration> maxWaitByProcess;
+    private final ConcurrentHashMap<String, Samples> samples = new ConcurrentHashMap<>();
+
+    /**
+     * @param minDelay         shortest delay between polls
+     * @param maxDelay         longest jittered delay between polls after the first one
+     * @param maxWait          deadline of a wait
+     * @param percentile       percentile of observed durations to schedule the first poll at, in
+     *                         {@code (0, 1]}
+     * @param maxWaitByProcess deadline overrides keyed by process name
+     */
+    public AdaptiveWaitStrategy(
+            Duration minDelay,
+            Duration maxDelay,
+            Duration maxWait,
+            double percentile,
+            Map<String, Duration> maxWaitByProcess) {
+        if (minDelay.isNegative() || minDelay.isZero() || maxDelay.compareTo(minDelay) < 0) {
+            throw new IllegalArgumentException("minDelay must be positive and not exceed maxDelay");
+        }
+        if (!(percentile > 0 && percentile <= 1)) {
+            throw new IllegalArgumentException("percentile must be in (0, 1]");
+        }
+        this.minDelayMillis = minDelay.toMillis();
+        this.maxDelayMillis = maxDelay.toMillis();
+        this.maxWait = Objects.requireNonNull(maxWait, "maxWait cannot be null");
+        this.percentile = percentile;
+        this.maxWaitByProcess = Map.copyOf(maxWaitByProcess);
+    }
+
+    @Override
+    public Schedule schedule(String processName) {
+        long deadline = System.nanoTime() + maxWait(processName).toNanos();
+        long expected = expectedMillis(processName);
+        long first = Math.max(minDelayMillis, expected);
+        return new Schedule() {
+            private long previous = -1;
+
+            @Override
+            public long nextDelayMillis() {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return -1;
+                }
+                long delay = previous < 0 ? first : jittered(previous);
+                previous = delay;
+                return Math.min(delay, remaining);
+            }
+        };
+    }
+
+    @Override
+    public Duration maxWait(String processName) {
+        return maxWaitByProcess.getOrDefault(processName, maxWait);
+    }
+
+    @Override
+    public void recordDuration(String processName, Duration elapsed) {
+        var stats = samples.get(processName);
+        if (stats == null) {
+            stats = samples.computeIfAbsent(processName, ignored -> new Samples());
+        }
+        stats.add(elapsed.toNanos());
+    }
+
+    /** Configured percentile of the recent durations of {@code processName}, or -1 without samples. */
+    long expectedMillis(String processName) {
+        var stats = samples.get(processName);
+        long nanos = stats == null ? -1 : stats.percentile(percentile);
+        return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private long jittered(long previous) {
+        long upper = Math.min(maxDelayMillis, previous * 3);
+        if (upper <= minDelayMillis) {
+            return minDelayMillis;
+        }
+        return ThreadLocalRandom.current().nextLong(minDelayMillis, upper + 1);
+    }
+
+    /** Ring of the most recent durations; readers tolerate slots being overwritten concurrently. */
+    private static final class Samples {
+        private final AtomicLongArray nanos = new AtomicLongArray(SAMPLES);
+        private final AtomicLong count = new AtomicLong();
+
+        void add(long elapsedNanos) {
+            nanos.set((int) (count.getAndIncrement() % SAMPLES), elapsedNanos);
+        }
+
+        long percentile(double percentile) {
+            int size = (int) Math.min(count.get(), SAMPLES);
+            if (size == 0) {
+                return -1;
+            }
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = nanos.get(i);
+            }
+            Arrays.sort(sorted);
+            return sorted[Math.max(0, (int) Math.ceil(percentile * size) - 1)];
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.arun0009.idempotent.core.retry;
+
+import io.github.arun0009.idempotent.core.persistence.AsyncIdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.IN_PROGRESS;
+
+/**
+ * Non-blocking counterpart of {@link IdempotentCompletionAwaiter}: each scheduled delay is a delayed
+ * task rather than a parked thread, so waiting duplicates hold no thread between polls. Like it,
+ * polls read only the status and the full entry is read once it completed. With a {@link
+ * StatusPoller}, waits join its batched reads instead.
+ */
+public class AsyncCompletionAwaiter {
+
+    private final AsyncIdempotentStore asyncStore;
+    private final WaitPolicy waitPolicy;
+    private final @Nullable StatusPoller statusPoller;
+
+    public AsyncCompletionAwaiter(AsyncIdempotentStore asyncStore, WaitPolicy waitPolicy) {
+        this(asyncStore, waitPolicy, null);
+    }
+
+    // Predates WaitPolicy; stays so that code compiled against it still links.
+    public AsyncCompletionAwaiter(AsyncIdempotentStore asyncStore, WaitStrategy waitStrategy) {
+        this(asyncStore, (WaitPolicy) waitStrategy);
+    }
+
+    /** @param statusPoller shared poller that takes over the waits; {@code null} to poll per waiter */
+    public AsyncCompletionAwaiter(
+            AsyncIdempotentStore asyncStore, WaitPolicy waitPolicy, @Nullable StatusPoller statusPoller) {
+        this.asyncStore = asyncStore;
+        this.waitPolicy = waitPolicy;
+        this.statusPoller = statusPoller;
+    }
+
+    /**
+     * Polls the store on the {@link WaitPolicy}'s schedule until the entry leaves {@code IN_PROGRESS}
+     * or the policy's budget is spent.
+     *
+     * @param idempotentKey the idempotent key for the request
+     * @param value         current in-progress value
+     * @return a future of the latest value from the store, or of {@code null} if the entry was
+     * removed
+     */
+    public CompletableFuture<IdempotentStore.@Nullable Value> waitAsync(
+            IdempotentStore.IdempotentKey idempotentKey, IdempotentStore.Value value) {
+        if (statusPoller != null) {
+            Duration maxWait = waitPolicy.maxWait(idempotentKey.processName());
+            // Like the blocking awaiter: a poller that stopped ticking ends the wait as exhausted.
+            return statusPoller
+                    .await(idempotentKey, value, maxWait)
+                    .completeOnTimeout(
+                            value, maxWait.plus(statusPoller.tick().multipliedBy(2)).toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return poll(idempotentKey, value, waitPolicy.schedule(idempotentKey.processName()));
+    }
+
+    private CompletableFuture<IdempotentStore.@Nullable Value> poll(
+            IdempotentStore.IdempotentKey idempotentKey, IdempotentStore.Value value, WaitPolicy.Schedule schedule) {
+        long delay = value.status() == IN_PROGRESS ? schedule.nextDelayMillis() : -1;
+        if (delay < 0) {
+            return CompletableFuture.completedFuture(value);
+        }
+        var delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS);
+        return CompletableFuture.runAsync(() -> {}, delayed)
+                .thenCompose(ignored -> read(idempotentKey))
+                .thenCompose(latest -> latest == null
+                        ? CompletableFuture.completedFuture(null)
+                        : poll(idempotentKey, latest, schedule));
+    }
+
+    private CompletableFuture<IdempotentStore.@Nullable Value> read(IdempotentStore.IdempotentKey idempotentKey) {
+        return asyncStore.loadStatus(idempotentKey).thenCompose(status -> {
+            if (status == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (status.isLiveInProgress()) {
+                return CompletableFuture.completedFuture(
+                        new IdempotentStore.Value(IN_PROGRESS, status.expiresAt(), null));
+            }
+            return asyncStore.getValue(idempotentKey, Object.class);
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.arun0009.idempotent.core.retry;
+
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wakes callers waiting on an in-progress key as soon as the owning caller finishes, instead of
+ * letting them sleep out the full backoff step.
+ *
+ * <p>Notifications are an optimization only: the awaiter still re-reads the store after every
+ * wake-up and still honours the {@link WaitPolicy} budget, so a notifier that never fires (such
+ * as {@link #NONE}, or a local notifier when the owner runs in another JVM) degrades to plain
+ * polling.
+ */
+public interface CompletionNotifier {
+
+    /** Polling-only notifier: subscriptions simply sleep for the requested timeout. */
+    CompletionNotifier NONE = new CompletionNotifier() {
+        @Override
+        public Subscription subscribe(IdempotentStore.IdempotentKey key) {
+            return timeoutMillis -> {
+                TimeUnit.MILLISECONDS.sleep(timeoutMillis);
+                return false;
+            };
+        }
+
+        @Override
+        public void notifyCompletion(IdempotentStore.IdempotentKey key) {}
+    };
+
+    /**
+     * Registers interest in {@code key}. Subscribe before re-reading the store so a completion
+     * that lands between the read and the wait is not missed.
+     */
+    Subscription subscribe(IdempotentStore.IdempotentKey key);
+
+    /**
+     * Signals that the entry for {@code key} left {@code IN_PROGRESS} (completed or removed).
+     * Must not throw; waiters fall back to polling when a notification is lost.
+     */
+    void notifyCompletion(IdempotentStore.IdempotentKey key);
+
+    /** A single-use registration for one key. */
+    @FunctionalInterface
+    interface Subscription extends AutoCloseable {
+
+        /**
+         * Blocks until the key is notified or {@code timeoutMillis} elapses.
+         *
+         * @return {@code true} when woken by a notification, {@code false} on timeout
+         */
+        boolean await(long timeoutMillis) throws InterruptedException;
+
+        @Override
+        default void close() {}
+    }
+}
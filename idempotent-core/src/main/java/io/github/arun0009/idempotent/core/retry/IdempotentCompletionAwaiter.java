@@ -1,57 +1,164 @@
 package io.github.arun0009.idempotent.core.retry;
 
 import io.github.arun0009.idempotent.core.exception.IdempotentException;
+import io.github.arun0009.idempotent.core.exception.IdempotentWaitExhaustedException;
 import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.IN_PROGRESS;
 
 /**
- * Waits for an in-progress idempotent operation to complete using exponential backoff.
+ * Waits for an in-progress idempotent operation to complete, polling on the {@link WaitPolicy}'s
+ * schedule. Each delay is cut short when the {@link CompletionNotifier} signals the key.
+ *
+ * <p>Polls read only the entry's status ({@link IdempotentStore#loadStatus}); the full entry, with
+ * its response, is read once the status leaves {@code IN_PROGRESS}. With a {@link StatusPoller},
+ * the wait is handed to it instead: the key joins the poller's batched reads and the caller blocks
+ * on its future for at most the policy's {@link WaitPolicy#maxWait(String) maxWait}.
  */
 public class IdempotentCompletionAwaiter {
     private static final Logger log = LoggerFactory.getLogger(IdempotentCompletionAwaiter.class);
 
     private final IdempotentStore idempotentStore;
-    private final WaitStrategy waitStrategy;
+    private final WaitPolicy waitPolicy;
+    private final CompletionNotifier completionNotifier;
+    private final @Nullable StatusPoller statusPoller;
+
+    public IdempotentCompletionAwaiter(IdempotentStore idempotentStore, WaitPolicy waitPolicy) {
+        this(idempotentStore, waitPolicy, CompletionNotifier.NONE);
+    }
+
+    public IdempotentCompletionAwaiter(
+            IdempotentStore idempotentStore, WaitPolicy waitPolicy, CompletionNotifier completionNotifier) {
+        this(idempotentStore, waitPolicy, completionNotifier, null);
+    }
+
+    // The WaitStrategy forms predate WaitPolicy; they stay so that code compiled against them still
+    // links.
 
     public IdempotentCompletionAwaiter(IdempotentStore idempotentStore, WaitStrategy waitStrategy) {
+        this(idempotentStore, (WaitPolicy) waitStrategy);
+    }
+
+    public IdempotentCompletionAwaiter(
+            IdempotentStore idempotentStore, WaitStrategy waitStrategy, CompletionNotifier completionNotifier) {
+        this(idempotentStore, (WaitPolicy) waitStrategy, completionNotifier);
+    }
+
+    /** @param statusPoller shared poller that takes over the waits; {@code null} to poll per waiter */
+    public IdempotentCompletionAwaiter(
+            IdempotentStore idempotentStore,
+            WaitPolicy waitPolicy,
+            CompletionNotifier completionNotifier,
+            @Nullable StatusPoller statusPoller) {
         this.idempotentStore = idempotentStore;
-        this.waitStrategy = waitStrategy;
+        this.waitPolicy = waitPolicy;
+        this.completionNotifier = completionNotifier;
+        this.statusPoller = statusPoller;
     }
 
     /**
-     * Waits for an in-progress operation to complete using exponential backoff.
+     * Waits for an in-progress operation to complete.
      *
      * @param idempotentKey the idempotent key for the request
      * @param value         current in-progress value (must be non-null); the awaiter polls the
-     *                      store until the entry transitions to {@code COMPLETED} or the retry
-     *                      budget is exhausted
+     *                      store until the entry transitions to {@code COMPLETED} or the wait
+     *                      policy's budget is spent
      * @return the latest value from the store, or {@code null} if the entry was removed (e.g.,
      * the original operation failed and cleaned up)
      */
     public IdempotentStore.@Nullable Value wait(
             IdempotentStore.IdempotentKey idempotentKey, IdempotentStore.Value value) {
+        if (statusPoller != null) {
+            Duration maxWait = waitPolicy.maxWait(idempotentKey.processName());
+            // The poller answers by the first tick after maxWait; a second tick of slack covers a
+            // slow read, so only a poller that stopped ticking runs into the timeout.
+            return await(
+                    idempotentKey,
+                    statusPoller.await(idempotentKey, value, maxWait),
+                    maxWait.plus(statusPoller.tick().multipliedBy(2)));
+        }
         int attempt = 0;
-        while (attempt < waitStrategy.maxAttempts() && value.status() == IN_PROGRESS) {
-            try {
-                long delay = waitStrategy.nextDelayOf(attempt);
-                log.debug("Waiting for idempotent operation to complete. Attempt: {}, Delay: {}ms", attempt, delay);
-                TimeUnit.MILLISECONDS.sleep(delay);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new IdempotentException("Interrupted while waiting for idempotent operation to complete", e);
-            }
-            attempt++;
-            value = idempotentStore.getValue(idempotentKey, Object.class);
+        var schedule = waitPolicy.schedule(idempotentKey.processName());
+        // Subscribe, then re-read once before the first wait: an owner that completed after our
+        // claim attempt but before the subscription notified nobody, and would otherwise only be
+        // seen after a full backoff step.
+        var subscription = completionNotifier.subscribe(idempotentKey);
+        try {
+            value = poll(idempotentKey);
             if (value == null) {
                 return null;
             }
+            while (value.status() == IN_PROGRESS) {
+                long delay = schedule.nextDelayMillis();
+                if (delay < 0) {
+                    break;
+                }
+                log.debug("Waiting for idempotent operation to complete. Attempt: {}, Delay: {}ms", attempt, delay);
+                boolean notified;
+                try {
+                    notified = subscription.await(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IdempotentException("Interrupted while waiting for idempotent operation to complete", e);
+                }
+                attempt++;
+                if (notified) {
+                    // A fired subscription stays signalled; re-subscribe before the read so the next
+                    // wait (e.g. after another caller re-claims the key) can be woken again.
+                    subscription.close();
+                    subscription = completionNotifier.subscribe(idempotentKey);
+                }
+                value = poll(idempotentKey);
+                if (value == null) {
+                    return null;
+                }
+            }
+        } finally {
+            subscription.close();
         }
         return value;
     }
+
+    private static IdempotentStore.@Nullable Value await(
+            IdempotentStore.IdempotentKey idempotentKey,
+            CompletableFuture<IdempotentStore.@Nullable Value> polled,
+            Duration timeout) {
+        try {
+            return polled.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            polled.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IdempotentException("Interrupted while waiting for idempotent operation to complete", e);
+        } catch (TimeoutException e) {
+            polled.cancel(false);
+            throw new IdempotentWaitExhaustedException(
+                    "Status poller did not answer within the wait budget", idempotentKey);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IdempotentException("Failed while waiting for idempotent operation to complete", e);
+        }
+    }
+
+    private IdempotentStore.@Nullable Value poll(IdempotentStore.IdempotentKey idempotentKey) {
+        var status = idempotentStore.loadStatus(idempotentKey);
+        if (status == null) {
+            return null;
+        }
+        if (status.isLiveInProgress()) {
+            return new IdempotentStore.Value(IN_PROGRESS, status.expiresAt(), null);
+        }
+        // Completed, or expired (getValue removes it and reports null)
+        return idempotentStore.getValue(idempotentKey, Object.class);
+    }
 }
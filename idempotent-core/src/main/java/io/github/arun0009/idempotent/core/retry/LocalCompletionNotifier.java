@@ -0,0 +1,61 @@
+package io.github.arun0009.idempotent.core.retry;
+
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-JVM {@link CompletionNotifier}. Waiters on the same key share one latch that is released by
+ * {@link #notifyCompletion}; the latch is dropped once it fires or its last subscriber leaves, so
+ * idle keys hold no memory.
+ *
+ * <p>Only duplicates that land on the same instance as the owner are woken early, which makes it
+ * a natural fit for {@code InMemoryIdempotentStore}. With a shared backend, waiters on other
+ * instances keep polling.
+ */
+public class LocalCompletionNotifier implements CompletionNotifier {
+
+    private final ConcurrentHashMap<IdempotentStore.IdempotentKey, Signal> signals = new ConcurrentHashMap<>();
+
+    @Override
+    public Subscription subscribe(IdempotentStore.IdempotentKey key) {
+        Signal signal = signals.compute(key, (k, current) -> {
+            Signal s = current == null ? new Signal() : current;
+            s.subscribers++;
+            return s;
+        });
+        return new Subscription() {
+            @Override
+            public boolean await(long timeoutMillis) throws InterruptedException {
+                return signal.latch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            public void close() {
+                signals.computeIfPresent(
+                        key, (k, current) -> current == signal && --current.subscribers == 0 ? null : current);
+            }
+        };
+    }
+
+    @Override
+    public void notifyCompletion(IdempotentStore.IdempotentKey key) {
+        Signal signal = signals.remove(key);
+        if (signal != null) {
+            signal.latch.countDown();
+        }
+    }
+
+    /** Number of keys that currently have waiters (for tests and diagnostics). */
+    int pendingKeys() {
+        return signals.size();
+    }
+
+    private static final class Signal {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        // Guarded by the map's per-key lock: only mutated inside compute/computeIfPresent.
+        private int subscribers;
+    }
+}
@@ -0,0 +1,183 @@
+package io.github.arun0009.idempotent.core.retry;
+
+import io.github.arun0009.idempotent.core.exception.IdempotentException;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.IN_PROGRESS;
+
+/**
+ * Polls every waiting key with one batched read per tick, instead of one read per waiter per
+ * backoff step. Waiters register a key and get a future; each tick reads the status of all
+ * registered keys with {@link IdempotentStore#loadStatuses}, then the full entries of the keys
+ * that left {@code IN_PROGRESS} with one {@link IdempotentStore#getValues}, and completes the
+ * matching futures. Backend reads therefore grow with the number of ticks, not with waiters.
+ *
+ * <p>A waiter whose deadline passes gets the last {@code IN_PROGRESS} value, like an awaiter whose
+ * retry budget ran out. A failed read fails the futures of every key it covered. Ticks run on one
+ * daemon thread until the poller is {@linkplain #close() closed}; waits registered after that fail
+ * at once.
+ */
+public class StatusPoller implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(StatusPoller.class);
+
+    private final IdempotentStore idempotentStore;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Duration tick;
+
+    /** @param tick time between batched reads */
+    public StatusPoller(IdempotentStore idempotentStore, Duration tick) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("tick must be positive");
+        }
+        this.idempotentStore = idempotentStore;
+        this.tick = tick;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            var thread = new Thread(r, "idempotent-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = tick.toMillis();
+        scheduler.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers a wait on {@code key}.
+     *
+     * @param value   current value of the entry; returned as-is unless {@code IN_PROGRESS}
+     * @param maxWait how long to wait for the entry to leave {@code IN_PROGRESS}
+     * @return a future of the latest value, of {@code null} once the entry is removed or expired,
+     * or of the last {@code IN_PROGRESS} value when {@code maxWait} passed; cancelling it
+     * unregisters the wait. The future fails with an {@link IdempotentException} once the poller
+     * is closed.
+     */
+    public CompletableFuture<IdempotentStore.@Nullable Value> await(
+            IdempotentStore.IdempotentKey key, IdempotentStore.Value value, Duration maxWait) {
+        if (value.status() != IN_PROGRESS) {
+            return CompletableFuture.completedFuture(value);
+        }
+        if (scheduler.isShutdown()) {
+            return CompletableFuture.failedFuture(closed());
+        }
+        var waiter = new Waiter(key, System.nanoTime() + maxWait.toNanos());
+        waiters.add(waiter);
+        // A close that ran between the check and the add did not see this waiter.
+        if (scheduler.isShutdown() && waiters.remove(waiter)) {
+            waiter.future.completeExceptionally(closed());
+        }
+        return waiter.future;
+    }
+
+    /** Time between batched reads; a registered wait ends at most this long after its deadline. */
+    public Duration tick() {
+        return tick;
+    }
+
+    /**
+     * Stops polling and fails the waits still registered with an {@link IdempotentException}; a
+     * tick in progress completes first.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Status poller tick did not finish within 5s of close");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        var closed = closed();
+        for (Waiter waiter : waiters) {
+            waiters.remove(waiter);
+            waiter.future.completeExceptionally(closed);
+        }
+    }
+
+    private static IdempotentException closed() {
+        return new IdempotentException("Status poller closed while waiting for idempotent operation");
+    }
+
+    /** Number of registered waits, for tests and diagnostics. */
+    int waiting() {
+        return waiters.size();
+    }
+
+    /** One tick: a batched status read, then a batched read of the entries that changed. */
+    void poll() {
+        List<Waiter> current = new ArrayList<>();
+        for (Waiter waiter : waiters) {
+            if (waiter.future.isDone()) {
+                waiters.remove(waiter);
+            } else {
+                current.add(waiter);
+            }
+        }
+        if (current.isEmpty()) {
+            return;
+        }
+        Set<IdempotentStore.IdempotentKey> keys = new HashSet<>();
+        current.forEach(waiter -> keys.add(waiter.key));
+        try {
+            Map<IdempotentStore.IdempotentKey, IdempotentStore.EntryStatus> statuses =
+                    idempotentStore.loadStatuses(keys);
+            Set<IdempotentStore.IdempotentKey> changed = new HashSet<>();
+            List<Waiter> finished = new ArrayList<>();
+            long now = System.nanoTime();
+            for (Waiter waiter : current) {
+                var status = statuses.get(waiter.key);
+                if (status == null) {
+                    complete(waiter, null);
+                } else if (!status.isLiveInProgress()) {
+                    changed.add(waiter.key);
+                    finished.add(waiter);
+                } else if (now - waiter.deadlineNanos >= 0) {
+                    complete(waiter, new IdempotentStore.Value(IN_PROGRESS, status.expiresAt(), null));
+                }
+            }
+            if (!changed.isEmpty()) {
+                // Completed, or expired (getValues removes those and leaves them out)
+                var values = idempotentStore.getValues(changed, Object.class);
+                finished.forEach(waiter -> complete(waiter, values.get(waiter.key)));
+            }
+        } catch (Throwable e) {
+            // Not rethrown: an exception escaping the tick would cancel every later tick and leave
+            // the remaining waits hanging.
+            log.warn("Polling {} waiting idempotent keys failed", keys.size(), e);
+            current.forEach(waiter -> {
+                waiters.remove(waiter);
+                waiter.future.completeExceptionally(e);
+            });
+        }
+    }
+
+    private void complete(Waiter waiter, IdempotentStore.@Nullable Value value) {
+        waiters.remove(waiter);
+        waiter.future.complete(value);
+    }
+
+    private static final class Waiter {
+        private final IdempotentStore.IdempotentKey key;
+        private final long deadlineNanos;
+        private final CompletableFuture<IdempotentStore.@Nullable Value> future = new CompletableFuture<>();
+
+        private Waiter(IdempotentStore.IdempotentKey key, long deadlineNanos) {
+            this.key = key;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.arun0009.idempotent.core.retry;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the shared {@link StatusPoller}.
+ *
+ * @param enabled whether waits on in-progress keys share one batched status read per tick instead
+ *                of polling per waiter (off by default)
+ * @param tick    time between batched reads
+ */
+@ConfigurationProperties(prefix = "idempotent.poller")
+public record StatusPollerProperties(
+        @DefaultValue("false") boolean enabled, @DefaultValue("50ms") Duration tick) {
+
+    public StatusPollerProperties {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("idempotent.poller.tick must be positive");
+        }
+    }
+}
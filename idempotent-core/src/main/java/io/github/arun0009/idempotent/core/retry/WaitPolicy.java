@@ -0,0 +1,32 @@
+package io.github.arun0009.idempotent.core.retry;
+
+import java.time.Duration;
+
+/**
+ * Decides how a duplicate caller waits on an in-progress key: when it polls the store and when it
+ * gives up. {@link WaitStrategy} polls on a fixed exponential backoff; {@link
+ * AdaptiveWaitStrategy} schedules polls from the durations it observed for the process.
+ */
+public interface WaitPolicy {
+
+    /** Starts the poll schedule for one wait on a key of {@code processName}. */
+    Schedule schedule(String processName);
+
+    /** Longest time a single wait for {@code processName} may take. */
+    Duration maxWait(String processName);
+
+    /**
+     * Reports how long an operation of {@code processName} ran, from claim to completion. Called
+     * for every operation the service completes successfully; failed runs are not reported. Must be
+     * cheap and must not throw.
+     */
+    default void recordDuration(String processName, Duration elapsed) {}
+
+    /** Delays of one wait, consumed by a single awaiter. */
+    @FunctionalInterface
+    interface Schedule {
+
+        /** @return milliseconds to wait before the next poll, or a negative value once the budget is spent */
+        long nextDelayMillis();
+    }
+}
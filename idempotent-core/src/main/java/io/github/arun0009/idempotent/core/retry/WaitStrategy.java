@@ -9,7 +9,7 @@ import java.time.Duration;
  * @param delay             Delay before a retry: initialInterval + (backoffMultiplier ^ attemptNumber).
  * @param backoffMultiplier Multiplier used for exponential backoff between retries.
  */
-public record WaitStrategy(int maxAttempts, Duration delay, int backoffMultiplier) {
+public record WaitStrategy(int maxAttempts, Duration delay, int backoffMultiplier) implements WaitPolicy {
 
     public static WaitStrategy withDefaults() {
         return new WaitStrategy(5, Duration.ofMillis(100), 2);
@@ -21,4 +21,24 @@ public record WaitStrategy(int maxAttempts, Duration delay, int backoffMultiplie
         }
         return delay.multipliedBy((long) Math.pow(backoffMultiplier, attempt)).toMillis();
     }
+
+    @Override
+    public Schedule schedule(String processName) {
+        var attempt = new int[1];
+        return () -> attempt[0] < maxAttempts ? nextDelayOf(attempt[0]++) : -1;
+    }
+
+    @Override
+    public Duration maxWait(String processName) {
+        return maxWait();
+    }
+
+    /** Total time a waiter may spend across all attempts (the sum of every backoff step). */
+    public Duration maxWait() {
+        long total = 0;
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            total += nextDelayOf(attempt);
+        }
+        return Duration.ofMillis(total);
+    }
 }
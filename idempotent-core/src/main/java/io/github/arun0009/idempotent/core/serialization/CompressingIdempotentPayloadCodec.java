@@ -0,0 +1,175 @@
+package io.github.arun0009.idempotent.core.serialization;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Compresses the output of another {@link IdempotentPayloadCodec} once it reaches a size threshold.
+ *
+ * <p>Compressed byte payloads start with an 8-byte header: the magic {@code 0xFE 'I' 'Z'}, the
+ * {@link CompressionAlgorithm} id and the uncompressed length. {@code 0xFE} never starts UTF-8 text, a Smile or
+ * CBOR document or a JDK serialization stream, so payloads without the header are handed to the delegate unchanged;
+ * entries written before compression was enabled, or below the threshold, keep decoding. String payloads (RDS,
+ * DynamoDB) of a text delegate carry the same frame Base64-encoded behind a {@code ~} prefix, which neither JSON
+ * nor Base64 text starts with; for a {@linkplain IdempotentPayloadCodec#isBinary() binary} delegate they are Base64
+ * of the byte form.
+ *
+ * <p>A payload is stored uncompressed when compressing does not make it smaller. The delegate encodes into a
+ * pooled {@link PayloadBuffer}, which is compressed in place.
+ */
+public final class CompressingIdempotentPayloadCodec implements IdempotentPayloadCodec {
+    private static final byte[] MAGIC = {(byte) 0xFE, 'I', 'Z'};
+    private static final int HEADER_LENGTH = MAGIC.length + 1 + Integer.BYTES;
+    private static final char STRING_PREFIX = '~';
+
+    private final IdempotentPayloadCodec delegate;
+    private final CompressionAlgorithm algorithm;
+    private final int thresholdBytes;
+
+    /**
+     * @param delegate       codec producing the uncompressed payload
+     * @param algorithm      algorithm for new payloads; any supported algorithm is read back
+     * @param thresholdBytes payloads smaller than this are stored uncompressed
+     */
+    public CompressingIdempotentPayloadCodec(
+            IdempotentPayloadCodec delegate, CompressionAlgorithm algorithm, int thresholdBytes) {
+        if (thresholdBytes < 0) {
+            throw new IllegalArgumentException("thresholdBytes must not be negative");
+        }
+        if (!algorithm.isAvailable()) {
+            throw new IllegalStateException(
+                    algorithm + " compression requires com.github.luben:zstd-jni on the classpath");
+        }
+        this.delegate = delegate;
+        this.algorithm = algorithm;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public byte[] serializeToBytes(Object value) {
+        PayloadBuffer buffer = serializeToBuffer(value);
+        try {
+            return buffer.toByteArray();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Override
+    public void serialize(Object value, OutputStream out) {
+        PayloadBuffer raw = delegate.serializeToBuffer(value);
+        try {
+            byte[] compressed = compress(raw.array(), raw.size());
+            if (compressed == null) {
+                raw.writeTo(out);
+            } else {
+                out.write(header(raw.size()));
+                out.write(compressed);
+            }
+        } catch (IOException e) {
+            throw new IdempotentPayloadCodecException("Failed to write idempotent payload", e);
+        } finally {
+            raw.release();
+        }
+    }
+
+    @Override
+    public <T> T deserializeFromBytes(byte[] bytes, Class<T> type) {
+        return delegate.deserializeFromBytes(decompress(bytes), type);
+    }
+
+    @Override
+    public @Nullable String serializeToString(@Nullable Object value) {
+        if (delegate.isBinary()) {
+            return value == null ? null : Base64.getEncoder().encodeToString(serializeToBytes(value));
+        }
+        String encoded = delegate.serializeToString(value);
+        if (encoded == null || encoded.length() < thresholdBytes / 3) {
+            // Each char is at most 3 UTF-8 bytes, so this cannot reach the threshold.
+            return encoded;
+        }
+        byte[] raw = encoded.getBytes(StandardCharsets.UTF_8);
+        byte[] body = compress(raw, raw.length);
+        if (body == null) {
+            return encoded;
+        }
+        byte[] framed = ByteBuffer.allocate(HEADER_LENGTH + body.length)
+                .put(header(raw.length))
+                .put(body)
+                .array();
+        String compressed = STRING_PREFIX + Base64.getEncoder().encodeToString(framed);
+        return compressed.length() < encoded.length() ? compressed : encoded;
+    }
+
+    @Override
+    public @Nullable Object deserializeFromString(@Nullable String value, Class<?> type) {
+        if (value != null && delegate.isBinary()) {
+            return deserializeFromBytes(decodeBase64(value), type);
+        }
+        if (value == null || value.isEmpty() || value.charAt(0) != STRING_PREFIX) {
+            return delegate.deserializeFromString(value, type);
+        }
+        byte[] framed = decodeBase64(value.substring(1));
+        if (!isCompressed(framed)) {
+            throw new IdempotentPayloadCodecException(
+                    "Compressed idempotent payload has no compression header", new IllegalArgumentException());
+        }
+        return delegate.deserializeFromString(new String(decompress(framed), StandardCharsets.UTF_8), type);
+    }
+
+    @Override
+    public boolean isBinary() {
+        return delegate.isBinary();
+    }
+
+    private static byte[] decodeBase64(String value) {
+        try {
+            return Base64.getDecoder().decode(value);
+        } catch (IllegalArgumentException e) {
+            throw new IdempotentPayloadCodecException("Idempotent payload is not valid Base64", e);
+        }
+    }
+
+    /** Compressed form of the first {@code length} bytes of {@code raw}, or null when they stay uncompressed. */
+    private byte @Nullable [] compress(byte[] raw, int length) {
+        if (length < thresholdBytes) {
+            return null;
+        }
+        byte[] compressed = algorithm.compress(raw, length);
+        return HEADER_LENGTH + compressed.length < length ? compressed : null;
+    }
+
+    private byte[] header(int originalLength) {
+        return ByteBuffer.allocate(HEADER_LENGTH)
+                .put(MAGIC)
+                .put(algorithm.id())
+                .putInt(originalLength)
+                .array();
+    }
+
+    private static byte[] decompress(byte[] bytes) {
+        if (!isCompressed(bytes)) {
+            return bytes;
+        }
+        var header = ByteBuffer.wrap(bytes, MAGIC.length, HEADER_LENGTH - MAGIC.length);
+        CompressionAlgorithm algorithm = CompressionAlgorithm.ofId(header.get());
+        int originalLength = header.getInt();
+        if (originalLength < 0) {
+            throw new IdempotentPayloadCodecException(
+                    "Compressed idempotent payload has a negative length", new IllegalArgumentException());
+        }
+        return algorithm.decompress(bytes, HEADER_LENGTH, originalLength);
+    }
+
+    private static boolean isCompressed(byte[] bytes) {
+        return bytes.length >= HEADER_LENGTH
+                && bytes[0] == MAGIC[0]
+                && bytes[1] == MAGIC[1]
+                && bytes[2] == MAGIC[2];
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.arun0009.idempotent.core.serialization;
+
+import org.springframework.util.ClassUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression algorithms supported by {@link CompressingIdempotentPayloadCodec}. The id of the algorithm is written
+ * into every compressed payload, so entries stay readable after the configured algorithm changes.
+ */
+public enum CompressionAlgorithm {
+    /** JDK {@link Deflater} at its fastest level; always available. */
+    DEFLATE((byte) 1) {
+        @Override
+        byte[] compress(byte[] input, int length) {
+            var deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(input, 0, length);
+                deflater.finish();
+                var out = new ByteArrayOutputStream(Math.max(64, length / 4));
+                byte[] buffer = new byte[8192];
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(buffer);
+                    out.write(buffer, 0, n);
+                }
+                return out.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        byte[] decompress(byte[] input, int offset, int originalLength) {
+            var inflater = new Inflater();
+            try {
+                inflater.setInput(input, offset, input.length - offset);
+                byte[] out = new byte[originalLength];
+                int n = 0;
+                while (n < originalLength && !inflater.finished()) {
+                    int read = inflater.inflate(out, n, originalLength - n);
+                    if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    n += read;
+                }
+                if (n == originalLength && !inflater.finished()) {
+                    // Output is complete; consume the trailing checksum, which must not inflate further bytes.
+                    n += inflater.inflate(new byte[1]);
+                }
+                if (n != originalLength || !inflater.finished()) {
+                    throw new IdempotentPayloadCodecException(
+                            "Compressed idempotent payload is truncated", new DataFormatException());
+                }
+                return out;
+            } catch (DataFormatException e) {
+                throw new IdempotentPayloadCodecException("Compressed idempotent payload is corrupt", e);
+            } finally {
+                inflater.end();
+            }
+        }
+    },
+
+    /** Zstandard; requires {@code com.github.luben:zstd-jni} on the classpath. */
+    ZSTD((byte) 2) {
+        @Override
+        byte[] compress(byte[] input, int length) {
+            return ZstdSupport.compress(input, length);
+        }
+
+        @Override
+        byte[] decompress(byte[] input, int offset, int originalLength) {
+            return ZstdSupport.decompress(input, offset, originalLength);
+        }
+
+        @Override
+        boolean isAvailable() {
+            return ZSTD_PRESENT;
+        }
+    };
+
+    private static final boolean ZSTD_PRESENT =
+            ClassUtils.isPresent("com.github.luben.zstd.Zstd", CompressionAlgorithm.class.getClassLoader());
+
+    private final byte id;
+
+    CompressionAlgorithm(byte id) {
+        this.id = id;
+    }
+
+    byte id() {
+        return id;
+    }
+
+    /** Compresses the first {@code length} bytes of {@code input}. */
+    abstract byte[] compress(byte[] input, int length);
+
+    abstract byte[] decompress(byte[] input, int offset, int originalLength);
+
+    boolean isAvailable() {
+        return true;
+    }
+
+    static CompressionAlgorithm ofId(byte id) {
+        for (CompressionAlgorithm algorithm : values()) {
+            if (algorithm.id == id) {
+                if (!algorithm.isAvailable()) {
+                    throw new IdempotentPayloadCodecException(
+                            "Idempotent payload was compressed with " + algorithm + ", which is not on the classpath",
+                            new IllegalStateException(algorithm.name()));
+                }
+                return algorithm;
+            }
+        }
+        throw new IdempotentPayloadCodecException(
+                "Unknown idempotent payload compression id " + id, new IllegalArgumentException(String.valueOf(id)));
+    }
+
+    /** Keeps zstd-jni out of {@link CompressionAlgorithm}'s linkage so the enum loads without it. */
+    private static final class ZstdSupport {
+        private static final int LEVEL = 3;
+
+        static byte[] compress(byte[] input, int length) {
+            byte[] out = new byte[(int) com.github.luben.zstd.Zstd.compressBound(length)];
+            long n = com.github.luben.zstd.Zstd.compressByteArray(out, 0, out.length, input, 0, length, LEVEL);
+            if (com.github.luben.zstd.Zstd.isError(n)) {
+                throw new IdempotentPayloadCodecException(
+                        "Failed to compress idempotent payload", new IllegalStateException(String.valueOf(n)));
+            }
+            return Arrays.copyOf(out, (int) n);
+        }
+
+        static byte[] decompress(byte[] input, int offset, int originalLength) {
+            byte[] out = new byte[originalLength];
+            long n;
+            try {
+                n = com.github.luben.zstd.Zstd.decompressByteArray(
+                        out, 0, originalLength, input, offset, input.length - offset);
+            } catch (RuntimeException e) {
+                throw new IdempotentPayloadCodecException("Compressed idempotent payload is corrupt", e);
+            }
+            if (n != originalLength) {
+                throw new IdempotentPayloadCodecException(
+                        "Compressed idempotent payload is truncated", new IllegalStateException());
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.arun0009.idempotent.core.serialization;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Decides whether a type round-trips through Jackson without type metadata: every value reachable from it has a
+ * statically known, concrete type. Covers records, enums and common scalars, plus collections, maps, optionals and
+ * arrays of those. Plain classes are excluded because their fields may hold subclasses.
+ */
+final class ConcreteTypes {
+    private static final Set<Class<?>> SCALARS = Set.of(
+            String.class,
+            Boolean.class,
+            Character.class,
+            Byte.class,
+            Short.class,
+            Integer.class,
+            Long.class,
+            Float.class,
+            Double.class,
+            BigDecimal.class,
+            BigInteger.class,
+            UUID.class,
+            Instant.class,
+            LocalDate.class,
+            LocalDateTime.class,
+            LocalTime.class,
+            OffsetDateTime.class,
+            Duration.class);
+
+    private ConcreteTypes() {}
+
+    static boolean isConcrete(Type type) {
+        return isConcrete(type, new HashSet<>());
+    }
+
+    private static boolean isConcrete(Type type, Set<Class<?>> visiting) {
+        if (type instanceof Class<?> c) {
+            if (c.isPrimitive() || SCALARS.contains(c) || c.isEnum()) {
+                return true;
+            }
+            if (c.isArray()) {
+                return isConcrete(c.getComponentType(), visiting);
+            }
+            if (!c.isRecord()) {
+                return false;
+            }
+            if (!visiting.add(c)) {
+                return true;
+            }
+            for (RecordComponent component : c.getRecordComponents()) {
+                if (!isConcrete(component.getGenericType(), visiting)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (type instanceof GenericArrayType array) {
+            return isConcrete(array.getGenericComponentType(), visiting);
+        }
+        if (type instanceof ParameterizedType parameterized) {
+            Type raw = parameterized.getRawType();
+            Type[] args = parameterized.getActualTypeArguments();
+            if (raw == List.class || raw == Set.class || raw == Collection.class || raw == Optional.class) {
+                return isConcrete(args[0], visiting);
+            }
+            if (raw == Map.class) {
+                return isMapKey(args[0]) && isConcrete(args[1], visiting);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isMapKey(Type type) {
+        return type instanceof Class<?> c && (SCALARS.contains(c) || c.isEnum());
+    }
+}
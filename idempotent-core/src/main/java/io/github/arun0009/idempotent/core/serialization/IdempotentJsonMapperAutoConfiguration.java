@@ -12,6 +12,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.core.Ordered;
 import tools.jackson.databind.json.JsonMapper;
 
+import java.util.List;
+
 /** Registers default idempotent payload serialization beans. */
 @AutoConfiguration
 @AutoConfigureOrder(Ordered.HIGHEST_PRECEDENCE)
@@ -25,24 +27,45 @@ public class IdempotentJsonMapperAutoConfiguration {
     IdempotentPayloadCodec idempotentPayloadCodec(
             IdempotentSerializationProperties properties,
             ObjectProvider<IdempotentJsonMapperCustomizer> idempotentJsonMapperCustomizers) {
-        return switch (properties.strategy()) {
-            case JAVA -> new JdkIdempotentPayloadCodec();
-            case JSON -> {
-                var customizers =
-                        idempotentJsonMapperCustomizers.orderedStream().toList();
-                if (customizers.isEmpty()) {
-                    log.warn("Using an unrestricted polymorphic type validator for idempotent payload serialization. "
-                            + "Without a restricted PolymorphicTypeValidator, deserialization is vulnerable to "
-                            + "arbitrary code execution when reading from untrusted sources.");
-                    yield new JacksonIdempotentPayloadCodec(IdempotentJsonMapperDefaults.buildPermissiveMapper());
-                }
+        IdempotentPayloadCodec codec = baseCodec(properties, idempotentJsonMapperCustomizers);
+        if (properties.records()) {
+            codec = new RecordIdempotentPayloadCodec(codec);
+        }
+        var compression = properties.compression();
+        return compression.enabled()
+                ? new CompressingIdempotentPayloadCodec(
+                        codec, compression.algorithm(), (int) compression.threshold().toBytes())
+                : codec;
+    }
 
-                var builder = JsonMapper.builder();
-                customizers.forEach(c -> c.customize(builder));
-                IdempotentJsonMapperDefaults.addResponseEntityModuleIfPresent(builder);
+    private static IdempotentPayloadCodec baseCodec(
+            IdempotentSerializationProperties properties,
+            ObjectProvider<IdempotentJsonMapperCustomizer> idempotentJsonMapperCustomizers) {
+        if (properties.strategy() == IdempotentSerializationProperties.Strategy.JAVA) {
+            return new JdkIdempotentPayloadCodec();
+        }
+        var customizers = idempotentJsonMapperCustomizers.orderedStream().toList();
+        if (customizers.isEmpty()) {
+            log.warn("Using an unrestricted polymorphic type validator for idempotent payload serialization. "
+                    + "Without a restricted PolymorphicTypeValidator, deserialization is vulnerable to "
+                    + "arbitrary code execution when reading from untrusted sources.");
+        }
+        JsonMapper jsonMapper = customizers.isEmpty()
+                ? IdempotentJsonMapperDefaults.buildPermissiveMapper()
+                : customizedMapper(customizers);
+        if (properties.strategy() == IdempotentSerializationProperties.Strategy.JSON) {
+            return new JacksonIdempotentPayloadCodec(jsonMapper, properties.typed());
+        }
+        // Smile and CBOR mirror the JSON mapper, so customizers written against JsonMapper.Builder apply to them.
+        var builder = JacksonDataFormats.builder(properties.strategy());
+        IdempotentJsonMapperDefaults.copySettings(jsonMapper, builder);
+        return new JacksonIdempotentPayloadCodec(builder.build(), properties.typed());
+    }
 
-                yield new JacksonIdempotentPayloadCodec(builder.build());
-            }
-        };
+    private static JsonMapper customizedMapper(List<IdempotentJsonMapperCustomizer> customizers) {
+        var builder = JsonMapper.builder();
+        customizers.forEach(c -> c.customize(builder));
+        IdempotentJsonMapperDefaults.addResponseEntityModuleIfPresent(builder);
+        return builder.build();
     }
 }
@@ -2,7 +2,12 @@ package io.github.arun0009.idempotent.core.serialization;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import tools.jackson.databind.DefaultTyping;
+import tools.jackson.databind.DeserializationFeature;
 import tools.jackson.databind.JavaType;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.cfg.MapperBuilder;
 import tools.jackson.databind.json.JsonMapper;
 import tools.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import tools.jackson.databind.jsontype.PolymorphicTypeValidator;
@@ -31,7 +36,7 @@ public final class IdempotentJsonMapperDefaults {
      * Registers the {@link ResponseEntityJacksonModule} so {@code ResponseEntity} payloads
      * round-trip, when Spring is on the classpath.
      */
-    public static void addResponseEntityModuleIfPresent(JsonMapper.Builder builder) {
+    public static void addResponseEntityModuleIfPresent(MapperBuilder<?, ?> builder) {
         if (Utils.isResponseEntityPresent()) {
             builder.addModules(new ResponseEntityJacksonModule());
         }
@@ -41,7 +46,7 @@ public final class IdempotentJsonMapperDefaults {
      * Applies permissive default typing so arbitrary response types round-trip. Covers Java records,
      * Kotlin data classes, and all other final types. Suitable only when store contents are trusted.
      */
-    public static void applyPermissivePolymorphicTyping(JsonMapper.Builder builder) {
+    public static void applyPermissivePolymorphicTyping(MapperBuilder<?, ?> builder) {
         var ptv = BasicPolymorphicTypeValidator.builder()
                 .allowIfBaseType(Object.class)
                 .allowIfSubType((ctx, clazz) -> true)
@@ -49,6 +54,31 @@ public final class IdempotentJsonMapperDefaults {
         builder.polymorphicTypeValidator(ptv).setDefaultTyping(new AllTypesResolverBuilder(ptv));
     }
 
+    /**
+     * Copies the format-independent settings of {@code source} onto a builder for another data format, so a mapper
+     * configured through {@link IdempotentJsonMapperCustomizer}s can be reproduced for Smile or CBOR: registered
+     * modules, the polymorphic type validator, default typing, and mapper, serialization and deserialization
+     * features.
+     */
+    public static void copySettings(ObjectMapper source, MapperBuilder<?, ?> target) {
+        target.addModules(source.registeredModules());
+        var config = source.serializationConfig();
+        target.polymorphicTypeValidator(config.getPolymorphicTypeValidator());
+        var defaultTyper = config.getDefaultTyper(source.constructType(Object.class));
+        if (defaultTyper != null) {
+            target.setDefaultTyping(defaultTyper);
+        }
+        for (MapperFeature feature : MapperFeature.values()) {
+            target.configure(feature, source.isEnabled(feature));
+        }
+        for (SerializationFeature feature : SerializationFeature.values()) {
+            target.configure(feature, source.isEnabled(feature));
+        }
+        for (DeserializationFeature feature : DeserializationFeature.values()) {
+            target.configure(feature, source.isEnabled(feature));
+        }
+    }
+
     /**
      * Type resolver that writes {@code @class} for all types, including final classes like
      * Java records and Kotlin data classes.
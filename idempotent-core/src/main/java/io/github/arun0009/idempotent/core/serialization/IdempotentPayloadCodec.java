@@ -2,6 +2,10 @@ package io.github.arun0009.idempotent.core.serialization;
 
 import org.jspecify.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 /** Serializes/deserializes idempotent payload values across storage backends. */
 public interface IdempotentPayloadCodec {
 
@@ -12,4 +16,51 @@ public interface IdempotentPayloadCodec {
     @Nullable String serializeToString(@Nullable Object value);
 
     @Nullable Object deserializeFromString(@Nullable String value, Class<?> type);
+
+    /**
+     * Whether {@link #serializeToBytes} is this codec's native form and the string form is Base64 of it. Stores
+     * that can hold either text or binary store bytes when this is {@code true}.
+     */
+    default boolean isBinary() {
+        return false;
+    }
+
+    /**
+     * Writes the byte form of {@code value} to {@code out}, which is left open. The default copies
+     * {@link #serializeToBytes}; the built-in codecs encode straight into the stream.
+     */
+    default void serialize(Object value, OutputStream out) {
+        try {
+            out.write(serializeToBytes(value));
+        } catch (IOException e) {
+            throw new IdempotentPayloadCodecException("Failed to write idempotent payload", e);
+        }
+    }
+
+    /** Reads a payload written by {@link #serialize(Object, OutputStream)} from {@code in}, which is left open. */
+    default <T> T deserialize(InputStream in, Class<T> type) {
+        byte[] bytes;
+        try {
+            bytes = in.readAllBytes();
+        } catch (IOException e) {
+            throw new IdempotentPayloadCodecException("Failed to read idempotent payload", e);
+        }
+        return deserializeFromBytes(bytes, type);
+    }
+
+    /**
+     * Encodes {@code value} into a pooled buffer, for stores that copy the payload into their own memory or hand it
+     * to a transport as a {@link java.nio.ByteBuffer}. The caller must {@linkplain PayloadBuffer#release() release}
+     * the buffer.
+     */
+    default PayloadBuffer serializeToBuffer(Object value) {
+        PayloadBuffer buffer = PayloadBuffer.acquire();
+        try {
+            serialize(value, buffer);
+            return buffer;
+        } catch (RuntimeException e) {
+            buffer.release();
+            throw e;
+        }
+    }
 }
@@ -1,15 +1,62 @@
 package io.github.arun0009.idempotent.core.serialization;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
 import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
 
-/** Serialization settings shared by persistent idempotent stores. */
+/**
+ * Serialization settings shared by persistent idempotent stores.
+ *
+ * @param strategy    payload format
+ * @param typed       with a Jackson strategy, write concrete responses (records, enums, scalars and collections of
+ *                    those) without {@code @class} metadata; see {@link JacksonIdempotentPayloadCodec}
+ * @param records     write records, enums, scalars, collections of those and {@code ResponseEntity} in a compact
+ *                    binary form, using the strategy only for other payloads; see
+ *                    {@link RecordIdempotentPayloadCodec}
+ * @param compression compression of large payloads
+ */
 @ConfigurationProperties(prefix = "idempotent.serialization")
 public record IdempotentSerializationProperties(
-        @DefaultValue("JSON") Strategy strategy) {
+        @DefaultValue("JSON") Strategy strategy,
+        @DefaultValue("false") boolean typed,
+        @DefaultValue("false") boolean records,
+        @DefaultValue Compression compression) {
+
+    @ConstructorBinding
+    public IdempotentSerializationProperties {}
+
+    public IdempotentSerializationProperties(Strategy strategy) {
+        this(strategy, false, false, new Compression(false, CompressionAlgorithm.DEFLATE, DataSize.ofKilobytes(1)));
+    }
 
     public enum Strategy {
         JSON,
-        JAVA
+        JAVA,
+        /** Jackson Smile; requires {@code tools.jackson.dataformat:jackson-dataformat-smile}. */
+        SMILE,
+        /** Jackson CBOR; requires {@code tools.jackson.dataformat:jackson-dataformat-cbor}. */
+        CBOR
+    }
+
+    /**
+     * Settings for {@link CompressingIdempotentPayloadCodec}.
+     *
+     * @param enabled   whether payloads are compressed (off by default). Compressed and uncompressed entries are
+     *                  both read back, so this can be switched either way on a live store
+     * @param algorithm algorithm for new payloads; {@code zstd} requires {@code com.github.luben:zstd-jni}
+     * @param threshold payloads smaller than this are stored uncompressed
+     */
+    public record Compression(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("DEFLATE") CompressionAlgorithm algorithm,
+            @DefaultValue("1KB") DataSize threshold) {
+
+        public Compression {
+            if (threshold.toBytes() < 0 || threshold.toBytes() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(
+                        "idempotent.serialization.compression.threshold must be between 0 and 2GB");
+            }
+        }
     }
 }
@@ -0,0 +1,47 @@
+package io.github.arun0009.idempotent.core.serialization;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import tools.jackson.databind.cfg.MapperBuilder;
+
+import java.util.Locale;
+
+/**
+ * Creates mapper builders for the optional Jackson binary data formats without a compile-time dependency on them.
+ */
+final class JacksonDataFormats {
+
+    private JacksonDataFormats() {}
+
+    /**
+     * @param strategy {@code SMILE} or {@code CBOR}
+     * @return a new builder for that format's mapper
+     * @throws IllegalStateException when the data format module is not on the classpath
+     */
+    static MapperBuilder<?, ?> builder(IdempotentSerializationProperties.Strategy strategy) {
+        return builder(strategy, JacksonDataFormats.class.getClassLoader());
+    }
+
+    /** Same as {@link #builder(IdempotentSerializationProperties.Strategy)}, resolving from {@code classLoader}. */
+    static MapperBuilder<?, ?> builder(
+            IdempotentSerializationProperties.Strategy strategy, @Nullable ClassLoader classLoader) {
+        String mapperClassName =
+                switch (strategy) {
+                    case SMILE -> "tools.jackson.dataformat.smile.SmileMapper";
+                    case CBOR -> "tools.jackson.dataformat.cbor.CBORMapper";
+                    default -> throw new IllegalArgumentException(strategy + " is not a binary Jackson data format");
+                };
+        if (!ClassUtils.isPresent(mapperClassName, classLoader)) {
+            String format = strategy.name().toLowerCase(Locale.ROOT);
+            throw new IllegalStateException("idempotent.serialization.strategy=" + format
+                    + " requires tools.jackson.dataformat:jackson-dataformat-" + format + " on the classpath");
+        }
+        Class<?> mapperClass = ClassUtils.resolveClassName(mapperClassName, classLoader);
+        Object builder = ReflectionUtils.invokeMethod(ClassUtils.getMethod(mapperClass, "builder"), null);
+        if (!(builder instanceof MapperBuilder<?, ?> mapperBuilder)) {
+            throw new IllegalStateException(mapperClassName + ".builder() did not return a MapperBuilder");
+        }
+        return mapperBuilder;
+    }
+}
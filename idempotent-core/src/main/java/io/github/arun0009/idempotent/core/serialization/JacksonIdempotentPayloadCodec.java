@@ -1,31 +1,134 @@
 package io.github.arun0009.idempotent.core.serialization;
 
 import org.jspecify.annotations.Nullable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.ClassUtils;
 import tools.jackson.core.JacksonException;
-import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.core.StreamReadFeature;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
 
-/** JSON codec backed by Jackson {@link JsonMapper}. */
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Codec backed by a Jackson {@link ObjectMapper}: a {@code JsonMapper}, or a binary data format mapper such as
+ * {@code SmileMapper} or {@code CBORMapper}. Binary formats are {@linkplain #isBinary() binary}: their string form
+ * is Base64 of the bytes.
+ *
+ * <p>In typed mode, responses whose runtime type is fully concrete (records, enums and scalars, collections of
+ * those, and {@code ResponseEntity} with such a body) skip the mapper's default typing. The root type is written
+ * once as a {@code =<canonical type> } prefix (led by {@code 0x1C} instead of {@code =} in binary formats, where
+ * no document starts with that byte) and the payload after it carries no {@code @class} metadata. Anything
+ * else is written by the configured mapper. Both forms are read in either mode, so typed mode can be switched
+ * on a live store; readers and writers are cached per type.
+ *
+ * <p>The stream methods encode into and decode from the caller's stream directly and leave it open.
+ */
 public final class JacksonIdempotentPayloadCodec implements IdempotentPayloadCodec {
+    private static final char TYPED_PREFIX = '=';
+    private static final char BINARY_TYPED_PREFIX = 0x1C;
+    private static final char TYPE_SEPARATOR = ' ';
+
+    private final ObjectMapper mapper;
+    private final ObjectWriter streamWriter;
+    private final ObjectMapper typedMapper;
+    private final boolean typed;
+    private final boolean binary;
+    private final char typedPrefix;
+    private final ConcurrentMap<Class<?>, Optional<TypedWriter>> writers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, Optional<TypedWriter>> responseEntityWriters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ObjectReader> readers = new ConcurrentHashMap<>();
 
-    private final JsonMapper jsonMapper;
+    public JacksonIdempotentPayloadCodec(ObjectMapper mapper) {
+        this(mapper, false);
+    }
 
-    public JacksonIdempotentPayloadCodec(JsonMapper jsonMapper) {
-        this.jsonMapper = jsonMapper;
+    /**
+     * @param mapper mapper for payloads that need type metadata
+     * @param typed  whether concrete payloads are written without default typing
+     */
+    public JacksonIdempotentPayloadCodec(ObjectMapper mapper, boolean typed) {
+        this.mapper = mapper;
+        this.streamWriter = mapper.writer().without(StreamWriteFeature.AUTO_CLOSE_TARGET);
+        this.typedMapper = mapper.rebuild().deactivateDefaultTyping().build();
+        this.typed = typed;
+        this.binary = mapper.tokenStreamFactory().canHandleBinaryNatively();
+        this.typedPrefix = binary ? BINARY_TYPED_PREFIX : TYPED_PREFIX;
     }
 
     @Override
     public byte[] serializeToBytes(Object value) {
+        if (!typed) {
+            try {
+                return mapper.writeValueAsBytes(value);
+            } catch (JacksonException e) {
+                throw new IdempotentPayloadCodecException("Failed to serialize idempotent payload", e);
+            }
+        }
+        PayloadBuffer buffer = serializeToBuffer(value);
         try {
-            return jsonMapper.writeValueAsBytes(value);
-        } catch (JacksonException e) {
+            return buffer.toByteArray();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Override
+    public void serialize(Object value, OutputStream out) {
+        try {
+            TypedWriter writer = typed ? typedWriter(value) : null;
+            if (writer == null) {
+                streamWriter.writeValue(out, value);
+                return;
+            }
+            out.write(writer.prefixBytes);
+            writer.writer.writeValue(out, value);
+        } catch (JacksonException | IOException e) {
             throw new IdempotentPayloadCodecException("Failed to serialize idempotent payload", e);
         }
     }
 
+    @Override
+    public <T> T deserialize(InputStream in, Class<T> type) {
+        try {
+            var source = new PushbackInputStream(in, 1);
+            int first = source.read();
+            if (first != typedPrefix) {
+                if (first >= 0) {
+                    source.unread(first);
+                }
+                return mapper.readerFor(type)
+                        .without(StreamReadFeature.AUTO_CLOSE_SOURCE)
+                        .readValue(source);
+            }
+            ObjectReader reader = typedReader(readTypeHeader(source));
+            return checked(reader.without(StreamReadFeature.AUTO_CLOSE_SOURCE).readValue(source), type);
+        } catch (JacksonException | IOException e) {
+            throw new IdempotentPayloadCodecException("Failed to deserialize idempotent payload", e);
+        }
+    }
+
     @Override
     public <T> T deserializeFromBytes(byte[] bytes, Class<T> type) {
         try {
-            return jsonMapper.readValue(bytes, type);
+            if (bytes.length == 0 || bytes[0] != typedPrefix) {
+                return mapper.readValue(bytes, type);
+            }
+            int end = indexOf(bytes, (byte) TYPE_SEPARATOR);
+            ObjectReader reader = typedReader(new String(bytes, 1, end - 1, StandardCharsets.UTF_8));
+            return checked(reader.readValue(bytes, end + 1, bytes.length - end - 1), type);
         } catch (JacksonException e) {
             throw new IdempotentPayloadCodecException("Failed to deserialize idempotent payload", e);
         }
@@ -36,8 +139,14 @@ public final class JacksonIdempotentPayloadCodec implements IdempotentPayloadCod
         if (value == null) {
             return null;
         }
+        if (binary) {
+            return Base64.getEncoder().encodeToString(serializeToBytes(value));
+        }
         try {
-            return jsonMapper.writeValueAsString(value);
+            TypedWriter writer = typed ? typedWriter(value) : null;
+            return writer == null
+                    ? mapper.writeValueAsString(value)
+                    : writer.prefix + writer.writer.writeValueAsString(value);
         } catch (JacksonException e) {
             throw new IdempotentPayloadCodecException("Failed to serialize idempotent payload", e);
         }
@@ -48,10 +157,142 @@ public final class JacksonIdempotentPayloadCodec implements IdempotentPayloadCod
         if (value == null) {
             return null;
         }
+        if (binary) {
+            byte[] bytes;
+            try {
+                bytes = Base64.getDecoder().decode(value);
+            } catch (IllegalArgumentException e) {
+                throw new IdempotentPayloadCodecException("Idempotent payload is not valid Base64", e);
+            }
+            return deserializeFromBytes(bytes, type);
+        }
         try {
-            return jsonMapper.readValue(value, type);
+            if (value.isEmpty() || value.charAt(0) != TYPED_PREFIX) {
+                return mapper.readValue(value, type);
+            }
+            int end = value.indexOf(TYPE_SEPARATOR);
+            if (end < 0) {
+                throw missingTypeHeader();
+            }
+            ObjectReader reader = typedReader(value.substring(1, end));
+            return checked(reader.readValue(value.substring(end + 1)), type);
         } catch (JacksonException e) {
             throw new IdempotentPayloadCodecException("Failed to deserialize idempotent payload", e);
         }
     }
+
+    @Override
+    public boolean isBinary() {
+        return binary;
+    }
+
+    private @Nullable TypedWriter typedWriter(Object value) {
+        if (Utils.isResponseEntityPresent() && value instanceof ResponseEntity<?> response) {
+            Object body = response.getBody();
+            Class<?> bodyType = body == null ? Object.class : rootClass(body);
+            return responseEntityWriters
+                    .computeIfAbsent(bodyType, this::newResponseEntityWriter)
+                    .orElse(null);
+        }
+        return writers.computeIfAbsent(rootClass(value), this::newWriter).orElse(null);
+    }
+
+    private Optional<TypedWriter> newWriter(Class<?> type) {
+        if (!ConcreteTypes.isConcrete(type)) {
+            return Optional.empty();
+        }
+        return Optional.of(newTypedWriter(typedMapper.getTypeFactory().constructType(type)));
+    }
+
+    private Optional<TypedWriter> newResponseEntityWriter(Class<?> bodyType) {
+        if (bodyType != Object.class && !ConcreteTypes.isConcrete(bodyType)) {
+            return Optional.empty();
+        }
+        return Optional.of(
+                newTypedWriter(typedMapper.getTypeFactory().constructParametricType(ResponseEntity.class, bodyType)));
+    }
+
+    private TypedWriter newTypedWriter(JavaType type) {
+        return new TypedWriter(typedPrefix + type.toCanonical() + TYPE_SEPARATOR, typedMapper.writerFor(type));
+    }
+
+    private ObjectReader typedReader(String canonicalType) {
+        ObjectReader reader = readers.get(canonicalType);
+        if (reader != null) {
+            return reader;
+        }
+        JavaType type;
+        try {
+            type = typedMapper.getTypeFactory().constructFromCanonical(canonicalType);
+        } catch (IllegalArgumentException e) {
+            throw new IdempotentPayloadCodecException("Unknown idempotent payload type " + canonicalType, e);
+        }
+        // Only types this codec would have written typed are read typed, so a tampered header cannot name an
+        // arbitrary bean class.
+        if (!isTypedRoot(type)) {
+            throw new IdempotentPayloadCodecException(
+                    "Idempotent payload type " + canonicalType + " is not a concrete type",
+                    new IllegalArgumentException(canonicalType));
+        }
+        return readers.computeIfAbsent(canonicalType, t -> typedMapper.readerFor(type));
+    }
+
+    private static boolean isTypedRoot(JavaType type) {
+        if (Utils.isResponseEntityPresent() && type.getRawClass() == ResponseEntity.class) {
+            JavaType body = type.containedType(0);
+            return body == null || body.isJavaLangObject() || ConcreteTypes.isConcrete(body.getRawClass());
+        }
+        return ConcreteTypes.isConcrete(type.getRawClass());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T checked(Object value, Class<T> type) {
+        if (!ClassUtils.resolvePrimitiveIfNecessary(type).isInstance(value)) {
+            throw new IdempotentPayloadCodecException(
+                    "Idempotent payload of type " + value.getClass().getName() + " is not a " + type.getName(),
+                    new ClassCastException(type.getName()));
+        }
+        return (T) value;
+    }
+
+    private static Class<?> rootClass(Object value) {
+        return value instanceof Enum<?> e ? e.getDeclaringClass() : value.getClass();
+    }
+
+    private static String readTypeHeader(InputStream in) throws IOException {
+        var header = new ByteArrayOutputStream(64);
+        for (int b = in.read(); b != TYPE_SEPARATOR; b = in.read()) {
+            if (b < 0) {
+                throw missingTypeHeader();
+            }
+            header.write(b);
+        }
+        return header.toString(StandardCharsets.UTF_8);
+    }
+
+    private static int indexOf(byte[] bytes, byte b) {
+        for (int i = 1; i < bytes.length; i++) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+        throw missingTypeHeader();
+    }
+
+    private static IdempotentPayloadCodecException missingTypeHeader() {
+        return new IdempotentPayloadCodecException(
+                "Typed idempotent payload has no type header", new IllegalArgumentException());
+    }
+
+    private static final class TypedWriter {
+        final String prefix;
+        final byte[] prefixBytes;
+        final ObjectWriter writer;
+
+        TypedWriter(String prefix, ObjectWriter writer) {
+            this.prefix = prefix;
+            this.prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+            this.writer = writer.without(StreamWriteFeature.AUTO_CLOSE_TARGET);
+        }
+    }
 }
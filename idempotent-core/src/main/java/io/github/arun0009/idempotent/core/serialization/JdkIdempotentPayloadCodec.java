@@ -4,7 +4,6 @@ import org.jspecify.annotations.Nullable;
 import org.springframework.http.ResponseEntity;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
@@ -19,11 +18,26 @@ public final class JdkIdempotentPayloadCodec implements IdempotentPayloadCodec {
 
     @Override
     public byte[] serializeToBytes(Object value) {
-        try (var bos = new ByteArrayOutputStream();
-                var oos = newOutputStream(bos)) {
+        PayloadBuffer buffer = serializeToBuffer(value);
+        try {
+            return buffer.toByteArray();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Override
+    public <T> T deserializeFromBytes(byte[] bytes, Class<T> type) {
+        return deserialize(new ByteArrayInputStream(bytes), type);
+    }
+
+    @Override
+    public void serialize(Object value, OutputStream out) {
+        try {
+            // Not closed: closing the object stream would close the caller's stream.
+            ObjectOutputStream oos = newOutputStream(out);
             oos.writeObject(value);
             oos.flush();
-            return bos.toByteArray();
         } catch (IOException e) {
             throw new IdempotentPayloadCodecException(
                     "Failed to serialize idempotent payload using JDK serialization", e);
@@ -31,10 +45,9 @@ public final class JdkIdempotentPayloadCodec implements IdempotentPayloadCodec {
     }
 
     @Override
-    public <T> T deserializeFromBytes(byte[] bytes, Class<T> type) {
-        try (var bis = new ByteArrayInputStream(bytes);
-                var ois = newInputStream(bis)) {
-            Object value = ois.readObject();
+    public <T> T deserialize(InputStream in, Class<T> type) {
+        try {
+            Object value = newInputStream(in).readObject();
             return type.cast(value);
         } catch (IOException | ClassNotFoundException e) {
             throw new IdempotentPayloadCodecException(
@@ -58,6 +71,11 @@ public final class JdkIdempotentPayloadCodec implements IdempotentPayloadCodec {
         return deserializeFromBytes(Base64.getDecoder().decode(value), type);
     }
 
+    @Override
+    public boolean isBinary() {
+        return true;
+    }
+
     private static ObjectOutputStream newOutputStream(OutputStream out) throws IOException {
         return Utils.isResponseEntityPresent() ? new ReplacingObjectOutputStream(out) : new ObjectOutputStream(out);
     }
@@ -0,0 +1,97 @@
+package io.github.arun0009.idempotent.core.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Growable buffer that payloads are encoded into, recycled through a small shared pool so that encoding a response
+ * does not allocate a fresh array each time.
+ *
+ * <p>Obtain one with {@link #acquire()} (or {@link IdempotentPayloadCodec#serializeToBuffer}) and call
+ * {@link #release()} once its contents have been copied out; the buffer must not be used afterwards.
+ * {@link #close()} does nothing, since encoders close the stream they write to. Not thread-safe.
+ */
+public final class PayloadBuffer extends OutputStream {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_POOLED_CAPACITY = 256 * 1024;
+    private static final ArrayBlockingQueue<PayloadBuffer> POOL = new ArrayBlockingQueue<>(64);
+
+    private byte[] buf = new byte[INITIAL_CAPACITY];
+    private int count;
+
+    private PayloadBuffer() {}
+
+    /** Returns an empty buffer, reusing a released one when available. */
+    public static PayloadBuffer acquire() {
+        PayloadBuffer buffer = POOL.poll();
+        return buffer == null ? new PayloadBuffer() : buffer;
+    }
+
+    /** Empties the buffer and returns it to the pool; buffers grown past 256 KB are dropped instead. */
+    public void release() {
+        count = 0;
+        if (buf.length <= MAX_POOLED_CAPACITY) {
+            POOL.offer(this);
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(count + 1);
+        buf[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+
+    /** Number of bytes written. */
+    public int size() {
+        return count;
+    }
+
+    /** Copy of the written bytes. */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, count);
+    }
+
+    /** Read-only view of the written bytes, valid until the buffer is released or written to. */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(buf, 0, count).slice().asReadOnlyBuffer();
+    }
+
+    /** Stream over the written bytes, valid until the buffer is released or written to. */
+    public InputStream asInputStream() {
+        return new ByteArrayInputStream(buf, 0, count);
+    }
+
+    /** Writes the contents to {@code out} without copying them first. */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buf, 0, count);
+    }
+
+    /** Backing array; only the first {@link #size()} bytes are meaningful. */
+    byte[] array() {
+        return buf;
+    }
+
+    @Override
+    public void close() {}
+
+    private void ensureCapacity(int required) {
+        if (required < 0) {
+            throw new OutOfMemoryError("Idempotent payload exceeds the maximum array size");
+        }
+        if (required > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(required, buf.length << 1));
+        }
+    }
+}
@@ -0,0 +1,651 @@
+package io.github.arun0009.idempotent.core.serialization;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Compact binary codec for records, enums, primitives, strings, collections and {@code ResponseEntity}, falling
+ * back to another {@link IdempotentPayloadCodec} for anything else.
+ *
+ * <p>Every value is written behind a one-byte tag. Records are written as their class name (once per payload,
+ * then by index) followed by their components in declaration order; they are read through their canonical
+ * constructor. Accessor and constructor {@link MethodHandle}s are built once per record type, so encoding and
+ * decoding involve no reflection. Lists, sets and maps come back as {@code ArrayList}, {@code LinkedHashSet} and
+ * {@code LinkedHashMap}; a record component declared as a concrete collection class, or any other unsupported
+ * value anywhere in the graph, sends the whole payload to the fallback codec.
+ *
+ * <p>Byte payloads start with {@code 0xFD 'I' 'R'} and a format version. {@code 0xFD} never starts UTF-8 text, a
+ * Smile or CBOR document, a JDK serialization stream or a compressed payload, so anything without the header is
+ * read by the fallback. String payloads of a text fallback carry the bytes Base64-encoded behind a {@code ^}
+ * prefix; for a {@linkplain IdempotentPayloadCodec#isBinary() binary} fallback they are Base64 of the byte form.
+ *
+ * <p>Records and enums are matched by class name and component count, so a record must not change its components
+ * while entries written with the old shape are still live. Any record or enum class named in a payload can be
+ * instantiated, which makes this codec as trusting as a permissive Jackson mapper.
+ */
+public final class RecordIdempotentPayloadCodec implements IdempotentPayloadCodec {
+    private static final byte[] MAGIC = {(byte) 0xFD, 'I', 'R', 1};
+    private static final char STRING_PREFIX = '^';
+    private static final int MAX_DEPTH = 256;
+
+    private static final int NULL = 0;
+    private static final int TRUE = 1;
+    private static final int FALSE = 2;
+    private static final int INT = 3;
+    private static final int LONG = 4;
+    private static final int DOUBLE = 5;
+    private static final int FLOAT = 6;
+    private static final int SHORT = 7;
+    private static final int BYTE = 8;
+    private static final int CHAR = 9;
+    private static final int STRING = 10;
+    private static final int ENUM = 11;
+    private static final int RECORD = 12;
+    private static final int LIST = 13;
+    private static final int SET = 14;
+    private static final int MAP = 15;
+    private static final int OPTIONAL = 16;
+    private static final int EMPTY_OPTIONAL = 17;
+    private static final int RESPONSE_ENTITY = 18;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final IdempotentPayloadCodec fallback;
+    private final @Nullable ClassLoader classLoader;
+    private final ConcurrentMap<Class<?>, Optional<RecordType>> recordTypes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Class<?>> classesByName = new ConcurrentHashMap<>();
+
+    /** @param fallback codec for payloads this codec cannot write, and for reading entries it did not write */
+    public RecordIdempotentPayloadCodec(IdempotentPayloadCodec fallback) {
+        this.fallback = fallback;
+        this.classLoader = ClassUtils.getDefaultClassLoader();
+    }
+
+    @Override
+    public byte[] serializeToBytes(Object value) {
+        PayloadBuffer buffer = encode(value);
+        if (buffer == null) {
+            return fallback.serializeToBytes(value);
+        }
+        try {
+            return buffer.toByteArray();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Override
+    public <T> T deserializeFromBytes(byte[] bytes, Class<T> type) {
+        if (!hasMagic(bytes)) {
+            return fallback.deserializeFromBytes(bytes, type);
+        }
+        Object value = new Decoder(bytes).readRoot();
+        if (!ClassUtils.resolvePrimitiveIfNecessary(type).isInstance(value)) {
+            throw new IdempotentPayloadCodecException(
+                    "Idempotent payload of type " + (value == null ? "null" : value.getClass().getName())
+                            + " is not a " + type.getName(),
+                    new ClassCastException(type.getName()));
+        }
+        @SuppressWarnings("unchecked")
+        T result = (T) value;
+        return result;
+    }
+
+    @Override
+    public void serialize(Object value, OutputStream out) {
+        PayloadBuffer buffer = encode(value);
+        if (buffer == null) {
+            fallback.serialize(value, out);
+            return;
+        }
+        try {
+            buffer.writeTo(out);
+        } catch (IOException e) {
+            throw new IdempotentPayloadCodecException("Failed to write idempotent payload", e);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Override
+    public PayloadBuffer serializeToBuffer(Object value) {
+        PayloadBuffer buffer = encode(value);
+        return buffer == null ? fallback.serializeToBuffer(value) : buffer;
+    }
+
+    @Override
+    public @Nullable String serializeToString(@Nullable Object value) {
+        if (value == null) {
+            return fallback.serializeToString(null);
+        }
+        if (fallback.isBinary()) {
+            return Base64.getEncoder().encodeToString(serializeToBytes(value));
+        }
+        PayloadBuffer buffer = encode(value);
+        if (buffer == null) {
+            return fallback.serializeToString(value);
+        }
+        try {
+            return STRING_PREFIX + Base64.getEncoder().encodeToString(buffer.toByteArray());
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Override
+    public @Nullable Object deserializeFromString(@Nullable String value, Class<?> type) {
+        if (value != null && fallback.isBinary()) {
+            return deserializeFromBytes(decodeBase64(value), type);
+        }
+        if (value == null || value.isEmpty() || value.charAt(0) != STRING_PREFIX) {
+            return fallback.deserializeFromString(value, type);
+        }
+        byte[] bytes = decodeBase64(value.substring(1));
+        if (!hasMagic(bytes)) {
+            throw new IdempotentPayloadCodecException(
+                    "Record idempotent payload has no header", new IllegalArgumentException());
+        }
+        return deserializeFromBytes(bytes, type);
+    }
+
+    @Override
+    public boolean isBinary() {
+        return fallback.isBinary();
+    }
+
+    /** Encodes {@code value} into a pooled buffer, or returns null when part of it is not supported. */
+    private @Nullable PayloadBuffer encode(Object value) {
+        PayloadBuffer buffer = PayloadBuffer.acquire();
+        try {
+            buffer.write(MAGIC, 0, MAGIC.length);
+            new Encoder(buffer).write(value, 0);
+            return buffer;
+        } catch (Unsupported e) {
+            buffer.release();
+            return null;
+        } catch (RuntimeException e) {
+            buffer.release();
+            throw e;
+        }
+    }
+
+    private Optional<RecordType> recordType(Class<?> type) {
+        return recordTypes.computeIfAbsent(type, RecordType::create);
+    }
+
+    private Class<?> resolve(String name) {
+        Class<?> type = classesByName.get(name);
+        if (type != null) {
+            return type;
+        }
+        try {
+            type = ClassUtils.forName(name, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new IdempotentPayloadCodecException("Unknown idempotent payload type " + name, e);
+        }
+        // Only classes this codec would have written are resolved, so a tampered payload cannot name other classes.
+        if (!type.isEnum() && recordType(type).isEmpty()) {
+            throw new IdempotentPayloadCodecException(
+                    "Idempotent payload type " + name + " is not a record or enum", new IllegalArgumentException(name));
+        }
+        classesByName.putIfAbsent(name, type);
+        return type;
+    }
+
+    private static boolean hasMagic(byte[] bytes) {
+        if (bytes.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] decodeBase64(String value) {
+        try {
+            return Base64.getDecoder().decode(value);
+        } catch (IllegalArgumentException e) {
+            throw new IdempotentPayloadCodecException("Idempotent payload is not valid Base64", e);
+        }
+    }
+
+    private static IdempotentPayloadCodecException corrupt(String message) {
+        return new IdempotentPayloadCodecException(
+                "Record idempotent payload is corrupt: " + message, new IllegalArgumentException(message));
+    }
+
+    /** Accessor handles typed {@code (Object)Object} and a canonical constructor handle taking {@code Object[]}. */
+    private static final class RecordType {
+        final byte[] name;
+        final MethodHandle[] accessors;
+        final MethodHandle constructor;
+
+        private RecordType(Class<?> type, MethodHandle[] accessors, MethodHandle constructor) {
+            this.name = type.getName().getBytes(StandardCharsets.UTF_8);
+            this.accessors = accessors;
+            this.constructor = constructor;
+        }
+
+        static Optional<RecordType> create(Class<?> type) {
+            if (!type.isRecord()) {
+                return Optional.empty();
+            }
+            RecordComponent[] components = type.getRecordComponents();
+            Class<?>[] types = new Class<?>[components.length];
+            MethodHandle[] accessors = new MethodHandle[components.length];
+            try {
+                for (int i = 0; i < components.length; i++) {
+                    types[i] = components[i].getType();
+                    if (!isSupportedComponent(types[i])) {
+                        return Optional.empty();
+                    }
+                    Method accessor = components[i].getAccessor();
+                    ReflectionUtils.makeAccessible(accessor);
+                    accessors[i] = LOOKUP.unreflect(accessor).asType(MethodType.methodType(Object.class, Object.class));
+                }
+                Constructor<?> constructor = type.getDeclaredConstructor(types);
+                ReflectionUtils.makeAccessible(constructor);
+                MethodHandle handle = LOOKUP.unreflectConstructor(constructor)
+                        .asType(MethodType.genericMethodType(types.length))
+                        .asSpreader(Object[].class, types.length);
+                return Optional.of(new RecordType(type, accessors, handle));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // Inaccessible (e.g. in a closed module): leave the record to the fallback codec.
+                return Optional.empty();
+            }
+        }
+
+        /** Decoded collections are ArrayList/LinkedHashSet/LinkedHashMap, which only fit the interface types. */
+        private static boolean isSupportedComponent(Class<?> type) {
+            if (Collection.class.isAssignableFrom(type)) {
+                return type == Collection.class || type == List.class || type == Set.class;
+            }
+            return !Map.class.isAssignableFrom(type) || type == Map.class;
+        }
+
+        Object get(int component, Object record) {
+            try {
+                return (Object) accessors[component].invokeExact(record);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IdempotentPayloadCodecException("Failed to read record component", e);
+            }
+        }
+
+        Object newInstance(@Nullable Object[] components) {
+            try {
+                return (Object) constructor.invokeExact(components);
+            } catch (ClassCastException | NullPointerException e) {
+                throw new IdempotentPayloadCodecException("Record idempotent payload does not match its type", e);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IdempotentPayloadCodecException("Failed to construct record", e);
+            }
+        }
+    }
+
+    /** Thrown while encoding when a value is not supported; the payload then goes to the fallback codec. */
+    private static final class Unsupported extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        static final Unsupported INSTANCE = new Unsupported();
+
+        private Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final class Encoder {
+        private final PayloadBuffer out;
+        private @Nullable Map<Class<?>, Integer> typeIndexes;
+
+        Encoder(PayloadBuffer out) {
+            this.out = out;
+        }
+
+        void write(@Nullable Object value, int depth) {
+            if (depth > MAX_DEPTH) {
+                throw Unsupported.INSTANCE;
+            }
+            if (value == null) {
+                out.write(NULL);
+            } else if (value instanceof String s) {
+                out.write(STRING);
+                writeString(s);
+            } else if (value instanceof Integer i) {
+                out.write(INT);
+                writeVarLong(((i << 1) ^ (i >> 31)) & 0xFFFFFFFFL);
+            } else if (value instanceof Long l) {
+                out.write(LONG);
+                writeVarLong((l << 1) ^ (l >> 63));
+            } else if (value instanceof Boolean b) {
+                out.write(b ? TRUE : FALSE);
+            } else if (value instanceof Double d) {
+                out.write(DOUBLE);
+                writeFixed(Double.doubleToRawLongBits(d), Long.BYTES);
+            } else if (value instanceof Float f) {
+                out.write(FLOAT);
+                writeFixed(Float.floatToRawIntBits(f), Integer.BYTES);
+            } else if (value instanceof Short s) {
+                out.write(SHORT);
+                writeVarLong(s & 0xFFFF);
+            } else if (value instanceof Byte b) {
+                out.write(BYTE);
+                out.write(b);
+            } else if (value instanceof Character c) {
+                out.write(CHAR);
+                writeVarLong(c);
+            } else if (value instanceof Enum<?> e) {
+                out.write(ENUM);
+                writeType(e.getDeclaringClass(), null);
+                writeString(e.name());
+            } else if (value instanceof Optional<?> o) {
+                if (o.isPresent()) {
+                    out.write(OPTIONAL);
+                    write(o.get(), depth + 1);
+                } else {
+                    out.write(EMPTY_OPTIONAL);
+                }
+            } else if (value instanceof List<?> list) {
+                out.write(LIST);
+                writeElements(list, depth);
+            } else if (value instanceof Set<?> set && !(set instanceof SortedSet<?>) && !(set instanceof EnumSet<?>)) {
+                out.write(SET);
+                writeElements(set, depth);
+            } else if (value instanceof Map<?, ?> map
+                    && !(map instanceof SortedMap<?, ?>)
+                    && !(map instanceof EnumMap<?, ?>)) {
+                out.write(MAP);
+                writeVarLong(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    write(entry.getKey(), depth + 1);
+                    write(entry.getValue(), depth + 1);
+                }
+            } else if (Utils.isResponseEntityPresent() && value instanceof ResponseEntity<?> response) {
+                out.write(RESPONSE_ENTITY);
+                writeVarLong(response.getStatusCode().value());
+                HttpHeaders headers = response.getHeaders();
+                writeVarLong(headers.size());
+                headers.forEach((name, values) -> {
+                    writeString(name);
+                    writeVarLong(values.size());
+                    values.forEach(this::writeString);
+                });
+                write(response.getBody(), depth + 1);
+            } else {
+                RecordType type = recordType(value.getClass()).orElseThrow(() -> Unsupported.INSTANCE);
+                out.write(RECORD);
+                writeType(value.getClass(), type);
+                writeVarLong(type.accessors.length);
+                for (int i = 0; i < type.accessors.length; i++) {
+                    write(type.get(i, value), depth + 1);
+                }
+            }
+        }
+
+        private void writeElements(Collection<?> elements, int depth) {
+            writeVarLong(elements.size());
+            for (Object element : elements) {
+                write(element, depth + 1);
+            }
+        }
+
+        /** Writes the index of an already written type, or 0 followed by its name. */
+        private void writeType(Class<?> type, @Nullable RecordType recordType) {
+            Map<Class<?>, Integer> indexes = typeIndexes;
+            if (indexes == null) {
+                indexes = new HashMap<>();
+                typeIndexes = indexes;
+            }
+            Integer index = indexes.get(type);
+            if (index != null) {
+                writeVarLong(index + 1L);
+                return;
+            }
+            indexes.put(type, indexes.size());
+            out.write(0);
+            byte[] name = recordType != null ? recordType.name : type.getName().getBytes(StandardCharsets.UTF_8);
+            writeVarLong(name.length);
+            out.write(name, 0, name.length);
+        }
+
+        private void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        private void writeFixed(long value, int length) {
+            for (int shift = (length - 1) * 8; shift >= 0; shift -= 8) {
+                out.write((int) (value >>> shift));
+            }
+        }
+    }
+
+    private final class Decoder {
+        private final byte[] bytes;
+        private int pos = MAGIC.length;
+        private final List<Class<?>> types = new ArrayList<>();
+
+        Decoder(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Nullable Object readRoot() {
+            Object value;
+            try {
+                value = read(0);
+            } catch (ArrayIndexOutOfBoundsException e) {
+                throw new IdempotentPayloadCodecException("Record idempotent payload is truncated", e);
+            }
+            if (pos != bytes.length) {
+                throw corrupt("trailing bytes");
+            }
+            return value;
+        }
+
+        private @Nullable Object read(int depth) {
+            if (depth > MAX_DEPTH) {
+                throw corrupt("nesting too deep");
+            }
+            int tag = bytes[pos++];
+            return switch (tag) {
+                case NULL -> null;
+                case TRUE -> Boolean.TRUE;
+                case FALSE -> Boolean.FALSE;
+                case INT -> {
+                    int n = (int) readVarLong();
+                    yield (n >>> 1) ^ -(n & 1);
+                }
+                case LONG -> {
+                    long n = readVarLong();
+                    yield (n >>> 1) ^ -(n & 1);
+                }
+                case DOUBLE -> Double.longBitsToDouble(readFixed(Long.BYTES));
+                case FLOAT -> Float.intBitsToFloat((int) readFixed(Integer.BYTES));
+                case SHORT -> (short) readVarLong();
+                case BYTE -> bytes[pos++];
+                case CHAR -> (char) readVarLong();
+                case STRING -> readString();
+                case ENUM -> readEnum();
+                case OPTIONAL -> Optional.ofNullable(read(depth + 1));
+                case EMPTY_OPTIONAL -> Optional.empty();
+                case LIST -> {
+                    int size = readSize();
+                    yield readElements(new ArrayList<>(bound(size)), size, depth);
+                }
+                case SET -> {
+                    int size = readSize();
+                    yield readElements(new LinkedHashSet<>(bound(size)), size, depth);
+                }
+                case MAP -> {
+                    int size = readSize();
+                    var map = new LinkedHashMap<@Nullable Object, @Nullable Object>(bound(size));
+                    for (int i = 0; i < size; i++) {
+                        map.put(read(depth + 1), read(depth + 1));
+                    }
+                    yield map;
+                }
+                case RESPONSE_ENTITY -> readResponseEntity(depth);
+                case RECORD -> readRecord(depth);
+                default -> throw corrupt("unknown tag " + tag);
+            };
+        }
+
+        private Object readRecord(int depth) {
+            Class<?> type = readType();
+            RecordType recordType = recordType(type).orElseThrow(() -> corrupt(type.getName() + " is not a record"));
+            int count = readSize();
+            if (count != recordType.accessors.length) {
+                throw corrupt(type.getName() + " has " + recordType.accessors.length + " components, payload has "
+                        + count);
+            }
+            @Nullable Object[] components = new @Nullable Object[count];
+            for (int i = 0; i < count; i++) {
+                components[i] = read(depth + 1);
+            }
+            return recordType.newInstance(components);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object readEnum() {
+            Class<?> type = readType();
+            if (!type.isEnum()) {
+                throw corrupt(type.getName() + " is not an enum");
+            }
+            String name = readString();
+            try {
+                return Enum.valueOf((Class) type, name);
+            } catch (IllegalArgumentException e) {
+                throw new IdempotentPayloadCodecException("Unknown constant " + name + " of " + type.getName(), e);
+            }
+        }
+
+        private Object readResponseEntity(int depth) {
+            if (!Utils.isResponseEntityPresent()) {
+                throw corrupt("ResponseEntity is not on the classpath");
+            }
+            int status = readSize();
+            int headerCount = readSize();
+            var headers = new LinkedHashMap<String, List<String>>(bound(headerCount));
+            for (int i = 0; i < headerCount; i++) {
+                String name = readString();
+                int valueCount = readSize();
+                var values = new ArrayList<String>(bound(valueCount));
+                for (int j = 0; j < valueCount; j++) {
+                    values.add(readString());
+                }
+                headers.put(name, values);
+            }
+            return ResponseEntityAdapter.fromPayload(new ResponseEntityPayload(status, headers, read(depth + 1)));
+        }
+
+        private <C extends Collection<@Nullable Object>> C readElements(C target, int size, int depth) {
+            for (int i = 0; i < size; i++) {
+                target.add(read(depth + 1));
+            }
+            return target;
+        }
+
+        /** Initial capacity for {@code size} elements that a corrupt size cannot inflate. */
+        private int bound(int size) {
+            return Math.min(size, remaining());
+        }
+
+        private Class<?> readType() {
+            int index = readSize();
+            if (index > 0) {
+                if (index > types.size()) {
+                    throw corrupt("unknown type index " + index);
+                }
+                return types.get(index - 1);
+            }
+            Class<?> type = resolve(readString());
+            types.add(type);
+            return type;
+        }
+
+        private String readString() {
+            int length = readSize();
+            if (length > remaining()) {
+                throw corrupt("string longer than payload");
+            }
+            String value = new String(bytes, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        private int readSize() {
+            long size = readVarLong();
+            if (size < 0 || size > Integer.MAX_VALUE) {
+                throw corrupt("invalid size " + size);
+            }
+            return (int) size;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = bytes[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw corrupt("varint too long");
+        }
+
+        private long readFixed(int length) {
+            long value = 0;
+            for (int i = 0; i < length; i++) {
+                value = (value << 8) | (bytes[pos++] & 0xFF);
+            }
+            return value;
+        }
+
+        private int remaining() {
+            return bytes.length - pos;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.arun0009.idempotent.core.serialization;
 
+import org.jspecify.annotations.Nullable;
 import org.springframework.http.ResponseEntity;
 import tools.jackson.core.JacksonException;
 import tools.jackson.core.JsonGenerator;
@@ -7,7 +8,9 @@ import tools.jackson.core.JsonParser;
 import tools.jackson.core.JsonToken;
 import tools.jackson.core.Version;
 import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.BeanProperty;
 import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.JavaType;
 import tools.jackson.databind.SerializationContext;
 import tools.jackson.databind.ValueDeserializer;
 import tools.jackson.databind.ValueSerializer;
@@ -23,7 +26,8 @@ import java.util.Map;
  * body}}. The body is written through the configured {@link SerializationContext} so default
  * typing (if enabled) preserves its concrete type. The wire {@code @class} stays
  * {@code ResponseEntity}, so callers can deserialize as either {@code ResponseEntity.class} or
- * {@code Object.class}.
+ * {@code Object.class}. When read as a parameterized {@code ResponseEntity<B>}, the body is read as
+ * {@code B}, which is how untyped payloads keep their body type.
  */
 public final class ResponseEntityJacksonModule extends SimpleModule {
 
@@ -70,12 +74,28 @@ public final class ResponseEntityJacksonModule extends SimpleModule {
     }
 
     private static final class ResponseEntityDeserializer extends ValueDeserializer<ResponseEntity<?>> {
+        private final @Nullable JavaType bodyType;
+
+        ResponseEntityDeserializer() {
+            this(null);
+        }
+
+        private ResponseEntityDeserializer(@Nullable JavaType bodyType) {
+            this.bodyType = bodyType;
+        }
 
         @Override
         public Class<?> handledType() {
             return ResponseEntity.class;
         }
 
+        @Override
+        public ValueDeserializer<?> createContextual(DeserializationContext ctx, @Nullable BeanProperty property) {
+            JavaType type = property == null ? ctx.getContextualType() : property.getType();
+            JavaType body = type == null ? null : type.containedType(0);
+            return body == null || body.isJavaLangObject() ? this : new ResponseEntityDeserializer(body);
+        }
+
         @Override
         public ResponseEntity<?> deserialize(JsonParser p, DeserializationContext ctx) throws JacksonException {
             int status = 200;
@@ -91,7 +111,8 @@ public final class ResponseEntityJacksonModule extends SimpleModule {
                 switch (name) {
                     case "status" -> status = p.getIntValue();
                     case "headers" -> headers = ctx.readValue(p, new TypeReference<>() {});
-                    case "body" -> body = ctx.readValue(p, Object.class);
+                    case "body" ->
+                        body = bodyType == null ? ctx.readValue(p, Object.class) : ctx.readValue(p, bodyType);
                     default -> p.skipChildren();
                 }
                 token = p.nextToken();
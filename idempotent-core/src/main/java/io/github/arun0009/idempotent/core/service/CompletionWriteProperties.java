@@ -0,0 +1,41 @@
+package io.github.arun0009.idempotent.core.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the {@link CompletionWriter} used by {@link IdempotentService}.
+ *
+ * @param mode          when the completion write happens: {@code sync} (default), {@code async}
+ *                      or {@code batched}
+ * @param queueCapacity maximum number of queued background writes; callers write synchronously
+ *                      while the queue is full
+ * @param writerThreads threads writing in {@code async} mode
+ * @param flushInterval how long {@code batched} mode collects writes before sending them
+ * @param maxBatch      number of writes that makes {@code batched} mode send early
+ */
+@ConfigurationProperties(prefix = "idempotent.completion-write")
+public record CompletionWriteProperties(
+        @DefaultValue("SYNC") CompletionWriter.Mode mode,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("2") int writerThreads,
+        @DefaultValue("5ms") Duration flushInterval,
+        @DefaultValue("256") int maxBatch) {
+
+    public CompletionWriteProperties {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("idempotent.completion-write.queue-capacity must be positive");
+        }
+        if (writerThreads <= 0) {
+            throw new IllegalArgumentException("idempotent.completion-write.writer-threads must be positive");
+        }
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("idempotent.completion-write.flush-interval must be positive");
+        }
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("idempotent.completion-write.max-batch must be positive");
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package io.github.arun0009.idempotent.core.service;
+
+import io.github.arun0009.idempotent.core.metrics.IdempotentMetrics;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import io.github.arun0009.idempotent.core.retry.CompletionNotifier;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persists the outcome of an operation {@link IdempotentService#execute execute} ran: the {@code
+ * COMPLETED} entry, or the removal of the claim when the operation failed. Waiters are notified
+ * once the write has landed.
+ *
+ * <ul>
+ *   <li>{@link Mode#SYNC SYNC}: the caller writes before the result is returned (the default).</li>
+ *   <li>{@link Mode#ASYNC ASYNC}: writes run on {@code writerThreads} background threads and the
+ *       caller returns at once.</li>
+ *   <li>{@link Mode#BATCHED BATCHED}: writes are collected for {@code flushInterval} (or until
+ *       {@code maxBatch}) and sent as one {@link IdempotentStore#updateAll updateAll} plus one
+ *       {@link IdempotentStore#removeAll removeAll}.</li>
+ * </ul>
+ *
+ * <p>Background modes queue at most {@code queueCapacity} writes; when the queue is full the caller
+ * writes synchronously instead, which slows producers down to what the backend absorbs. A failed
+ * background write is logged and counted with {@link IdempotentMetrics#recordWriteFailure}; its
+ * entry stays {@code IN_PROGRESS} until it expires, as if the owner had crashed. {@link #close()}
+ * drains the queued writes and stops the background threads; writes still queued when the JVM
+ * exits without it are lost the same way.
+ */
+public class CompletionWriter implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(CompletionWriter.class);
+    private static final long DRAIN_TIMEOUT_SECONDS = 10;
+    private static final long CLOSE_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /** When the completion write happens relative to returning the result. */
+    public enum Mode {
+        SYNC,
+        ASYNC,
+        BATCHED
+    }
+
+    private final IdempotentStore idempotentStore;
+    private final CompletionNotifier completionNotifier;
+    private final IdempotentMetrics metrics;
+    private final Mode mode;
+    private final @Nullable ThreadPoolExecutor executor;
+    private final @Nullable BlockingQueue<Write> queue;
+    private final @Nullable Thread flusher;
+    private final int maxBatch;
+    private final long flushIntervalNanos;
+    private volatile boolean closed;
+
+    /** A writer that writes on the caller's thread. */
+    public static CompletionWriter sync(IdempotentStore idempotentStore, CompletionNotifier completionNotifier) {
+        return new CompletionWriter(
+                idempotentStore, completionNotifier, IdempotentMetrics.NOOP, Mode.SYNC, 1, 1, Duration.ofMillis(1), 1);
+    }
+
+    /**
+     * @param idempotentStore the store the service claims keys in
+     * @param queueCapacity   maximum number of queued background writes
+     * @param writerThreads   threads writing in {@code ASYNC} mode
+     * @param flushInterval   how long {@code BATCHED} mode collects writes before sending them
+     * @param maxBatch        number of writes that makes {@code BATCHED} mode send early
+     */
+    public CompletionWriter(
+            IdempotentStore idempotentStore,
+            CompletionNotifier completionNotifier,
+            IdempotentMetrics metrics,
+            Mode mode,
+            int queueCapacity,
+            int writerThreads,
+            Duration flushInterval,
+            int maxBatch) {
+        if (queueCapacity <= 0 || writerThreads <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("queueCapacity, writerThreads and maxBatch must be positive");
+        }
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("flushInterval must be positive");
+        }
+        this.idempotentStore = idempotentStore;
+        this.completionNotifier = completionNotifier;
+        this.metrics = metrics;
+        this.mode = mode;
+        this.maxBatch = maxBatch;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.executor = mode == Mode.ASYNC ? writerPool(writerThreads, queueCapacity) : null;
+        this.queue = mode == Mode.BATCHED ? new ArrayBlockingQueue<>(queueCapacity) : null;
+        if (mode == Mode.BATCHED) {
+            var thread = new Thread(this::flushLoop, "idempotent-completion-flusher");
+            thread.setDaemon(true);
+            thread.start();
+            this.flusher = thread;
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    private static ThreadPoolExecutor writerPool(int writerThreads, int queueCapacity) {
+        var threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                writerThreads,
+                writerThreads,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    var thread = new Thread(r, "idempotent-completion-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    /** Stores the {@code COMPLETED} entry for {@code key}. */
+    void complete(IdempotentStore.IdempotentKey key, IdempotentStore.Value value) {
+        submit(new Write(key, value));
+    }
+
+    /** Removes the claim on {@code key} so the operation can be retried. */
+    void release(IdempotentStore.IdempotentKey key) {
+        submit(new Write(key, null));
+    }
+
+    /**
+     * Writes everything still queued and stops the background threads, waiting up to ten seconds
+     * for them. Writes submitted afterwards run on the caller's thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (executor != null) {
+            executor.shutdown();
+            awaitDrain(() -> executor.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+        if (flusher != null && queue != null) {
+            awaitDrain(() -> {
+                flusher.join(TimeUnit.SECONDS.toMillis(DRAIN_TIMEOUT_SECONDS));
+                return !flusher.isAlive();
+            });
+            // Writes that raced with close after the flusher's last drain
+            List<Write> rest = new ArrayList<>();
+            queue.drainTo(rest);
+            if (!rest.isEmpty()) {
+                flush(rest);
+            }
+        }
+    }
+
+    private void awaitDrain(Drain drain) {
+        try {
+            if (!drain.await()) {
+                log.warn("Completion writes did not drain within {}s of close", DRAIN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(Write write) {
+        if (closed) {
+            write(write);
+        } else if (executor != null) {
+            try {
+                executor.execute(() -> writeInBackground(write));
+            } catch (RejectedExecutionException e) {
+                write(write);
+            }
+        } else if (queue != null) {
+            if (!queue.offer(write)) {
+                write(write);
+            }
+        } else {
+            write(write);
+        }
+    }
+
+    private void write(Write write) {
+        try {
+            if (write.value != null) {
+                idempotentStore.update(write.key, write.value);
+            } else {
+                idempotentStore.remove(write.key);
+            }
+        } finally {
+            completionNotifier.notifyCompletion(write.key);
+        }
+    }
+
+    private void writeInBackground(Write write) {
+        try {
+            write(write);
+        } catch (RuntimeException e) {
+            failed(List.of(write.key), e);
+        }
+    }
+
+    /**
+     * Collects and sends batches until closed, then sends what is still queued. Waits are cut into
+     * steps of at most {@code CLOSE_CHECK_NANOS} so that a close is noticed without interrupting a
+     * store call in progress.
+     */
+    private void flushLoop() {
+        var pending = Objects.requireNonNull(queue);
+        List<Write> batch = new ArrayList<>(maxBatch);
+        try {
+            while (!closed || !pending.isEmpty()) {
+                Write first = pending.poll(CLOSE_CHECK_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < maxBatch && !closed) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    Write next = pending.poll(Math.min(remaining, CLOSE_CHECK_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                if (closed) {
+                    pending.drainTo(batch, maxBatch - batch.size());
+                }
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.drainTo(batch);
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+        }
+    }
+
+    private void flush(List<Write> batch) {
+        Map<IdempotentStore.IdempotentKey, IdempotentStore.Value> updates = new LinkedHashMap<>();
+        List<IdempotentStore.IdempotentKey> removals = new ArrayList<>();
+        for (Write write : batch) {
+            if (write.value != null) {
+                updates.put(write.key, write.value);
+            } else {
+                removals.add(write.key);
+            }
+        }
+        try {
+            if (!updates.isEmpty()) {
+                idempotentStore.updateAll(updates);
+            }
+        } catch (RuntimeException e) {
+            failed(updates.keySet(), e);
+        }
+        try {
+            if (!removals.isEmpty()) {
+                idempotentStore.removeAll(removals);
+            }
+        } catch (RuntimeException e) {
+            failed(removals, e);
+        }
+        batch.forEach(write -> completionNotifier.notifyCompletion(write.key));
+    }
+
+    private void failed(Collection<IdempotentStore.IdempotentKey> keys, RuntimeException e) {
+        log.warn("Completion write failed for {} idempotent key(s); they stay in progress until expiry",
+                keys.size(),
+                e);
+        keys.forEach(key -> metrics.recordWriteFailure(key.processName()));
+    }
+
+    @FunctionalInterface
+    private interface Drain {
+        boolean await() throws InterruptedException;
+    }
+
+    /** A pending write: the completed value, or {@code null} to remove the claim. */
+    private record Write(IdempotentStore.IdempotentKey key, IdempotentStore.@Nullable Value value) {}
+}
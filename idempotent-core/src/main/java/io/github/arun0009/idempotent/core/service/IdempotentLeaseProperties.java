@@ -0,0 +1,32 @@
+package io.github.arun0009.idempotent.core.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the {@link InProgressLease} used by {@link IdempotentService}.
+ *
+ * @param enabled       whether {@code IN_PROGRESS} entries are claimed for a renewed lease instead
+ *                      of the full TTL (off by default)
+ * @param duration      lease length; an entry whose owner died is taken over after at most this
+ * @param renewInterval time between renewals while the operation runs; at least one second and
+ *                      shorter than {@code duration}
+ */
+@ConfigurationProperties(prefix = "idempotent.lease")
+public record IdempotentLeaseProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10s") Duration duration,
+        @DefaultValue("3s") Duration renewInterval) {
+
+    public IdempotentLeaseProperties {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("idempotent.lease.duration must be positive");
+        }
+        if (renewInterval.compareTo(InProgressLease.MIN_RENEW_INTERVAL) < 0 || renewInterval.compareTo(duration) >= 0) {
+            throw new IllegalArgumentException(
+                    "idempotent.lease.renew-interval must be at least 1s and shorter than idempotent.lease.duration");
+        }
+    }
+}
@@ -5,8 +5,15 @@ import io.github.arun0009.idempotent.core.exception.IdempotentKeyConflictExcepti
 import io.github.arun0009.idempotent.core.exception.IdempotentWaitExhaustedException;
 import io.github.arun0009.idempotent.core.metrics.IdempotentMetrics;
 import io.github.arun0009.idempotent.core.metrics.IdempotentMetrics.Outcome;
+import io.github.arun0009.idempotent.core.persistence.AsyncIdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.ExecutorAsyncIdempotentStore;
 import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import io.github.arun0009.idempotent.core.retry.AsyncCompletionAwaiter;
+import io.github.arun0009.idempotent.core.retry.CompletionNotifier;
 import io.github.arun0009.idempotent.core.retry.IdempotentCompletionAwaiter;
+import io.github.arun0009.idempotent.core.retry.LocalCompletionNotifier;
+import io.github.arun0009.idempotent.core.retry.StatusPoller;
+import io.github.arun0009.idempotent.core.retry.WaitPolicy;
 import io.github.arun0009.idempotent.core.retry.WaitStrategy;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
@@ -15,7 +22,23 @@ import org.springframework.http.ResponseEntity;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
 import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.COMPLETED;
@@ -31,30 +54,234 @@ import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Sta
  * support typed deserialization (RDS, DynamoDB) round-trip without relying on polymorphic
  * {@code @class} metadata. Prefer the typed overloads when the response type is known.
  *
+ * <h2>Local coalescing</h2>
+ * Concurrent calls for the same {@link IdempotentStore.IdempotentKey} within this service instance
+ * are coalesced: the first caller talks to the store and runs the operation, later callers attach
+ * to its result (or exception) without touching the store. Followers wait at most
+ * {@link WaitPolicy#maxWait(String)} before failing with {@link IdempotentWaitExhaustedException}.
+ *
+ * <h2>Batches</h2>
+ * {@link #executeAll(Map, Class, Duration, Executor) executeAll} handles many keys with a fixed
+ * number of store round trips (one multi-get, one batch claim, one batch completion), which suits
+ * message consumers processing a poll at a time. Batch calls are protected by the store but do not
+ * join the local coalescing of single-key calls.
+ *
+ * <h2>Asynchronous execution</h2>
+ * The {@link #executeAsync(IdempotentStore.IdempotentKey, Class, Supplier, Duration) executeAsync}
+ * overloads take an operation returning a {@link CompletionStage} and talk to the store through an
+ * {@link AsyncIdempotentStore}. Waiting on an in-progress key is a chain of delayed re-reads, so no
+ * thread is parked while a duplicate waits. Like batches, async calls are protected by the store
+ * but do not join the local coalescing of single-key calls.
+ *
+ * <h2>In-progress leases</h2>
+ * With an {@link InProgressLease}, {@code execute} claims keys for a short lease instead of the full
+ * TTL and renews it while the operation runs. If the owning instance dies, the entry lapses within
+ * one lease: a new caller claims it directly, and a caller already waiting on it takes it over and
+ * runs the operation itself. Async and batch calls still claim for the full TTL.
+ *
+ * <h2>Completion writes</h2>
+ * How {@code execute} persists an outcome is up to its {@link CompletionWriter}: before returning
+ * (the default), or in the background, one at a time or in batches. Async and batch calls always
+ * write before completing.
+ *
+ * <h2>Shutdown</h2>
+ * {@link #close()} stops the background threads of the components the service was built with;
+ * Spring calls it when the context closes.
+ *
  * <h2>Exception propagation</h2>
  * Domain exceptions thrown by the operation propagate to the caller as-is (no wrapping in
  * {@link IdempotentException}). Cleanup of the in-progress entry happens before the throw.
  */
-public class IdempotentService {
+public class IdempotentService implements AutoCloseable {
 
     private static final Logger log = LoggerFactory.getLogger(IdempotentService.class);
 
+    /** Returned by {@code handleExisting} when the awaited entry is gone and may be claimed. */
+    private static final Object TAKE_OVER = new Object();
+
     private final IdempotentStore idempotentStore;
+    private final AsyncIdempotentStore asyncStore;
     private final IdempotentCompletionAwaiter completionAwaiter;
+    private final AsyncCompletionAwaiter asyncCompletionAwaiter;
     private final IdempotentMetrics metrics;
+    private final CompletionNotifier completionNotifier;
+    private final WaitPolicy waitPolicy;
+    private final @Nullable InProgressLease lease;
+    private final @Nullable StatusPoller statusPoller;
+    private final CompletionWriter completionWriter;
+    private final ConcurrentHashMap<IdempotentStore.IdempotentKey, InFlight> inFlight = new ConcurrentHashMap<>();
 
     public IdempotentService(IdempotentStore idempotentStore) {
         this(idempotentStore, WaitStrategy.withDefaults(), IdempotentMetrics.NOOP);
     }
 
+    public IdempotentService(IdempotentStore idempotentStore, WaitPolicy waitPolicy) {
+        this(idempotentStore, waitPolicy, IdempotentMetrics.NOOP);
+    }
+
+    public IdempotentService(IdempotentStore idempotentStore, WaitPolicy waitPolicy, IdempotentMetrics metrics) {
+        this(idempotentStore, waitPolicy, metrics, new LocalCompletionNotifier());
+    }
+
+    /**
+     * Async calls run the blocking store on {@link ForkJoinPool#commonPool()}; use the constructor
+     * taking an {@link AsyncIdempotentStore} to choose the executor.
+     *
+     * @param completionNotifier wakes in-progress waiters once this service completes or removes an
+     *                           entry; use {@link CompletionNotifier#NONE} for polling only
+     */
+    public IdempotentService(
+            IdempotentStore idempotentStore,
+            WaitPolicy waitPolicy,
+            IdempotentMetrics metrics,
+            CompletionNotifier completionNotifier) {
+        this(
+                idempotentStore,
+                waitPolicy,
+                metrics,
+                completionNotifier,
+                new ExecutorAsyncIdempotentStore(idempotentStore, ForkJoinPool.commonPool()));
+    }
+
+    /**
+     * @param asyncStore store used by the {@code executeAsync} overloads, typically an {@link
+     *                   ExecutorAsyncIdempotentStore} over {@code idempotentStore}
+     */
+    public IdempotentService(
+            IdempotentStore idempotentStore,
+            WaitPolicy waitPolicy,
+            IdempotentMetrics metrics,
+            CompletionNotifier completionNotifier,
+            AsyncIdempotentStore asyncStore) {
+        this(idempotentStore, waitPolicy, metrics, completionNotifier, asyncStore, null);
+    }
+
+    /**
+     * @param lease claims single-key {@code execute} calls for a renewed lease instead of the full
+     *              TTL; {@code null} to claim for the full TTL
+     */
+    public IdempotentService(
+            IdempotentStore idempotentStore,
+            WaitPolicy waitPolicy,
+            IdempotentMetrics metrics,
+            CompletionNotifier completionNotifier,
+            AsyncIdempotentStore asyncStore,
+            @Nullable InProgressLease lease) {
+        this(idempotentStore, waitPolicy, metrics, completionNotifier, asyncStore, lease, null);
+    }
+
+    /**
+     * @param statusPoller polls all waiting keys with one batched read per tick instead of one
+     *                     read per waiter; {@code null} to poll per waiter
+     */
+    public IdempotentService(
+            IdempotentStore idempotentStore,
+            WaitPolicy waitPolicy,
+            IdempotentMetrics metrics,
+            CompletionNotifier completionNotifier,
+            AsyncIdempotentStore asyncStore,
+            @Nullable InProgressLease lease,
+            @Nullable StatusPoller statusPoller) {
+        this(
+                idempotentStore,
+                waitPolicy,
+                metrics,
+                completionNotifier,
+                asyncStore,
+                lease,
+                statusPoller,
+                CompletionWriter.sync(idempotentStore, completionNotifier));
+    }
+
+    // The WaitStrategy forms below predate WaitPolicy; they stay so that code compiled against
+    // them still links.
+
     public IdempotentService(IdempotentStore idempotentStore, WaitStrategy waitStrategy) {
-        this(idempotentStore, waitStrategy, IdempotentMetrics.NOOP);
+        this(idempotentStore, (WaitPolicy) waitStrategy);
     }
 
     public IdempotentService(IdempotentStore idempotentStore, WaitStrategy waitStrategy, IdempotentMetrics metrics) {
+        this(idempotentStore, (WaitPolicy) waitStrategy, metrics);
+    }
+
+    public IdempotentService(
+            IdempotentStore idempotentStore,
+            WaitStrategy waitStrategy,
+            IdempotentMetrics metrics,
+            CompletionNotifier completionNotifier) {
+        this(idempotentStore, (WaitPolicy) waitStrategy, metrics, completionNotifier);
+    }
+
+    public IdempotentService(
+            IdempotentStore idempotentStore,
+            WaitStrategy waitStrategy,
+            IdempotentMetrics metrics,
+            CompletionNotifier completionNotifier,
+            AsyncIdempotentStore asyncStore) {
+        this(idempotentStore, (WaitPolicy) waitStrategy, metrics, completionNotifier, asyncStore);
+    }
+
+    public IdempotentService(
+            IdempotentStore idempotentStore,
+            WaitStrategy waitStrategy,
+            IdempotentMetrics metrics,
+            CompletionNotifier completionNotifier,
+            AsyncIdempotentStore asyncStore,
+            @Nullable InProgressLease lease) {
+        this(idempotentStore, (WaitPolicy) waitStrategy, metrics, completionNotifier, asyncStore, lease);
+    }
+
+    /**
+     * @param completionWriter persists the outcome of {@code execute} calls, on the caller's thread
+     *                         or in the background; must write to {@code idempotentStore}, and
+     *                         must be {@link CompletionWriter.Mode#SYNC SYNC} when {@code lease}
+     *                         is set
+     */
+    public IdempotentService(
+            IdempotentStore idempotentStore,
+            WaitPolicy waitPolicy,
+            IdempotentMetrics metrics,
+            CompletionNotifier completionNotifier,
+            AsyncIdempotentStore asyncStore,
+            @Nullable InProgressLease lease,
+            @Nullable StatusPoller statusPoller,
+            CompletionWriter completionWriter) {
+        if (lease != null && completionWriter.mode() != CompletionWriter.Mode.SYNC) {
+            // The heartbeat stops before the completion write; a background write would leave the
+            // lease unrenewed until it lands, and another caller could take the key over meanwhile.
+            throw new IllegalArgumentException("An InProgressLease requires a SYNC CompletionWriter");
+        }
         this.idempotentStore = idempotentStore;
-        this.completionAwaiter = new IdempotentCompletionAwaiter(idempotentStore, waitStrategy);
+        this.asyncStore = asyncStore;
+        this.completionAwaiter =
+                new IdempotentCompletionAwaiter(idempotentStore, waitPolicy, completionNotifier, statusPoller);
+        this.asyncCompletionAwaiter = new AsyncCompletionAwaiter(asyncStore, waitPolicy, statusPoller);
         this.metrics = metrics;
+        this.completionNotifier = completionNotifier;
+        this.waitPolicy = waitPolicy;
+        this.lease = lease;
+        this.statusPoller = statusPoller;
+        this.completionWriter = completionWriter;
+    }
+
+    /**
+     * Drains the completion writer's queued writes, stops renewing in-progress leases (claims still
+     * running lapse after one lease), closes the status poller, failing the waits it still holds,
+     * and closes the async store when it is an {@link ExecutorAsyncIdempotentStore}, which only
+     * shuts down a pool it created itself.
+     */
+    @Override
+    public void close() {
+        completionWriter.close();
+        if (lease != null) {
+            lease.close();
+        }
+        if (statusPoller != null) {
+            statusPoller.close();
+        }
+        if (asyncStore instanceof ExecutorAsyncIdempotentStore executorStore) {
+            executorStore.close();
+        }
     }
 
     // ---- Untyped Supplier-based overloads (use Object.class internally) -----------------------
@@ -101,6 +328,324 @@ public class IdempotentService {
         }
     }
 
+    // ---- Batch execution ---------------------------------------------------------------------
+
+    /**
+     * Runs the unclaimed operations one after another on the calling thread.
+     *
+     * @see #executeAll(Map, Class, Duration, Executor)
+     */
+    public <T> Map<IdempotentStore.IdempotentKey, @Nullable T> executeAll(
+            Map<IdempotentStore.IdempotentKey, ? extends Supplier<? extends T>> operations,
+            Class<T> returnType,
+            Duration ttl) {
+        return executeAll(operations, returnType, ttl, Runnable::run);
+    }
+
+    /**
+     * Idempotent execution of a batch of operations.
+     *
+     * <ol>
+     *   <li>All keys are read with one {@link IdempotentStore#getValues getValues}; {@code COMPLETED}
+     *       entries are returned as cached.</li>
+     *   <li>Missing keys are claimed with one {@link IdempotentStore#storeAll storeAll}, and their
+     *       operations run on {@code executor}.</li>
+     *   <li>Results are persisted with one {@link IdempotentStore#updateAll updateAll}; failed
+     *       operations are released with one {@link IdempotentStore#removeAll removeAll}.</li>
+     *   <li>Keys that were {@code IN_PROGRESS} elsewhere, or claimed concurrently, then go through
+     *       the single-key path and wait like {@link #execute execute} does.</li>
+     * </ol>
+     *
+     * <p>Failures do not stop the batch: every other key is still completed and persisted, then the
+     * first failure is thrown with the others attached as suppressed exceptions. Retrying the batch
+     * returns the persisted results and re-runs only the failed keys. If persisting the results
+     * fails, their claims are released with the failed ones and the write failure is thrown.
+     *
+     * @param operations operations by key; iteration order is kept in the result
+     * @param executor   runs the claimed operations, e.g. in parallel; the call returns once all of
+     *                   them finished
+     * @return the result (or cached response) of every operation by key
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<IdempotentStore.IdempotentKey, @Nullable T> executeAll(
+            Map<IdempotentStore.IdempotentKey, ? extends Supplier<? extends T>> operations,
+            Class<T> returnType,
+            Duration ttl,
+            Executor executor) {
+        Objects.requireNonNull(operations, "operations cannot be null");
+        Objects.requireNonNull(returnType, "returnType cannot be null");
+        Objects.requireNonNull(ttl, "ttl cannot be null");
+        Objects.requireNonNull(executor, "executor cannot be null");
+
+        var expiresAt = Instant.now().plus(ttl);
+        Map<IdempotentStore.IdempotentKey, IdempotentStore.Value> existing =
+                operations.isEmpty() ? Map.of() : idempotentStore.getValues(operations.keySet(), returnType);
+        Map<IdempotentStore.IdempotentKey, IdempotentStore.Value> claims = new LinkedHashMap<>();
+        for (var key : operations.keySet()) {
+            if (!existing.containsKey(key)) {
+                claims.put(key, new IdempotentStore.Value(IN_PROGRESS, expiresAt, null));
+            }
+        }
+        Set<IdempotentStore.IdempotentKey> conflicts = claims.isEmpty() ? Set.of() : idempotentStore.storeAll(claims);
+        for (var key : conflicts) {
+            log.info("Idempotent key conflict for {}; following existing-entry path", key.key());
+            metrics.recordConflict(key.processName());
+            claims.remove(key);
+        }
+
+        Map<IdempotentStore.IdempotentKey, @Nullable Object> results = new HashMap<>();
+        List<Throwable> failures = new ArrayList<>();
+        runClaimed(operations, claims.keySet(), expiresAt, executor, results, failures);
+
+        for (var entry : operations.entrySet()) {
+            var key = entry.getKey();
+            if (claims.containsKey(key)) {
+                continue;
+            }
+            try {
+                IdempotentStore.Value value = existing.get(key);
+                if (value != null) {
+                    results.put(key, handleExisting(key, value));
+                } else {
+                    Supplier<? extends T> operation = entry.getValue();
+                    results.put(key, executeWithStore(key, returnType, operation::get, ttl));
+                }
+            } catch (Throwable t) {
+                failures.add(t);
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            Throwable first = failures.get(0);
+            failures.subList(1, failures.size()).forEach(first::addSuppressed);
+            if (first instanceof RuntimeException e) {
+                throw e;
+            }
+            if (first instanceof Error e) {
+                throw e;
+            }
+            throw new IdempotentException("Batch operation failed", first);
+        }
+        Map<IdempotentStore.IdempotentKey, @Nullable T> ordered = new LinkedHashMap<>();
+        operations.keySet().forEach(key -> ordered.put(key, (T) results.get(key)));
+        return ordered;
+    }
+
+    private <T> void runClaimed(
+            Map<IdempotentStore.IdempotentKey, ? extends Supplier<? extends T>> operations,
+            Set<IdempotentStore.IdempotentKey> claimed,
+            Instant expiresAt,
+            Executor executor,
+            Map<IdempotentStore.IdempotentKey, @Nullable Object> results,
+            List<Throwable> failures) {
+        if (claimed.isEmpty()) {
+            return;
+        }
+        List<BatchCall> calls = new ArrayList<>();
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+        for (var key : claimed) {
+            var call = new BatchCall(key, Objects.requireNonNull(operations.get(key)));
+            calls.add(call);
+            try {
+                running.add(CompletableFuture.runAsync(call::run, executor));
+            } catch (RejectedExecutionException e) {
+                call.run();
+            }
+        }
+        CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+
+        Map<IdempotentStore.IdempotentKey, IdempotentStore.Value> completions = new LinkedHashMap<>();
+        List<IdempotentStore.IdempotentKey> released = new ArrayList<>();
+        for (var call : calls) {
+            var processName = call.key.processName();
+            var elapsed = Duration.ofNanos(call.elapsedNanos);
+            Throwable failure = call.failure;
+            if (failure != null) {
+                failures.add(failure);
+                released.add(call.key);
+                recordRun(processName, Outcome.NEW_FAILURE, elapsed);
+                continue;
+            }
+            results.put(call.key, call.result);
+            if (call.result instanceof ResponseEntity<?> re && !re.getStatusCode().is2xxSuccessful()) {
+                // Non-2xx responses are treated as failures and not cached so the caller can retry.
+                released.add(call.key);
+                recordRun(processName, Outcome.NEW_FAILURE, elapsed);
+            } else {
+                completions.put(call.key, new IdempotentStore.Value(COMPLETED, expiresAt, call.result));
+                recordRun(processName, Outcome.NEW_SUCCESS, elapsed);
+            }
+        }
+        RuntimeException writeFailure = null;
+        try {
+            try {
+                if (!completions.isEmpty()) {
+                    idempotentStore.updateAll(completions);
+                }
+            } catch (RuntimeException e) {
+                // Release the claims whose results were not persisted too, like the single-key path
+                // does, so that they do not stay IN_PROGRESS until they expire and a retry re-runs
+                // them.
+                writeFailure = e;
+                released.addAll(completions.keySet());
+            }
+            if (!released.isEmpty()) {
+                idempotentStore.removeAll(released);
+            }
+        } catch (RuntimeException e) {
+            if (writeFailure == null) {
+                writeFailure = e;
+            } else {
+                writeFailure.addSuppressed(e);
+            }
+        } finally {
+            claimed.forEach(completionNotifier::notifyCompletion);
+        }
+        if (writeFailure != null) {
+            throw writeFailure;
+        }
+    }
+
+    // ---- Asynchronous execution --------------------------------------------------------------
+
+    public <T> CompletableFuture<@Nullable T> executeAsync(
+            String key, Class<T> returnType, Supplier<? extends CompletionStage<T>> operation, Duration ttl) {
+        return executeAsync(key, "default", returnType, operation, ttl);
+    }
+
+    public <T> CompletableFuture<@Nullable T> executeAsync(
+            String key,
+            String processName,
+            Class<T> returnType,
+            Supplier<? extends CompletionStage<T>> operation,
+            Duration ttl) {
+        Objects.requireNonNull(key, "key cannot be null");
+        Objects.requireNonNull(processName, "processName cannot be null");
+        return executeAsync(new IdempotentStore.IdempotentKey(key, processName), returnType, operation, ttl);
+    }
+
+    /**
+     * Non-blocking idempotent execution. Follows the same lifecycle as {@link #execute execute}:
+     * the key is claimed, the operation's stage is persisted as {@code COMPLETED} once it
+     * completes, and a failed stage releases the key. A duplicate of an in-progress key polls the
+     * store on a timer per the {@link WaitPolicy} instead of blocking a thread.
+     *
+     * <p>{@code operation} is only invoked when the key was claimed; it runs on whichever thread
+     * completed the claim and should return its stage without blocking.
+     *
+     * @return a future completed with the result (or cached response), or exceptionally with the
+     * operation's failure or an {@link IdempotentException}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<@Nullable T> executeAsync(
+            IdempotentStore.IdempotentKey idempotentKey,
+            Class<T> returnType,
+            Supplier<? extends CompletionStage<T>> operation,
+            Duration ttl) {
+        Objects.requireNonNull(idempotentKey, "idempotentKey cannot be null");
+        Objects.requireNonNull(returnType, "returnType cannot be null");
+        Objects.requireNonNull(operation, "operation cannot be null");
+        Objects.requireNonNull(ttl, "ttl cannot be null");
+
+        var expiresAt = Instant.now().plus(ttl);
+        CompletableFuture<@Nullable T> result = new CompletableFuture<>();
+        asyncStore
+                .claimOrGet(idempotentKey, new IdempotentStore.Value(IN_PROGRESS, expiresAt, null), returnType)
+                .exceptionallyCompose(e -> {
+                    Throwable cause = unwrap(e);
+                    if (!(cause instanceof IdempotentKeyConflictException)) {
+                        return CompletableFuture.failedFuture(cause);
+                    }
+                    log.info("Idempotent key conflict for {}; following existing-entry path", idempotentKey.key());
+                    metrics.recordConflict(idempotentKey.processName());
+                    return asyncStore.getValue(idempotentKey, returnType).thenApply(existing -> {
+                        if (existing == null) {
+                            throw new IdempotentKeyConflictException(
+                                    "Idempotent key conflict but entry is not available", idempotentKey);
+                        }
+                        return existing;
+                    });
+                })
+                .thenCompose(existing -> existing != null
+                        ? handleExistingAsync(idempotentKey, existing)
+                        : handleNewAsync(idempotentKey, operation, expiresAt))
+                .whenComplete((value, failure) -> {
+                    if (failure != null) {
+                        result.completeExceptionally(unwrap(failure));
+                    } else {
+                        result.complete((T) value);
+                    }
+                });
+        return result;
+    }
+
+    private CompletableFuture<@Nullable Object> handleExistingAsync(
+            IdempotentStore.IdempotentKey idempotentKey, IdempotentStore.Value value) {
+        if (value.status() == COMPLETED) {
+            metrics.record(idempotentKey.processName(), Outcome.HIT, null);
+            return CompletableFuture.completedFuture(value.response());
+        }
+        return asyncCompletionAwaiter.waitAsync(idempotentKey, value).thenCompose(awaited -> {
+            if (awaited != null && awaited.status() == COMPLETED) {
+                metrics.record(idempotentKey.processName(), Outcome.HIT_AFTER_WAIT, null);
+                return CompletableFuture.completedFuture(awaited.response());
+            }
+            return removeAndNotifyAsync(idempotentKey).thenApply(ignored -> {
+                metrics.record(idempotentKey.processName(), Outcome.WAIT_EXHAUSTED, null);
+                throw new IdempotentWaitExhaustedException(
+                        "Operation wait exhausted in progress after multiple retries", idempotentKey);
+            });
+        });
+    }
+
+    private <T> CompletableFuture<@Nullable Object> handleNewAsync(
+            IdempotentStore.IdempotentKey idempotentKey,
+            Supplier<? extends CompletionStage<T>> operation,
+            Instant expiresAt) {
+        long startNanos = System.nanoTime();
+        // Composing on a completed future turns a throwing supplier into a failed stage.
+        return CompletableFuture.completedFuture(operation)
+                .thenCompose(Supplier::get)
+                .<@Nullable Object>thenCompose(response -> {
+                    var elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+                    if (response instanceof ResponseEntity<?> re && !re.getStatusCode().is2xxSuccessful()) {
+                        // Non-2xx responses are treated as failures and not cached so the caller can retry.
+                        return removeAndNotifyAsync(idempotentKey).thenApply(ignored -> {
+                            recordRun(idempotentKey.processName(), Outcome.NEW_FAILURE, elapsed);
+                            return response;
+                        });
+                    }
+                    return asyncStore
+                            .update(idempotentKey, new IdempotentStore.Value(COMPLETED, expiresAt, response))
+                            .thenApply(ignored -> {
+                                completionNotifier.notifyCompletion(idempotentKey);
+                                recordRun(idempotentKey.processName(), Outcome.NEW_SUCCESS, elapsed);
+                                return response;
+                            });
+                })
+                .exceptionallyCompose(e -> {
+                    Throwable cause = unwrap(e);
+                    var elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+                    return removeAndNotifyAsync(idempotentKey).handle((ignored, removeFailure) -> {
+                        if (removeFailure != null) {
+                            cause.addSuppressed(unwrap(removeFailure));
+                        }
+                        recordRun(idempotentKey.processName(), Outcome.NEW_FAILURE, elapsed);
+                        return CompletableFuture.<@Nullable Object>failedFuture(cause);
+                    }).thenCompose(failed -> failed);
+                });
+    }
+
+    private CompletableFuture<Void> removeAndNotifyAsync(IdempotentStore.IdempotentKey idempotentKey) {
+        return asyncStore
+                .remove(idempotentKey)
+                .whenComplete((ignored, failure) -> completionNotifier.notifyCompletion(idempotentKey));
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
     // ---- Canonical execution -----------------------------------------------------------------
 
     /**
@@ -120,14 +665,100 @@ public class IdempotentService {
         Objects.requireNonNull(operation, "operation cannot be null");
         Objects.requireNonNull(ttl, "ttl cannot be null");
 
-        IdempotentStore.Value existing = idempotentStore.getValue(idempotentKey, returnType);
-        if (existing != null) {
-            return (T) handleExisting(idempotentKey, existing);
+        var flight = new InFlight(Thread.currentThread());
+        InFlight leader = inFlight.putIfAbsent(idempotentKey, flight);
+        if (leader != null) {
+            if (leader.thread != Thread.currentThread()) {
+                return (T) follow(idempotentKey, leader);
+            }
+            // Re-entrant call for the key this thread already owns: joining its own flight would
+            // deadlock, so go through the store like an unrelated caller.
+            return executeWithStore(idempotentKey, returnType, operation, ttl);
+        }
+        try {
+            T result = executeWithStore(idempotentKey, returnType, operation, ttl);
+            flight.result.complete(result);
+            return result;
+        } catch (Throwable t) {
+            flight.result.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(idempotentKey, flight);
+        }
+    }
+
+    private @Nullable Object follow(IdempotentStore.IdempotentKey idempotentKey, InFlight leader) throws Throwable {
+        try {
+            Object result = leader.result.get(
+                    waitPolicy.maxWait(idempotentKey.processName()).toMillis(), TimeUnit.MILLISECONDS);
+            metrics.record(idempotentKey.processName(), Outcome.HIT_AFTER_WAIT, null);
+            return result;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            // A follower ran nothing: it waited and got the leader's failure, which the leader
+            // already recorded as its own new_failure.
+            var outcome = cause instanceof IdempotentWaitExhaustedException
+                    ? Outcome.WAIT_EXHAUSTED
+                    : Outcome.HIT_AFTER_WAIT;
+            metrics.record(idempotentKey.processName(), outcome, null);
+            throw cause;
+        } catch (TimeoutException e) {
+            metrics.record(idempotentKey.processName(), Outcome.WAIT_EXHAUSTED, null);
+            throw new IdempotentWaitExhaustedException(
+                    "Operation wait exhausted in progress after multiple retries", idempotentKey);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotentException("Interrupted while waiting for idempotent operation to complete", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> @Nullable T executeWithStore(
+            IdempotentStore.IdempotentKey idempotentKey,
+            Class<T> returnType,
+            IdempotentOperation<T> operation,
+            Duration ttl)
+            throws Throwable {
+        var activeLease = lease;
+        // With a lease, a waiter whose owner released the key or let its lease lapse claims it once.
+        for (boolean mayTakeOver = activeLease != null; ; mayTakeOver = false) {
+            var expiresAt = Instant.now().plus(ttl);
+            var claimExpiry = activeLease != null ? activeLease.claimExpiry(expiresAt) : expiresAt;
+            IdempotentStore.Value existing;
+            try {
+                existing = idempotentStore.claimOrGet(
+                        idempotentKey, new IdempotentStore.Value(IN_PROGRESS, claimExpiry, null), returnType);
+            } catch (IdempotentKeyConflictException e) {
+                log.info("Idempotent key conflict for {}; following existing-entry path", idempotentKey.key());
+                metrics.recordConflict(idempotentKey.processName());
+                existing = idempotentStore.getValue(idempotentKey, returnType);
+                if (existing == null) {
+                    throw new IdempotentKeyConflictException(
+                            "Idempotent key conflict but entry is not available", idempotentKey);
+                }
+            }
+            if (existing == null) {
+                var heartbeat = activeLease != null ? activeLease.start(idempotentKey, claimExpiry, expiresAt) : null;
+                return handleNew(idempotentKey, operation, expiresAt, heartbeat);
+            }
+            Object result = handleExisting(idempotentKey, existing, mayTakeOver);
+            if (result != TAKE_OVER) {
+                return (T) result;
+            }
+            log.info("In-progress entry for {} was released or its lease lapsed; claiming it", idempotentKey.key());
         }
-        return handleNew(idempotentKey, returnType, operation, ttl);
     }
 
     private @Nullable Object handleExisting(IdempotentStore.IdempotentKey idempotentKey, IdempotentStore.Value value) {
+        return handleExisting(idempotentKey, value, false);
+    }
+
+    /**
+     * @param mayTakeOver return {@link #TAKE_OVER} instead of failing when the awaited entry is
+     *                    gone, so the caller claims the key
+     */
+    private @Nullable Object handleExisting(
+            IdempotentStore.IdempotentKey idempotentKey, IdempotentStore.Value value, boolean mayTakeOver) {
         if (value.status() == COMPLETED) {
             metrics.record(idempotentKey.processName(), Outcome.HIT, null);
             return value.response();
@@ -137,7 +768,10 @@ public class IdempotentService {
             metrics.record(idempotentKey.processName(), Outcome.HIT_AFTER_WAIT, null);
             return awaited.response();
         }
-        idempotentStore.remove(idempotentKey);
+        if (awaited == null && mayTakeOver) {
+            return TAKE_OVER;
+        }
+        removeAndNotify(idempotentKey);
         metrics.record(idempotentKey.processName(), Outcome.WAIT_EXHAUSTED, null);
         throw new IdempotentWaitExhaustedException(
                 "Operation wait exhausted in progress after multiple retries", idempotentKey);
@@ -145,37 +779,29 @@ public class IdempotentService {
 
     private <T> @Nullable T handleNew(
             IdempotentStore.IdempotentKey idempotentKey,
-            Class<T> returnType,
             IdempotentOperation<T> operation,
-            Duration ttl)
+            Instant expiresAt,
+            InProgressLease.@Nullable Heartbeat heartbeat)
             throws Throwable {
-        var expiresAt = Instant.now().plus(ttl);
-        try {
-            idempotentStore.store(idempotentKey, new IdempotentStore.Value(IN_PROGRESS, expiresAt, null));
-        } catch (IdempotentKeyConflictException e) {
-            log.info("Idempotent key conflict for {}; following existing-entry path", idempotentKey.key());
-            metrics.recordConflict(idempotentKey.processName());
-            IdempotentStore.Value refetched = idempotentStore.getValue(idempotentKey, returnType);
-            if (refetched == null) {
-                throw new IdempotentKeyConflictException(
-                        "Idempotent key conflict but entry is not available", idempotentKey);
-            }
-            @SuppressWarnings("unchecked")
-            T result = (T) handleExisting(idempotentKey, refetched);
-            return result;
-        }
-
         long startNanos = System.nanoTime();
         try {
-            T result = operation.execute();
+            T result;
+            try {
+                result = operation.execute();
+            } finally {
+                // Stop renewing before the entry is completed or removed.
+                if (heartbeat != null) {
+                    heartbeat.close();
+                }
+            }
             var elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
             var successful = updateStoreWithResponse(idempotentKey, result, expiresAt);
             var outcome = successful ? Outcome.NEW_SUCCESS : Outcome.NEW_FAILURE;
-            metrics.record(idempotentKey.processName(), outcome, elapsed);
+            recordRun(idempotentKey.processName(), outcome, elapsed);
             return result;
         } catch (Throwable t) {
-            idempotentStore.remove(idempotentKey);
-            metrics.record(
+            completionWriter.release(idempotentKey);
+            recordRun(
                     idempotentKey.processName(), Outcome.NEW_FAILURE, Duration.ofNanos(System.nanoTime() - startNanos));
             throw t;
         }
@@ -185,12 +811,67 @@ public class IdempotentService {
             IdempotentStore.IdempotentKey idempotentKey, @Nullable Object response, Instant expiresAt) {
         if (response instanceof ResponseEntity<?> re && !re.getStatusCode().is2xxSuccessful()) {
             // Non-2xx responses are treated as failures and not cached so the caller can retry.
-            idempotentStore.remove(idempotentKey);
+            completionWriter.release(idempotentKey);
             return false;
         }
         // Cache the result — including null (void methods or intentional null returns) so
         // later calls with the same key short-circuit instead of re-executing.
-        idempotentStore.update(idempotentKey, new IdempotentStore.Value(COMPLETED, expiresAt, response));
+        completionWriter.complete(idempotentKey, new IdempotentStore.Value(COMPLETED, expiresAt, response));
         return true;
     }
+
+    /**
+     * Records an operation this service ran. Only successful runs feed the wait policy: a failed run
+     * removes its key as soon as it throws, so its (often short) duration says nothing about how
+     * long a waiter should expect to wait for a completion.
+     */
+    private void recordRun(String processName, Outcome outcome, Duration elapsed) {
+        if (outcome == Outcome.NEW_SUCCESS) {
+            waitPolicy.recordDuration(processName, elapsed);
+        }
+        metrics.record(processName, outcome, elapsed);
+    }
+
+    private void removeAndNotify(IdempotentStore.IdempotentKey idempotentKey) {
+        try {
+            idempotentStore.remove(idempotentKey);
+        } finally {
+            completionNotifier.notifyCompletion(idempotentKey);
+        }
+    }
+
+    /** One claimed operation of a batch; captures its outcome instead of throwing. */
+    private static final class BatchCall {
+        private final IdempotentStore.IdempotentKey key;
+        private final Supplier<?> operation;
+        private @Nullable Object result;
+        private @Nullable Throwable failure;
+        private long elapsedNanos;
+
+        private BatchCall(IdempotentStore.IdempotentKey key, Supplier<?> operation) {
+            this.key = key;
+            this.operation = operation;
+        }
+
+        private void run() {
+            long startNanos = System.nanoTime();
+            try {
+                result = operation.get();
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                elapsedNanos = System.nanoTime() - startNanos;
+            }
+        }
+    }
+
+    /** A local call currently executing against the store; followers wait on {@link #result}. */
+    private static final class InFlight {
+        private final Thread thread;
+        private final CompletableFuture<@Nullable Object> result = new CompletableFuture<>();
+
+        private InFlight(Thread thread) {
+            this.thread = thread;
+        }
+    }
 }
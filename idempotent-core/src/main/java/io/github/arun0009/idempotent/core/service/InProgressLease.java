@@ -0,0 +1,152 @@
+package io.github.arun0009.idempotent.core.service;
+
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.IN_PROGRESS;
+
+/**
+ * Short-lived claim on an {@code IN_PROGRESS} entry. The entry is written with a lease of {@code
+ * duration} instead of the full TTL and renewed every {@code renewInterval} while the operation
+ * runs, so an entry whose owner died lapses within one lease and the next caller claims it.
+ * {@code COMPLETED} entries still get the full TTL.
+ *
+ * <p>The store SPI has no owner column or compare-and-set, so the expiry an owner last wrote
+ * serves as its owner token: a renewal that finds a different expiry knows another caller took the
+ * key over and stops renewing. Expiries are compared at second precision, the finest every backend
+ * keeps. A take-over only happens once the lease lapsed and writes an expiry one lease later, so
+ * {@code renewInterval} (and with it the lease) must be at least a second for the two to differ.
+ *
+ * <p>Renewals run on one daemon thread until the lease is {@linkplain #close() closed}.
+ */
+public class InProgressLease implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(InProgressLease.class);
+    /** Expiries are compared at second precision; see the class comment. */
+    static final Duration MIN_RENEW_INTERVAL = Duration.ofSeconds(1);
+
+    private final IdempotentStore idempotentStore;
+    private final Duration duration;
+    private final Duration renewInterval;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * @param duration      how long an unrenewed {@code IN_PROGRESS} entry stays live
+     * @param renewInterval time between renewals; at least one second and shorter than {@code
+     *                      duration}
+     */
+    public InProgressLease(IdempotentStore idempotentStore, Duration duration, Duration renewInterval) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("duration must be positive");
+        }
+        if (renewInterval.compareTo(MIN_RENEW_INTERVAL) < 0 || renewInterval.compareTo(duration) >= 0) {
+            throw new IllegalArgumentException("renewInterval must be at least 1s and shorter than duration");
+        }
+        this.idempotentStore = idempotentStore;
+        this.duration = duration;
+        this.renewInterval = renewInterval;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            var thread = new Thread(r, "idempotent-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /** Expiry of a new claim: one lease from now, capped at the entry's TTL. */
+    Instant claimExpiry(Instant ttlExpiry) {
+        Instant leaseExpiry = Instant.now().plus(duration);
+        return leaseExpiry.isBefore(ttlExpiry) ? leaseExpiry : ttlExpiry;
+    }
+
+    /**
+     * Starts renewing the claim on {@code key} until the returned heartbeat is closed or {@code
+     * ttlExpiry} is reached.
+     *
+     * @param claimedExpiry the expiry the claim was written with
+     */
+    Heartbeat start(IdempotentStore.IdempotentKey key, Instant claimedExpiry, Instant ttlExpiry) {
+        var heartbeat = new Heartbeat(key, claimedExpiry, ttlExpiry);
+        long interval = renewInterval.toMillis();
+        heartbeat.task = scheduler.scheduleWithFixedDelay(heartbeat::renew, interval, interval, TimeUnit.MILLISECONDS);
+        return heartbeat;
+    }
+
+    /**
+     * Stops renewing: pending renewals are cancelled and a renewal in progress completes. Claims
+     * still running then lapse after one lease, like those of a crashed owner.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+    }
+
+    /** Renews one claim; {@link #close} waits for a renewal in progress, so none lands after it. */
+    final class Heartbeat implements AutoCloseable {
+        private final IdempotentStore.IdempotentKey key;
+        private final Instant ttlExpiry;
+        private final ReentrantLock lock = new ReentrantLock();
+        private Instant ownedExpiry;
+        private boolean closed;
+        private volatile @Nullable ScheduledFuture<?> task;
+
+        private Heartbeat(IdempotentStore.IdempotentKey key, Instant claimedExpiry, Instant ttlExpiry) {
+            this.key = key;
+            this.ownedExpiry = claimedExpiry;
+            this.ttlExpiry = ttlExpiry;
+        }
+
+        private void renew() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                IdempotentStore.EntryStatus status = idempotentStore.loadStatus(key);
+                if (status == null
+                        || status.status() != IN_PROGRESS
+                        || status.expiresAt().getEpochSecond() != ownedExpiry.getEpochSecond()) {
+                    log.warn("Lost the in-progress lease on {}; another caller may be running it", key.key());
+                    stop();
+                    return;
+                }
+                Instant next = claimExpiry(ttlExpiry);
+                idempotentStore.update(key, new IdempotentStore.Value(IN_PROGRESS, next, null));
+                ownedExpiry = next;
+                if (!next.isBefore(ttlExpiry)) {
+                    stop();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to renew the in-progress lease on {}; retrying: {}", key.key(), e.toString());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void stop() {
+            closed = true;
+            ScheduledFuture<?> scheduled = task;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                stop();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.arun0009.idempotent.core.service;
+
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reactor front end for {@link IdempotentService}. The returned publishers are cold: nothing
+ * touches the store until they are subscribed, and the operation itself is only subscribed when
+ * the key was claimed.
+ *
+ * <p>Store calls go through the service's {@code AsyncIdempotentStore} and waiting on an
+ * in-progress key is a chain of delayed re-reads, so subscribing on a Netty event loop never
+ * blocks it, even when many duplicates are waiting at once.
+ *
+ * <h2>Flux</h2>
+ * A {@link Flux} is collected into a {@link List} that is persisted as the cached response and
+ * replayed element by element on hits. Only use it for finite, reasonably small streams.
+ */
+public class ReactiveIdempotentService {
+
+    private final IdempotentService idempotentService;
+
+    public ReactiveIdempotentService(IdempotentService idempotentService) {
+        this.idempotentService = idempotentService;
+    }
+
+    public <T> Mono<T> execute(String key, String processName, Class<T> returnType, Mono<T> operation, Duration ttl) {
+        Objects.requireNonNull(key, "key cannot be null");
+        Objects.requireNonNull(processName, "processName cannot be null");
+        return execute(new IdempotentStore.IdempotentKey(key, processName), returnType, operation, ttl);
+    }
+
+    /**
+     * Idempotent execution of {@code operation}. An empty {@link Mono} is cached as a {@code null}
+     * response and replayed as empty.
+     */
+    public <T> Mono<T> execute(
+            IdempotentStore.IdempotentKey idempotentKey, Class<T> returnType, Mono<T> operation, Duration ttl) {
+        Objects.requireNonNull(operation, "operation cannot be null");
+        return Mono.fromFuture(
+                () -> idempotentService.executeAsync(idempotentKey, returnType, operation::toFuture, ttl));
+    }
+
+    public <T> Flux<T> executeMany(String key, String processName, Flux<T> operation, Duration ttl) {
+        Objects.requireNonNull(key, "key cannot be null");
+        Objects.requireNonNull(processName, "processName cannot be null");
+        return executeMany(new IdempotentStore.IdempotentKey(key, processName), operation, ttl);
+    }
+
+    /** Idempotent execution of a finite {@code operation}; see the class notes on {@link Flux}. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <T> Flux<T> executeMany(IdempotentStore.IdempotentKey idempotentKey, Flux<T> operation, Duration ttl) {
+        Objects.requireNonNull(operation, "operation cannot be null");
+        Class<List<T>> listType = (Class) List.class;
+        return execute(idempotentKey, listType, operation.collectList(), ttl).flatMapIterable(elements -> elements);
+    }
+}
@@ -1,14 +1,35 @@
 package io.github.arun0009.idempotent.core;
 
+import io.github.arun0009.idempotent.core.key.KeyHashAlgorithm;
+import io.github.arun0009.idempotent.core.persistence.BatchingProperties;
+import io.github.arun0009.idempotent.core.persistence.IdempotentAsyncProperties;
+import io.github.arun0009.idempotent.core.persistence.IdempotentNearCacheProperties;
+import io.github.arun0009.idempotent.core.persistence.InMemoryIdempotentProperties;
+import io.github.arun0009.idempotent.core.persistence.ProcessNameProperties;
+import io.github.arun0009.idempotent.core.retry.AdaptiveWaitStrategy;
+import io.github.arun0009.idempotent.core.retry.StatusPollerProperties;
+import io.github.arun0009.idempotent.core.serialization.CompressingIdempotentPayloadCodec;
+import io.github.arun0009.idempotent.core.serialization.CompressionAlgorithm;
+import io.github.arun0009.idempotent.core.serialization.IdempotentPayloadCodec;
+import io.github.arun0009.idempotent.core.serialization.IdempotentSerializationProperties;
+import io.github.arun0009.idempotent.core.service.CompletionWriteProperties;
+import io.github.arun0009.idempotent.core.service.CompletionWriter;
+import io.github.arun0009.idempotent.core.service.IdempotentLeaseProperties;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class PropertiesBindingTest {
     @Nested
@@ -58,4 +79,241 @@ class PropertiesBindingTest {
             assertEquals(5, idempotentProperties.inprogress().retryMultiplier());
         }
     }
+
+    @Nested
+    @SpringBootTest(
+            classes = TestApplication.class,
+            properties = {
+                "idempotent.near-cache.enabled=true",
+                "idempotent.near-cache.max-entries=500",
+                "idempotent.near-cache.max-bytes=2MB"
+            })
+    class NearCacheBinding {
+        @Autowired
+        IdempotentNearCacheProperties nearCacheProperties;
+
+        @Test
+        void shouldLoadNearCacheProperties() {
+            assertTrue(nearCacheProperties.enabled());
+            assertEquals(500, nearCacheProperties.maxEntries());
+            assertEquals(DataSize.ofMegabytes(2), nearCacheProperties.maxBytes());
+        }
+    }
+
+    @Nested
+    @SpringBootTest(
+            classes = TestApplication.class,
+            properties = {
+                "idempotent.inmemory.max-entries=1000",
+                "idempotent.inmemory.sweep-interval=250ms",
+                "idempotent.inmemory.off-heap.max-entries=5000",
+                "idempotent.inmemory.off-heap.max-bytes=8MB"
+            })
+    class InMemoryBinding {
+        @Autowired
+        InMemoryIdempotentProperties inMemoryProperties;
+
+        @Test
+        void shouldLoadInMemoryProperties() {
+            assertEquals(1000, inMemoryProperties.maxEntries());
+            assertEquals(Duration.ofMillis(250), inMemoryProperties.sweepInterval());
+            assertFalse(inMemoryProperties.offHeap().enabled());
+            assertEquals(5000, inMemoryProperties.offHeap().maxEntries());
+            assertEquals(DataSize.ofMegabytes(8), inMemoryProperties.offHeap().maxBytes());
+        }
+    }
+
+    @Nested
+    @SpringBootTest(classes = TestApplication.class, properties = "idempotent.async.executor-threads=3")
+    class AsyncBinding {
+        @Autowired
+        IdempotentAsyncProperties asyncProperties;
+
+        @Test
+        void shouldLoadAsyncProperties() {
+            assertEquals(3, asyncProperties.executorThreads());
+        }
+    }
+
+    @Nested
+    @SpringBootTest(classes = TestApplication.class, properties = "idempotent.key.hash.algorithm=murmur3-128")
+    class KeyHashBinding {
+        @Autowired
+        IdempotentProperties idempotentProperties;
+
+        @Test
+        void shouldLoadKeyHashAlgorithm() {
+            assertEquals(KeyHashAlgorithm.MURMUR3_128, idempotentProperties.keyHashAlgorithm());
+        }
+    }
+
+    @Nested
+    @SpringBootTest(classes = TestApplication.class, properties = "idempotent.process-names.compact=true")
+    class ProcessNameBinding {
+        @Autowired
+        ProcessNameProperties processNameProperties;
+
+        @Test
+        void shouldLoadProcessNameProperties() {
+            assertTrue(processNameProperties.compact());
+        }
+    }
+
+    @Nested
+    @SpringBootTest(
+            classes = TestApplication.class,
+            properties = {
+                "idempotent.lease.enabled=true",
+                "idempotent.lease.duration=6s",
+                "idempotent.lease.renew-interval=2s"
+            })
+    class LeaseBinding {
+        @Autowired
+        IdempotentLeaseProperties leaseProperties;
+
+        @Test
+        void shouldLoadLeaseProperties() {
+            assertTrue(leaseProperties.enabled());
+            assertEquals(Duration.ofSeconds(6), leaseProperties.duration());
+            assertEquals(Duration.ofSeconds(2), leaseProperties.renewInterval());
+        }
+    }
+
+    @Nested
+    @SpringBootTest(
+            classes = TestApplication.class,
+            properties = {
+                "idempotent.inprogress.strategy=adaptive",
+                "idempotent.inprogress.retry.max.interval=500ms",
+                "idempotent.inprogress.max.wait=5s",
+                "idempotent.inprogress.expected.percentile=0.9",
+                "idempotent.inprogress.process.max.wait[orders]=9s"
+            })
+    class AdaptiveWaitBinding {
+        @Autowired
+        IdempotentProperties idempotentProperties;
+
+        @Test
+        void shouldLoadAdaptiveWaitProperties() {
+            var inprogress = idempotentProperties.inprogress();
+            assertEquals(IdempotentProperties.InProgress.Strategy.ADAPTIVE, inprogress.strategy());
+            assertEquals(Duration.ofMillis(500), inprogress.retryMaxInterval());
+            assertEquals(0.9, inprogress.expectedPercentile());
+
+            var policy = assertInstanceOf(AdaptiveWaitStrategy.class, inprogress.waitPolicy());
+            assertEquals(Duration.ofSeconds(9), policy.maxWait("orders"));
+            assertEquals(Duration.ofSeconds(5), policy.maxWait("payments"));
+        }
+    }
+
+    @Nested
+    @SpringBootTest(
+            classes = TestApplication.class,
+            properties = {"idempotent.poller.enabled=true", "idempotent.poller.tick=20ms"})
+    class PollerBinding {
+        @Autowired
+        StatusPollerProperties pollerProperties;
+
+        @Test
+        void shouldLoadPollerProperties() {
+            assertTrue(pollerProperties.enabled());
+            assertEquals(Duration.ofMillis(20), pollerProperties.tick());
+        }
+    }
+
+    @Nested
+    @SpringBootTest(
+            classes = TestApplication.class,
+            properties = {
+                "idempotent.read-batching.enabled=true",
+                "idempotent.read-batching.window=2ms",
+                "idempotent.read-batching.max-keys=32"
+            })
+    class ReadBatchingBinding {
+        @Autowired
+        BatchingProperties batchingProperties;
+
+        @Test
+        void shouldLoadReadBatchingProperties() {
+            assertTrue(batchingProperties.enabled());
+            assertEquals(Duration.ofMillis(2), batchingProperties.window());
+            assertEquals(32, batchingProperties.maxKeys());
+        }
+    }
+
+    @Nested
+    @SpringBootTest(
+            classes = TestApplication.class,
+            properties = {
+                "idempotent.completion-write.mode=batched",
+                "idempotent.completion-write.queue-capacity=500",
+                "idempotent.completion-write.flush-interval=10ms",
+                "idempotent.completion-write.max-batch=50"
+            })
+    class CompletionWriteBinding {
+        @Autowired
+        CompletionWriteProperties completionWriteProperties;
+
+        @Test
+        void shouldLoadCompletionWriteProperties() {
+            assertEquals(CompletionWriter.Mode.BATCHED, completionWriteProperties.mode());
+            assertEquals(500, completionWriteProperties.queueCapacity());
+            assertEquals(2, completionWriteProperties.writerThreads());
+            assertEquals(Duration.ofMillis(10), completionWriteProperties.flushInterval());
+            assertEquals(50, completionWriteProperties.maxBatch());
+        }
+    }
+
+    @Nested
+    @SpringBootTest(
+            classes = TestApplication.class,
+            properties = {
+                "idempotent.serialization.typed=true",
+                "idempotent.serialization.records=true",
+                "idempotent.serialization.compression.enabled=true",
+                "idempotent.serialization.compression.algorithm=zstd",
+                "idempotent.serialization.compression.threshold=4KB"
+            })
+    class SerializationBinding {
+        @Autowired
+        IdempotentSerializationProperties serializationProperties;
+
+        @Autowired
+        IdempotentPayloadCodec payloadCodec;
+
+        @Test
+        void shouldLoadSerializationProperties() {
+            assertTrue(serializationProperties.typed());
+            assertTrue(serializationProperties.records());
+            var compression = serializationProperties.compression();
+            assertTrue(compression.enabled());
+            assertEquals(CompressionAlgorithm.ZSTD, compression.algorithm());
+            assertEquals(DataSize.ofKilobytes(4), compression.threshold());
+            assertInstanceOf(CompressingIdempotentPayloadCodec.class, payloadCodec);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(
+            classes = TestApplication.class,
+            properties = {
+                "idempotent.serialization.strategy=smile",
+                "idempotent.serialization.typed=true",
+                "idempotent.serialization.compression.enabled=true"
+            })
+    class BinarySerializationBinding {
+        @Autowired
+        IdempotentPayloadCodec payloadCodec;
+
+        @Test
+        void shouldRouteBinaryCodecThroughWrappers() {
+            assertTrue(payloadCodec.isBinary());
+            var response = ResponseEntity.status(201).body(List.of("a", "b"));
+            var restored = (ResponseEntity<?>) payloadCodec.deserializeFromString(
+                    payloadCodec.serializeToString(response), ResponseEntity.class);
+            assertNotNull(restored);
+            assertEquals(201, restored.getStatusCode().value());
+            assertEquals(List.of("a", "b"), restored.getBody());
+        }
+    }
 }
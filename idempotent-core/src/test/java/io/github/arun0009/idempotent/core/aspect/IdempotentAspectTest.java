@@ -3,6 +3,8 @@ package io.github.arun0009.idempotent.core.aspect;
 import io.github.arun0009.idempotent.core.IdempotentProperties;
 import io.github.arun0009.idempotent.core.IdempotentTest;
 import io.github.arun0009.idempotent.core.annotation.Idempotent;
+import io.github.arun0009.idempotent.core.key.KeyHashAlgorithm;
+import io.github.arun0009.idempotent.core.key.KeyHasher;
 import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
 import io.github.arun0009.idempotent.core.retry.WaitStrategy;
 import io.github.arun0009.idempotent.core.service.IdempotentService;
@@ -16,13 +18,20 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.filter.reactive.ServerWebExchangeContextFilter;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
 import java.lang.reflect.Method;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -67,12 +76,13 @@ class IdempotentAspectTest {
         IdempotentStore.IdempotentKey idempotentKey =
                 new IdempotentStore.IdempotentKey("testKey", "__IdempotentAspectTest.testMethod()");
         IdempotentStore.Value value = null;
-        when(idempotentStore.getValue(any(IdempotentStore.IdempotentKey.class), any()))
+        when(idempotentStore.claimOrGet(
+                        any(IdempotentStore.IdempotentKey.class), any(IdempotentStore.Value.class), any()))
                 .thenReturn(value);
 
         Object response = idempotentAspect.around(proceedingJoinPoint);
 
-        verify(idempotentStore, times(1)).store(eq(idempotentKey), any(IdempotentStore.Value.class));
+        verify(idempotentStore, times(1)).claimOrGet(eq(idempotentKey), any(IdempotentStore.Value.class), any());
         verify(idempotentStore, times(1)).update(eq(idempotentKey), any(IdempotentStore.Value.class));
         assertInstanceOf(ResponseEntity.class, response);
         assertEquals("response", ((ResponseEntity<?>) response).getBody());
@@ -95,8 +105,12 @@ class IdempotentAspectTest {
                 new IdempotentStore.IdempotentKey("testKey", "__IdempotentAspectTest.testMethod()");
         IdempotentStore.Value inProgressValue = new IdempotentStore.Value(
                 IdempotentStore.Status.IN_PROGRESS, Instant.now().plusSeconds(10), null);
+        when(idempotentStore.claimOrGet(eq(idempotentKey), any(IdempotentStore.Value.class), any()))
+                .thenReturn(inProgressValue);
+        when(idempotentStore.loadStatus(idempotentKey))
+                .thenReturn(new IdempotentStore.EntryStatus(
+                        IdempotentStore.Status.COMPLETED, Instant.now().plusSeconds(10)));
         when(idempotentStore.getValue(eq(idempotentKey), any()))
-                .thenReturn(inProgressValue)
                 .thenReturn(new IdempotentStore.Value(
                         IdempotentStore.Status.COMPLETED,
                         Instant.now().plusSeconds(10),
@@ -104,7 +118,8 @@ class IdempotentAspectTest {
 
         Object response = idempotentAspect.around(proceedingJoinPoint);
 
-        verify(idempotentStore, times(2)).getValue(eq(idempotentKey), any());
+        verify(idempotentStore, times(1)).claimOrGet(eq(idempotentKey), any(IdempotentStore.Value.class), any());
+        verify(idempotentStore, times(1)).getValue(eq(idempotentKey), any());
         assertInstanceOf(ResponseEntity.class, response);
         assertEquals("cached response", ((ResponseEntity<?>) response).getBody());
     }
@@ -129,12 +144,13 @@ class IdempotentAspectTest {
                 IdempotentStore.Status.COMPLETED,
                 Instant.now().plusSeconds(10),
                 new ResponseEntity<>("cached response", HttpStatus.OK));
-        when(idempotentStore.getValue(any(IdempotentStore.IdempotentKey.class), any()))
+        when(idempotentStore.claimOrGet(
+                        any(IdempotentStore.IdempotentKey.class), any(IdempotentStore.Value.class), any()))
                 .thenReturn(completedValue);
 
         Object response = idempotentAspect.around(proceedingJoinPoint);
 
-        verify(idempotentStore, times(1)).getValue(eq(idempotentKey), any());
+        verify(idempotentStore, times(1)).claimOrGet(eq(idempotentKey), any(IdempotentStore.Value.class), any());
         assertInstanceOf(ResponseEntity.class, response);
         assertEquals("cached response", ((ResponseEntity<?>) response).getBody());
     }
@@ -150,7 +166,8 @@ class IdempotentAspectTest {
         when(proceedingJoinPoint.getArgs()).thenReturn(new Object[] {});
         when(methodSignature.getMethod()).thenReturn(method);
         when(proceedingJoinPoint.proceed()).thenReturn(new ResponseEntity<>("ok", HttpStatus.OK));
-        when(idempotentStore.getValue(any(IdempotentStore.IdempotentKey.class), any()))
+        when(idempotentStore.claimOrGet(
+                        any(IdempotentStore.IdempotentKey.class), any(IdempotentStore.Value.class), any()))
                 .thenReturn(null);
 
         Object response = idempotentAspect.around(proceedingJoinPoint);
@@ -158,6 +175,151 @@ class IdempotentAspectTest {
         assertInstanceOf(ResponseEntity.class, response);
     }
 
+    @Test
+    void testAround_monoReturnCachesEmittedValueOnSubscribe() throws Throwable {
+        Method method = this.getClass().getDeclaredMethod("monoMethod");
+        MethodSignature methodSignature = mock(MethodSignature.class);
+        when(proceedingJoinPoint.getSignature()).thenReturn(methodSignature);
+        when(methodSignature.getParameterNames()).thenReturn(new String[] {});
+        when(methodSignature.getName()).thenReturn("monoMethod");
+        when(methodSignature.getReturnType()).thenAnswer(invocation -> Mono.class);
+        when(proceedingJoinPoint.getArgs()).thenReturn(new Object[] {});
+        when(methodSignature.getMethod()).thenReturn(method);
+        var invocations = new AtomicInteger();
+        when(proceedingJoinPoint.proceed()).thenAnswer(invocation -> {
+            invocations.incrementAndGet();
+            return Mono.just("reactive");
+        });
+        when(idempotentStore.claimOrGet(
+                        any(IdempotentStore.IdempotentKey.class), any(IdempotentStore.Value.class), any()))
+                .thenReturn(null);
+        IdempotentStore.IdempotentKey idempotentKey =
+                new IdempotentStore.IdempotentKey("monoKey", "__IdempotentAspectTest.monoMethod()");
+
+        Object response = idempotentAspect.around(proceedingJoinPoint);
+
+        assertInstanceOf(Mono.class, response);
+        assertEquals(0, invocations.get());
+        assertEquals("reactive", ((Mono<?>) response).block(Duration.ofSeconds(5)));
+        assertEquals(1, invocations.get());
+        verify(idempotentStore, times(1))
+                .update(eq(idempotentKey), argThat(value -> "reactive".equals(value.response())));
+    }
+
+    @Test
+    void testAround_monoReturnTakesKeyHeaderFromWebFluxExchange() throws Throwable {
+        Method method = this.getClass().getDeclaredMethod("monoMethod");
+        MethodSignature methodSignature = mock(MethodSignature.class);
+        when(proceedingJoinPoint.getSignature()).thenReturn(methodSignature);
+        when(methodSignature.getParameterNames()).thenReturn(new String[] {});
+        when(methodSignature.getName()).thenReturn("monoMethod");
+        when(methodSignature.getReturnType()).thenAnswer(invocation -> Mono.class);
+        when(methodSignature.getMethod()).thenReturn(method);
+        when(proceedingJoinPoint.proceed()).thenAnswer(invocation -> Mono.just("reactive"));
+        when(idempotentStore.claimOrGet(
+                        any(IdempotentStore.IdempotentKey.class), any(IdempotentStore.Value.class), any()))
+                .thenReturn(null);
+        var exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.post("/orders").header("X-Idempotency-Key", "header-key"));
+
+        var response = assertInstanceOf(Mono.class, idempotentAspect.around(proceedingJoinPoint));
+
+        assertEquals(
+                "reactive",
+                response.contextWrite(Context.of(ServerWebExchangeContextFilter.EXCHANGE_CONTEXT_ATTRIBUTE, exchange))
+                        .block(Duration.ofSeconds(5)));
+        verify(idempotentStore, times(1))
+                .update(
+                        eq(new IdempotentStore.IdempotentKey("header-key", "__IdempotentAspectTest.monoMethod()")),
+                        argThat(value -> "reactive".equals(value.response())));
+    }
+
+    @Test
+    void testAround_cachedKeyExpressionIsEvaluatedPerInvocation() throws Throwable {
+        Method method = this.getClass().getDeclaredMethod("methodWithAssetKey", IdempotentTest.Asset.class);
+        MethodSignature methodSignature = mock(MethodSignature.class);
+        when(proceedingJoinPoint.getSignature()).thenReturn(methodSignature);
+        when(methodSignature.getParameterNames()).thenReturn(new String[] {"asset"});
+        when(methodSignature.getName()).thenReturn("methodWithAssetKey");
+        when(methodSignature.getReturnType()).thenAnswer(invocation -> ResponseEntity.class);
+        when(methodSignature.getMethod()).thenReturn(method);
+        when(proceedingJoinPoint.getArgs())
+                .thenReturn(new Object[] {
+                    new IdempotentTest.Asset("1", new IdempotentTest.AssetType("test-category", "1.0"), "first")
+                })
+                .thenReturn(new Object[] {
+                    new IdempotentTest.Asset("2", new IdempotentTest.AssetType("test-category", "1.0"), "second")
+                });
+        when(proceedingJoinPoint.proceed()).thenReturn(new ResponseEntity<>("ok", HttpStatus.OK));
+        when(idempotentStore.claimOrGet(
+                        any(IdempotentStore.IdempotentKey.class), any(IdempotentStore.Value.class), any()))
+                .thenReturn(null);
+
+        idempotentAspect.around(proceedingJoinPoint);
+        idempotentAspect.around(proceedingJoinPoint);
+
+        var processName = "__IdempotentAspectTest.methodWithAssetKey()";
+        verify(idempotentStore)
+                .claimOrGet(eq(new IdempotentStore.IdempotentKey("1", processName)), any(), any());
+        verify(idempotentStore)
+                .claimOrGet(eq(new IdempotentStore.IdempotentKey("2", processName)), any(), any());
+        verify(methodSignature, times(1)).getParameterNames();
+    }
+
+    @Test
+    void testAround_hashesKeyWithAnnotationOrDefaultAlgorithm() throws Throwable {
+        MethodSignature methodSignature = mock(MethodSignature.class);
+        when(proceedingJoinPoint.getSignature()).thenReturn(methodSignature);
+        when(methodSignature.getParameterNames()).thenReturn(new String[0]);
+        when(methodSignature.getName()).thenReturn("murmurHashedMethod", "defaultHashedMethod");
+        when(methodSignature.getReturnType()).thenAnswer(invocation -> ResponseEntity.class);
+        when(methodSignature.getMethod())
+                .thenReturn(getClass().getDeclaredMethod("murmurHashedMethod"))
+                .thenReturn(getClass().getDeclaredMethod("defaultHashedMethod"));
+        when(proceedingJoinPoint.getArgs()).thenReturn(new Object[0]);
+        when(proceedingJoinPoint.proceed()).thenReturn(new ResponseEntity<>("ok", HttpStatus.OK));
+
+        idempotentAspect.around(proceedingJoinPoint);
+        idempotentAspect.around(proceedingJoinPoint);
+
+        verify(idempotentStore)
+                .claimOrGet(
+                        eq(new IdempotentStore.IdempotentKey(
+                                KeyHasher.murmur3().hash("hashed"), "__IdempotentAspectTest.murmurHashedMethod()")),
+                        any(),
+                        any());
+        verify(idempotentStore)
+                .claimOrGet(
+                        eq(new IdempotentStore.IdempotentKey(
+                                KeyHasher.sha256Hex().hash("hashed"), "__IdempotentAspectTest.defaultHashedMethod()")),
+                        any(),
+                        any());
+    }
+
+    @SuppressWarnings("unused")
+    @Idempotent(key = "'hashed'", hashKey = true, hashAlgorithm = KeyHashAlgorithm.MURMUR3_128)
+    private ResponseEntity<String> murmurHashedMethod() {
+        return new ResponseEntity<>("ok", HttpStatus.OK);
+    }
+
+    @SuppressWarnings("unused")
+    @Idempotent(key = "'hashed'", hashKey = true)
+    private ResponseEntity<String> defaultHashedMethod() {
+        return new ResponseEntity<>("ok", HttpStatus.OK);
+    }
+
+    @SuppressWarnings("unused")
+    @Idempotent(key = "#asset.id", duration = "PT1M")
+    private ResponseEntity<String> methodWithAssetKey(IdempotentTest.Asset asset) {
+        return new ResponseEntity<>("ok", HttpStatus.OK);
+    }
+
+    @SuppressWarnings("unused")
+    @Idempotent(key = "'monoKey'", duration = "PT1M")
+    private Mono<String> monoMethod() {
+        return Mono.just("reactive");
+    }
+
     @SuppressWarnings("unused")
     @Idempotent(key = "'testKey'", duration = "PT1M")
     private ResponseEntity<String> testMethod() {
@@ -0,0 +1,28 @@
+package io.github.arun0009.idempotent.core.key;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class KeyExtractorsTest {
+
+    @Test
+    void methodKeyUsesCanonicalParameterTypes() throws NoSuchMethodException {
+        var method = KeyedController.class.getMethod("place", String[].class, int.class);
+
+        assertEquals("place(java.lang.String[],int)", KeyExtractors.methodKey(method));
+    }
+
+    @Test
+    void findsGeneratedExtractorOfTheDeclaringClass() throws NoSuchMethodException {
+        var extractor = KeyExtractors.forMethod(KeyedController.class.getMethod("place", String[].class, int.class));
+
+        assertNotNull(extractor);
+        assertEquals("generated-3", extractor.extract(new Object[] {new String[] {"a"}, 3}));
+        assertNull(KeyExtractors.forMethod(KeyedController.class.getMethod("unprocessed", String.class)));
+        assertNull(KeyExtractors.forMethod(
+                KeyExtractorsTest.class.getDeclaredMethod("methodKeyUsesCanonicalParameterTypes")));
+    }
+}
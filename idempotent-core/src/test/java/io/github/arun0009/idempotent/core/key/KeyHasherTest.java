@@ -0,0 +1,60 @@
+package io.github.arun0009.idempotent.core.key;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class KeyHasherTest {
+
+    @Test
+    void sha256MatchesKnownDigest() {
+        assertEquals(
+                "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824",
+                KeyHasher.sha256Hex().hash("hello"));
+        assertEquals("LPJNul-wow4m6DsqxbninhsWHlwfp0JecwQzYpOLmCQ", KeyHasher.sha256Base64Url().hash("hello"));
+    }
+
+    @Test
+    void murmur3MatchesReferenceVectors() {
+        assertEquals("00000000000000000000000000000000", murmur3Hex(""));
+        // h1 = 0xe34bbc7bbc071b6c, h2 = 0x7a433ca9c49a9347, little-endian
+        assertEquals(
+                "6c1b07bc7bbc4be347939ac4a93c437a", murmur3Hex("The quick brown fox jumps over the lazy dog"));
+        assertEquals(22, KeyHasher.murmur3().hash("order-42").length());
+    }
+
+    @Test
+    void murmur3CoversEveryTailLength() {
+        var previous = "";
+        for (int length = 1; length <= 33; length++) {
+            String hash = KeyHasher.murmur3().hash("k".repeat(length));
+            assertNotEquals(previous, hash);
+            previous = hash;
+        }
+    }
+
+    @Test
+    void sha256IsStableAcrossThreads() throws Exception {
+        String expected = KeyHasher.sha256Hex().hash("order-42");
+        assertEquals(
+                expected,
+                CompletableFuture.supplyAsync(() -> KeyHasher.sha256Hex().hash("order-42"))
+                        .get());
+    }
+
+    @Test
+    void defaultAlgorithmHasNoHasher() {
+        assertNull(KeyHashAlgorithm.DEFAULT.hasher());
+        assertEquals(KeyHasher.murmur3(), KeyHashAlgorithm.MURMUR3_128.hasher());
+    }
+
+    private static String murmur3Hex(String input) {
+        return HexFormat.of().formatHex(Murmur3KeyHasher.hash128(input.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.arun0009.idempotent.core.key;
+
+import io.github.arun0009.idempotent.core.annotation.Idempotent;
+
+/** Stands in for a class compiled with {@code idempotent-processor}. */
+public class KeyedController {
+
+    @Idempotent(key = "#ids[0]")
+    public String place(String[] ids, int attempt) {
+        return ids[0];
+    }
+
+    @Idempotent(key = "#name")
+    public String unprocessed(String name) {
+        return name;
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.arun0009.idempotent.core.key;
+
+import java.util.Map;
+
+/** What {@code idempotent-processor} would generate for {@link KeyedController}. */
+public final class KeyedController_IdempotentKeys implements KeyExtractorProvider {
+
+    @Override
+    public Map<String, KeyExtractor> extractors() {
+        return Map.of("place(java.lang.String[],int)", args -> "generated-" + args[1]);
+    }
+}
@@ -0,0 +1,213 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import io.github.arun0009.idempotent.core.exception.IdempotentException;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore.IdempotentKey;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore.Value;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.COMPLETED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchingIdempotentStoreTest {
+
+    private static final int READERS = 8;
+
+    private final MultiGetStore backend = new MultiGetStore();
+
+    @Test
+    void concurrentReadsShareOneMultiGet() throws Exception {
+        // A long window: the batch is sent because it fills up, not because the window ended.
+        var store = new BatchingIdempotentStore(backend, Duration.ofSeconds(10), READERS);
+        for (int i = 0; i < READERS - 1; i++) {
+            backend.store(key(i), completed("r" + i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        try {
+            var start = new CountDownLatch(1);
+            List<CompletableFuture<@Nullable Value>> reads = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                var key = key(i);
+                reads.add(CompletableFuture.supplyAsync(
+                        () -> {
+                            awaitQuietly(start);
+                            return store.getValue(key, String.class);
+                        },
+                        executor));
+            }
+            start.countDown();
+
+            for (int i = 0; i < READERS - 1; i++) {
+                assertEquals("r" + i, responseOf(reads.get(i).get(5, TimeUnit.SECONDS)));
+            }
+            assertNull(reads.get(READERS - 1).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, backend.multiGets.get());
+        assertEquals(0, backend.singleGets.get());
+    }
+
+    @Test
+    void concurrentStatusReadsShareOneBatchedRead() throws Exception {
+        var store = new BatchingIdempotentStore(backend, Duration.ofSeconds(10), READERS);
+        for (int i = 0; i < READERS - 1; i++) {
+            backend.store(key(i), completed("r" + i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        try {
+            var start = new CountDownLatch(1);
+            List<CompletableFuture<IdempotentStore.@Nullable EntryStatus>> reads = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                var key = key(i);
+                reads.add(CompletableFuture.supplyAsync(
+                        () -> {
+                            awaitQuietly(start);
+                            return store.loadStatus(key);
+                        },
+                        executor));
+            }
+            start.countDown();
+
+            for (int i = 0; i < READERS - 1; i++) {
+                var status = reads.get(i).get(5, TimeUnit.SECONDS);
+                assertNotNull(status);
+                assertEquals(COMPLETED, status.status());
+            }
+            assertNull(reads.get(READERS - 1).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, backend.statusBatches.get());
+    }
+
+    @Test
+    void errorInBatchedReadReleasesEveryReader() throws Exception {
+        var store = new BatchingIdempotentStore(backend, Duration.ofMillis(200), 64);
+        backend.error = true;
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<CompletableFuture<@Nullable Value>> reads = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                var key = key(i);
+                reads.add(CompletableFuture.supplyAsync(() -> store.getValue(key, String.class), executor));
+            }
+            for (var read : reads) {
+                var thrown = assertThrows(ExecutionException.class, () -> read.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(AssertionError.class, thrown.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void loneReadIsSentWhenWindowEnds() {
+        var store = new BatchingIdempotentStore(backend, Duration.ofMillis(5), 64);
+        backend.store(key(1), completed("alone"));
+
+        assertEquals("alone", responseOf(store.getValue(key(1), String.class)));
+        assertEquals(1, backend.multiGets.get());
+    }
+
+    @Test
+    void backendFailureFailsTheRead() {
+        var store = new BatchingIdempotentStore(backend, Duration.ofMillis(5), 64);
+        backend.failing = true;
+
+        assertThrows(IdempotentException.class, () -> store.getValue(key(1), String.class));
+    }
+
+    @Test
+    void storeWithoutMultiGetIsReadDirectly() {
+        var inMemory = new InMemoryIdempotentStore();
+        var store = new BatchingIdempotentStore(inMemory, Duration.ofSeconds(10), 64);
+        inMemory.store(key(1), completed("direct"));
+
+        // Would block for the whole window if it were batched.
+        assertEquals("direct", responseOf(store.getValue(key(1), String.class)));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static IdempotentKey key(int i) {
+        return new IdempotentKey("k" + i, "orders");
+    }
+
+    private static Value completed(String response) {
+        return new Value(COMPLETED, Instant.now().plusSeconds(60), response);
+    }
+
+    private static @Nullable Object responseOf(@Nullable Value value) {
+        assertNotNull(value);
+        return value.response();
+    }
+
+    /** A store with native multi-gets that counts the reads and can fail them. */
+    private static final class MultiGetStore extends InMemoryIdempotentStore {
+        private final AtomicInteger multiGets = new AtomicInteger();
+        private final AtomicInteger singleGets = new AtomicInteger();
+        private final AtomicInteger statusBatches = new AtomicInteger();
+        private volatile boolean failing;
+        private volatile boolean error;
+
+        @Override
+        public @Nullable Value loadValue(IdempotentKey key, Class<?> returnType) {
+            singleGets.incrementAndGet();
+            return super.loadValue(key, returnType);
+        }
+
+        @Override
+        public Map<IdempotentKey, Value> loadValues(Collection<IdempotentKey> keys, Class<?> returnType) {
+            if (failing) {
+                throw new IdempotentException("backend down");
+            }
+            if (error) {
+                throw new AssertionError("broken backend");
+            }
+            multiGets.incrementAndGet();
+            Map<IdempotentKey, Value> values = new HashMap<>();
+            for (IdempotentKey key : keys) {
+                Value value = super.loadValue(key, returnType);
+                if (value != null) {
+                    values.put(key, value);
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public Map<IdempotentKey, IdempotentStore.EntryStatus> loadStatuses(Collection<IdempotentKey> keys) {
+            statusBatches.incrementAndGet();
+            return super.loadStatuses(keys);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import io.github.arun0009.idempotent.core.serialization.JdkIdempotentPayloadCodec;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.COMPLETED;
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.IN_PROGRESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingIdempotentStoreTest {
+
+    private final CountingStore backend = new CountingStore();
+    private final IdempotentStore.IdempotentKey key = new IdempotentStore.IdempotentKey("order-1", "default");
+
+    @Test
+    void servesCompletedEntriesFromLocalCache() {
+        var store = new CachingIdempotentStore(backend, 10, 1024, value -> 1);
+        backend.store(key, completed("done", 60));
+
+        assertEquals("done", responseOf(store.getValue(key, String.class)));
+        assertEquals("done", responseOf(store.claimOrGet(key, inProgress(), String.class)));
+
+        assertEquals(1, backend.reads.get());
+        assertEquals(0, backend.claims.get());
+    }
+
+    @Test
+    void neverCachesInProgressEntries() {
+        var store = new CachingIdempotentStore(backend, 10, 1024, value -> 1);
+        backend.store(key, inProgress());
+
+        store.getValue(key, Object.class);
+        store.getValue(key, Object.class);
+
+        assertEquals(2, backend.reads.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void updateAndRemoveInvalidateCachedEntry() {
+        var store = new CachingIdempotentStore(backend, 10, 1024, value -> 1);
+        backend.store(key, completed("first", 60));
+        store.getValue(key, String.class);
+
+        store.update(key, completed("second", 60));
+        assertEquals("second", responseOf(store.getValue(key, String.class)));
+
+        store.remove(key);
+        assertNull(store.getValue(key, String.class));
+    }
+
+    @Test
+    void readOverlappingARemoveDoesNotBringTheEntryBack() throws Exception {
+        var store = new CachingIdempotentStore(backend, 10, 1024, value -> 1);
+        backend.store(key, completed("old", 60));
+        var loaded = new CountDownLatch(1);
+        var resume = new CountDownLatch(1);
+        backend.pauseNextRead(loaded, resume);
+
+        var reader = CompletableFuture.supplyAsync(() -> store.getValue(key, String.class));
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        // The reader holds the old value while the entry is removed.
+        store.remove(key);
+        resume.countDown();
+
+        assertEquals("old", responseOf(reader.get(5, TimeUnit.SECONDS)));
+        assertEquals(0, store.size());
+        assertNull(store.getValue(key, String.class));
+    }
+
+    @Test
+    void expiresEachEntryAtItsOwnExpiresAt() throws InterruptedException {
+        var store = new CachingIdempotentStore(backend, 10, 1024, value -> 1);
+        backend.store(key, new IdempotentStore.Value(COMPLETED, Instant.now().plusMillis(50), "short-lived"));
+        assertNotNull(store.getValue(key, String.class));
+
+        Thread.sleep(100);
+
+        assertNull(store.getValue(key, String.class));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void boundsEntriesByCountAndWeight() {
+        var byCount = new CachingIdempotentStore(backend, 2, 1024, value -> 1);
+        var byWeight = new CachingIdempotentStore(backend, 10, 25, value -> 10);
+        for (int i = 0; i < 5; i++) {
+            var k = new IdempotentStore.IdempotentKey("order-" + i, "default");
+            backend.store(k, completed("v" + i, 60));
+            byCount.getValue(k, String.class);
+            byWeight.getValue(k, String.class);
+        }
+
+        assertEquals(2, byCount.size());
+        assertEquals(2, byWeight.size());
+    }
+
+    @Test
+    void codecWeigherWeighsStoredFormWithoutDecoding() {
+        var codec = new JdkIdempotentPayloadCodec();
+        byte[] stored = codec.serializeToBytes("done");
+        var lazy = LazyResponse.ofBytes(codec, stored, String.class);
+        var weigher = CachingIdempotentStore.codecWeigher(codec);
+
+        var lazyValue = new IdempotentStore.Value(COMPLETED, Instant.now().plusSeconds(60), lazy);
+        assertEquals(stored.length, weigher.applyAsLong(lazyValue));
+        assertEquals("LazyResponse[java.lang.String]", lazy.toString());
+        assertEquals(stored.length, weigher.applyAsLong(completed("done", 60)));
+        assertEquals(0, weigher.applyAsLong(inProgress()));
+    }
+
+    private static IdempotentStore.Value completed(String response, long ttlSeconds) {
+        return new IdempotentStore.Value(COMPLETED, Instant.now().plusSeconds(ttlSeconds), response);
+    }
+
+    private static IdempotentStore.Value inProgress() {
+        return new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(60), null);
+    }
+
+    private static @Nullable Object responseOf(IdempotentStore.@Nullable Value value) {
+        assertNotNull(value);
+        return value.response();
+    }
+
+    /** Counts reads and claims; a read can be held after it loaded its value. */
+    private static final class CountingStore extends InMemoryIdempotentStore {
+        private final AtomicInteger reads = new AtomicInteger();
+        private final AtomicInteger claims = new AtomicInteger();
+        private volatile @Nullable CountDownLatch loaded;
+        private volatile @Nullable CountDownLatch resume;
+
+        /** Makes the next read signal {@code loaded} once it has its value, then wait for {@code resume}. */
+        void pauseNextRead(CountDownLatch loaded, CountDownLatch resume) {
+            this.resume = resume;
+            this.loaded = loaded;
+        }
+
+        @Override
+        public IdempotentStore.@Nullable Value loadValue(IdempotentStore.IdempotentKey key, Class<?> returnType) {
+            reads.incrementAndGet();
+            var value = super.loadValue(key, returnType);
+            var signal = loaded;
+            var gate = resume;
+            if (signal != null && gate != null) {
+                loaded = null;
+                signal.countDown();
+                try {
+                    assertTrue(gate.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public IdempotentStore.@Nullable Value claimOrGet(
+                IdempotentStore.IdempotentKey key, IdempotentStore.Value value, Class<?> returnType) {
+            claims.incrementAndGet();
+            return super.claimOrGet(key, value, returnType);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package io.github.arun0009.idempotent.core.persistence;
 
+import io.github.arun0009.idempotent.core.exception.IdempotentException;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.Instant;
 
 import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.COMPLETED;
@@ -9,6 +11,7 @@ import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Sta
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class InMemoryIdempotentStoreTest {
 
@@ -37,4 +40,82 @@ class InMemoryIdempotentStoreTest {
 
         assertNull(store.getValue(key, Object.class));
     }
+
+    @Test
+    void claimOrGetClaimsMissingKeyAndReturnsLiveEntryOtherwise() {
+        var store = new InMemoryIdempotentStore();
+        var key = new IdempotentStore.IdempotentKey("order-2", "default");
+        var inProgress = new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(60), null);
+
+        assertNull(store.claimOrGet(key, inProgress, Object.class));
+
+        var existing = store.claimOrGet(key, inProgress, Object.class);
+        assertNotNull(existing);
+        assertEquals(IN_PROGRESS, existing.status());
+    }
+
+    @Test
+    void claimOrGetReplacesExpiredEntry() {
+        var store = new InMemoryIdempotentStore();
+        var key = new IdempotentStore.IdempotentKey("order-3", "default");
+
+        store.store(key, new IdempotentStore.Value(COMPLETED, Instant.now().minusSeconds(1), "stale"));
+
+        assertNull(store.claimOrGet(
+                key, new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(60), null), Object.class));
+        var stored = store.getValue(key, Object.class);
+        assertNotNull(stored);
+        assertEquals(IN_PROGRESS, stored.status());
+    }
+
+    @Test
+    void sweeperRemovesExpiredEntriesWithoutReads() throws InterruptedException {
+        try (var store = new InMemoryIdempotentStore(0, Duration.ofMillis(10))) {
+            var expired = new IdempotentStore.IdempotentKey("expired", "default");
+            var live = new IdempotentStore.IdempotentKey("live", "default");
+            store.store(expired, new IdempotentStore.Value(COMPLETED, Instant.now().plusMillis(20), "r"));
+            store.store(live, new IdempotentStore.Value(COMPLETED, Instant.now().plusSeconds(60), "r"));
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (store.size() > 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertEquals(1, store.size());
+            assertNotNull(store.loadValue(live, Object.class));
+        }
+    }
+
+    @Test
+    void boundedStoreEvictsCompletedButNeverInProgressEntries() {
+        try (var store = new InMemoryIdempotentStore(2, Duration.ofSeconds(1))) {
+            var running = new IdempotentStore.IdempotentKey("running", "default");
+            var done = new IdempotentStore.IdempotentKey("done", "default");
+            var next = new IdempotentStore.IdempotentKey("next", "default");
+            store.store(running, new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(5), null));
+            store.store(done, new IdempotentStore.Value(COMPLETED, Instant.now().plusSeconds(60), "r"));
+
+            assertNull(store.claimOrGet(
+                    next, new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(60), null), Object.class));
+
+            assertEquals(2, store.size());
+            assertNotNull(store.loadValue(running, Object.class));
+            assertNull(store.loadValue(done, Object.class));
+        }
+    }
+
+    @Test
+    void boundedStoreFullOfInProgressEntriesRejectsNewKeys() {
+        try (var store = new InMemoryIdempotentStore(1, Duration.ofSeconds(1))) {
+            var running = new IdempotentStore.IdempotentKey("running", "default");
+            store.store(running, new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(60), null));
+
+            var other = new IdempotentStore.IdempotentKey("other", "default");
+            assertThrows(
+                    IdempotentException.class,
+                    () -> store.store(
+                            other, new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(60), null)));
+            assertNotNull(store.loadValue(running, Object.class));
+        }
+    }
 }
@@ -0,0 +1,273 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import io.github.arun0009.idempotent.core.exception.IdempotentException;
+import io.github.arun0009.idempotent.core.exception.IdempotentKeyConflictException;
+import io.github.arun0009.idempotent.core.serialization.IdempotentPayloadCodec;
+import io.github.arun0009.idempotent.core.serialization.JdkIdempotentPayloadCodec;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.COMPLETED;
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.IN_PROGRESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapIdempotentStoreTest {
+
+    private static final JdkIdempotentPayloadCodec CODEC = new JdkIdempotentPayloadCodec();
+
+    private static IdempotentStore.IdempotentKey key(String key) {
+        return new IdempotentStore.IdempotentKey(key, "default");
+    }
+
+    @Test
+    void storesAndReadsBackEntries() {
+        var store = new OffHeapIdempotentStore(CODEC, 100, 1 << 20);
+        var expiresAt = Instant.now().plusSeconds(60).plusNanos(123);
+
+        store.store(key("a"), new IdempotentStore.Value(COMPLETED, expiresAt, "response"));
+
+        var stored = store.getValue(key("a"), String.class);
+        assertEquals(new IdempotentStore.Value(COMPLETED, expiresAt, "response"), stored);
+        assertNull(store.getValue(new IdempotentStore.IdempotentKey("a", "other"), String.class));
+        assertThrows(
+                IdempotentKeyConflictException.class,
+                () -> store.store(key("a"), new IdempotentStore.Value(IN_PROGRESS, expiresAt, null)));
+        assertEquals(new IdempotentStore.EntryStatus(COMPLETED, expiresAt), store.loadStatus(key("a")));
+        assertNull(store.loadStatus(key("b")));
+        assertEquals(
+                Map.of(key("a"), new IdempotentStore.EntryStatus(COMPLETED, expiresAt)),
+                store.loadStatuses(List.of(key("a"), key("b"))));
+    }
+
+    @Test
+    void responsesAreDecodedOnFirstAccessOnly() {
+        var decodes = new AtomicInteger();
+        IdempotentPayloadCodec countingCodec = new IdempotentPayloadCodec() {
+            @Override
+            public byte[] serializeToBytes(Object value) {
+                return CODEC.serializeToBytes(value);
+            }
+
+            @Override
+            public <T> T deserializeFromBytes(byte[] bytes, Class<T> type) {
+                decodes.incrementAndGet();
+                return CODEC.deserializeFromBytes(bytes, type);
+            }
+
+            @Override
+            public @Nullable String serializeToString(@Nullable Object value) {
+                return CODEC.serializeToString(value);
+            }
+
+            @Override
+            public @Nullable Object deserializeFromString(@Nullable String value, Class<?> type) {
+                return CODEC.deserializeFromString(value, type);
+            }
+        };
+        var store = new OffHeapIdempotentStore(countingCodec, 100, 1 << 20);
+        var expiresAt = Instant.now().plusSeconds(60);
+        store.store(key("a"), new IdempotentStore.Value(COMPLETED, expiresAt, "response"));
+        store.store(key("expired"), new IdempotentStore.Value(COMPLETED, Instant.now().minusSeconds(1), "old"));
+
+        var stored = store.getValue(key("a"), String.class);
+        assertNotNull(stored);
+        assertEquals(COMPLETED, stored.status());
+        assertNull(store.getValue(key("expired"), String.class));
+        assertEquals(0, decodes.get());
+
+        assertEquals("response", stored.response());
+        assertSame(stored.response(), stored.response());
+        assertEquals(new IdempotentStore.Value(COMPLETED, expiresAt, "response"), stored);
+        assertEquals(1, decodes.get());
+    }
+
+    @Test
+    void claimOrGetUpdateAndRemoveFollowTheStoreContract() {
+        var store = new OffHeapIdempotentStore(CODEC, 100, 1 << 20);
+        var inProgress = new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(60), null);
+
+        store.update(key("missing"), new IdempotentStore.Value(COMPLETED, Instant.now().plusSeconds(60), "x"));
+        assertNull(store.getValue(key("missing"), Object.class));
+
+        assertNull(store.claimOrGet(key("b"), inProgress, Object.class));
+        var existing = store.claimOrGet(key("b"), inProgress, Object.class);
+        assertNotNull(existing);
+        assertEquals(IN_PROGRESS, existing.status());
+
+        store.update(key("b"), new IdempotentStore.Value(COMPLETED, Instant.now().plusSeconds(60), 42));
+        var completed = store.getValue(key("b"), Integer.class);
+        assertNotNull(completed);
+        assertEquals(42, completed.response());
+
+        store.remove(key("b"));
+        store.remove(key("b"));
+        assertNull(store.getValue(key("b"), Object.class));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void claimOrGetReplacesExpiredEntry() {
+        var store = new OffHeapIdempotentStore(CODEC, 100, 1 << 20);
+        store.store(key("c"), new IdempotentStore.Value(COMPLETED, Instant.now().minusSeconds(1), "stale"));
+
+        assertNull(store.claimOrGet(
+                key("c"), new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(60), null), Object.class));
+        var stored = store.getValue(key("c"), Object.class);
+        assertNotNull(stored);
+        assertEquals(IN_PROGRESS, stored.status());
+    }
+
+    @Test
+    void evictsCompletedButNeverInProgressEntries() {
+        var store = new OffHeapIdempotentStore(CODEC, 2, 1 << 20, 1);
+        store.store(key("running"), new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(60), null));
+        store.store(key("done"), new IdempotentStore.Value(COMPLETED, Instant.now().plusSeconds(60), "r"));
+
+        store.store(key("next"), new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(60), null));
+
+        assertEquals(2, store.size());
+        assertNotNull(store.getValue(key("running"), Object.class));
+        assertNull(store.getValue(key("done"), Object.class));
+        assertThrows(
+                IdempotentException.class,
+                () -> store.store(
+                        key("rejected"), new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(60), null)));
+    }
+
+    @Test
+    void evictsWhenArenaIsExhausted() {
+        var store = new OffHeapIdempotentStore(CODEC, 1000, 4096, 1);
+        var expiresAt = Instant.now().plusSeconds(60);
+        String payload = "x".repeat(900);
+
+        for (int i = 0; i < 20; i++) {
+            store.store(key("k" + i), new IdempotentStore.Value(COMPLETED, expiresAt, payload));
+            var stored = store.getValue(key("k" + i), String.class);
+            assertNotNull(stored);
+            assertEquals(payload, stored.response());
+        }
+        // Four 1 KiB blocks fit in the 4 KiB arena.
+        assertEquals(4, store.size());
+        assertThrows(
+                IdempotentException.class,
+                () -> store.store(key("huge"), new IdempotentStore.Value(COMPLETED, expiresAt, "x".repeat(8192))));
+    }
+
+    @Test
+    void freedSmallBlocksMergeToHoldALargeRecord() {
+        var store = new OffHeapIdempotentStore(CODEC, 10_000, 64 * 1024, 1);
+        var expiresAt = Instant.now().plusSeconds(60);
+        for (int i = 0; i < 2000; i++) {
+            store.store(key("small" + i), new IdempotentStore.Value(COMPLETED, expiresAt, "r"));
+        }
+        int before = store.size();
+
+        store.store(key("large"), new IdempotentStore.Value(COMPLETED, expiresAt, "x".repeat(3000)));
+
+        var stored = store.getValue(key("large"), String.class);
+        assertNotNull(stored);
+        assertEquals("x".repeat(3000), stored.response());
+        // Only the records sharing one 4 KiB block make way, not the whole segment.
+        assertTrue(store.size() >= before - 4096 / 64, "evicted " + (before - store.size() + 1) + " entries");
+    }
+
+    @Test
+    void evictsOnlyEntriesThatFreeRoomForTheRecord() {
+        var store = new OffHeapIdempotentStore(CODEC, 10_000, 4096, 1);
+        var expiresAt = Instant.now().plusSeconds(60);
+        for (int i = 0; i < 4; i++) {
+            store.store(key("running" + i), new IdempotentStore.Value(IN_PROGRESS, expiresAt, "x".repeat(900)));
+        }
+
+        var thrown = assertThrows(
+                IdempotentException.class,
+                () -> store.store(key("next"), new IdempotentStore.Value(COMPLETED, expiresAt, "y".repeat(900))));
+        assertTrue(String.valueOf(thrown.getMessage()).contains("no evictable entries"), thrown.getMessage());
+        assertEquals(4, store.size());
+    }
+
+    @Test
+    void usesTheWholeBudgetWhenItIsNotAPowerOfTwo() {
+        var store = new OffHeapIdempotentStore(CODEC, 1000, 96 * 1024, 1);
+        var expiresAt = Instant.now().plusSeconds(60);
+
+        for (int i = 0; i < 96; i++) {
+            store.store(key("k" + i), new IdempotentStore.Value(IN_PROGRESS, expiresAt, "x".repeat(900)));
+        }
+
+        assertEquals(96, store.size());
+    }
+
+    @Test
+    void keepsRecordsIntactWhileEvictingForMixedSizes() {
+        var store = new OffHeapIdempotentStore(CODEC, 10_000, 48 * 1024, 1);
+        var random = new Random(11);
+        var expiresAt = Instant.now().plusSeconds(60);
+
+        var latest = new HashMap<String, String>();
+
+        for (int i = 0; i < 5000; i++) {
+            String k = "key-" + random.nextInt(300);
+            String v = i + "x".repeat(random.nextInt(10) == 0 ? 2000 + random.nextInt(3000) : random.nextInt(200));
+            store.remove(key(k));
+            store.store(key(k), new IdempotentStore.Value(COMPLETED, expiresAt, v));
+            latest.put(k, v);
+            var stored = store.getValue(key(k), String.class);
+            assertNotNull(stored);
+            assertEquals(v, stored.response());
+        }
+        // Evicted keys are gone; the rest still hold their last value.
+        int present = 0;
+        for (var entry : latest.entrySet()) {
+            var stored = store.getValue(key(entry.getKey()), String.class);
+            if (stored != null) {
+                assertEquals(entry.getValue(), stored.response());
+                present++;
+            }
+        }
+        assertEquals(store.size(), present);
+    }
+
+    @Test
+    void matchesAHashMapUnderRandomInsertsAndRemoves() {
+        var store = new OffHeapIdempotentStore(CODEC, 512, 1 << 20, 2);
+        var expected = new HashMap<String, String>();
+        var random = new Random(7);
+        var expiresAt = Instant.now().plusSeconds(60);
+
+        for (int i = 0; i < 20_000; i++) {
+            String k = "key-" + random.nextInt(400);
+            if (random.nextBoolean()) {
+                String v = "v" + i;
+                if (expected.containsKey(k)) {
+                    store.update(key(k), new IdempotentStore.Value(IN_PROGRESS, expiresAt, v));
+                } else {
+                    store.store(key(k), new IdempotentStore.Value(IN_PROGRESS, expiresAt, v));
+                }
+                expected.put(k, v);
+            } else {
+                store.remove(key(k));
+                expected.remove(k);
+            }
+        }
+
+        assertEquals(expected.size(), store.size());
+        for (int i = 0; i < 400; i++) {
+            String k = "key-" + i;
+            var stored = store.getValue(key(k), String.class);
+            assertEquals(expected.get(k), stored == null ? null : stored.response());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore.IdempotentKey;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore.Value;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.COMPLETED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProcessNameMappingStoreTest {
+
+    private static final String PROCESS = "__OrderController.place()";
+
+    private final InMemoryIdempotentStore backend = new InMemoryIdempotentStore();
+    private final ProcessNameRegistry registry = ProcessNameRegistry.hashed();
+    private final ProcessNameMappingStore store = new ProcessNameMappingStore(backend, registry);
+
+    @Test
+    void hashedIdsAreShortStableAndDistinct() {
+        String id = registry.idOf(PROCESS);
+        assertEquals(11, id.length());
+        assertEquals(id, ProcessNameRegistry.hashed().idOf(PROCESS));
+        assertNotEquals(id, registry.idOf("__OrderController.cancel()"));
+    }
+
+    @Test
+    void backendSeesMappedProcessName() {
+        var key = new IdempotentKey("order-1", PROCESS);
+        store.store(key, completed("done"));
+
+        assertNull(backend.getValue(key, String.class));
+        assertNotNull(backend.getValue(new IdempotentKey("order-1", registry.idOf(PROCESS)), String.class));
+        assertEquals("done", responseOf(store.getValue(key, String.class)));
+
+        store.remove(key);
+        assertNull(store.getValue(key, String.class));
+    }
+
+    @Test
+    void batchResultsUseOriginalKeys() {
+        var first = new IdempotentKey("a", PROCESS);
+        var second = new IdempotentKey("b", PROCESS);
+        store.store(first, completed("existing"));
+
+        Set<IdempotentKey> conflicts = store.storeAll(Map.of(first, completed("x"), second, completed("y")));
+        assertEquals(Set.of(first), conflicts);
+
+        Map<IdempotentKey, Value> values = store.getValues(List.of(first, second), String.class);
+        assertEquals("existing", responseOf(values.get(first)));
+        assertEquals("y", responseOf(values.get(second)));
+        assertEquals(Set.of(first, second), store.loadStatuses(List.of(first, second)).keySet());
+
+        store.removeAll(List.of(first, second));
+        assertEquals(Map.of(), store.getValues(List.of(first, second), String.class));
+    }
+
+    private static @Nullable Object responseOf(@Nullable Value value) {
+        assertNotNull(value);
+        return value.response();
+    }
+
+    private static Value completed(String response) {
+        return new Value(COMPLETED, Instant.now().plusSeconds(60), response);
+    }
+}
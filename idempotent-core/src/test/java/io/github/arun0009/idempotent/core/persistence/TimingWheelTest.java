@@ -0,0 +1,62 @@
+package io.github.arun0009.idempotent.core.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private static final Instant START = Instant.ofEpochMilli(1_000_000);
+
+    @Test
+    void firesKeyOnceItsDeadlinePasses() {
+        var wheel = new TimingWheel<String>(Duration.ofMillis(10), 4, START);
+        wheel.schedule("a", START.plusMillis(35));
+
+        assertTrue(wheel.advance(START.plusMillis(30)).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(START.plusMillis(40)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cascadesTimersFromHigherLevels() {
+        var wheel = new TimingWheel<String>(Duration.ofMillis(1), 1, START);
+        // Beyond level 0 (64 ticks) and level 1 (4096 ticks).
+        wheel.schedule("far", START.plusMillis(5_000));
+        wheel.schedule("near", START.plusMillis(100));
+
+        assertEquals(List.of("near"), wheel.advance(START.plusMillis(4_999)));
+        assertEquals(List.of("far"), wheel.advance(START.plusMillis(5_000)));
+    }
+
+    @Test
+    void rescheduleAndCancelReplaceThePreviousDeadline() {
+        var wheel = new TimingWheel<String>(Duration.ofMillis(10), 4, START);
+        wheel.schedule("a", START.plusMillis(20));
+        wheel.schedule("a", START.plusMillis(200));
+        wheel.schedule("b", START.plusMillis(20));
+        wheel.cancel("b");
+
+        assertTrue(wheel.advance(START.plusMillis(100)).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(START.plusMillis(200)));
+    }
+
+    @Test
+    void evictsSoonestEvictableKey() {
+        var wheel = new TimingWheel<String>(Duration.ofMillis(10), 1, START);
+        wheel.schedule("pinned", START.plusMillis(50));
+        wheel.schedule("late", START.plusMillis(10_000));
+        wheel.schedule("soon", START.plusMillis(100));
+
+        assertEquals("soon", wheel.evict("x", key -> !key.equals("pinned")));
+        assertEquals("late", wheel.evict("x", key -> !key.equals("pinned")));
+        assertNull(wheel.evict("x", key -> !key.equals("pinned")));
+        assertEquals(1, wheel.size());
+    }
+}
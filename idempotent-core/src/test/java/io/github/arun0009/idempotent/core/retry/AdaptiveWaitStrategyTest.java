@@ -0,0 +1,111 @@
+package io.github.arun0009.idempotent.core.retry;
+
+import io.github.arun0009.idempotent.core.persistence.InMemoryIdempotentStore;
+import io.github.arun0009.idempotent.core.service.IdempotentService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveWaitStrategyTest {
+
+    private final AdaptiveWaitStrategy strategy = new AdaptiveWaitStrategy(
+            Duration.ofMillis(10),
+            Duration.ofMillis(200),
+            Duration.ofSeconds(5),
+            0.9,
+            Map.of("slow", Duration.ofSeconds(30)));
+
+    @Test
+    void firstPollWaitsForMinDelayWithoutSamples() {
+        assertEquals(-1, strategy.expectedMillis("orders"));
+        assertEquals(10, strategy.schedule("orders").nextDelayMillis());
+    }
+
+    @Test
+    void firstPollFollowsObservedPercentilePerProcess() {
+        for (int i = 1; i <= 10; i++) {
+            strategy.recordDuration("orders", Duration.ofMillis(i * 100L));
+        }
+        strategy.recordDuration("payments", Duration.ofMillis(40));
+
+        assertEquals(900, strategy.expectedMillis("orders"));
+        assertEquals(900, strategy.schedule("orders").nextDelayMillis());
+        assertEquals(40, strategy.schedule("payments").nextDelayMillis());
+    }
+
+    @Test
+    void laterPollsAreJitteredWithinBounds() {
+        strategy.recordDuration("orders", Duration.ofMillis(100));
+        var schedule = strategy.schedule("orders");
+        long previous = schedule.nextDelayMillis();
+        for (int i = 0; i < 50; i++) {
+            long delay = schedule.nextDelayMillis();
+            assertTrue(delay >= 10 && delay <= Math.min(200, previous * 3), () -> "delay " + delay);
+            previous = delay;
+        }
+    }
+
+    @Test
+    void keepsOnlyRecentSamples() {
+        for (int i = 0; i < AdaptiveWaitStrategy.SAMPLES; i++) {
+            strategy.recordDuration("orders", Duration.ofSeconds(10));
+        }
+        for (int i = 0; i < AdaptiveWaitStrategy.SAMPLES; i++) {
+            strategy.recordDuration("orders", Duration.ofMillis(50));
+        }
+        assertEquals(50, strategy.expectedMillis("orders"));
+    }
+
+    @Test
+    void scheduleStopsAtDeadline() throws InterruptedException {
+        var shortWait = new AdaptiveWaitStrategy(
+                Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofMillis(50), 0.5, Map.of());
+        var schedule = shortWait.schedule("orders");
+        long delay;
+        int polls = 0;
+        while ((delay = schedule.nextDelayMillis()) >= 0) {
+            assertTrue(delay <= 10);
+            Thread.sleep(delay);
+            polls++;
+        }
+        assertTrue(polls >= 1 && polls <= 5, "polls " + polls);
+    }
+
+    @Test
+    void serviceFeedsOperationDurations() {
+        var service = new IdempotentService(new InMemoryIdempotentStore(), strategy);
+        service.execute("k", "orders", () -> {
+            sleep(30);
+            return "done";
+        }, Duration.ofMinutes(1));
+
+        assertTrue(strategy.expectedMillis("orders") >= 30);
+    }
+
+    @Test
+    void deadlineCanBeOverriddenPerProcess() {
+        assertEquals(Duration.ofSeconds(30), strategy.maxWait("slow"));
+        assertEquals(Duration.ofSeconds(5), strategy.maxWait("orders"));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveWaitStrategy(
+                Duration.ZERO, Duration.ofMillis(10), Duration.ofSeconds(1), 0.5, Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveWaitStrategy(
+                Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofSeconds(1), 0, Map.of()));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
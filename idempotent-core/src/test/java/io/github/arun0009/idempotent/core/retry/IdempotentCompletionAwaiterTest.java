@@ -0,0 +1,112 @@
+package io.github.arun0009.idempotent.core.retry;
+
+import io.github.arun0009.idempotent.core.persistence.ExecutorAsyncIdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.InMemoryIdempotentStore;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.COMPLETED;
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.IN_PROGRESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class IdempotentCompletionAwaiterTest {
+
+    private final IdempotentStore.IdempotentKey key = new IdempotentStore.IdempotentKey("order-1", "default");
+    private final CountingStore store = new CountingStore();
+    private final WaitStrategy waitStrategy = new WaitStrategy(5, Duration.ofMillis(10), 1);
+
+    @Test
+    void pollsStatusAndReadsFullEntryOnceCompleted() {
+        var inProgress = new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(60), null);
+        store.store(key, inProgress);
+        store.completeAfterStatusReads(3);
+
+        var value = new IdempotentCompletionAwaiter(store, waitStrategy).wait(key, inProgress);
+
+        assertNotNull(value);
+        assertEquals("done", value.response());
+        assertEquals(3, store.statusReads.get());
+        assertEquals(1, store.valueReads.get());
+    }
+
+    @Test
+    void seesCompletionThatLandedBeforeSubscribingWithoutWaiting() {
+        var inProgress = new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(60), null);
+        // The owner completed (and notified nobody) between the caller's claim attempt and its subscribe
+        store.store(key, new IdempotentStore.Value(COMPLETED, Instant.now().plusSeconds(60), "done"));
+        var events = new ArrayList<String>();
+        CompletionNotifier notifier = new CompletionNotifier() {
+            @Override
+            public Subscription subscribe(IdempotentStore.IdempotentKey key) {
+                events.add("subscribe after " + store.statusReads.get() + " reads");
+                return timeoutMillis -> {
+                    events.add("await");
+                    return false;
+                };
+            }
+
+            @Override
+            public void notifyCompletion(IdempotentStore.IdempotentKey key) {}
+        };
+        var slowStrategy = new WaitStrategy(5, Duration.ofSeconds(30), 1);
+
+        var value = new IdempotentCompletionAwaiter(store, slowStrategy, notifier).wait(key, inProgress);
+
+        assertNotNull(value);
+        assertEquals("done", value.response());
+        assertEquals(List.of("subscribe after 0 reads"), events);
+        assertEquals(1, store.statusReads.get());
+    }
+
+    @Test
+    void asyncAwaiterPollsStatusAndReadsFullEntryOnceCompleted() throws Exception {
+        var inProgress = new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(60), null);
+        store.store(key, inProgress);
+        store.completeAfterStatusReads(2);
+        var awaiter = new AsyncCompletionAwaiter(
+                new ExecutorAsyncIdempotentStore(store, Runnable::run), waitStrategy);
+
+        var value = awaiter.waitAsync(key, inProgress).get(5, TimeUnit.SECONDS);
+
+        assertNotNull(value);
+        assertEquals(COMPLETED, value.status());
+        assertEquals(2, store.statusReads.get());
+        assertEquals(1, store.valueReads.get());
+    }
+
+    /** Completes the entry on the n-th status read and counts both kinds of read. */
+    private static final class CountingStore extends InMemoryIdempotentStore {
+        private final AtomicInteger statusReads = new AtomicInteger();
+        private final AtomicInteger valueReads = new AtomicInteger();
+        private int completeAfter = Integer.MAX_VALUE;
+
+        void completeAfterStatusReads(int reads) {
+            this.completeAfter = reads;
+        }
+
+        @Override
+        public IdempotentStore.@Nullable EntryStatus loadStatus(IdempotentStore.IdempotentKey key) {
+            if (statusReads.incrementAndGet() == completeAfter) {
+                update(key, new IdempotentStore.Value(COMPLETED, Instant.now().plusSeconds(60), "done"));
+            }
+            // A native status read: does not go through the counted loadValue
+            IdempotentStore.Value value = super.loadValue(key, Object.class);
+            return value == null ? null : new IdempotentStore.EntryStatus(value.status(), value.expiresAt());
+        }
+
+        @Override
+        public IdempotentStore.@Nullable Value loadValue(IdempotentStore.IdempotentKey key, Class<?> returnType) {
+            valueReads.incrementAndGet();
+            return super.loadValue(key, returnType);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.arun0009.idempotent.core.retry;
+
+import io.github.arun0009.idempotent.core.metrics.IdempotentMetrics;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.InMemoryIdempotentStore;
+import io.github.arun0009.idempotent.core.service.IdempotentService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalCompletionNotifierTest {
+
+    private final IdempotentStore.IdempotentKey key = new IdempotentStore.IdempotentKey("order-1", "default");
+
+    @Test
+    void notifyWakesSubscriberAndReleasesKey() throws Exception {
+        var notifier = new LocalCompletionNotifier();
+        try (var subscription = notifier.subscribe(key)) {
+            CompletableFuture.runAsync(() -> notifier.notifyCompletion(key));
+
+            assertTrue(subscription.await(TimeUnit.SECONDS.toMillis(5)));
+        }
+        assertEquals(0, notifier.pendingKeys());
+    }
+
+    @Test
+    void closingLastSubscriberReleasesKeyWithoutNotification() throws Exception {
+        var notifier = new LocalCompletionNotifier();
+        var first = notifier.subscribe(key);
+        var second = notifier.subscribe(key);
+
+        assertFalse(first.await(1));
+        first.close();
+        assertEquals(1, notifier.pendingKeys());
+        second.close();
+        assertEquals(0, notifier.pendingKeys());
+    }
+
+    @Test
+    void waiterIsWokenBeforeBackoffStepElapses() throws Exception {
+        // A single 10s backoff step: without a notification the duplicate would block for 10s.
+        var service = new IdempotentService(
+                new InMemoryIdempotentStore(),
+                new WaitStrategy(1, Duration.ofSeconds(10), 1),
+                IdempotentMetrics.NOOP,
+                new LocalCompletionNotifier());
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var owner = CompletableFuture.supplyAsync(() -> service.execute(key, () -> {
+            started.countDown();
+            awaitUninterruptibly(release);
+            return "done";
+        }, Duration.ofMinutes(1)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        var duplicate =
+                CompletableFuture.supplyAsync(() -> service.execute(key, () -> "re-executed", Duration.ofMinutes(1)));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertEquals("done", owner.get(5, TimeUnit.SECONDS));
+        assertEquals("done", duplicate.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
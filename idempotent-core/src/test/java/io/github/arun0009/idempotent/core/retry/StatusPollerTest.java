@@ -0,0 +1,194 @@
+package io.github.arun0009.idempotent.core.retry;
+
+import io.github.arun0009.idempotent.core.exception.IdempotentException;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.InMemoryIdempotentStore;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.COMPLETED;
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.IN_PROGRESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatusPollerTest {
+
+    private static final Duration MAX_WAIT = Duration.ofMinutes(1);
+
+    private final BatchCountingStore store = new BatchCountingStore();
+    // Ticks are driven by the tests; the scheduled tick never fires within a test.
+    private final StatusPoller poller = new StatusPoller(store, Duration.ofHours(1));
+
+    @AfterEach
+    void closePoller() {
+        poller.close();
+    }
+
+    @Test
+    void pollsAllWaitingKeysWithOneBatchedRead() throws Exception {
+        var done = key("done");
+        var removed = key("removed");
+        var busy = key("busy");
+        var doneValue = inProgress(done);
+        var doneWait = poller.await(done, doneValue, MAX_WAIT);
+        var sameKeyWait = poller.await(done, doneValue, MAX_WAIT);
+        var removedWait = poller.await(removed, inProgress(removed), MAX_WAIT);
+        var busyWait = poller.await(busy, inProgress(busy), MAX_WAIT);
+
+        store.update(done, new IdempotentStore.Value(COMPLETED, Instant.now().plusSeconds(60), "receipt"));
+        store.remove(removed);
+        poller.poll();
+
+        assertEquals(1, store.statusBatches.get());
+        assertEquals("receipt", responseOf(doneWait.get(1, TimeUnit.SECONDS)));
+        assertEquals("receipt", responseOf(sameKeyWait.get(1, TimeUnit.SECONDS)));
+        assertNull(removedWait.get(1, TimeUnit.SECONDS));
+        assertFalse(busyWait.isDone());
+        assertEquals(1, poller.waiting());
+    }
+
+    @Test
+    void waitEndsWithInProgressValueAtDeadline() throws Exception {
+        var busy = key("busy");
+        var wait = poller.await(busy, inProgress(busy), Duration.ZERO);
+
+        poller.poll();
+
+        var value = wait.get(1, TimeUnit.SECONDS);
+        assertNotNull(value);
+        assertEquals(IN_PROGRESS, value.status());
+        assertEquals(0, poller.waiting());
+    }
+
+    @Test
+    void cancelledWaitIsDropped() {
+        var busy = key("busy");
+        poller.await(busy, inProgress(busy), MAX_WAIT).cancel(false);
+
+        poller.poll();
+
+        assertEquals(0, poller.waiting());
+        assertEquals(0, store.statusBatches.get());
+    }
+
+    @Test
+    void failedReadFailsTheWaits() {
+        var busy = key("busy");
+        var wait = poller.await(busy, inProgress(busy), MAX_WAIT);
+        store.failing = true;
+
+        poller.poll();
+
+        var thrown = assertThrows(ExecutionException.class, () -> wait.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IdempotentException.class, thrown.getCause());
+    }
+
+    @Test
+    void awaiterHandsWaitsToThePoller() {
+        try (var scheduled = new StatusPoller(store, Duration.ofMillis(10))) {
+            var awaiter = new IdempotentCompletionAwaiter(
+                    store, WaitStrategy.withDefaults(), CompletionNotifier.NONE, scheduled);
+            var busy = key("busy");
+            var value = inProgress(busy);
+            CompletableFuture.runAsync(
+                    () -> store.update(
+                            busy, new IdempotentStore.Value(COMPLETED, Instant.now().plusSeconds(60), "late")),
+                    CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+
+            assertEquals("late", responseOf(awaiter.wait(busy, value)));
+            assertTrue(store.statusBatches.get() >= 1);
+        }
+    }
+
+    @Test
+    void closeFailsPendingWaits() {
+        var busy = key("busy");
+        var wait = poller.await(busy, inProgress(busy), MAX_WAIT);
+
+        poller.close();
+
+        var thrown = assertThrows(ExecutionException.class, () -> wait.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IdempotentException.class, thrown.getCause());
+        assertEquals(0, poller.waiting());
+    }
+
+    @Test
+    void awaitAfterCloseFailsAtOnce() {
+        var busy = key("busy");
+        poller.close();
+
+        var wait = poller.await(busy, inProgress(busy), MAX_WAIT);
+
+        var thrown = assertThrows(ExecutionException.class, () -> wait.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IdempotentException.class, thrown.getCause());
+        assertEquals(0, poller.waiting());
+    }
+
+    @Test
+    void errorDuringReadFailsTheWaitsAndKeepsTicking() throws Exception {
+        try (var scheduled = new StatusPoller(store, Duration.ofMillis(10))) {
+            var busy = key("busy");
+            store.error = true;
+            var failed = scheduled.await(busy, inProgress(busy), MAX_WAIT);
+
+            var thrown = assertThrows(ExecutionException.class, () -> failed.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, thrown.getCause());
+
+            store.error = false;
+            var later = key("later");
+            var next = scheduled.await(later, inProgress(later), MAX_WAIT);
+            store.update(later, new IdempotentStore.Value(COMPLETED, Instant.now().plusSeconds(60), "after"));
+            assertEquals("after", responseOf(next.get(1, TimeUnit.SECONDS)));
+        }
+    }
+
+    private IdempotentStore.Value inProgress(IdempotentStore.IdempotentKey key) {
+        var value = new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(60), null);
+        store.store(key, value);
+        return value;
+    }
+
+    private static IdempotentStore.IdempotentKey key(String key) {
+        return new IdempotentStore.IdempotentKey(key, "orders");
+    }
+
+    private static @Nullable Object responseOf(IdempotentStore.@Nullable Value value) {
+        assertNotNull(value);
+        return value.response();
+    }
+
+    /** Counts batched status reads and can fail them, with an exception or an error. */
+    private static final class BatchCountingStore extends InMemoryIdempotentStore {
+        private final AtomicInteger statusBatches = new AtomicInteger();
+        private volatile boolean failing;
+        private volatile boolean error;
+
+        @Override
+        public Map<IdempotentStore.IdempotentKey, IdempotentStore.EntryStatus> loadStatuses(
+                Collection<IdempotentStore.IdempotentKey> keys) {
+            if (failing) {
+                throw new IdempotentException("backend down");
+            }
+            if (error) {
+                throw new AssertionError("broken backend");
+            }
+            statusBatches.incrementAndGet();
+            return super.loadStatuses(keys);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.arun0009.idempotent.core.serialization;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressingIdempotentPayloadCodecTest {
+
+    private final JacksonIdempotentPayloadCodec json =
+            new JacksonIdempotentPayloadCodec(IdempotentJsonMapperDefaults.buildPermissiveMapper());
+
+    public record TestRecord(String name, int value) {}
+
+    @Test
+    void largePayloadsRoundTripDeflated() {
+        assertRoundTripsCompressed(CompressionAlgorithm.DEFLATE);
+    }
+
+    @Test
+    void largePayloadsRoundTripWithZstd() {
+        assertRoundTripsCompressed(CompressionAlgorithm.ZSTD);
+    }
+
+    private void assertRoundTripsCompressed(CompressionAlgorithm algorithm) {
+        var codec = new CompressingIdempotentPayloadCodec(json, algorithm, 1024);
+        var original = new TestRecord("x".repeat(10_000), 42);
+
+        byte[] bytes = codec.serializeToBytes(original);
+        assertTrue(bytes.length < json.serializeToBytes(original).length / 10);
+        assertEquals(original, codec.deserializeFromBytes(bytes, Object.class));
+
+        var out = new ByteArrayOutputStream();
+        codec.serialize(original, out);
+        assertArrayEquals(bytes, out.toByteArray());
+        assertEquals(original, codec.deserialize(new ByteArrayInputStream(bytes), Object.class));
+
+        String text = codec.serializeToString(original);
+        assertNotNull(text);
+        assertTrue(text.startsWith("~"));
+        assertEquals(original, codec.deserializeFromString(text, Object.class));
+    }
+
+    @Test
+    void smallPayloadsAreStoredUncompressed() {
+        var codec = new CompressingIdempotentPayloadCodec(json, CompressionAlgorithm.DEFLATE, 1024);
+        var original = new TestRecord("small", 1);
+
+        assertArrayEquals(json.serializeToBytes(original), codec.serializeToBytes(original));
+        assertEquals(json.serializeToString(original), codec.serializeToString(original));
+    }
+
+    @Test
+    void legacyUncompressedEntriesStillDecode() {
+        var codec = new CompressingIdempotentPayloadCodec(json, CompressionAlgorithm.DEFLATE, 0);
+        var original = new TestRecord("y".repeat(5_000), 7);
+
+        assertEquals(original, codec.deserializeFromBytes(json.serializeToBytes(original), Object.class));
+        assertEquals(original, codec.deserializeFromString(json.serializeToString(original), Object.class));
+
+        var jdk = new JdkIdempotentPayloadCodec();
+        var jdkCodec = new CompressingIdempotentPayloadCodec(jdk, CompressionAlgorithm.DEFLATE, 0);
+        assertEquals("legacy", jdkCodec.deserializeFromString(jdk.serializeToString("legacy"), String.class));
+    }
+
+    @Test
+    void entriesWrittenWithAnotherAlgorithmDecode() {
+        var deflate = new CompressingIdempotentPayloadCodec(json, CompressionAlgorithm.DEFLATE, 0);
+        var zstd = new CompressingIdempotentPayloadCodec(json, CompressionAlgorithm.ZSTD, 0);
+        var original = new TestRecord("z".repeat(5_000), 3);
+
+        assertEquals(original, zstd.deserializeFromBytes(deflate.serializeToBytes(original), Object.class));
+        assertEquals(original, deflate.deserializeFromString(zstd.serializeToString(original), Object.class));
+    }
+
+    @Test
+    void responseEntityRoundTrips() {
+        var codec = new CompressingIdempotentPayloadCodec(json, CompressionAlgorithm.DEFLATE, 0);
+        var original = ResponseEntity.status(201).header("X-Trace", "abc").body("b".repeat(4_000));
+
+        var roundTripped = (ResponseEntity<?>) codec.deserializeFromString(
+                codec.serializeToString(original), ResponseEntity.class);
+
+        assertNotNull(roundTripped);
+        assertEquals(201, roundTripped.getStatusCode().value());
+        assertEquals("abc", roundTripped.getHeaders().getFirst("X-Trace"));
+        assertEquals(original.getBody(), roundTripped.getBody());
+    }
+
+    @Test
+    void nullRoundTrips() {
+        var codec = new CompressingIdempotentPayloadCodec(json, CompressionAlgorithm.DEFLATE, 0);
+        assertNull(codec.serializeToString(null));
+        assertNull(codec.deserializeFromString(null, Object.class));
+    }
+
+    @Test
+    void truncatedPayloadIsRejected() {
+        var codec = new CompressingIdempotentPayloadCodec(json, CompressionAlgorithm.DEFLATE, 0);
+        byte[] bytes = codec.serializeToBytes(new TestRecord("t".repeat(5_000), 1));
+
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 4);
+        assertThrows(IdempotentPayloadCodecException.class, () -> codec.deserializeFromBytes(truncated, Object.class));
+    }
+
+    @Test
+    void binaryDelegateStringsAreBase64OfBytes() {
+        var jdk = new JdkIdempotentPayloadCodec();
+        var codec = new CompressingIdempotentPayloadCodec(jdk, CompressionAlgorithm.DEFLATE, 0);
+        String original = "w".repeat(5_000);
+
+        String text = codec.serializeToString(original);
+        assertNotNull(text);
+        assertTrue(text.length() < original.length() / 10);
+        assertEquals(original, codec.deserializeFromString(text, String.class));
+        assertEquals("legacy", codec.deserializeFromString(jdk.serializeToString("legacy"), String.class));
+        assertTrue(codec.isBinary());
+    }
+}
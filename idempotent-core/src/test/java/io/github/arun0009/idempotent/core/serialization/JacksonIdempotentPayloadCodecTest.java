@@ -5,15 +5,26 @@ import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.Serializable;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class JacksonIdempotentPayloadCodecTest {
 
@@ -21,6 +32,13 @@ class JacksonIdempotentPayloadCodecTest {
 
     public record TestRecord(String name, int value) implements Serializable {}
 
+    public enum Tier {
+        GOLD,
+        SILVER
+    }
+
+    public record Order(String id, Tier tier, List<TestRecord> lines, Map<String, Integer> totals) {}
+
     public static class TestPojo implements Serializable {
         public String name = "";
         public int value;
@@ -124,4 +142,147 @@ class JacksonIdempotentPayloadCodecTest {
                 IdempotentPayloadCodecException.class,
                 () -> codec.deserializeFromBytes("not-json".getBytes(), Object.class));
     }
+
+    @Test
+    void typedModeWritesConcreteRecordsWithoutClassMetadata() {
+        var typed = new JacksonIdempotentPayloadCodec(IdempotentJsonMapperDefaults.buildPermissiveMapper(), true);
+        var original = new Order("o-1", Tier.GOLD, List.of(new TestRecord("a", 1)), Map.of("net", 10));
+
+        String json = typed.serializeToString(original);
+        assertNotNull(json);
+        assertTrue(json.startsWith("=" + Order.class.getName() + " {"));
+        assertFalse(json.contains("@class"));
+        assertEquals(original, typed.deserializeFromString(json, Object.class));
+        assertEquals(original, typed.deserializeFromBytes(typed.serializeToBytes(original), Order.class));
+        assertEquals(original, codec.deserializeFromString(json, Order.class));
+    }
+
+    @Test
+    void streamsMatchByteForm() {
+        var typed = new JacksonIdempotentPayloadCodec(IdempotentJsonMapperDefaults.buildPermissiveMapper(), true);
+        var order = new Order("o-2", Tier.SILVER, List.of(new TestRecord("b", 2)), Map.of("net", 5));
+        // The list is not concrete to typed mode, so it exercises the default-typing path of both codecs.
+        for (var c : List.of(codec, typed)) {
+            for (Object original : List.of(order, List.of("a", "b"))) {
+                var out = new ByteArrayOutputStream();
+                c.serialize(original, out);
+                assertArrayEquals(c.serializeToBytes(original), out.toByteArray());
+
+                var buffer = c.serializeToBuffer(original);
+                try {
+                    assertArrayEquals(out.toByteArray(), buffer.toByteArray());
+                    assertEquals(original, c.deserialize(buffer.asInputStream(), Object.class));
+                } finally {
+                    buffer.release();
+                }
+            }
+        }
+        assertThrows(
+                IdempotentPayloadCodecException.class,
+                () -> typed.deserialize(new ByteArrayInputStream("=no-separator".getBytes()), Object.class));
+    }
+
+    @Test
+    void typedModeKeepsResponseEntityBodyType() {
+        var typed = new JacksonIdempotentPayloadCodec(IdempotentJsonMapperDefaults.buildPermissiveMapper(), true);
+        var original = ResponseEntity.status(201).header("X-Trace", "abc").body(new TestRecord("hello", 42));
+
+        var deserialized = (ResponseEntity<?>) typed.deserializeFromString(
+                typed.serializeToString(original), ResponseEntity.class);
+
+        assertNotNull(deserialized);
+        assertEquals(201, deserialized.getStatusCode().value());
+        assertEquals("abc", deserialized.getHeaders().getFirst("X-Trace"));
+        assertEquals(new TestRecord("hello", 42), deserialized.getBody());
+    }
+
+    @Test
+    void typedModeFallsBackToDefaultTypingForOtherTypes() {
+        var typed = new JacksonIdempotentPayloadCodec(IdempotentJsonMapperDefaults.buildPermissiveMapper(), true);
+        var pojo = new TestPojo("x", 1);
+
+        String json = typed.serializeToString(pojo);
+        assertNotNull(json);
+        assertTrue(json.contains("@class"));
+        assertInstanceOf(TestPojo.class, typed.deserializeFromString(json, Object.class));
+        assertEquals(List.of("a"), typed.deserializeFromString(typed.serializeToString(List.of("a")), Object.class));
+    }
+
+    @Test
+    void typedPayloadNamingNonConcreteTypeIsRejected() {
+        String tampered = "=" + TestPojo.class.getName() + " {\"name\":\"x\",\"value\":1}";
+        assertThrows(IdempotentPayloadCodecException.class, () -> codec.deserializeFromString(tampered, Object.class));
+        assertThrows(
+                IdempotentPayloadCodecException.class,
+                () -> codec.deserializeFromString("=" + TestRecord.class.getName() + " {}", String.class));
+    }
+
+    @Test
+    void copiedSettingsReproduceMapperForAnotherBuilder() {
+        var builder = JsonMapper.builder();
+        IdempotentJsonMapperDefaults.copySettings(IdempotentJsonMapperDefaults.buildPermissiveMapper(), builder);
+        var copy = new JacksonIdempotentPayloadCodec(builder.build());
+
+        var response = ResponseEntity.ok(new TestRecord("copied", 3));
+        var deserialized =
+                (ResponseEntity<?>) copy.deserializeFromString(copy.serializeToString(response), Object.class);
+        assertNotNull(deserialized);
+        assertEquals(new TestRecord("copied", 3), deserialized.getBody());
+        assertFalse(copy.isBinary());
+    }
+
+    @Test
+    void binaryStrategyWithoutDataFormatModuleFailsWithHint() throws IOException {
+        try (var withoutDataFormats = new URLClassLoader(new URL[0], ClassLoader.getPlatformClassLoader())) {
+            var e = assertThrows(
+                    IllegalStateException.class,
+                    () -> JacksonDataFormats.builder(
+                            IdempotentSerializationProperties.Strategy.SMILE, withoutDataFormats));
+            assertTrue(String.valueOf(e.getMessage()).contains("jackson-dataformat-smile"));
+        }
+    }
+
+    @Test
+    void smileRoundTripsTypedAndUntyped() {
+        assertBinaryFormatRoundTrips(IdempotentSerializationProperties.Strategy.SMILE);
+    }
+
+    @Test
+    void cborRoundTripsTypedAndUntyped() {
+        assertBinaryFormatRoundTrips(IdempotentSerializationProperties.Strategy.CBOR);
+    }
+
+    private static void assertBinaryFormatRoundTrips(IdempotentSerializationProperties.Strategy strategy) {
+        var builder = JacksonDataFormats.builder(strategy);
+        IdempotentJsonMapperDefaults.copySettings(IdempotentJsonMapperDefaults.buildPermissiveMapper(), builder);
+        var mapper = builder.build();
+
+        for (boolean typed : new boolean[] {false, true}) {
+            var codec = new JacksonIdempotentPayloadCodec(mapper, typed);
+            assertTrue(codec.isBinary());
+
+            var record = new Order("o-1", Tier.GOLD, List.of(new TestRecord("a", 1)), Map.of("net", 10));
+            byte[] bytes = codec.serializeToBytes(record);
+            assertEquals(typed, bytes[0] == 0x1C, strategy + " typed=" + typed);
+            assertEquals(record, codec.deserializeFromBytes(bytes, Object.class));
+            String text = codec.serializeToString(record);
+            assertNotNull(text);
+            assertArrayEquals(bytes, Base64.getDecoder().decode(text));
+            assertEquals(record, codec.deserializeFromString(text, Order.class));
+
+            var response = ResponseEntity.status(201).header("X-Trace", "abc").body(new TestRecord("hello", 42));
+            var deserialized = (ResponseEntity<?>) codec.deserializeFromString(
+                    codec.serializeToString(response), ResponseEntity.class);
+            assertNotNull(deserialized);
+            assertEquals(201, deserialized.getStatusCode().value());
+            assertEquals("abc", deserialized.getHeaders().getFirst("X-Trace"));
+            assertEquals(new TestRecord("hello", 42), deserialized.getBody());
+
+            // Not concrete, so written with default typing in both modes.
+            Object polymorphic = List.of(new TestPojo("p", 3), new TestRecord("r", 4));
+            var list = (List<?>) codec.deserializeFromBytes(codec.serializeToBytes(polymorphic), Object.class);
+            assertEquals("p", assertInstanceOf(TestPojo.class, list.get(0)).name);
+            assertEquals(new TestRecord("r", 4), list.get(1));
+        }
+    }
 }
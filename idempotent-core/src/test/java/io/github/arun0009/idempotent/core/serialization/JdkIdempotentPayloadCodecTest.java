@@ -6,6 +6,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Serializable;
 import java.util.List;
 
@@ -62,6 +64,21 @@ class JdkIdempotentPayloadCodecTest {
         assertEquals(List.of("a=1", "b=2"), re.getHeaders().get("Set-Cookie"));
     }
 
+    @Test
+    void streamsRoundTripAndStayOpen() {
+        var original = new TestRecord("stream", 7);
+        var out = new ByteArrayOutputStream();
+        out.write('#');
+        codec.serialize(original, out);
+        out.write('#');
+
+        byte[] written = out.toByteArray();
+        var in = new ByteArrayInputStream(written, 1, written.length - 1);
+        assertEquals(original, codec.deserialize(in, TestRecord.class));
+        assertEquals('#', in.read());
+        assertEquals(written.length - 2, codec.serializeToBytes(original).length);
+    }
+
     @Test
     void nonSerializableThrows() {
         record NotSerializable(String name) {}
@@ -0,0 +1,63 @@
+package io.github.arun0009.idempotent.core.serialization;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PayloadBufferTest {
+
+    @Test
+    void growsPastInitialCapacity() throws IOException {
+        var buffer = PayloadBuffer.acquire();
+        try {
+            byte[] data = new byte[5_000];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) i;
+            }
+            buffer.write(data, 0, 3_000);
+            buffer.write(data, 3_000, 2_000);
+
+            assertEquals(5_000, buffer.size());
+            assertArrayEquals(data, buffer.toByteArray());
+            assertArrayEquals(data, buffer.asInputStream().readAllBytes());
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    void byteBufferViewIsReadOnlyAndBounded() {
+        var buffer = PayloadBuffer.acquire();
+        try {
+            buffer.write(new byte[] {1, 2, 3}, 0, 3);
+
+            ByteBuffer view = buffer.asByteBuffer();
+            assertEquals(0, view.position());
+            assertEquals(3, view.remaining());
+            assertEquals(3, view.get(2));
+            assertThrows(ReadOnlyBufferException.class, () -> view.put(0, (byte) 9));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    void releasedBufferComesBackEmpty() {
+        var buffer = PayloadBuffer.acquire();
+        buffer.write(42);
+        buffer.release();
+
+        var reused = PayloadBuffer.acquire();
+        try {
+            assertEquals(0, reused.size());
+        } finally {
+            reused.release();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package io.github.arun0009.idempotent.core.serialization;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecordIdempotentPayloadCodecTest {
+
+    private final JacksonIdempotentPayloadCodec json =
+            new JacksonIdempotentPayloadCodec(IdempotentJsonMapperDefaults.buildPermissiveMapper());
+    private final RecordIdempotentPayloadCodec codec = new RecordIdempotentPayloadCodec(json);
+
+    public enum Tier {
+        GOLD,
+        SILVER {
+            @Override
+            public String toString() {
+                return "silver";
+            }
+        }
+    }
+
+    public record Line(String sku, int quantity, long cents, double weight, float ratio, short s, byte b, char c) {}
+
+    public record Order(
+            String id,
+            Tier tier,
+            boolean paid,
+            List<Line> lines,
+            Set<Tier> tiers,
+            Map<String, Integer> totals,
+            Optional<String> note,
+            Object extra) {}
+
+    public record Sorted(TreeSet<String> values) {}
+
+    public static class Pojo {
+        public String name = "";
+    }
+
+    private static Order order() {
+        var line = new Line("sku-1", -3, Long.MIN_VALUE, 1.5, -0.25f, (short) -7, (byte) -1, 'é');
+        return new Order(
+                "o-1",
+                Tier.SILVER,
+                true,
+                List.of(line, line),
+                Set.of(Tier.GOLD),
+                Map.of("net", Integer.MAX_VALUE),
+                Optional.empty(),
+                Optional.of(List.of("nested", 42L)));
+    }
+
+    @Test
+    void recordGraphsRoundTrip() {
+        Order original = order();
+
+        byte[] bytes = codec.serializeToBytes(original);
+        assertEquals((byte) 0xFD, bytes[0]);
+        assertTrue(bytes.length < json.serializeToBytes(original).length);
+        assertEquals(original, codec.deserializeFromBytes(bytes, Object.class));
+        assertEquals(original, codec.deserializeFromBytes(bytes, Order.class));
+
+        String text = codec.serializeToString(original);
+        assertNotNull(text);
+        assertTrue(text.startsWith("^"));
+        assertEquals(original, codec.deserializeFromString(text, Object.class));
+    }
+
+    @Test
+    void responseEntityRoundTrips() {
+        var original = ResponseEntity.status(201)
+                .header("Set-Cookie", "a=1", "b=2")
+                .body(new Line("x", 1, 2, 3, 4, (short) 5, (byte) 6, '7'));
+
+        var deserialized =
+                (ResponseEntity<?>) codec.deserializeFromBytes(codec.serializeToBytes(original), ResponseEntity.class);
+
+        assertEquals(201, deserialized.getStatusCode().value());
+        assertEquals(List.of("a=1", "b=2"), deserialized.getHeaders().get("Set-Cookie"));
+        assertEquals(original.getBody(), deserialized.getBody());
+    }
+
+    @Test
+    void scalarsAndNullRoundTrip() {
+        for (Object original : List.of("text", 0, -1, Long.MAX_VALUE, Tier.GOLD, List.of(), Map.of(1, "one"))) {
+            assertEquals(original, codec.deserializeFromBytes(codec.serializeToBytes(original), Object.class));
+        }
+        assertNull(codec.serializeToString(null));
+        assertNull(codec.deserializeFromString(null, Object.class));
+    }
+
+    @Test
+    void unsupportedPayloadsFallBack() {
+        var pojo = new Pojo();
+        pojo.name = "p";
+        byte[] bytes = codec.serializeToBytes(pojo);
+        assertArrayEquals(json.serializeToBytes(pojo), bytes);
+        assertEquals("p", ((Pojo) codec.deserializeFromBytes(bytes, Object.class)).name);
+
+        // A record component declared as a concrete collection class cannot be rebuilt from a LinkedHashSet.
+        var sorted = new Sorted(new TreeSet<>(Set.of("b", "a")));
+        assertEquals(json.serializeToString(sorted), codec.serializeToString(sorted));
+        assertEquals(sorted, codec.deserializeFromString(codec.serializeToString(sorted), Object.class));
+
+        // So does an unsupported value nested in a supported one.
+        var nested = List.of(pojo);
+        assertArrayEquals(json.serializeToBytes(nested), codec.serializeToBytes(nested));
+    }
+
+    @Test
+    void entriesWrittenByFallbackStillDecode() {
+        var original = new Line("legacy", 1, 2, 3, 4, (short) 5, (byte) 6, '7');
+        assertEquals(original, codec.deserializeFromBytes(json.serializeToBytes(original), Object.class));
+        assertEquals(original, codec.deserializeFromString(json.serializeToString(original), Object.class));
+    }
+
+    @Test
+    void streamsMatchByteForm() {
+        Order original = order();
+        var out = new ByteArrayOutputStream();
+        codec.serialize(original, out);
+
+        assertArrayEquals(codec.serializeToBytes(original), out.toByteArray());
+        assertEquals(original, codec.deserialize(new ByteArrayInputStream(out.toByteArray()), Object.class));
+    }
+
+    @Test
+    void binaryFallbackUsesBase64OfBytes() {
+        var binary = new RecordIdempotentPayloadCodec(new JdkIdempotentPayloadCodec());
+        Order original = order();
+
+        String text = binary.serializeToString(original);
+        assertNotNull(text);
+        assertTrue(binary.isBinary());
+        assertEquals(original, binary.deserializeFromString(text, Object.class));
+    }
+
+    @Test
+    void corruptPayloadsAreRejected() {
+        byte[] bytes = codec.serializeToBytes(order());
+
+        assertThrows(
+                IdempotentPayloadCodecException.class,
+                () -> codec.deserializeFromBytes(Arrays.copyOf(bytes, bytes.length - 3), Object.class));
+        assertThrows(IdempotentPayloadCodecException.class, () -> codec.deserializeFromBytes(bytes, String.class));
+
+        byte[] pojoName = Pojo.class.getName().getBytes();
+        byte[] tampered = new byte[7 + pojoName.length];
+        System.arraycopy(new byte[] {(byte) 0xFD, 'I', 'R', 1, 12, 0, (byte) pojoName.length}, 0, tampered, 0, 7);
+        System.arraycopy(pojoName, 0, tampered, 7, pojoName.length);
+        assertThrows(IdempotentPayloadCodecException.class, () -> codec.deserializeFromBytes(tampered, Object.class));
+    }
+
+    @Test
+    void codecComposesWithCompression() {
+        var compressing = new CompressingIdempotentPayloadCodec(codec, CompressionAlgorithm.DEFLATE, 0);
+        var original = new Line("y".repeat(4_000), 1, 2, 3, 4, (short) 5, (byte) 6, '7');
+
+        byte[] bytes = compressing.serializeToBytes(original);
+        assertEquals((byte) 0xFE, bytes[0]);
+        assertEquals(original, compressing.deserializeFromBytes(bytes, Object.class));
+        assertInstanceOf(
+                Line.class, compressing.deserializeFromString(compressing.serializeToString(original), Line.class));
+    }
+}
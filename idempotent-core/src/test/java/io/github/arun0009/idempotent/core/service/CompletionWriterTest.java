@@ -0,0 +1,238 @@
+package io.github.arun0009.idempotent.core.service;
+
+import io.github.arun0009.idempotent.core.exception.IdempotentException;
+import io.github.arun0009.idempotent.core.metrics.IdempotentMetrics;
+import io.github.arun0009.idempotent.core.persistence.ExecutorAsyncIdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.InMemoryIdempotentStore;
+import io.github.arun0009.idempotent.core.retry.CompletionNotifier;
+import io.github.arun0009.idempotent.core.retry.WaitStrategy;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.COMPLETED;
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.IN_PROGRESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompletionWriterTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private final RecordingStore store = new RecordingStore();
+    private final List<CompletionWriter> writers = new ArrayList<>();
+    private final List<String> writeFailures = new CopyOnWriteArrayList<>();
+    private final IdempotentMetrics metrics = new IdempotentMetrics() {
+        @Override
+        public void record(String process, Outcome outcome, @Nullable Duration elapsed) {}
+
+        @Override
+        public void recordWriteFailure(String process) {
+            writeFailures.add(process);
+        }
+    };
+
+    @AfterEach
+    void closeWriters() {
+        var gate = store.writerGate;
+        if (gate != null) {
+            gate.countDown();
+        }
+        writers.forEach(CompletionWriter::close);
+    }
+
+    @Test
+    void asyncModeReturnsBeforeTheWriteLands() throws Exception {
+        store.writerGate = new CountDownLatch(1);
+        var service = service(writer(CompletionWriter.Mode.ASYNC, 16, 1));
+
+        assertEquals("done", service.execute("k1", "orders", () -> "done", TTL));
+        assertEquals(IN_PROGRESS, statusOf(key("k1")));
+
+        store.writerGate.countDown();
+        awaitStatus(key("k1"), COMPLETED);
+    }
+
+    @Test
+    void batchedModeGroupsWritesIntoOneUpdateAllAndRemoveAll() throws Exception {
+        var writer = writer(CompletionWriter.Mode.BATCHED, 16, 3);
+        for (String k : List.of("a", "b", "c")) {
+            store.store(key(k), inProgress());
+        }
+
+        writer.complete(key("a"), completed("ra"));
+        writer.complete(key("b"), completed("rb"));
+        writer.release(key("c"));
+
+        awaitStatus(key("b"), COMPLETED);
+        assertEquals(List.of(2), store.updateAllSizes);
+        awaitRemoved(key("c"));
+        assertEquals(0, store.singleUpdates.size());
+    }
+
+    @Test
+    void fullQueueWritesOnTheCallersThread() throws Exception {
+        store.writerGate = new CountDownLatch(1);
+        var writer = writer(CompletionWriter.Mode.ASYNC, 1, 1);
+        for (String k : List.of("a", "b", "c")) {
+            store.store(key(k), inProgress());
+        }
+
+        writer.complete(key("a"), completed("ra")); // taken by the writer thread, which blocks
+        awaitTrue(() -> store.singleUpdates.contains(key("a")));
+        writer.complete(key("b"), completed("rb")); // fills the queue
+        writer.complete(key("c"), completed("rc")); // rejected: written here
+
+        assertEquals(COMPLETED, statusOf(key("c")));
+        assertEquals(IN_PROGRESS, statusOf(key("b")));
+        store.writerGate.countDown();
+        awaitStatus(key("b"), COMPLETED);
+    }
+
+    @Test
+    void failedBackgroundWriteIsCounted() throws Exception {
+        store.failing = true;
+        var writer = writer(CompletionWriter.Mode.ASYNC, 16, 1);
+        store.store(key("a"), inProgress());
+
+        writer.complete(key("a"), completed("ra"));
+
+        awaitTrue(() -> writeFailures.equals(List.of("orders")));
+        assertEquals(IN_PROGRESS, statusOf(key("a")));
+    }
+
+    @Test
+    void closeDrainsQueuedWritesInEveryBackgroundMode() {
+        for (var mode : List.of(CompletionWriter.Mode.ASYNC, CompletionWriter.Mode.BATCHED)) {
+            var writer = writer(mode, 16, 100);
+            for (String k : List.of("a", "b", "c")) {
+                store.store(key(mode + k), inProgress());
+                writer.complete(key(mode + k), completed("r" + k));
+            }
+
+            writer.close();
+
+            for (String k : List.of("a", "b", "c")) {
+                assertEquals(COMPLETED, statusOf(key(mode + k)), mode + k);
+            }
+            store.store(key(mode + "late"), inProgress());
+            writer.complete(key(mode + "late"), completed("late"));
+            assertEquals(COMPLETED, statusOf(key(mode + "late")));
+        }
+    }
+
+    @Test
+    void leaseRequiresSyncWrites() {
+        var writer = writer(CompletionWriter.Mode.ASYNC, 16, 1);
+        try (var lease = new InProgressLease(store, Duration.ofSeconds(10), Duration.ofSeconds(3))) {
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> new IdempotentService(
+                            store,
+                            WaitStrategy.withDefaults(),
+                            metrics,
+                            CompletionNotifier.NONE,
+                            new ExecutorAsyncIdempotentStore(store, Runnable::run),
+                            lease,
+                            null,
+                            writer));
+        }
+    }
+
+    private CompletionWriter writer(CompletionWriter.Mode mode, int queueCapacity, int maxBatch) {
+        var writer = new CompletionWriter(
+                store, CompletionNotifier.NONE, metrics, mode, queueCapacity, 1, Duration.ofSeconds(10), maxBatch);
+        writers.add(writer);
+        return writer;
+    }
+
+    private IdempotentService service(CompletionWriter writer) {
+        return new IdempotentService(
+                store,
+                WaitStrategy.withDefaults(),
+                metrics,
+                CompletionNotifier.NONE,
+                new ExecutorAsyncIdempotentStore(store, Runnable::run),
+                null,
+                null,
+                writer);
+    }
+
+    private IdempotentStore.@Nullable Status statusOf(IdempotentStore.IdempotentKey key) {
+        var status = store.loadStatus(key);
+        return status == null ? null : status.status();
+    }
+
+    private void awaitStatus(IdempotentStore.IdempotentKey key, IdempotentStore.Status expected) throws Exception {
+        awaitTrue(() -> statusOf(key) == expected);
+    }
+
+    private void awaitRemoved(IdempotentStore.IdempotentKey key) throws Exception {
+        awaitTrue(() -> store.loadStatus(key) == null);
+        assertNull(store.getValue(key, Object.class));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    private static IdempotentStore.IdempotentKey key(String key) {
+        return new IdempotentStore.IdempotentKey(key, "orders");
+    }
+
+    private static IdempotentStore.Value inProgress() {
+        return new IdempotentStore.Value(IN_PROGRESS, Instant.now().plus(TTL), null);
+    }
+
+    private static IdempotentStore.Value completed(String response) {
+        return new IdempotentStore.Value(COMPLETED, Instant.now().plus(TTL), response);
+    }
+
+    /** Records writes; background writer threads can be held at a gate, and writes can fail. */
+    private static final class RecordingStore extends InMemoryIdempotentStore {
+        private final List<IdempotentStore.IdempotentKey> singleUpdates = new CopyOnWriteArrayList<>();
+        private final List<Integer> updateAllSizes = new CopyOnWriteArrayList<>();
+        private volatile @Nullable CountDownLatch writerGate;
+        private volatile boolean failing;
+
+        @Override
+        public void update(IdempotentStore.IdempotentKey key, IdempotentStore.Value value) {
+            singleUpdates.add(key);
+            var gate = writerGate;
+            if (gate != null && Thread.currentThread().getName().startsWith("idempotent-completion")) {
+                try {
+                    assertTrue(gate.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failing) {
+                throw new IdempotentException("backend down");
+            }
+            super.update(key, value);
+        }
+
+        @Override
+        public void updateAll(Map<IdempotentStore.IdempotentKey, IdempotentStore.Value> values) {
+            updateAllSizes.add(values.size());
+            values.forEach(super::update);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.arun0009.idempotent.core.service;
+
+import io.github.arun0009.idempotent.core.exception.IdempotentWaitExhaustedException;
+import io.github.arun0009.idempotent.core.metrics.IdempotentMetrics;
+import io.github.arun0009.idempotent.core.persistence.ExecutorAsyncIdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.InMemoryIdempotentStore;
+import io.github.arun0009.idempotent.core.retry.CompletionNotifier;
+import io.github.arun0009.idempotent.core.retry.WaitStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.COMPLETED;
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.IN_PROGRESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotentServiceAsyncTest {
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private final InMemoryIdempotentStore store = new InMemoryIdempotentStore();
+    private final ExecutorService storeExecutor = Executors.newFixedThreadPool(2);
+    private final IdempotentService service = new IdempotentService(
+            store,
+            new WaitStrategy(5, Duration.ofMillis(20), 2),
+            IdempotentMetrics.NOOP,
+            CompletionNotifier.NONE,
+            new ExecutorAsyncIdempotentStore(store, storeExecutor));
+
+    private static IdempotentStore.IdempotentKey key(String key) {
+        return new IdempotentStore.IdempotentKey(key, "orders");
+    }
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        storeExecutor.shutdownNow();
+        assertTrue(storeExecutor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void closeShutsDownTheAsyncStoresOwnPool() {
+        var ownPool = new ExecutorAsyncIdempotentStore(store, 1);
+        new IdempotentService(
+                        store,
+                        WaitStrategy.withDefaults(),
+                        IdempotentMetrics.NOOP,
+                        CompletionNotifier.NONE,
+                        ownPool)
+                .close();
+
+        assertThrows(RejectedExecutionException.class, () -> ownPool.getValue(key("a"), String.class));
+    }
+
+    @Test
+    void newKeyIsCompletedAndLaterCallsAreServedFromTheStore() throws Exception {
+        var executions = new AtomicInteger();
+
+        var first = service.executeAsync(
+                key("a"),
+                String.class,
+                () -> CompletableFuture.supplyAsync(() -> "result-" + executions.incrementAndGet()),
+                TTL);
+        assertEquals("result-1", first.get(5, TimeUnit.SECONDS));
+
+        var stored = store.getValue(key("a"), String.class);
+        assertNotNull(stored);
+        assertEquals(COMPLETED, stored.status());
+
+        var second = service.executeAsync(
+                key("a"),
+                String.class,
+                () -> CompletableFuture.completedFuture("result-" + executions.incrementAndGet()),
+                TTL);
+        assertEquals("result-1", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void failedStageReleasesTheKeyAndPropagatesTheCause() throws Exception {
+        var failed = service.executeAsync(
+                key("fails"),
+                String.class,
+                () -> CompletableFuture.failedFuture(new IllegalStateException("boom")),
+                TTL);
+
+        var thrown = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, thrown.getCause());
+        assertNull(store.getValue(key("fails"), String.class));
+
+        var retried = service.executeAsync(
+                key("fails"), String.class, () -> CompletableFuture.completedFuture("recovered"), TTL);
+        assertEquals("recovered", retried.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void throwingSupplierAndNon2xxResponsesAreNotCached() throws Exception {
+        var thrown = service.executeAsync(
+                key("throws"),
+                String.class,
+                () -> {
+                    throw new IllegalArgumentException("bad");
+                },
+                TTL);
+        var failure = assertThrows(ExecutionException.class, () -> thrown.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        assertNull(store.getValue(key("throws"), Object.class));
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Class<ResponseEntity<String>> type = (Class) ResponseEntity.class;
+        var rejected = service.executeAsync(
+                key("rejected"),
+                type,
+                () -> CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT).body("no")),
+                TTL);
+        var response = rejected.get(5, TimeUnit.SECONDS);
+        assertNotNull(response);
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNull(store.getValue(key("rejected"), Object.class));
+    }
+
+    @Test
+    void duplicateWaitsForTheInProgressEntryWithoutBlocking() throws Exception {
+        store.store(key("busy"), new IdempotentStore.Value(IN_PROGRESS, Instant.now().plus(TTL), null));
+
+        var waiting = service.executeAsync(
+                key("busy"), String.class, () -> CompletableFuture.completedFuture("re-executed"), TTL);
+        assertFalse(waiting.isDone());
+
+        store.update(key("busy"), new IdempotentStore.Value(COMPLETED, Instant.now().plus(TTL), "owner-result"));
+        assertEquals("owner-result", waiting.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void waitIsExhaustedWhenTheOwnerNeverCompletes() {
+        store.store(key("stuck"), new IdempotentStore.Value(IN_PROGRESS, Instant.now().plus(TTL), null));
+
+        var waiting = service.executeAsync(
+                key("stuck"), String.class, () -> CompletableFuture.completedFuture("re-executed"), TTL);
+
+        var thrown = assertThrows(ExecutionException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IdempotentWaitExhaustedException.class, thrown.getCause());
+        assertNull(store.getValue(key("stuck"), Object.class));
+    }
+}
@@ -0,0 +1,221 @@
+package io.github.arun0009.idempotent.core.service;
+
+import io.github.arun0009.idempotent.core.exception.IdempotentException;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.InMemoryIdempotentStore;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.COMPLETED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotentServiceBatchTest {
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private final CountingStore store = new CountingStore(new InMemoryIdempotentStore());
+    private final IdempotentService service = new IdempotentService(store);
+
+    private static IdempotentStore.IdempotentKey key(String key) {
+        return new IdempotentStore.IdempotentKey(key, "orders");
+    }
+
+    @Test
+    void newKeysAreClaimedAndCompletedWithOneRoundTripEach() {
+        var executions = new AtomicInteger();
+        Map<IdempotentStore.IdempotentKey, Supplier<String>> operations = new LinkedHashMap<>();
+        for (String k : List.of("a", "b", "c")) {
+            operations.put(key(k), () -> {
+                executions.incrementAndGet();
+                return "result-" + k;
+            });
+        }
+
+        var results = service.executeAll(operations, String.class, TTL);
+
+        assertEquals(List.of(key("a"), key("b"), key("c")), List.copyOf(results.keySet()));
+        assertEquals("result-b", results.get(key("b")));
+        assertEquals(3, executions.get());
+        assertEquals(1, store.batchReads.get());
+        assertEquals(1, store.batchStores.get());
+        assertEquals(1, store.batchUpdates.get());
+        assertEquals(0, store.singleCalls.get());
+
+        var again = service.executeAll(operations, String.class, TTL);
+        assertEquals(results, again);
+        assertEquals(3, executions.get());
+    }
+
+    @Test
+    void completedKeysAreServedFromTheStore() {
+        store.store(key("done"), new IdempotentStore.Value(COMPLETED, Instant.now().plus(TTL), "cached"));
+        store.singleCalls.set(0);
+        Map<IdempotentStore.IdempotentKey, Supplier<String>> operations = new LinkedHashMap<>();
+        operations.put(key("done"), () -> "re-executed");
+        operations.put(key("new"), () -> "fresh");
+
+        var results = service.executeAll(operations, String.class, TTL);
+
+        assertEquals("cached", results.get(key("done")));
+        assertEquals("fresh", results.get(key("new")));
+        assertEquals(0, store.singleCalls.get());
+    }
+
+    @Test
+    void failedOperationsAreReleasedWhileOthersArePersisted() {
+        var executions = new AtomicInteger();
+        Map<IdempotentStore.IdempotentKey, Supplier<String>> operations = new LinkedHashMap<>();
+        operations.put(key("ok"), () -> {
+            executions.incrementAndGet();
+            return "ok";
+        });
+        operations.put(key("fails"), () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        var failure = assertThrows(
+                IllegalStateException.class, () -> service.executeAll(operations, String.class, TTL));
+        assertEquals("boom", failure.getMessage());
+        assertNull(store.getValue(key("fails"), String.class));
+
+        operations.put(key("fails"), () -> "recovered");
+        var results = service.executeAll(operations, String.class, TTL);
+        assertEquals("ok", results.get(key("ok")));
+        assertEquals("recovered", results.get(key("fails")));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void failedCompletionWriteReleasesEveryClaim() {
+        Map<IdempotentStore.IdempotentKey, Supplier<String>> operations = new LinkedHashMap<>();
+        operations.put(key("ok"), () -> "ok");
+        operations.put(key("fails"), () -> {
+            throw new IllegalStateException("boom");
+        });
+        store.failUpdates = true;
+
+        var failure = assertThrows(
+                IdempotentException.class, () -> service.executeAll(operations, String.class, TTL));
+        assertEquals("backend down", failure.getMessage());
+        assertNull(store.getValue(key("ok"), String.class));
+        assertNull(store.getValue(key("fails"), String.class));
+
+        store.failUpdates = false;
+        operations.put(key("fails"), () -> "recovered");
+        var results = service.executeAll(operations, String.class, TTL);
+        assertEquals("ok", results.get(key("ok")));
+        assertEquals("recovered", results.get(key("fails")));
+    }
+
+    @Test
+    void claimedOperationsRunOnTheSuppliedExecutor() throws InterruptedException {
+        var executor = Executors.newFixedThreadPool(3);
+        try {
+            var started = new CountDownLatch(3);
+            Map<IdempotentStore.IdempotentKey, Supplier<@Nullable String>> operations = new LinkedHashMap<>();
+            for (String k : List.of("x", "y", "z")) {
+                operations.put(key(k), () -> {
+                    started.countDown();
+                    // Only completes when all three run at the same time.
+                    return awaitQuietly(started) ? k : null;
+                });
+            }
+
+            var results = service.executeAll(operations, String.class, TTL, executor);
+
+            assertEquals("x", results.get(key("x")));
+            assertEquals("z", results.get(key("z")));
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Counts batch round trips and any single-key fallbacks; completion writes can fail. */
+    private static final class CountingStore implements IdempotentStore {
+        private final IdempotentStore delegate;
+        private final AtomicInteger batchReads = new AtomicInteger();
+        private final AtomicInteger batchStores = new AtomicInteger();
+        private final AtomicInteger batchUpdates = new AtomicInteger();
+        private final AtomicInteger singleCalls = new AtomicInteger();
+        private volatile boolean failUpdates;
+
+        CountingStore(IdempotentStore delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Map<IdempotentKey, Value> loadValues(Collection<IdempotentKey> keys, Class<?> returnType) {
+            batchReads.incrementAndGet();
+            return delegate.loadValues(keys, returnType);
+        }
+
+        @Override
+        public Set<IdempotentKey> storeAll(Map<IdempotentKey, Value> values) {
+            batchStores.incrementAndGet();
+            return delegate.storeAll(values);
+        }
+
+        @Override
+        public void updateAll(Map<IdempotentKey, Value> values) {
+            batchUpdates.incrementAndGet();
+            if (failUpdates) {
+                throw new IdempotentException("backend down");
+            }
+            delegate.updateAll(values);
+        }
+
+        @Override
+        public void removeAll(Collection<IdempotentKey> keys) {
+            delegate.removeAll(keys);
+        }
+
+        @Override
+        public @Nullable Value loadValue(IdempotentKey key, Class<?> returnType) {
+            singleCalls.incrementAndGet();
+            return delegate.loadValue(key, returnType);
+        }
+
+        @Override
+        public void store(IdempotentKey key, Value value) {
+            singleCalls.incrementAndGet();
+            delegate.store(key, value);
+        }
+
+        @Override
+        public void remove(IdempotentKey key) {
+            singleCalls.incrementAndGet();
+            delegate.remove(key);
+        }
+
+        @Override
+        public void update(IdempotentKey key, Value value) {
+            singleCalls.incrementAndGet();
+            delegate.update(key, value);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package io.github.arun0009.idempotent.core.service;
+
+import io.github.arun0009.idempotent.core.metrics.IdempotentMetrics;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.InMemoryIdempotentStore;
+import io.github.arun0009.idempotent.core.retry.WaitStrategy;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotentServiceCoalescingTest {
+    private static final Duration TTL = Duration.ofMinutes(1);
+    private static final int CALLERS = 8;
+
+    private final IdempotentStore.IdempotentKey key = new IdempotentStore.IdempotentKey("order-1", "orders");
+    private final CountingStore store = new CountingStore(new InMemoryIdempotentStore());
+    private final List<IdempotentMetrics.Outcome> outcomes = new CopyOnWriteArrayList<>();
+    private final IdempotentService service = new IdempotentService(
+            store, WaitStrategy.withDefaults(), (process, outcome, elapsed) -> outcomes.add(outcome));
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneStoreClaimAndResult() throws Exception {
+        var executions = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        Supplier<String> slow = () -> {
+            executions.incrementAndGet();
+            awaitUninterruptibly(release);
+            return "done";
+        };
+        Future<@Nullable String> leader = executor.submit(call(slow));
+        waitUntilClaimed();
+
+        List<Future<@Nullable String>> followers = new ArrayList<>();
+        for (int i = 1; i < CALLERS; i++) {
+            followers.add(executor.submit(call(() -> "re-executed")));
+        }
+        Thread.sleep(50);
+        release.countDown();
+
+        assertEquals("done", leader.get(5, TimeUnit.SECONDS));
+        for (var follower : followers) {
+            assertEquals("done", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        assertEquals(0, store.inProgressSeen.get(), "no local caller should have found the key in progress");
+    }
+
+    @Test
+    void followersReceiveLeaderException() throws Exception {
+        var release = new CountDownLatch(1);
+        Supplier<String> failing = () -> failAfter(release);
+        Future<@Nullable String> leader = executor.submit(call(failing));
+        waitUntilClaimed();
+        Future<@Nullable String> follower = executor.submit(call(() -> "re-executed"));
+        Thread.sleep(50);
+        release.countDown();
+
+        var leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        var followerFailure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+        assertEquals(leaderFailure.getCause(), followerFailure.getCause());
+        assertEquals(0, store.inProgressSeen.get());
+        // Only the leader ran the operation.
+        assertEquals(1, Collections.frequency(outcomes, IdempotentMetrics.Outcome.NEW_FAILURE));
+        assertEquals(1, Collections.frequency(outcomes, IdempotentMetrics.Outcome.HIT_AFTER_WAIT));
+    }
+
+    private Callable<@Nullable String> call(Supplier<String> operation) {
+        return () -> service.execute(key, operation, TTL);
+    }
+
+    private void waitUntilClaimed() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (store.claims.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static String failAfter(CountDownLatch latch) {
+        awaitUninterruptibly(latch);
+        throw new IllegalStateException("boom");
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Counts claims, and claims that found the key in progress (i.e. were not coalesced). */
+    private static final class CountingStore implements IdempotentStore {
+        private final IdempotentStore delegate;
+        private final AtomicInteger claims = new AtomicInteger();
+        private final AtomicInteger inProgressSeen = new AtomicInteger();
+
+        CountingStore(IdempotentStore delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public @Nullable Value claimOrGet(IdempotentKey key, Value value, Class<?> returnType) {
+            claims.incrementAndGet();
+            Value existing = delegate.claimOrGet(key, value, returnType);
+            if (existing != null && existing.status() == Status.IN_PROGRESS) {
+                inProgressSeen.incrementAndGet();
+            }
+            return existing;
+        }
+
+        @Override
+        public @Nullable Value loadValue(IdempotentKey key, Class<?> returnType) {
+            return delegate.loadValue(key, returnType);
+        }
+
+        @Override
+        public void store(IdempotentKey key, Value value) {
+            delegate.store(key, value);
+        }
+
+        @Override
+        public void remove(IdempotentKey key) {
+            delegate.remove(key);
+        }
+
+        @Override
+        public void update(IdempotentKey key, Value value) {
+            delegate.update(key, value);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.arun0009.idempotent.core.service;
+
+import io.github.arun0009.idempotent.core.metrics.IdempotentMetrics;
+import io.github.arun0009.idempotent.core.persistence.ExecutorAsyncIdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.InMemoryIdempotentStore;
+import io.github.arun0009.idempotent.core.retry.CompletionNotifier;
+import io.github.arun0009.idempotent.core.retry.WaitStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.COMPLETED;
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.IN_PROGRESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotentServiceLeaseTest {
+    private static final Duration TTL = Duration.ofMinutes(1);
+    private static final IdempotentStore.IdempotentKey KEY = new IdempotentStore.IdempotentKey("order-1", "orders");
+
+    private final InMemoryIdempotentStore store = new InMemoryIdempotentStore();
+    private final IdempotentService service = new IdempotentService(
+            store,
+            new WaitStrategy(10, Duration.ofMillis(100), 1),
+            IdempotentMetrics.NOOP,
+            CompletionNotifier.NONE,
+            new ExecutorAsyncIdempotentStore(store, Runnable::run),
+            new InProgressLease(store, Duration.ofSeconds(2), Duration.ofSeconds(1)));
+
+    @AfterEach
+    void closeService() {
+        service.close();
+    }
+
+    @Test
+    void leaseIsRenewedWhileRunningAndCompletionGetsFullTtl() {
+        var result = service.execute(KEY, String.class, () -> {
+            var claimed = store.getValue(KEY, String.class);
+            assertNotNull(claimed);
+            assertTrue(claimed.expiresAt().isBefore(Instant.now().plusSeconds(3)));
+            sleep(3200);
+            // Outlived the 2s lease only because the heartbeat renewed it.
+            var renewed = store.getValue(KEY, String.class);
+            assertNotNull(renewed);
+            assertEquals(IN_PROGRESS, renewed.status());
+            return "done";
+        }, TTL);
+
+        assertEquals("done", result);
+        var completed = store.getValue(KEY, String.class);
+        assertNotNull(completed);
+        assertEquals(COMPLETED, completed.status());
+        assertTrue(completed.expiresAt().isAfter(Instant.now().plusSeconds(50)));
+    }
+
+    @Test
+    void waiterTakesOverWhenOwnerLeaseLapses() {
+        // A claim left behind by an owner that died: nothing renews it.
+        store.store(KEY, new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusMillis(300), null));
+        var executions = new AtomicInteger();
+
+        var result = service.execute(KEY, String.class, () -> "taken-over-" + executions.incrementAndGet(), TTL);
+
+        assertEquals("taken-over-1", result);
+        var completed = store.getValue(KEY, String.class);
+        assertNotNull(completed);
+        assertEquals(COMPLETED, completed.status());
+    }
+
+    @Test
+    void leaseMustBeLongerThanRenewInterval() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new InProgressLease(store, Duration.ofSeconds(1), Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void renewIntervalMustBeAtLeastOneSecond() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new InProgressLease(store, Duration.ofSeconds(2), Duration.ofMillis(500)));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import io.github.arun0009.idempotent.core.metrics.IdempotentMetrics;
 import io.github.arun0009.idempotent.core.metrics.IdempotentMetrics.Outcome;
 import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
 import io.github.arun0009.idempotent.core.persistence.InMemoryIdempotentStore;
+import io.github.arun0009.idempotent.core.retry.WaitPolicy;
 import io.github.arun0009.idempotent.core.retry.WaitStrategy;
 import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.BeforeEach;
@@ -98,6 +99,41 @@ class IdempotentServiceMetricsTest {
         assertEquals(Outcome.NEW_SUCCESS, metrics.records.get(0).outcome());
     }
 
+    @Test
+    void onlySuccessfulRunsFeedTheWaitPolicy() {
+        var recorded = new ArrayList<String>();
+        WaitStrategy defaults = WaitStrategy.withDefaults();
+        WaitPolicy policy = new WaitPolicy() {
+            @Override
+            public Schedule schedule(String processName) {
+                return defaults.schedule(processName);
+            }
+
+            @Override
+            public Duration maxWait(String processName) {
+                return defaults.maxWait(processName);
+            }
+
+            @Override
+            public void recordDuration(String processName, Duration elapsed) {
+                recorded.add(processName);
+            }
+        };
+        var policyService = new IdempotentService(store, policy, metrics);
+        assertThrows(
+                IllegalStateException.class,
+                () -> policyService.execute(
+                        key("thrown"),
+                        () -> {
+                            throw new IllegalStateException("boom");
+                        },
+                        TTL));
+        policyService.execute(key("non-2xx"), () -> ResponseEntity.internalServerError().build(), TTL);
+        assertEquals(List.of(), recorded);
+        policyService.execute(key("ok"), () -> "v", TTL);
+        assertEquals(List.of(PROCESS), recorded);
+    }
+
     private static IdempotentStore.IdempotentKey key(String key) {
         return new IdempotentStore.IdempotentKey(key, PROCESS);
     }
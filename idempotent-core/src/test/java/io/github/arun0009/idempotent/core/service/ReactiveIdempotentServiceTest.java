@@ -0,0 +1,83 @@
+package io.github.arun0009.idempotent.core.service;
+
+import io.github.arun0009.idempotent.core.exception.IdempotentWaitExhaustedException;
+import io.github.arun0009.idempotent.core.metrics.IdempotentMetrics;
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.InMemoryIdempotentStore;
+import io.github.arun0009.idempotent.core.retry.CompletionNotifier;
+import io.github.arun0009.idempotent.core.retry.WaitStrategy;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.COMPLETED;
+import static io.github.arun0009.idempotent.core.persistence.IdempotentStore.Status.IN_PROGRESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReactiveIdempotentServiceTest {
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private final InMemoryIdempotentStore store = new InMemoryIdempotentStore();
+    private final ReactiveIdempotentService service = new ReactiveIdempotentService(new IdempotentService(
+            store, new WaitStrategy(5, Duration.ofMillis(20), 2), IdempotentMetrics.NOOP, CompletionNotifier.NONE));
+
+    private static IdempotentStore.IdempotentKey key(String key) {
+        return new IdempotentStore.IdempotentKey(key, "orders");
+    }
+
+    @Test
+    void monoIsSubscribedOnceAndItsValueCached() {
+        var subscriptions = new AtomicInteger();
+        var operation = Mono.fromSupplier(() -> "receipt-" + subscriptions.incrementAndGet());
+
+        var first = service.execute(key("m"), String.class, operation, TTL);
+        assertEquals(0, subscriptions.get());
+
+        assertEquals("receipt-1", first.block(Duration.ofSeconds(5)));
+        assertEquals("receipt-1", service.execute(key("m"), String.class, operation, TTL).block(Duration.ofSeconds(5)));
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    void fluxIsCollectedAndReplayed() {
+        var subscriptions = new AtomicInteger();
+        var operation = Flux.defer(() -> {
+            subscriptions.incrementAndGet();
+            return Flux.just("a", "b", "c");
+        });
+
+        assertEquals(List.of("a", "b", "c"), service.executeMany(key("f"), operation, TTL).collectList().block());
+        assertEquals(List.of("a", "b", "c"), service.executeMany(key("f"), operation, TTL).collectList().block());
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    void errorReleasesTheKey() {
+        var failed = service.execute(key("e"), String.class, Mono.error(new IllegalStateException("boom")), TTL);
+
+        var thrown = assertThrows(IllegalStateException.class, () -> failed.block(Duration.ofSeconds(5)));
+        assertEquals("boom", thrown.getMessage());
+        assertNull(store.getValue(key("e"), Object.class));
+    }
+
+    @Test
+    void duplicateWaitsForInProgressEntryThenExhausts() throws Exception {
+        store.store(key("busy"), new IdempotentStore.Value(IN_PROGRESS, Instant.now().plus(TTL), null));
+        var waiting = service.execute(key("busy"), String.class, Mono.just("re-executed"), TTL);
+        assertThrows(IdempotentWaitExhaustedException.class, () -> waiting.block(Duration.ofSeconds(5)));
+
+        store.store(key("done"), new IdempotentStore.Value(IN_PROGRESS, Instant.now().plus(TTL), null));
+        var completing = service.execute(key("done"), String.class, Mono.just("re-executed"), TTL)
+                .toFuture();
+        store.update(key("done"), new IdempotentStore.Value(COMPLETED, Instant.now().plus(TTL), "owner"));
+        assertEquals("owner", completing.get(5, TimeUnit.SECONDS));
+    }
+}
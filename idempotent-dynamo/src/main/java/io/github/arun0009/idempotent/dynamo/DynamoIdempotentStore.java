@@ -3,23 +3,56 @@ package io.github.arun0009.idempotent.dynamo;
 import io.github.arun0009.idempotent.core.exception.IdempotentException;
 import io.github.arun0009.idempotent.core.exception.IdempotentKeyConflictException;
 import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.LazyResponse;
 import io.github.arun0009.idempotent.core.serialization.IdempotentPayloadCodec;
 import io.github.arun0009.idempotent.core.serialization.IdempotentPayloadCodecException;
 import org.jspecify.annotations.Nullable;
+import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
 import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ReadBatch;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactPutItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactWriteItemsEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
 import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Dynamo idempotent store.
+ *
+ * <p>Responses of a {@linkplain IdempotentPayloadCodec#isBinary() binary} payload codec are stored as raw bytes in
+ * the {@code responseBinary} attribute, others as text in {@code response}; reads accept either.
+ *
+ * <p>Batch reads use {@code BatchGetItem} and batch deletes {@code BatchWriteItem}. Batch inserts
+ * and updates need per-item conditions, which only {@code TransactWriteItems} supports: a
+ * transaction cancelled by failed conditions is retried without the failing items, so each key
+ * still succeeds or conflicts on its own.
  */
 public class DynamoIdempotentStore implements IdempotentStore {
+    private static final int MAX_BATCH_GET = 100;
+    private static final int MAX_BATCH_WRITE = 25;
+    private static final int MAX_TRANSACT_WRITE = 100;
+
     private final DynamoDbEnhancedClient dynamoEnhancedClient;
     private final String dynamoTableName;
     private final IdempotentPayloadCodec payloadCodec;
@@ -42,35 +75,69 @@ public class DynamoIdempotentStore implements IdempotentStore {
         return dynamoEnhancedClient.table(dynamoTableName, TableSchema.fromBean(IdempotentItem.class));
     }
 
+    private static Key toKey(IdempotentKey idempotentKey) {
+        return Key.builder()
+                .partitionValue(idempotentKey.key())
+                .sortValue(idempotentKey.processName())
+                .build();
+    }
+
     private IdempotentItem toItem(IdempotentKey idempotentKey, Value value) {
         var item = new IdempotentItem();
         item.setKey(idempotentKey.key());
         item.setProcessName(idempotentKey.processName());
         item.setStatus(value.status());
         item.setExpiresAt(value.expiresAt());
+        Object response = value.response();
+        if (response != null && payloadCodec.isBinary()) {
+            item.setResponseBinary(SdkBytes.fromByteArrayUnsafe(payloadCodec.serializeToBytes(response)));
+            return item;
+        }
         item.setResponse(
-                value.response() == null
+                response == null
                         ? ""
                         : Objects.requireNonNull(
-                                payloadCodec.serializeToString(value.response()),
-                                "Serialized response must not be null"));
+                                payloadCodec.serializeToString(response), "Serialized response must not be null"));
         return item;
     }
 
     @Override
     public @Nullable Value loadValue(IdempotentKey idempotentKey, Class<?> returnType) {
-        var dynamoKey = Key.builder()
-                .partitionValue(idempotentKey.key())
-                .sortValue(idempotentKey.processName())
-                .build();
-        var idempotentItem = getTable().getItem(dynamoKey);
+        var idempotentItem = getTable().getItem(toKey(idempotentKey));
         if (idempotentItem == null) {
             return null;
         }
+        return toValue(idempotentItem, returnType);
+    }
+
+    /**
+     * Reads the item through a key-equality query projected to {@code status} and {@code
+     * expiresAtEpochSeconds}: the enhanced {@code GetItem} cannot project, and the query matches
+     * at most the one item.
+     */
+    @Override
+    public @Nullable EntryStatus loadStatus(IdempotentKey idempotentKey) {
+        var request = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(toKey(idempotentKey)))
+                .attributesToProject("status", "expiresAtEpochSeconds")
+                .limit(1)
+                .build();
+        for (IdempotentItem item : getTable().query(request).items()) {
+            return new EntryStatus(item.getStatus(), item.getExpiresAt());
+        }
+        return null;
+    }
+
+    private Value toValue(IdempotentItem idempotentItem, Class<?> returnType) {
+        SdkBytes binaryResponse = idempotentItem.getResponseBinary();
+        if (binaryResponse != null) {
+            Object response = LazyResponse.ofBytes(payloadCodec, binaryResponse.asByteArrayUnsafe(), returnType);
+            return new Value(idempotentItem.getStatus(), idempotentItem.getExpiresAt(), response);
+        }
         String serializedResponse = idempotentItem.getResponse();
         Object response = serializedResponse == null || serializedResponse.isEmpty()
                 ? null
-                : payloadCodec.deserializeFromString(serializedResponse, returnType);
+                : LazyResponse.ofString(payloadCodec, serializedResponse, returnType);
         return new Value(idempotentItem.getStatus(), idempotentItem.getExpiresAt(), response);
     }
 
@@ -93,6 +160,44 @@ public class DynamoIdempotentStore implements IdempotentStore {
         }
     }
 
+    /**
+     * Single-request claim: the conditional put succeeds when the key is absent or expired, and on
+     * failure DynamoDB returns the blocking item via {@code ReturnValuesOnConditionCheckFailure}.
+     */
+    @Override
+    public @Nullable Value claimOrGet(IdempotentKey idempotentKey, Value value, Class<?> returnType) {
+        var table = getTable();
+        try {
+            var putRequest = PutItemEnhancedRequest.builder(IdempotentItem.class)
+                    .item(toItem(idempotentKey, value))
+                    .conditionExpression(Expression.builder()
+                            .expression("attribute_not_exists(#pk) OR #exp <= :now")
+                            .putExpressionName("#pk", "key")
+                            .putExpressionName("#exp", "expiresAtEpochSeconds")
+                            .putExpressionValue(
+                                    ":now",
+                                    AttributeValue.builder()
+                                            .n(Long.toString(Instant.now().getEpochSecond()))
+                                            .build())
+                            .build())
+                    .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                    .build();
+            table.putItem(putRequest);
+            return null;
+        } catch (ConditionalCheckFailedException e) {
+            if (e.hasItem()) {
+                return toValue(table.tableSchema().mapToItem(e.item()), returnType);
+            }
+            Value existing = getValue(idempotentKey, returnType);
+            if (existing == null) {
+                throw new IdempotentKeyConflictException("Idempotent key already exists in DynamoDB", idempotentKey);
+            }
+            return existing;
+        } catch (IdempotentPayloadCodecException e) {
+            throw new IdempotentException("Error claiming idempotent item", e);
+        }
+    }
+
     @Override
     public void remove(IdempotentKey idempotentKey) {
         getTable()
@@ -118,4 +223,117 @@ public class DynamoIdempotentStore implements IdempotentStore {
             throw new IdempotentException("Error updating idempotent item", e);
         }
     }
+
+    @Override
+    public Map<IdempotentKey, Value> loadValues(Collection<IdempotentKey> idempotentKeys, Class<?> returnType) {
+        var table = getTable();
+        Map<IdempotentKey, Value> values = new HashMap<>();
+        for (List<IdempotentKey> chunk : chunks(idempotentKeys, MAX_BATCH_GET)) {
+            var readBatch = ReadBatch.builder(IdempotentItem.class).mappedTableResource(table);
+            chunk.forEach(idempotentKey -> readBatch.addGetItem(toKey(idempotentKey)));
+            // The result pages re-request unprocessed keys until every key has been read.
+            dynamoEnhancedClient
+                    .batchGetItem(request -> request.readBatches(readBatch.build()))
+                    .resultsForTable(table)
+                    .forEach(item -> values.put(
+                            new IdempotentKey(item.getKey(), item.getProcessName()), toValue(item, returnType)));
+        }
+        return values;
+    }
+
+    @Override
+    public Set<IdempotentKey> storeAll(Map<IdempotentKey, Value> values) {
+        try {
+            return transactPut(
+                    values,
+                    Expression.builder()
+                            .expression("attribute_not_exists(#pk) AND attribute_not_exists(#sk)")
+                            .putExpressionName("#pk", "key")
+                            .putExpressionName("#sk", "processName")
+                            .build());
+        } catch (IdempotentPayloadCodecException e) {
+            throw new IdempotentException("Error storing idempotent items", e);
+        }
+    }
+
+    @Override
+    public void updateAll(Map<IdempotentKey, Value> values) {
+        try {
+            // Items whose condition fails are missing keys: skipped, never resurrected.
+            transactPut(
+                    values,
+                    Expression.builder()
+                            .expression("attribute_exists(#pk) AND attribute_exists(#sk)")
+                            .putExpressionName("#pk", "key")
+                            .putExpressionName("#sk", "processName")
+                            .build());
+        } catch (IdempotentPayloadCodecException e) {
+            throw new IdempotentException("Error updating idempotent items", e);
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<IdempotentKey> idempotentKeys) {
+        var table = getTable();
+        for (List<IdempotentKey> chunk : chunks(idempotentKeys, MAX_BATCH_WRITE)) {
+            var writeBatch = WriteBatch.builder(IdempotentItem.class).mappedTableResource(table);
+            chunk.forEach(idempotentKey -> writeBatch.addDeleteItem(toKey(idempotentKey)));
+            BatchWriteResult result =
+                    dynamoEnhancedClient.batchWriteItem(request -> request.writeBatches(writeBatch.build()));
+            // Throttled leftovers are few; delete them one by one rather than re-batching.
+            result.unprocessedDeleteItemsForTable(table).forEach(key -> table.deleteItem(key));
+        }
+    }
+
+    /**
+     * Puts every entry under {@code condition} in transactions of up to 100 items and returns the
+     * keys whose condition failed.
+     */
+    private Set<IdempotentKey> transactPut(Map<IdempotentKey, Value> values, Expression condition) {
+        var table = getTable();
+        Set<IdempotentKey> failed = new HashSet<>();
+        for (List<Map.Entry<IdempotentKey, Value>> chunk : chunks(values.entrySet(), MAX_TRANSACT_WRITE)) {
+            List<Map.Entry<IdempotentKey, Value>> pending = chunk;
+            while (!pending.isEmpty()) {
+                var request = TransactWriteItemsEnhancedRequest.builder();
+                for (var entry : pending) {
+                    request.addPutItem(
+                            table,
+                            TransactPutItemEnhancedRequest.builder(IdempotentItem.class)
+                                    .item(toItem(entry.getKey(), entry.getValue()))
+                                    .conditionExpression(condition)
+                                    .build());
+                }
+                try {
+                    dynamoEnhancedClient.transactWriteItems(request.build());
+                    break;
+                } catch (TransactionCanceledException e) {
+                    List<CancellationReason> reasons = e.cancellationReasons();
+                    List<Map.Entry<IdempotentKey, Value>> retry = new ArrayList<>();
+                    for (int i = 0; i < pending.size(); i++) {
+                        if (i < reasons.size() && "ConditionalCheckFailed".equals(reasons.get(i).code())) {
+                            failed.add(pending.get(i).getKey());
+                        } else {
+                            retry.add(pending.get(i));
+                        }
+                    }
+                    if (retry.size() == pending.size()) {
+                        // Cancelled for another reason (e.g. a conflicting transaction).
+                        throw new IdempotentException("DynamoDB transaction was cancelled", e);
+                    }
+                    pending = retry;
+                }
+            }
+        }
+        return failed;
+    }
+
+    private static <T> List<List<T>> chunks(Collection<T> items, int size) {
+        List<T> all = List.copyOf(items);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += size) {
+            chunks.add(all.subList(from, Math.min(all.size(), from + size)));
+        }
+        return chunks;
+    }
 }
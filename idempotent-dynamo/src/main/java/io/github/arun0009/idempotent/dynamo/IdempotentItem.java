@@ -2,6 +2,7 @@ package io.github.arun0009.idempotent.dynamo;
 
 import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
 import org.jspecify.annotations.Nullable;
+import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbIgnore;
@@ -14,6 +15,8 @@ import java.time.Instant;
  * DynamoDB persistence model for idempotent entries.
  *
  * <p>{@code expiresAtEpochSeconds} is the sole expiry field (epoch seconds) and is used for DynamoDB TTL.
+ * The response is held in {@code response} (string attribute) or, for binary payload codecs,
+ * {@code responseBinary} (binary attribute).
  */
 @DynamoDbBean
 public class IdempotentItem {
@@ -22,6 +25,7 @@ public class IdempotentItem {
     private IdempotentStore.Status status = IdempotentStore.Status.IN_PROGRESS;
     private Long expiresAtEpochSeconds = 0L;
     private @Nullable String response;
+    private @Nullable SdkBytes responseBinary;
 
     @DynamoDbPartitionKey
     @DynamoDbAttribute("key")
@@ -83,9 +87,25 @@ public class IdempotentItem {
         this.response = response;
     }
 
+    @DynamoDbAttribute("responseBinary")
+    public @Nullable SdkBytes getResponseBinary() {
+        return responseBinary;
+    }
+
+    public void setResponseBinary(@Nullable SdkBytes responseBinary) {
+        this.responseBinary = responseBinary;
+    }
+
     @Override
     public String toString() {
-        return "IdempotentItem{key='%s', processName='%s', status='%s', expiresAtEpochSeconds=%d, response='%s'}"
-                .formatted(key, processName, status, expiresAtEpochSeconds, response);
+        return ("IdempotentItem{key='%s', processName='%s', status='%s', expiresAtEpochSeconds=%d, response='%s', "
+                        + "responseBinary=%s}")
+                .formatted(
+                        key,
+                        processName,
+                        status,
+                        expiresAtEpochSeconds,
+                        response,
+                        responseBinary == null ? null : responseBinary.asByteBuffer().remaining() + " bytes");
     }
 }
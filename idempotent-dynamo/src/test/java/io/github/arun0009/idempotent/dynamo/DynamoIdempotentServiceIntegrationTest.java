@@ -1,5 +1,6 @@
 package io.github.arun0009.idempotent.dynamo;
 
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
 import io.github.arun0009.idempotent.core.service.IdempotentService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +19,7 @@ import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -111,6 +113,22 @@ class DynamoIdempotentServiceIntegrationTest {
         assertEquals(1, counter.get()); // Counter should not increment
     }
 
+    @Test
+    void testServiceBatchExecution() {
+        AtomicInteger counter = new AtomicInteger(0);
+        Map<IdempotentStore.IdempotentKey, Supplier<String>> operations = new LinkedHashMap<>();
+        for (String key : new String[] {"batch-1", "batch-2", "batch-3"}) {
+            operations.put(
+                    new IdempotentStore.IdempotentKey(key, "batch"), () -> key + "-" + counter.incrementAndGet());
+        }
+
+        var first = idempotentService.executeAll(operations, String.class, Duration.ofMinutes(5));
+        var second = idempotentService.executeAll(operations, String.class, Duration.ofMinutes(5));
+
+        assertEquals(3, counter.get());
+        assertEquals(first, second);
+    }
+
     @Test
     void testServiceConcurrentExecution() throws Exception {
         int executionCount = 0;
@@ -35,6 +35,11 @@ public final class MicrometerIdempotentMetrics implements IdempotentMetrics {
         incCounter("idempotent.conflicts", Tags.of("process", process));
     }
 
+    @Override
+    public void recordWriteFailure(String process) {
+        incCounter("idempotent.write.failures", Tags.of("process", process));
+    }
+
     private void incCounter(String name, Tags process) {
         registry.counter(name, process).increment();
     }
@@ -100,6 +100,16 @@ class MicrometerIdempotentMetricsTest {
         assertEquals(1.0, counter.count());
     }
 
+    @Test
+    void recordWriteFailureIncrementsDedicatedCounter() {
+        metrics.recordWriteFailure("orders");
+        metrics.recordWriteFailure("orders");
+        var counter =
+                registry.find("idempotent.write.failures").tag("process", "orders").counter();
+        assertNotNull(counter);
+        assertEquals(2.0, counter.count());
+    }
+
     @Test
     void allOutcomeEnumValuesProduceLowercaseTag() {
         for (var outcome : Outcome.values()) {
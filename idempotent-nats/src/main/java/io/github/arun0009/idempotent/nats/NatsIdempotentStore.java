@@ -17,13 +17,20 @@ import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 class NatsIdempotentStore implements IdempotentStore {
     private static final Logger log = LoggerFactory.getLogger(NatsIdempotentStore.class);
+    private static final Base64.Encoder ENCODER = Base64.getEncoder();
+    // Process names are a small fixed set, one per idempotent operation; the bound only guards
+    // against callers that make them up per request.
+    private static final int MAX_CACHED_PROCESS_NAMES = 1024;
     private final KeyValue kv;
     private final IdempotentPayloadCodec payloadCodec;
+    private final Map<String, String> encodedProcessNames = new ConcurrentHashMap<>();
 
     NatsIdempotentStore(KeyValue kv, IdempotentPayloadCodec payloadCodec) {
         this.kv = kv;
@@ -36,29 +43,51 @@ class NatsIdempotentStore implements IdempotentStore {
     }
 
     /**
-     * Encodes the provided key using Base64 encoding if it is deemed invalid, according to the
-     * validation logic defined in `Validator.notWildcardKvKey`. If the key is valid, it is returned
-     * unchanged.
+     * Builds the NATS KV key {@code key.processName}, Base64-encoding each part that is not a valid
+     * key according to {@code Validator.notWildcardKvKey}. Process names that contain a dot are
+     * encoded too, so the process name is always the last token of the key.
      *
      * @param ik the key to be validated and potentially encoded
-     * @return the original key if it is valid, otherwise the Base64-encoded version of the key
+     * @return the NATS KV key for {@code ik}
      */
     static String encodeIfNotValid(IdempotentKey ik) {
-        String key = ik.key();
-        Base64.Encoder encoder = Base64.getEncoder();
+        return encodeKey(ik.key()) + "." + encodeProcessName(ik.processName());
+    }
+
+    /** Same as {@link #encodeIfNotValid}, with the process name's encoding cached. */
+    private String natsKey(IdempotentKey ik) {
+        String processName = ik.processName();
+        String encoded = encodedProcessNames.get(processName);
+        if (encoded == null) {
+            encoded = encodeProcessName(processName);
+            if (encodedProcessNames.size() < MAX_CACHED_PROCESS_NAMES) {
+                encodedProcessNames.put(processName, encoded);
+            }
+        }
+        return encodeKey(ik.key()) + "." + encoded;
+    }
+
+    private static String encodeKey(String key) {
         if (Validator.notWildcardKvKey(key)) {
             log.atDebug().log("Key '{}' is not valid, encoding it", key);
-            key = encoder.encodeToString(key.getBytes(UTF_8));
+            return ENCODER.encodeToString(key.getBytes(UTF_8));
+        }
+        return key;
+    }
+
+    private static String encodeProcessName(String name) {
+        // Compact identifiers are valid keys as they are; method names contain dots and parentheses.
+        if (name.isEmpty() || name.indexOf('.') >= 0 || Validator.notWildcardKvKey(name)) {
+            return ENCODER.encodeToString(name.getBytes(UTF_8));
         }
-        // processName always includes characters that are not allowed
-        return key + "." + encoder.encodeToString(ik.processName().getBytes(UTF_8));
+        return name;
     }
 
     @Override
     public @Nullable Value loadValue(IdempotentKey idemKey, Class<?> returnType) {
         try {
             log.atDebug().log("Getting key {}", idemKey);
-            var key = encodeIfNotValid(idemKey);
+            var key = natsKey(idemKey);
             KeyValueEntry entry = kv.get(key);
             if (entry == null) return null;
 
@@ -82,7 +111,7 @@ class NatsIdempotentStore implements IdempotentStore {
     @Override
     public void store(IdempotentKey idemKey, Value value) {
         log.atDebug().log("Storing key {}", idemKey);
-        var key = encodeIfNotValid(idemKey);
+        var key = natsKey(idemKey);
         try {
             byte[] content = payloadCodec.serializeToBytes(value);
             MessageTtl messageTtl = fromExpiresAt(value.expiresAt());
@@ -98,11 +127,47 @@ class NatsIdempotentStore implements IdempotentStore {
         }
     }
 
+    /**
+     * Claims with {@code kv.create}; only a lost race (error 10071) pays for the extra read. A
+     * blocking entry that has already expired is removed and the create is retried once.
+     */
+    @Override
+    public @Nullable Value claimOrGet(IdempotentKey idemKey, Value value, Class<?> returnType) {
+        log.atDebug().log("Claiming key {}", idemKey);
+        var key = natsKey(idemKey);
+        byte[] content = payloadCodec.serializeToBytes(value);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            if (tryCreate(key, content, value.expiresAt())) {
+                return null;
+            }
+            Value existing = getValue(idemKey, returnType);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        throw new IdempotentKeyConflictException("NATS Key already exists: " + key, idemKey);
+    }
+
+    private boolean tryCreate(String key, byte[] content, Instant expiresAt) {
+        try {
+            kv.create(key, content, fromExpiresAt(expiresAt));
+            return true;
+        } catch (JetStreamApiException e) {
+            // Wrong last sequence, the key already exists.
+            if (e.getApiErrorCode() == 10071) {
+                return false;
+            }
+            throw new NatsIdempotentException("API error storing value in NATS", e);
+        } catch (IOException e) {
+            throw new NatsIdempotentException("Error storing value in NATS", e);
+        }
+    }
+
     @Override
     public void remove(IdempotentKey idemKey) {
         try {
             log.atDebug().log("Removing key {}", idemKey);
-            var key = encodeIfNotValid(idemKey);
+            var key = natsKey(idemKey);
             kv.delete(key);
         } catch (JetStreamApiException | IOException e) {
             throw new NatsIdempotentException("Error removing value from NATS store", e);
@@ -114,7 +179,7 @@ class NatsIdempotentStore implements IdempotentStore {
         try {
             log.atDebug().log("Updating key {} with status {}", idemKey, value.status());
             log.atTrace().log(value::toString);
-            var key = encodeIfNotValid(idemKey);
+            var key = natsKey(idemKey);
             if (kv.get(key) == null) {
                 // No-op when the key is missing: update must not resurrect a removed entry.
                 return;
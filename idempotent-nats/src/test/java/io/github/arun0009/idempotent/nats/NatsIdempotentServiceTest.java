@@ -183,6 +183,21 @@ class NatsIdempotentServiceTest {
         assertThat(stored).isNotNull().extracting(IdempotentStore.Value::status).isEqualTo(IN_PROGRESS);
     }
 
+    @Test
+    @DisplayName("claimOrGet claims a free or expired key and returns the live entry otherwise")
+    void claimOrGetClaimsFreeOrExpiredKey() {
+        var key = new IdempotentStore.IdempotentKey("claim-key", "store-test");
+        var inProgress = new IdempotentStore.Value(IN_PROGRESS, Instant.now().plusSeconds(60), null);
+
+        store.store(key, new IdempotentStore.Value(COMPLETED, Instant.now().minusSeconds(1), "stale"));
+
+        assertThat(store.claimOrGet(key, inProgress, Object.class)).isNull();
+        assertThat(store.claimOrGet(key, inProgress, Object.class))
+                .isNotNull()
+                .extracting(IdempotentStore.Value::status)
+                .isEqualTo(IN_PROGRESS);
+    }
+
     @Test
     @DisplayName("Update is a no-op when the key is missing")
     void updateIsNoOpWhenKeyIsMissing() {
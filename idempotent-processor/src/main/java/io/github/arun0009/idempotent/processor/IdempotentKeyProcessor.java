@@ -0,0 +1,141 @@
+package io.github.arun0009.idempotent.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates a {@code KeyExtractorProvider} for every class declaring {@code @Idempotent} methods,
+ * so {@code IdempotentAspect} derives keys with plain Java instead of evaluating SpEL. See {@link
+ * KeyExpressionCompiler} for the supported expressions; the rest keep using SpEL.
+ *
+ * <p>The provider for {@code com.example.OrderController} is {@code
+ * com.example.OrderController_IdempotentKeys}. The processor only references {@code
+ * idempotent-core} types by name, so it has no dependencies of its own.
+ */
+@SupportedAnnotationTypes(IdempotentKeyProcessor.IDEMPOTENT)
+public class IdempotentKeyProcessor extends AbstractProcessor {
+
+    static final String IDEMPOTENT = "io.github.arun0009.idempotent.core.annotation.Idempotent";
+
+    /** Must match {@code KeyExtractors.GENERATED_SUFFIX} in idempotent-core. */
+    static final String GENERATED_SUFFIX = "_IdempotentKeys";
+
+    private static final String KEY_EXTRACTOR = "io.github.arun0009.idempotent.core.key.KeyExtractor";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement idempotent = processingEnv.getElementUtils().getTypeElement(IDEMPOTENT);
+        if (idempotent == null) {
+            return false;
+        }
+        var compiler = new KeyExpressionCompiler(
+                processingEnv.getElementUtils(), processingEnv.getTypeUtils(), processingEnv.getMessager());
+        Map<TypeElement, Map<String, String>> extractorsByClass = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(idempotent)) {
+            if (!(element instanceof ExecutableElement method)
+                    || !(method.getEnclosingElement() instanceof TypeElement owner)) {
+                continue;
+            }
+            String expression = keyOf(method, idempotent);
+            if (expression.isEmpty()) {
+                continue;
+            }
+            PackageElement pkg = processingEnv.getElementUtils().getPackageOf(owner);
+            String extractor = compiler.compile(method, expression, pkg);
+            if (extractor != null) {
+                extractorsByClass
+                        .computeIfAbsent(owner, ignored -> new LinkedHashMap<>())
+                        .put(methodKey(method, compiler), extractor);
+            }
+        }
+        extractorsByClass.forEach(this::writeProvider);
+        return false;
+    }
+
+    private static String keyOf(ExecutableElement method, TypeElement idempotent) {
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            if (!mirror.getAnnotationType().asElement().equals(idempotent)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                    mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("key")) {
+                    return String.valueOf(entry.getValue().getValue());
+                }
+            }
+        }
+        return "";
+    }
+
+    /** Mirrors {@code KeyExtractors.methodKey(Method)}. */
+    private static String methodKey(ExecutableElement method, KeyExpressionCompiler compiler) {
+        var key = new StringBuilder(method.getSimpleName()).append('(');
+        for (int i = 0; i < method.getParameters().size(); i++) {
+            if (i > 0) {
+                key.append(',');
+            }
+            key.append(compiler.canonicalName(method.getParameters().get(i).asType()));
+        }
+        return key.append(')').toString();
+    }
+
+    private void writeProvider(TypeElement owner, Map<String, String> extractors) {
+        var elements = processingEnv.getElementUtils();
+        String packageName = elements.getPackageOf(owner).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(owner).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + GENERATED_SUFFIX;
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+        var source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"")
+                .append(IdempotentKeyProcessor.class.getName())
+                .append("\")\n")
+                .append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+                .append("public final class ")
+                .append(simpleName)
+                .append(" implements io.github.arun0009.idempotent.core.key.KeyExtractorProvider {\n\n")
+                .append("    @Override\n")
+                .append("    public java.util.Map<String, ")
+                .append(KEY_EXTRACTOR)
+                .append("> extractors() {\n")
+                .append("        java.util.Map<String, ")
+                .append(KEY_EXTRACTOR)
+                .append("> extractors = new java.util.HashMap<>();\n");
+        extractors.forEach((methodKey, extractor) -> source.append("        extractors.put(\"")
+                .append(KeyExpressionCompiler.javaString(methodKey))
+                .append("\", ")
+                .append(extractor)
+                .append(");\n"));
+        source.append("        return extractors;\n").append("    }\n").append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, owner).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            String message = "Cannot write " + qualifiedName + ": " + e.getMessage();
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, owner);
+        }
+    }
+}
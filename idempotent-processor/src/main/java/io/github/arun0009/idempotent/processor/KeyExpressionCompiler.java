@@ -0,0 +1,245 @@
+package io.github.arun0009.idempotent.processor;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * Translates the supported subset of {@code @Idempotent(key = ...)} SpEL expressions into Java
+ * source for a {@code KeyExtractor} lambda.
+ *
+ * <p>Supported are string literals ({@code 'orders'}) and property chains on a parameter ({@code
+ * #order.customer.id}), resolved like SpEL does: {@code getX()}, {@code isX()}, a record-style
+ * {@code x()} accessor, then a field. A chain naming an unknown parameter or property is a compile
+ * error. Anything else, or a chain through members the generated class cannot access, is left to
+ * SpEL at runtime.
+ */
+final class KeyExpressionCompiler {
+
+    private static final Pattern LITERAL = Pattern.compile("'((?:[^']|'')*)'");
+    private static final Pattern CHAIN =
+            Pattern.compile("#([A-Za-z_$][A-Za-z0-9_$]*)((?:\\.[A-Za-z_$][A-Za-z0-9_$]*)*)");
+    private static final Set<String> RESERVED_VARIABLES = Set.of("root", "this");
+
+    private final Elements elements;
+    private final Types types;
+    private final Messager messager;
+
+    KeyExpressionCompiler(Elements elements, Types types, Messager messager) {
+        this.elements = elements;
+        this.types = types;
+        this.messager = messager;
+    }
+
+    /**
+     * @param method     the annotated method
+     * @param expression the {@code key} attribute
+     * @param pkg        package of the generated class, used for accessibility checks
+     * @return the lambda source, or {@code null} when the method is left to SpEL (an error may have
+     * been reported)
+     */
+    @Nullable String compile(ExecutableElement method, String expression, PackageElement pkg) {
+        String trimmed = expression.trim();
+        Matcher literal = LITERAL.matcher(trimmed);
+        if (literal.matches()) {
+            return "args -> \"" + javaString(literal.group(1).replace("''", "'")) + "\"";
+        }
+        Matcher chain = CHAIN.matcher(trimmed);
+        if (!chain.matches() || RESERVED_VARIABLES.contains(chain.group(1))) {
+            note(method, "key expression '" + expression + "' is evaluated with SpEL at runtime");
+            return null;
+        }
+
+        String parameterName = chain.group(1);
+        List<? extends VariableElement> parameters = method.getParameters();
+        int index = -1;
+        for (int i = 0; i < parameters.size(); i++) {
+            if (parameters.get(i).getSimpleName().contentEquals(parameterName)) {
+                index = i;
+            }
+        }
+        if (index < 0) {
+            error(method, "key expression '" + expression + "' references unknown parameter #" + parameterName);
+            return null;
+        }
+
+        List<String> properties = new ArrayList<>();
+        for (String property : chain.group(2).split("\\.")) {
+            if (!property.isEmpty()) {
+                properties.add(property);
+            }
+        }
+        if (properties.isEmpty()) {
+            return "args -> args[" + index + "] == null ? null : args[" + index + "].toString()";
+        }
+
+        TypeMirror type = types.erasure(parameters.get(index).asType());
+        if (!accessible(type, pkg)) {
+            note(method, "parameter #" + parameterName + " is not accessible; key is evaluated with SpEL at runtime");
+            return null;
+        }
+        var body = new StringBuilder("args -> {\n");
+        body.append("            var v0 = (").append(sourceName(type)).append(") args[").append(index).append("];\n");
+        String current = "v0";
+        for (int i = 0; i < properties.size(); i++) {
+            String property = properties.get(i);
+            if (!(type instanceof DeclaredType declared)) {
+                error(method, "key expression '" + expression + "': cannot resolve property '" + property
+                        + "' on " + type);
+                return null;
+            }
+            body.append("            if (").append(current).append(" == null) {\n")
+                    .append("                return null;\n")
+                    .append("            }\n");
+            Element member = findAccessor(declared, property);
+            if (member == null) {
+                error(method, "key expression '" + expression + "': cannot resolve property '" + property
+                        + "' on " + type);
+                return null;
+            }
+            TypeMirror memberType = member instanceof ExecutableElement accessor
+                    ? ((ExecutableType) types.asMemberOf(declared, accessor)).getReturnType()
+                    : types.asMemberOf(declared, member);
+            String access = current + "." + member.getSimpleName() + (member instanceof ExecutableElement ? "()" : "");
+            if (!accessible(member, pkg) || !accessible(types.erasure(memberType), pkg)) {
+                note(method, "property '" + property + "' is not accessible; key is evaluated with SpEL at runtime");
+                return null;
+            }
+            if (i == properties.size() - 1) {
+                body.append("            Object value = ").append(access).append(";\n");
+            } else {
+                String next = "v" + (i + 1);
+                body.append("            var ").append(next).append(" = ").append(access).append(";\n");
+                current = next;
+            }
+            type = types.erasure(memberType);
+        }
+        body.append("            return value == null ? null : value.toString();\n");
+        body.append("        }");
+        return body.toString();
+    }
+
+    /** Canonical name of an erased type, matching {@code Class#getCanonicalName()} at runtime. */
+    String canonicalName(TypeMirror type) {
+        TypeMirror erased = types.erasure(type);
+        if (erased.getKind().isPrimitive()) {
+            return erased.getKind().name().toLowerCase(Locale.ROOT);
+        }
+        if (erased instanceof ArrayType array) {
+            return canonicalName(array.getComponentType()) + "[]";
+        }
+        if (erased instanceof DeclaredType declared) {
+            return ((TypeElement) declared.asElement()).getQualifiedName().toString();
+        }
+        return erased.toString();
+    }
+
+    private String sourceName(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return canonicalName(types.boxedClass((PrimitiveType) type).asType());
+        }
+        return canonicalName(type);
+    }
+
+    private @Nullable Element findAccessor(DeclaredType type, String property) {
+        var typeElement = (TypeElement) type.asElement();
+        List<? extends Element> members = elements.getAllMembers(typeElement);
+        String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        String booleanGetter = "is" + suffix;
+        for (String name : List.of("get" + suffix, booleanGetter, property)) {
+            for (ExecutableElement method : ElementFilter.methodsIn(members)) {
+                TypeKind returnKind = method.getReturnType().getKind();
+                if (method.getSimpleName().contentEquals(name)
+                        && method.getParameters().isEmpty()
+                        && !method.getModifiers().contains(Modifier.STATIC)
+                        && returnKind != TypeKind.VOID
+                        && (returnKind == TypeKind.BOOLEAN || !name.equals(booleanGetter))) {
+                    return method;
+                }
+            }
+        }
+        for (VariableElement field : ElementFilter.fieldsIn(members)) {
+            if (field.getSimpleName().contentEquals(property) && !field.getModifiers().contains(Modifier.STATIC)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private boolean accessible(TypeMirror type, PackageElement pkg) {
+        if (type instanceof ArrayType array) {
+            return accessible(array.getComponentType(), pkg);
+        }
+        if (!(type instanceof DeclaredType declared)) {
+            return true;
+        }
+        Element element = declared.asElement();
+        while (element != null && element.getKind() != ElementKind.PACKAGE) {
+            if (!accessible(element, pkg)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private boolean accessible(Element element, PackageElement pkg) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return !modifiers.contains(Modifier.PRIVATE) && elements.getPackageOf(element).equals(pkg);
+    }
+
+    private void note(Element element, String message) {
+        messager.printMessage(Diagnostic.Kind.NOTE, "@Idempotent " + message, element);
+    }
+
+    private void error(Element element, String message) {
+        messager.printMessage(Diagnostic.Kind.ERROR, "@Idempotent " + message, element);
+    }
+
+    static String javaString(String value) {
+        var out = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,4 @@
+@NullMarked
+package io.github.arun0009.idempotent.processor;
+
+import org.jspecify.annotations.NullMarked;
@@ -0,0 +1,205 @@
+package io.github.arun0009.idempotent.processor;
+
+import io.github.arun0009.idempotent.core.annotation.Idempotent;
+import io.github.arun0009.idempotent.core.key.KeyExtractor;
+import io.github.arun0009.idempotent.core.key.KeyExtractors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotentKeyProcessorTest {
+
+    private static final String ORDERS = """
+            package com.example;
+
+            import io.github.arun0009.idempotent.core.annotation.Idempotent;
+
+            public class Orders {
+                public record Customer(String id) {}
+
+                public static class Order {
+                    public final long number;
+                    private final Customer customer;
+
+                    public Order(long number, Customer customer) {
+                        this.number = number;
+                        this.customer = customer;
+                    }
+
+                    public Customer getCustomer() {
+                        return customer;
+                    }
+                }
+
+                @Idempotent(key = "#order.customer.id")
+                public String byCustomer(Order order) {
+                    return "ok";
+                }
+
+                @Idempotent(key = "#order.number")
+                public String byNumber(String ignored, Order order) {
+                    return "ok";
+                }
+
+                @Idempotent(key = "#id")
+                public String byId(int id) {
+                    return "ok";
+                }
+
+                @Idempotent(key = "'it''s fixed'")
+                public String literal() {
+                    return "ok";
+                }
+
+                @Idempotent(key = "#order.number + '-' + #suffix")
+                public String concatenated(Order order, String suffix) {
+                    return "ok";
+                }
+            }
+            """;
+
+    @TempDir
+    Path output;
+
+    @Test
+    void generatesExtractorsForSupportedExpressions() throws Exception {
+        var diagnostics = compile(Map.of("com.example.Orders", ORDERS));
+        assertTrue(errors(diagnostics).isEmpty(), () -> errors(diagnostics).toString());
+
+        try (var loader = new URLClassLoader(new URL[] {output.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> orders = loader.loadClass("com.example.Orders");
+            Class<?> customerType = loader.loadClass("com.example.Orders$Customer");
+            Class<?> orderType = loader.loadClass("com.example.Orders$Order");
+            Object customer = customerType.getConstructor(String.class).newInstance("c-7");
+            Object order = orderType.getConstructor(long.class, customerType).newInstance(42L, customer);
+
+            var byCustomer = extractor(orders.getMethod("byCustomer", orderType));
+            assertEquals("c-7", byCustomer.extract(new Object[] {order}));
+            assertNull(byCustomer.extract(new Object[] {null}));
+
+            var byNumber = extractor(orders.getMethod("byNumber", String.class, orderType));
+            assertEquals("42", byNumber.extract(new Object[] {"x", order}));
+
+            assertEquals("5", extractor(orders.getMethod("byId", int.class)).extract(new Object[] {5}));
+            assertEquals("it's fixed", extractor(orders.getMethod("literal")).extract(new Object[0]));
+            assertNull(KeyExtractors.forMethod(orders.getMethod("concatenated", orderType, String.class)));
+        }
+    }
+
+    @Test
+    void unknownPropertyOrParameterFailsTheBuild() {
+        var diagnostics = compile(Map.of("com.example.Broken", """
+                package com.example;
+
+                import io.github.arun0009.idempotent.core.annotation.Idempotent;
+
+                public class Broken {
+                    @Idempotent(key = "#name.missing")
+                    public String property(String name) {
+                        return name;
+                    }
+
+                    @Idempotent(key = "#other")
+                    public String parameter(String name) {
+                        return name;
+                    }
+                }
+                """));
+
+        List<String> errors = errors(diagnostics);
+        assertEquals(2, errors.size(), errors::toString);
+        assertTrue(errors.get(0).contains("cannot resolve property 'missing'"), errors::toString);
+        assertTrue(errors.get(1).contains("unknown parameter #other"), errors::toString);
+    }
+
+    @Test
+    void inaccessibleMembersFallBackToSpel() {
+        var diagnostics = compile(Map.of("com.example.Hidden", """
+                package com.example;
+
+                import io.github.arun0009.idempotent.core.annotation.Idempotent;
+
+                public class Hidden {
+                    private record Secret(String id) {}
+
+                    @Idempotent(key = "#request.id")
+                    String privateType(Secret request) {
+                        return "ok";
+                    }
+                }
+                """));
+
+        assertTrue(errors(diagnostics).isEmpty(), () -> errors(diagnostics).toString());
+        assertTrue(diagnostics.getDiagnostics().stream()
+                .anyMatch(d -> d.getKind() == Diagnostic.Kind.NOTE
+                        && d.getMessage(Locale.ROOT).contains("evaluated with SpEL at runtime")));
+        assertFalse(output.resolve("com/example/Hidden_IdempotentKeys.class").toFile().exists());
+    }
+
+    private static KeyExtractor extractor(Method method) {
+        KeyExtractor extractor = KeyExtractors.forMethod(method);
+        assertNotNull(extractor, "no extractor for " + method);
+        return extractor;
+    }
+
+    private DiagnosticCollector<JavaFileObject> compile(Map<String, String> sources) {
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        List<JavaFileObject> units = new ArrayList<>();
+        sources.forEach((name, code) -> units.add(new Source(name, code)));
+        var options = List.of("-d", output.toString(), "-classpath", location(Idempotent.class));
+        var task = compiler.getTask(null, null, diagnostics, options, null, units);
+        task.setProcessors(List.of(new IdempotentKeyProcessor()));
+        task.call();
+        return diagnostics;
+    }
+
+    private static List<String> errors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        return diagnostics.getDiagnostics().stream()
+                .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .map(d -> d.getMessage(Locale.ROOT))
+                .toList();
+    }
+
+    private static String location(Class<?> type) {
+        try {
+            return Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Source extends SimpleJavaFileObject {
+        private final String code;
+
+        Source(String name, String code) {
+            super(URI.create("string:///" + name.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+}
@@ -49,7 +49,8 @@ public class RdsAutoConfiguration {
             JdbcTemplate jdbcTemplate,
             RdsIdempotentProperties properties,
             IdempotentPayloadCodec idempotentPayloadCodec) {
-        return new RdsIdempotentStore(jdbcTemplate, properties.tableName(), idempotentPayloadCodec);
+        return new RdsIdempotentStore(
+                jdbcTemplate, properties.tableName(), idempotentPayloadCodec, RdsDialect.detect(jdbcTemplate));
     }
 
     @Bean
@@ -3,6 +3,7 @@ package io.github.arun0009.idempotent.rds;
 import io.github.arun0009.idempotent.core.exception.IdempotentException;
 import io.github.arun0009.idempotent.core.exception.IdempotentKeyConflictException;
 import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
+import io.github.arun0009.idempotent.core.persistence.LazyResponse;
 import io.github.arun0009.idempotent.core.serialization.IdempotentPayloadCodec;
 import io.github.arun0009.idempotent.core.serialization.IdempotentPayloadCodecException;
 import org.jspecify.annotations.Nullable;
@@ -10,21 +11,46 @@ import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * RDS idempotent store using JdbcTemplate with atomic race condition protection.
+ *
+ * <p>On PostgreSQL {@link #claimOrGet claimOrGet} is a single statement ({@code INSERT ... ON
+ * CONFLICT ... RETURNING} combined with a read of the existing row). MySQL and H2 cannot return the
+ * conflicting row from an insert, so they keep the default read-then-insert.
  */
 public class RdsIdempotentStore implements IdempotentStore {
 
+    /** Keys per multi-key statement, keeping bind parameters well below driver limits. */
+    private static final int BATCH_CHUNK = 100;
+
     private final JdbcTemplate jdbcTemplate;
     private final String tableName;
     private final IdempotentPayloadCodec payloadCodec;
+    private final RdsDialect dialect;
 
     public RdsIdempotentStore(JdbcTemplate jdbcTemplate, String tableName, IdempotentPayloadCodec payloadCodec) {
+        this(jdbcTemplate, tableName, payloadCodec, RdsDialect.detect(jdbcTemplate));
+    }
+
+    public RdsIdempotentStore(
+            JdbcTemplate jdbcTemplate, String tableName, IdempotentPayloadCodec payloadCodec, RdsDialect dialect) {
         this.jdbcTemplate = jdbcTemplate;
         this.tableName = tableName;
         this.payloadCodec = payloadCodec;
+        this.dialect = dialect;
     }
 
     @Override
@@ -34,22 +60,29 @@ public class RdsIdempotentStore implements IdempotentStore {
                 """.formatted(tableName);
         try {
             var value = jdbcTemplate.queryForObject(
-                    sql,
-                    (rs, rowNum) -> {
-                        var status = IdempotentStore.Status.valueOf(rs.getString("status"));
-                        Instant expiresAt = Instant.ofEpochMilli(rs.getLong("expires_at"));
-                        String serializedResponse = rs.getString("response");
-                        Object response = payloadCodec.deserializeFromString(serializedResponse, returnType);
-                        return new Value(status, expiresAt, response);
-                    },
-                    key.key(),
-                    key.processName());
+                    sql, (rs, rowNum) -> toValue(rs, returnType), key.key(), key.processName());
             return value;
         } catch (EmptyResultDataAccessException e) {
             return null;
         }
     }
 
+    /** Selects only {@code status} and {@code expires_at}, leaving the response column unread. */
+    @Override
+    public @Nullable EntryStatus loadStatus(IdempotentKey key) {
+        var sql = """
+                SELECT status, expires_at FROM %s WHERE key_id = ? AND process_name = ?
+                """.formatted(tableName);
+        List<EntryStatus> rows = jdbcTemplate.query(
+                sql,
+                (rs, rowNum) -> new EntryStatus(
+                        IdempotentStore.Status.valueOf(rs.getString("status")),
+                        Instant.ofEpochMilli(rs.getLong("expires_at"))),
+                key.key(),
+                key.processName());
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
     @Override
     public void store(IdempotentKey key, Value value) {
         try {
@@ -72,6 +105,63 @@ public class RdsIdempotentStore implements IdempotentStore {
         }
     }
 
+    @Override
+    public @Nullable Value claimOrGet(IdempotentKey key, Value value, Class<?> returnType) {
+        if (dialect != RdsDialect.POSTGRES) {
+            return IdempotentStore.super.claimOrGet(key, value, returnType);
+        }
+        // The CTE inserts (or replaces an expired row) and reports the claim; the outer branch reads
+        // the live row that blocked the insert, all in one round trip.
+        var sql = """
+                WITH claimed AS (
+                    INSERT INTO %1$s AS t (key_id, process_name, status, expires_at, response)
+                    VALUES (?, ?, ?, ?, ?)
+                    ON CONFLICT (key_id, process_name) DO UPDATE
+                    SET status = EXCLUDED.status, expires_at = EXCLUDED.expires_at, response = EXCLUDED.response
+                    WHERE t.expires_at <= ?
+                    RETURNING status, expires_at, response
+                )
+                SELECT status, expires_at, response, TRUE AS claimed FROM claimed
+                UNION ALL
+                SELECT status, expires_at, response, FALSE AS claimed FROM %1$s
+                WHERE key_id = ? AND process_name = ? AND NOT EXISTS (SELECT 1 FROM claimed)
+                """.formatted(tableName);
+        try {
+            var serializedResponse = payloadCodec.serializeToString(value.response());
+            var rows = jdbcTemplate.query(
+                    sql,
+                    (rs, rowNum) -> {
+                        if (rs.getBoolean("claimed")) {
+                            return Optional.<Value>empty();
+                        }
+                        var status = IdempotentStore.Status.valueOf(rs.getString("status"));
+                        Instant expiresAt = Instant.ofEpochMilli(rs.getLong("expires_at"));
+                        Object response = LazyResponse.ofString(payloadCodec, rs.getString("response"), returnType);
+                        return Optional.of(new Value(status, expiresAt, response));
+                    },
+                    key.key(),
+                    key.processName(),
+                    value.status().name(),
+                    value.expiresAt().toEpochMilli(),
+                    serializedResponse,
+                    Instant.now().toEpochMilli(),
+                    key.key(),
+                    key.processName());
+            if (!rows.isEmpty()) {
+                return rows.get(0).orElse(null);
+            }
+        } catch (IdempotentPayloadCodecException e) {
+            throw new IdempotentException("Error serializing value response", e);
+        }
+        // The blocking row was committed after this statement's snapshot was taken, so the read
+        // branch could not see it; fall back to a fresh read.
+        Value existing = getValue(key, returnType);
+        if (existing == null) {
+            throw new IdempotentKeyConflictException("Idempotent key already exists", key);
+        }
+        return existing;
+    }
+
     @Override
     public void remove(IdempotentKey key) {
         var sql = """
@@ -99,4 +189,147 @@ public class RdsIdempotentStore implements IdempotentStore {
             throw new IdempotentException("Error serializing response", e);
         }
     }
+
+    @Override
+    public Map<IdempotentKey, Value> loadValues(Collection<IdempotentKey> keys, Class<?> returnType) {
+        Map<IdempotentKey, Value> values = new HashMap<>();
+        for (List<IdempotentKey> chunk : chunks(keys)) {
+            var keyMatches =
+                    String.join(" OR ", Collections.nCopies(chunk.size(), "(key_id = ? AND process_name = ?)"));
+            var sql = """
+                    SELECT key_id, process_name, status, expires_at, response FROM %s WHERE %s
+                    """.formatted(tableName, keyMatches);
+            jdbcTemplate.query(
+                    sql,
+                    rs -> {
+                        var key = new IdempotentKey(rs.getString("key_id"), rs.getString("process_name"));
+                        values.put(key, toValue(rs, returnType));
+                    },
+                    keyParameters(chunk));
+        }
+        return values;
+    }
+
+    @Override
+    public Map<IdempotentKey, EntryStatus> loadStatuses(Collection<IdempotentKey> keys) {
+        Map<IdempotentKey, EntryStatus> statuses = new HashMap<>();
+        for (List<IdempotentKey> chunk : chunks(keys)) {
+            var keyMatches =
+                    String.join(" OR ", Collections.nCopies(chunk.size(), "(key_id = ? AND process_name = ?)"));
+            var sql = """
+                    SELECT key_id, process_name, status, expires_at FROM %s WHERE %s
+                    """.formatted(tableName, keyMatches);
+            jdbcTemplate.query(
+                    sql,
+                    rs -> {
+                        var key = new IdempotentKey(rs.getString("key_id"), rs.getString("process_name"));
+                        statuses.put(
+                                key,
+                                new EntryStatus(
+                                        IdempotentStore.Status.valueOf(rs.getString("status")),
+                                        Instant.ofEpochMilli(rs.getLong("expires_at"))));
+                    },
+                    keyParameters(chunk));
+        }
+        return statuses;
+    }
+
+    @Override
+    public Set<IdempotentKey> storeAll(Map<IdempotentKey, Value> values) {
+        if (dialect != RdsDialect.POSTGRES) {
+            return IdempotentStore.super.storeAll(values);
+        }
+        Set<IdempotentKey> conflicts = new HashSet<>(values.keySet());
+        try {
+            for (List<Map.Entry<IdempotentKey, Value>> chunk : chunks(values.entrySet())) {
+                var rows = String.join(", ", Collections.nCopies(chunk.size(), "(?, ?, ?, ?, ?)"));
+                var sql = """
+                        INSERT INTO %s (key_id, process_name, status, expires_at, response) VALUES %s
+                        ON CONFLICT (key_id, process_name) DO NOTHING
+                        RETURNING key_id, process_name
+                        """.formatted(tableName, rows);
+                List<@Nullable Object> parameters = new ArrayList<>();
+                for (Map.Entry<IdempotentKey, Value> entry : chunk) {
+                    IdempotentKey key = entry.getKey();
+                    Value value = entry.getValue();
+                    parameters.add(key.key());
+                    parameters.add(key.processName());
+                    parameters.add(value.status().name());
+                    parameters.add(value.expiresAt().toEpochMilli());
+                    parameters.add(payloadCodec.serializeToString(value.response()));
+                }
+                jdbcTemplate.query(
+                        sql,
+                        rs -> {
+                            conflicts.remove(new IdempotentKey(rs.getString("key_id"), rs.getString("process_name")));
+                        },
+                        parameters.toArray());
+            }
+        } catch (IdempotentPayloadCodecException e) {
+            throw new IdempotentException("Error serializing value response", e);
+        }
+        return conflicts;
+    }
+
+    @Override
+    public void updateAll(Map<IdempotentKey, Value> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        var sql = """
+                UPDATE %s SET status = ?, expires_at = ?, response = ?
+                WHERE key_id = ? AND process_name = ?
+                """.formatted(tableName);
+        try {
+            List<Object[]> batch = new ArrayList<>();
+            values.forEach((key, value) -> batch.add(new Object[] {
+                value.status().name(),
+                value.expiresAt().toEpochMilli(),
+                payloadCodec.serializeToString(value.response()),
+                key.key(),
+                key.processName()
+            }));
+            jdbcTemplate.batchUpdate(sql, batch);
+        } catch (IdempotentPayloadCodecException e) {
+            throw new IdempotentException("Error serializing response", e);
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<IdempotentKey> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        var sql = """
+                DELETE FROM %s WHERE key_id = ? AND process_name = ?
+                """.formatted(tableName);
+        List<Object[]> batch = new ArrayList<>();
+        keys.forEach(key -> batch.add(new Object[] {key.key(), key.processName()}));
+        jdbcTemplate.batchUpdate(sql, batch);
+    }
+
+    private Value toValue(ResultSet rs, Class<?> returnType) throws SQLException {
+        var status = IdempotentStore.Status.valueOf(rs.getString("status"));
+        Instant expiresAt = Instant.ofEpochMilli(rs.getLong("expires_at"));
+        Object response = LazyResponse.ofString(payloadCodec, rs.getString("response"), returnType);
+        return new Value(status, expiresAt, response);
+    }
+
+    private static <T> List<List<T>> chunks(Collection<T> items) {
+        List<T> all = List.copyOf(items);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += BATCH_CHUNK) {
+            chunks.add(all.subList(from, Math.min(all.size(), from + BATCH_CHUNK)));
+        }
+        return chunks;
+    }
+
+    private static Object[] keyParameters(List<IdempotentKey> keys) {
+        Object[] parameters = new Object[keys.size() * 2];
+        for (int i = 0; i < keys.size(); i++) {
+            parameters[2 * i] = keys.get(i).key();
+            parameters[2 * i + 1] = keys.get(i).processName();
+        }
+        return parameters;
+    }
 }
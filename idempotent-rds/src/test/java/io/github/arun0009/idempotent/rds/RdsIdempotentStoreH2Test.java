@@ -24,6 +24,9 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import javax.sql.DataSource;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -91,6 +94,52 @@ class RdsIdempotentStoreH2Test {
         jdbcTemplate.update("DELETE FROM idempotent");
     }
 
+    @Test
+    void testBatchOperations() {
+        IdempotentKey existing = new IdempotentKey("batch-existing", "batch-process");
+        IdempotentKey first = new IdempotentKey("batch-1", "batch-process");
+        IdempotentKey second = new IdempotentKey("batch-2", "batch-process");
+        IdempotentKey missing = new IdempotentKey("batch-missing", "batch-process");
+        Value inProgress = new Value(Status.IN_PROGRESS, Instant.now().plusMillis(10000), null);
+        idempotentStore.store(existing, inProgress);
+
+        var conflicts = idempotentStore.storeAll(Map.of(existing, inProgress, first, inProgress, second, inProgress));
+        assertEquals(Set.of(existing), conflicts);
+        assertEquals(
+                Set.of(existing, first, second),
+                idempotentStore.loadValues(List.of(existing, first, second, missing), String.class).keySet());
+
+        Value completed = new Value(Status.COMPLETED, Instant.now().plusMillis(10000), "done");
+        idempotentStore.updateAll(Map.of(first, completed, missing, completed));
+        idempotentStore.removeAll(List.of(existing, second));
+
+        var remaining = idempotentStore.getValues(List.of(existing, first, second, missing), String.class);
+        assertEquals(Set.of(first), remaining.keySet());
+        Value firstValue = remaining.get(first);
+        assertNotNull(firstValue);
+        assertEquals(completed.response(), firstValue.response());
+    }
+
+    @Test
+    void testLoadStatus() {
+        IdempotentKey key = new IdempotentKey("status-key", "test-process");
+        Instant expiresAt = Instant.ofEpochMilli(Instant.now().plusMillis(5000).toEpochMilli());
+        idempotentStore.store(key, new Value(Status.IN_PROGRESS, expiresAt, null));
+
+        assertEquals(new IdempotentStore.EntryStatus(Status.IN_PROGRESS, expiresAt), idempotentStore.loadStatus(key));
+        assertNull(idempotentStore.loadStatus(new IdempotentKey("missing", "test-process")));
+
+        IdempotentKey done = new IdempotentKey("status-done", "test-process");
+        idempotentStore.store(done, new Value(Status.COMPLETED, expiresAt, "done"));
+        var statuses = idempotentStore.loadStatuses(
+                List.of(key, done, new IdempotentKey("missing", "test-process")));
+        assertEquals(
+                Map.of(
+                        key, new IdempotentStore.EntryStatus(Status.IN_PROGRESS, expiresAt),
+                        done, new IdempotentStore.EntryStatus(Status.COMPLETED, expiresAt)),
+                statuses);
+    }
+
     @Test
     void testStoreAndGet() {
         IdempotentKey key = new IdempotentKey("test-key", "test-process");
@@ -125,6 +174,18 @@ class RdsIdempotentStoreH2Test {
         assertEquals(Status.IN_PROGRESS, retrieved.status());
     }
 
+    @Test
+    void testClaimOrGetReturnsExistingEntry() {
+        IdempotentKey key = new IdempotentKey("claim-key", "test-process");
+        Value inProgress = new Value(Status.IN_PROGRESS, Instant.now().plusMillis(10000), null);
+
+        assertNull(idempotentStore.claimOrGet(key, inProgress, String.class));
+
+        Value existing = idempotentStore.claimOrGet(key, inProgress, String.class);
+        assertNotNull(existing);
+        assertEquals(Status.IN_PROGRESS, existing.status());
+    }
+
     @Test
     void testUpdateIsNoOpWhenKeyIsMissing() {
         IdempotentKey key = new IdempotentKey("missing-key", "test-process");
@@ -17,6 +17,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -42,6 +43,32 @@ class RdsIdempotentStorePostgreSQLTest {
         jdbcTemplate.update("DELETE FROM idempotent");
     }
 
+    @Test
+    void testBatchOperations() {
+        IdempotentKey existing = new IdempotentKey("batch-existing", "batch-process");
+        IdempotentKey first = new IdempotentKey("batch-1", "batch-process");
+        IdempotentKey second = new IdempotentKey("batch-2", "batch-process");
+        IdempotentKey missing = new IdempotentKey("batch-missing", "batch-process");
+        Value inProgress = new Value(Status.IN_PROGRESS, Instant.now().plusMillis(10000), null);
+        idempotentStore.store(existing, inProgress);
+
+        var conflicts = idempotentStore.storeAll(Map.of(existing, inProgress, first, inProgress, second, inProgress));
+        assertEquals(Set.of(existing), conflicts);
+        assertEquals(
+                Set.of(existing, first, second),
+                idempotentStore.loadValues(List.of(existing, first, second, missing), Map.class).keySet());
+
+        Value completed = new Value(Status.COMPLETED, Instant.now().plusMillis(10000), Map.of("result", "done"));
+        idempotentStore.updateAll(Map.of(first, completed, missing, completed));
+        idempotentStore.removeAll(List.of(existing, second));
+
+        var remaining = idempotentStore.getValues(List.of(existing, first, second, missing), Map.class);
+        assertEquals(Set.of(first), remaining.keySet());
+        Value firstValue = remaining.get(first);
+        assertNotNull(firstValue);
+        assertEquals(completed.response(), firstValue.response());
+    }
+
     @Test
     void testStoreAndGet() {
         IdempotentKey key = new IdempotentKey("test-key", "test-process");
@@ -92,6 +119,37 @@ class RdsIdempotentStorePostgreSQLTest {
         assertEquals(Status.IN_PROGRESS, retrieved.status()); // Should still be original
     }
 
+    @Test
+    void testClaimOrGet() {
+        IdempotentKey key = new IdempotentKey("claim-key", "claim-process");
+        Value inProgress = new Value(Status.IN_PROGRESS, Instant.now().plusMillis(10000), null);
+
+        assertNull(idempotentStore.claimOrGet(key, inProgress, Map.class));
+
+        idempotentStore.update(
+                key, new Value(Status.COMPLETED, Instant.now().plusMillis(10000), Map.of("result", "claimed")));
+        Value existing = idempotentStore.claimOrGet(key, inProgress, Map.class);
+        assertNotNull(existing);
+        assertEquals(Status.COMPLETED, existing.status());
+        var response = (Map) existing.response();
+        assertNotNull(response);
+        assertEquals("claimed", response.get("result"));
+    }
+
+    @Test
+    void testClaimOrGetReplacesExpiredEntry() {
+        IdempotentKey key = new IdempotentKey("claim-expired-key", "claim-process");
+        idempotentStore.store(
+                key, new Value(Status.COMPLETED, Instant.now().minusMillis(1000), Map.of("data", "expired")));
+
+        assertNull(idempotentStore.claimOrGet(
+                key, new Value(Status.IN_PROGRESS, Instant.now().plusMillis(10000), null), Map.class));
+
+        Value retrieved = idempotentStore.getValue(key, Map.class);
+        assertNotNull(retrieved);
+        assertEquals(Status.IN_PROGRESS, retrieved.status());
+    }
+
     @Test
     void testCleanup() {
         IdempotentKey key1 = new IdempotentKey("test-key-cleanup-1", "test-process");
@@ -4,14 +4,28 @@ import io.github.arun0009.idempotent.core.exception.IdempotentKeyConflictExcepti
 import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
 import io.github.arun0009.idempotent.core.persistence.IdempotentValues;
 import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.types.Expiration;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 /**
- * Redis-backed {@link IdempotentStore}. Uses {@code SET ... NX} for strict insert and
- * {@code SET ... XX} for updates so an update never resurrects a missing key.
+ * Redis-backed {@link IdempotentStore}. Uses {@code SET ... NX} for strict insert,
+ * {@code SET ... NX GET} for claim-or-get (Redis 7.0+) and {@code SET ... XX} for updates so an
+ * update never resurrects a missing key. Batch reads use {@code MGET}; batch inserts and updates
+ * pipeline the same commands so a batch costs one round trip.
  */
 public class RedisIdempotentStore implements IdempotentStore {
 
@@ -35,6 +49,23 @@ public class RedisIdempotentStore implements IdempotentStore {
         }
     }
 
+    @Override
+    public @Nullable Value claimOrGet(IdempotentKey key, Value value, Class<?> returnType) {
+        Value existing = setIfAbsentGet(key, value);
+        if (existing == null || IdempotentValues.withoutExpired(existing, () -> remove(key)) != null) {
+            return existing;
+        }
+        // The previous entry outlived its expiresAt (PX rounding or clock skew); it was removed above,
+        // so retry the claim once against the now-free key.
+        return setIfAbsentGet(key, value);
+    }
+
+    private @Nullable Value setIfAbsentGet(IdempotentKey key, Value value) {
+        var expiration = Expiration.milliseconds(IdempotentValues.remaining(value.expiresAt()).toMillis());
+        // SET ... NX GET — inserts when absent and returns the previous value in the same round trip.
+        return redisTemplate.opsForValue().setGet(key, value, spec -> spec.ifAbsent().expiration(expiration));
+    }
+
     @Override
     public void remove(IdempotentKey key) {
         redisTemplate.delete(key);
@@ -46,4 +77,73 @@ public class RedisIdempotentStore implements IdempotentStore {
         // SET ... XX — only set when the key already exists (no-op when missing).
         redisTemplate.opsForValue().setIfPresent(key, value, timeout.toMillis(), TimeUnit.MILLISECONDS);
     }
+
+    @Override
+    public Map<IdempotentKey, Value> loadValues(Collection<IdempotentKey> keys, Class<?> returnType) {
+        List<IdempotentKey> keyList = List.copyOf(keys);
+        Map<IdempotentKey, Value> values = new HashMap<>();
+        if (keyList.isEmpty()) {
+            return values;
+        }
+        List<Value> loaded = redisTemplate.opsForValue().multiGet(keyList);
+        if (loaded == null) {
+            return values;
+        }
+        for (int i = 0; i < keyList.size(); i++) {
+            Value value = loaded.get(i);
+            if (value != null) {
+                values.put(keyList.get(i), value);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public Set<IdempotentKey> storeAll(Map<IdempotentKey, Value> values) {
+        List<IdempotentKey> keyList = List.copyOf(values.keySet());
+        List<Object> inserted = pipeline(values, (ops, entry) -> ops.opsForValue()
+                .setIfAbsent(entry.getKey(), entry.getValue(), ttl(entry.getValue())));
+        Set<IdempotentKey> conflicts = new HashSet<>();
+        for (int i = 0; i < keyList.size(); i++) {
+            if (Boolean.FALSE.equals(inserted.get(i))) {
+                conflicts.add(keyList.get(i));
+            }
+        }
+        return conflicts;
+    }
+
+    @Override
+    public void updateAll(Map<IdempotentKey, Value> values) {
+        pipeline(values, (ops, entry) -> ops.opsForValue()
+                .setIfPresent(entry.getKey(), entry.getValue(), ttl(entry.getValue())));
+    }
+
+    @Override
+    public void removeAll(Collection<IdempotentKey> keys) {
+        if (!keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    private static Duration ttl(Value value) {
+        return IdempotentValues.remaining(value.expiresAt());
+    }
+
+    /** Issues one command per entry in a single pipeline and returns the replies in entry order. */
+    private List<Object> pipeline(
+            Map<IdempotentKey, Value> values,
+            BiConsumer<RedisOperations<IdempotentKey, Value>, Map.Entry<IdempotentKey, Value>> command) {
+        if (values.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return redisTemplate.executePipelined(new SessionCallback<@Nullable Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> @Nullable Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                var ops = (RedisOperations<IdempotentKey, Value>) operations;
+                values.entrySet().forEach(entry -> command.accept(ops, entry));
+                return null;
+            }
+        });
+    }
 }
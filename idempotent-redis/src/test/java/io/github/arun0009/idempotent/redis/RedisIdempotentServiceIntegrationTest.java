@@ -1,5 +1,6 @@
 package io.github.arun0009.idempotent.redis;
 
+import io.github.arun0009.idempotent.core.persistence.IdempotentStore;
 import io.github.arun0009.idempotent.core.service.IdempotentService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +17,8 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.test.context.ContextConfiguration;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -89,6 +92,22 @@ class RedisIdempotentServiceIntegrationTest {
         assertEquals(1, counter.get()); // Counter should not increment
     }
 
+    @Test
+    void testServiceBatchExecution() {
+        AtomicInteger counter = new AtomicInteger(0);
+        Map<IdempotentStore.IdempotentKey, Supplier<String>> operations = new LinkedHashMap<>();
+        for (String key : new String[] {"batch-1", "batch-2", "batch-3"}) {
+            operations.put(
+                    new IdempotentStore.IdempotentKey(key, "batch"), () -> key + "-" + counter.incrementAndGet());
+        }
+
+        var first = idempotentService.executeAll(operations, String.class, Duration.ofMinutes(5));
+        var second = idempotentService.executeAll(operations, String.class, Duration.ofMinutes(5));
+
+        assertEquals(3, counter.get());
+        assertEquals(first, second);
+    }
+
     @Test
     void testServiceConcurrentExecution() throws Exception {
         AtomicInteger executionCount = new AtomicInteger(0);